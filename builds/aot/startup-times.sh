@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+# startup-times.sh
+# Measure snow CLI startup on the JVM with and without a class-data archive.
+#
+# Usage: builds/aot/startup-times.sh [path/to/snow.jar] [runs]
+#
+# The archive is trained with org.jcnc.snow.cli.utils.TrainingRun over the demos in playground/Demo:
+#   JDK 25+ : AOT cache      (-XX:AOTCacheOutput / -XX:AOTCache)
+#   JDK 19+ : AppCDS archive (-XX:ArchiveClassesAtExit / -XX:SharedArchiveFile)
+# Reported numbers are the median wall time of each scenario in milliseconds.
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(cd "${SCRIPT_DIR}/../.." && pwd)"
+cd "${PROJECT_ROOT}"
+
+JAR="${1:-$(ls target/snow-*.jar 2>/dev/null | head -n 1)}"
+RUNS="${2:-10}"
+if [[ -z "${JAR}" || ! -f "${JAR}" ]]; then
+    echo "snow jar not found; run 'mvn package' or pass its path" >&2
+    exit 1
+fi
+JAR="$(cd "$(dirname "${JAR}")" && pwd)/$(basename "${JAR}")"
+JAVA="${JAVA_HOME:+${JAVA_HOME}/bin/}java"
+# Standard library for the hello-world program compiled outside the project
+export SNOW_HOME="${PROJECT_ROOT}"
+JAVA_MAJOR="$("${JAVA}" -XshowSettings:properties -version 2>&1 | sed -n 's/ *java.specification.version = //p')"
+
+WORK="$(mktemp -d)"
+trap 'rm -rf "${WORK}"' EXIT
+
+# ===== Step 1: Train the archive =====
+if (( JAVA_MAJOR >= 25 )); then
+    ARCHIVE="${WORK}/snow.aot"
+    TRAIN_OPTS=(-XX:AOTCacheOutput="${ARCHIVE}")
+    USE_OPTS=(-XX:AOTCache="${ARCHIVE}")
+else
+    ARCHIVE="${WORK}/snow.jsa"
+    TRAIN_OPTS=(-XX:ArchiveClassesAtExit="${ARCHIVE}")
+    USE_OPTS=(-XX:SharedArchiveFile="${ARCHIVE}")
+fi
+echo "Training ${ARCHIVE##*/} with JDK ${JAVA_MAJOR}..."
+"${JAVA}" "${TRAIN_OPTS[@]}" -cp "${JAR}" org.jcnc.snow.cli.utils.TrainingRun \
+    < /dev/null > "${WORK}/training.log" 2>&1
+echo "Archive size: $(du -h "${ARCHIVE}" | cut -f1)"
+
+# ===== Step 2: Prepare the hello-world program =====
+mkdir -p "${WORK}/hello"
+cat > "${WORK}/hello/main.snow" <<'SNOW'
+module: Main
+    import: std_io
+    function: main
+        returns: int
+        body:
+            std_io.println("hello")
+            return 0
+        end body
+    end function
+end module
+SNOW
+"${JAVA}" -jar "${JAR}" compile "${WORK}/hello/main.snow" -o "${WORK}/hello/hello.water" > /dev/null
+
+# ===== Step 3: Time each scenario =====
+median_ms() {
+    local times=() t0 t1
+    for ((i = 0; i < RUNS; i++)); do
+        t0=$(date +%s%N)
+        "$@" > /dev/null 2>&1 < /dev/null || true
+        t1=$(date +%s%N)
+        times+=($(((t1 - t0) / 1000000)))
+    done
+    printf '%s\n' "${times[@]}" | sort -n | sed -n "$(((RUNS + 1) / 2))p"
+}
+
+scenario() {
+    local name="$1"
+    shift
+    local plain archived
+    plain=$(median_ms "${JAVA}" -jar "${JAR}" "$@")
+    archived=$(median_ms "${JAVA}" "${USE_OPTS[@]}" -jar "${JAR}" "$@")
+    printf '%-16s %10s %10s %8s\n' "${name}" "${plain}" "${archived}" \
+        "$(awk -v a="${plain}" -v b="${archived}" 'BEGIN { printf "%.2fx", a / b }')"
+}
+
+printf '%-16s %10s %10s %8s\n' "scenario" "plain ms" "${ARCHIVE##*.} ms" "speedup"
+scenario "version" version
+scenario "run hello" run "${WORK}/hello/hello.water"
+scenario "compile hello" compile "${WORK}/hello/main.snow" -o "${WORK}/hello/out.water"
@@ -0,0 +1,24 @@
+@echo off
+rem snow launcher for the JVM distribution.
+rem
+rem Layout: <SNOW_HOME>\bin\{snow.cmd, snow.jar, snow.aot|snow.jsa}, <SNOW_HOME>\lib (standard library).
+rem snow.aot (AOT cache, JDK 25+) or snow.jsa (AppCDS archive, JDK 19+) next to the jar is used when present.
+rem Extra JVM options can be passed through SNOW_JAVA_OPTS.
+setlocal
+
+set "BIN_DIR=%~dp0"
+if "%BIN_DIR:~-1%"=="\" set "BIN_DIR=%BIN_DIR:~0,-1%"
+if not defined SNOW_HOME for %%I in ("%BIN_DIR%\..") do set "SNOW_HOME=%%~fI"
+
+set "JAVA=java"
+if defined JAVA_HOME set "JAVA=%JAVA_HOME%\bin\java"
+
+set "ARCHIVE_OPTS="
+if exist "%BIN_DIR%\snow.aot" (
+    set "ARCHIVE_OPTS=-XX:+IgnoreUnrecognizedVMOptions -XX:AOTCache=%BIN_DIR%\snow.aot"
+) else if exist "%BIN_DIR%\snow.jsa" (
+    set "ARCHIVE_OPTS=-XX:SharedArchiveFile=%BIN_DIR%\snow.jsa"
+)
+
+"%JAVA%" %ARCHIVE_OPTS% %SNOW_JAVA_OPTS% "-Dsnow.home=%SNOW_HOME%" -jar "%BIN_DIR%\snow.jar" %*
+exit /b %ERRORLEVEL%
@@ -0,0 +1,97 @@
+# release-jvm.ps1
+# Build and package the platform-independent JVM distribution (snow.jar + launchers + AOT cache)
+
+$ErrorActionPreference = 'Stop'
+Set-StrictMode -Version Latest
+
+# ---------- 0. Ensure running in PowerShell 7 ----------
+if ($PSVersionTable.PSEdition -ne 'Core') {
+    Write-Host "Switching to PowerShell 7..."
+    $pwshCmd = Get-Command pwsh.exe -ErrorAction SilentlyContinue
+    if (-not $pwshCmd) {
+        throw "PowerShell 7 (pwsh) not found. Install it from https://github.com/PowerShell/PowerShell"
+    }
+    & $pwshCmd.Source -NoLogo -NoProfile -File $PSCommandPath @args
+    exit $LASTEXITCODE
+}
+
+# ---------- 1. Detect JDK (25+ is required for the AOT cache) ----------
+$jdkHome = & (Join-Path $PSScriptRoot 'tools/detect-jdk.ps1')
+Write-Host "✓ JDK detected at: $jdkHome"
+$env:JAVA_HOME = $jdkHome
+$env:Path      = ("{0}{1}{2}" -f (Join-Path $jdkHome 'bin'), [System.IO.Path]::PathSeparator, $env:Path)
+
+# ---------- 2. Detect Maven ----------
+$mvnPath = & (Join-Path $PSScriptRoot 'tools/detect-maven.ps1')
+Write-Host "Maven found: $mvnPath"
+
+. (Join-Path $PSScriptRoot 'tools/dotenv.ps1')
+
+# ---------- Step 0: Generate .env ----------
+Write-Host "Step 0: Generating .env..."
+& (Join-Path $PSScriptRoot 'tools/generate-dotenv.ps1')
+
+$projectRoot = (Get-Item $PSScriptRoot).Parent.FullName
+Push-Location $projectRoot
+
+try {
+    # ---------- Step 1: Build jar and train the AOT cache ----------
+    # The native-* profiles activate by OS and are switched off explicitly
+    Write-Host "Step 1: Running mvn clean package with the aot-cache profile..."
+    mvn -q clean package -P 'aot-cache,!native-linux,!native-windows,!native-mac'
+    if ($LASTEXITCODE -ne 0) {
+        throw "Maven build failed with exit code $LASTEXITCODE."
+    }
+
+    # ---------- Step 2: Read version ----------
+    $snowVersion = Read-DotEnvValue -FilePath (Join-Path $projectRoot '.env') -Key "SNOW_VERSION"
+    if (-not $snowVersion) { $snowVersion = "0.0.0" }
+    Write-Host "SNOW_VERSION = $snowVersion"
+
+    # ---------- Step 3: Assemble bin/ and lib/ ----------
+    $targetDir = Join-Path $projectRoot 'target'
+    $jarPath   = Join-Path $targetDir "snow-$snowVersion.jar"
+    $aotPath   = Join-Path $targetDir 'snow.aot'
+    if (-not (Test-Path $jarPath)) { throw "snow-$snowVersion.jar not found." }
+
+    $releaseRoot = Join-Path $targetDir 'release'
+    $outDirName  = "snow-v$snowVersion-jvm"
+    $outDir      = Join-Path $releaseRoot $outDirName
+    $binDir      = Join-Path $outDir 'bin'
+    $libDir      = Join-Path $outDir 'lib'
+
+    if (Test-Path $outDir) { Remove-Item $outDir -Recurse -Force }
+    New-Item $binDir -ItemType Directory -Force | Out-Null
+
+    Copy-Item $jarPath (Join-Path $binDir 'snow.jar')
+    Copy-Item (Join-Path $PSScriptRoot 'launcher/snow') $binDir
+    Copy-Item (Join-Path $PSScriptRoot 'launcher/snow.cmd') $binDir
+    if (Test-Path $aotPath) {
+        Copy-Item $aotPath (Join-Path $binDir 'snow.aot')
+    } else {
+        Write-Warning "snow.aot not produced; the package will start without an AOT cache."
+    }
+    if (-not $IsWindows) { & chmod +x (Join-Path $binDir 'snow') }
+
+    $projectLibDir = Join-Path $projectRoot 'lib'
+    if (Test-Path $projectLibDir) {
+        New-Item $libDir -ItemType Directory -Force | Out-Null
+        Copy-Item (Join-Path $projectLibDir '*') $libDir -Recurse -Force
+    }
+
+    # ---------- Step 4: Write VERSION ----------
+    Set-Content (Join-Path $outDir 'VERSION') $snowVersion
+
+    # ---------- Step 5: Package to .tgz ----------
+    $tgzPath = Join-Path $releaseRoot "$outDirName.tgz"
+    if (Test-Path $tgzPath) { Remove-Item $tgzPath -Force }
+    & tar -C $outDir -czf $tgzPath .
+    if ($LASTEXITCODE -ne 0) { throw "tar exited with code $LASTEXITCODE" }
+} finally {
+    Pop-Location
+}
+
+Write-Host ">>> Package ready!" -ForegroundColor Green
+Write-Host "Version : $snowVersion"
+Write-Host "Output  : $outDir"
+Write-Host "Tgz     : $tgzPath"
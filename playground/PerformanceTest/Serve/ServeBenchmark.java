@@ -0,0 +1,82 @@
+// SERVE 回环压测客户端：N 个并发客户端，每个请求 = 建连 + 发送 + 接收回显 + 关闭
+// 用法: java ServeBenchmark.java [host] [port] [concurrency] [requests]
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ServeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8090;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : 20000;
+
+        byte[] payload = "ping ping ping ping".getBytes(StandardCharsets.UTF_8);
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        // 预热
+        for (int i = 0; i < 200; i++) {
+            roundTrip(host, port, payload);
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(concurrency)) {
+            for (int c = 0; c < concurrency; c++) {
+                pool.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        long t0 = System.nanoTime();
+                        try {
+                            roundTrip(host, port, payload);
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - t0;
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("requests     : %d (errors %d)%n", requests, errors.get());
+        System.out.printf("concurrency  : %d%n", concurrency);
+        System.out.printf("throughput   : %.0f req/s%n", requests / (elapsed / 1e9));
+        System.out.printf("latency p50  : %.3f ms%n", percentile(latencies, 0.50) / 1e6);
+        System.out.printf("latency p99  : %.3f ms%n", percentile(latencies, 0.99) / 1e6);
+        System.out.printf("latency max  : %.3f ms%n", latencies[requests - 1] / 1e6);
+    }
+
+    // 单次请求：建连、发送、读满回显、关闭
+    static void roundTrip(String host, int port, byte[] payload) throws Exception {
+        try (Socket s = new Socket()) {
+            s.setTcpNoDelay(true);
+            s.connect(new InetSocketAddress(host, port));
+            OutputStream out = s.getOutputStream();
+            out.write(payload);
+            out.flush();
+            InputStream in = s.getInputStream();
+            int got = 0;
+            byte[] buf = new byte[payload.length];
+            while (got < payload.length) {
+                int n = in.read(buf, got, payload.length - got);
+                if (n < 0) throw new IllegalStateException("short echo");
+                got += n;
+            }
+        }
+    }
+
+    static long percentile(long[] sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,78 @@
+package org.jcnc.snow.bench;
+
+import org.jcnc.snow.vm.engine.SyscallOpCode;
+import org.jcnc.snow.vm.engine.VMOpCode;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.jcnc.snow.bench.VmAsm.LOOP;
+
+/**
+ * 数组系统调用微基准：{@code SYSCALL} 分派加上 {@code ARR_*} 处理器本身。
+ * <p>
+ * 数组在循环前以 {@code R_PUSH} 字面量建立（16 个元素），循环内只做被测的系统调用。
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArraySyscallBenchmark {
+
+    private static final String ARRAY = "[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15]";
+
+    private VirtualMachineEngine engine;
+    private List<String> len;
+    private List<String> get;
+    private List<String> set;
+    private List<String> pushPop;
+
+    @Setup
+    public void setup() {
+        engine = new VirtualMachineEngine();
+        len = program(a -> a.op(VMOpCode.R_LOAD, 2).syscall(SyscallOpCode.ARR_LEN).op(VMOpCode.I_STORE, 3));
+        get = program(a -> a.op(VMOpCode.R_LOAD, 2).op(VMOpCode.I_PUSH, 5)
+                .syscall(SyscallOpCode.ARR_GET).op(VMOpCode.R_STORE, 3));
+        set = program(a -> a.op(VMOpCode.R_LOAD, 2).op(VMOpCode.I_PUSH, 5).op(VMOpCode.I_LOAD, 1)
+                .syscall(SyscallOpCode.ARR_SET).op(VMOpCode.I_STORE, 3));
+        pushPop = program(a -> a.op(VMOpCode.R_LOAD, 2).op(VMOpCode.I_LOAD, 1).syscall(SyscallOpCode.ARR_PUSH)
+                .op(VMOpCode.I_STORE, 3).op(VMOpCode.R_LOAD, 2).syscall(SyscallOpCode.ARR_POP).op(VMOpCode.R_STORE, 4));
+    }
+
+    private static List<String> program(Consumer<VmAsm> body) {
+        VmAsm a = new VmAsm();
+        a.op(VMOpCode.R_PUSH, ARRAY).op(VMOpCode.R_STORE, 2);
+        a.countedLoop(1, () -> body.accept(a));
+        return a.op(VMOpCode.R_LOAD, 2).op(VMOpCode.RET).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object arrLen() {
+        return engine.invoke(len, 0, LOOP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object arrGet() {
+        return engine.invoke(get, 0, LOOP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object arrSet() {
+        return engine.invoke(set, 0, LOOP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object arrPushPop() {
+        return engine.invoke(pushPop, 0, LOOP);
+    }
+}
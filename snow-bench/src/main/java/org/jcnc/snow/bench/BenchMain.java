@@ -0,0 +1,43 @@
+package org.jcnc.snow.bench;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基准入口：与 JMH 自带的 {@link Main} 相同，但默认把结果写成 JSON。
+ * <p>
+ * 未指定 {@code -rf} 时追加 {@code -rf json -rff snow-bench.json}，便于不同引擎版本的结果直接比较
+ * （如 JMH Visualizer 或脚本对比）。其余参数原样交给 JMH，例如:
+ * <pre>
+ * java -jar target/benchmarks.jar                        # 全部基准
+ * java -jar target/benchmarks.jar Interpreter -rff a.json
+ * java -jar target/benchmarks.jar -l                     # 列出基准
+ * </pre>
+ * </p>
+ */
+public final class BenchMain {
+
+    /**
+     * 默认结果文件
+     */
+    static final String DEFAULT_RESULT = "snow-bench.json";
+
+    private BenchMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> list = new ArrayList<>(Arrays.asList(args));
+        if (!list.contains("-rf")) {
+            list.add("-rf");
+            list.add("json");
+            if (!list.contains("-rff")) {
+                list.add("-rff");
+                list.add(DEFAULT_RESULT);
+            }
+        }
+        Main.main(list.toArray(new String[0]));
+    }
+}
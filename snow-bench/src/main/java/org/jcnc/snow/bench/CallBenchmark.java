@@ -0,0 +1,59 @@
+package org.jcnc.snow.bench;
+
+import org.jcnc.snow.vm.engine.VMOpCode;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.jcnc.snow.bench.VmAsm.LOOP;
+
+/**
+ * {@code CALL}/{@code RET} 微基准：栈帧与局部变量表的建立和销毁。
+ * <p>
+ * 循环体调用一个直接返回实参的叶子函数；结果为每次循环（一次调用加返回）的纳秒数，
+ * 可与 {@link InterpreterBenchmark#emptyLoop()} 对照。
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CallBenchmark {
+
+    private VirtualMachineEngine engine;
+    private List<String> call1;
+    private List<String> call3;
+
+    @Setup
+    public void setup() {
+        engine = new VirtualMachineEngine();
+        call1 = program(1);
+        call3 = program(3);
+    }
+
+    private static List<String> program(int nArgs) {
+        VmAsm a = new VmAsm();
+        a.countedLoop(1, () -> {
+            for (int i = 0; i < nArgs; i++) a.op(VMOpCode.I_LOAD, 1);
+            a.op(VMOpCode.CALL, "@leaf", nArgs).op(VMOpCode.I_STORE, 2);
+        });
+        a.op(VMOpCode.I_LOAD, 2).op(VMOpCode.RET);
+        return a.label("leaf").op(VMOpCode.I_LOAD, 0).op(VMOpCode.RET).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object callRet1() {
+        return engine.invoke(call1, 0, LOOP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object callRet3() {
+        return engine.invoke(call3, 0, LOOP);
+    }
+}
@@ -0,0 +1,91 @@
+package org.jcnc.snow.bench;
+
+import org.jcnc.snow.compiler.backend.alloc.RegisterAllocator;
+import org.jcnc.snow.compiler.backend.builder.VMCodeGenerator;
+import org.jcnc.snow.compiler.backend.builder.VMProgramBuilder;
+import org.jcnc.snow.compiler.backend.core.InstructionGenerator;
+import org.jcnc.snow.compiler.backend.generator.InstructionGeneratorProvider;
+import org.jcnc.snow.compiler.ir.builder.core.IRProgramBuilder;
+import org.jcnc.snow.compiler.ir.core.IRFunction;
+import org.jcnc.snow.compiler.ir.core.IRInstruction;
+import org.jcnc.snow.compiler.ir.core.IRProgram;
+import org.jcnc.snow.compiler.lexer.core.LexerEngine;
+import org.jcnc.snow.compiler.lexer.token.Token;
+import org.jcnc.snow.compiler.parser.ast.base.Node;
+import org.jcnc.snow.compiler.parser.context.ParserContext;
+import org.jcnc.snow.compiler.parser.core.ParserEngine;
+import org.jcnc.snow.compiler.semantic.core.SemanticAnalyzerRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 编译器各阶段基准：词法、语法、语义、IR 构建与代码生成（含寄存器分配与链接回填）。
+ * <p>
+ * 输入由 {@link SnowSource} 按函数个数生成；每个阶段的输入在 {@code @Setup} 中由前一阶段一次性产出，
+ * 因此各基准只计本阶段的耗时。均为单线程（不经过并行阶段执行器）。
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompilerBenchmark {
+
+    private static final String FILE = "bench.snow";
+
+    /**
+     * 生成模块中的函数个数
+     */
+    @Param({"20", "200"})
+    public int functions;
+
+    private String source;
+    private List<Token> tokens;
+    private List<Node> ast;
+    private IRProgram ir;
+    private List<InstructionGenerator<? extends IRInstruction>> generators;
+
+    @Setup
+    public void setup() {
+        source = SnowSource.module(functions);
+        tokens = new LexerEngine(source, FILE, false).getAllTokens();
+        ast = new ParserEngine(new ParserContext(tokens, FILE)).parse();
+        SemanticAnalyzerRunner.runSemanticAnalysis(ast, false);
+        ir = new IRProgramBuilder().buildProgram(ast);
+        generators = InstructionGeneratorProvider.defaultGenerators();
+    }
+
+    @Benchmark
+    public List<Token> lexer() {
+        return new LexerEngine(source, FILE, false).getAllTokens();
+    }
+
+    @Benchmark
+    public List<Node> parser() {
+        return new ParserEngine(new ParserContext(tokens, FILE)).parse();
+    }
+
+    @Benchmark
+    public List<Node> semantic() {
+        SemanticAnalyzerRunner.runSemanticAnalysis(ast, false);
+        return ast;
+    }
+
+    @Benchmark
+    public IRProgram ir() {
+        return new IRProgramBuilder().buildProgram(ast);
+    }
+
+    @Benchmark
+    public List<String> codegen() {
+        VMProgramBuilder out = new VMProgramBuilder();
+        for (IRFunction fn : ir.functions()) {
+            new VMCodeGenerator(new RegisterAllocator().allocate(fn), out, generators).generate(fn);
+        }
+        return out.build();
+    }
+}
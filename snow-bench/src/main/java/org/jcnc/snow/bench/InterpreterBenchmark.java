@@ -0,0 +1,89 @@
+package org.jcnc.snow.bench;
+
+import org.jcnc.snow.vm.engine.VMOpCode;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.jcnc.snow.bench.VmAsm.LOOP;
+
+/**
+ * 解释器主循环微基准：取指、译码与分派本身的开销。
+ * <p>
+ * 每个基准执行 {@link VmAsm#LOOP} 次计数循环，结果为每次循环的纳秒数；
+ * {@link #emptyLoop()} 只含循环控制（7 条指令），其余基准减去它即为循环体本身的开销。
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InterpreterBenchmark {
+
+    private VirtualMachineEngine engine;
+    private List<String> emptyLoop;
+    private List<String> arithmetic;
+    private List<String> loadStore;
+    private List<String> compareBranch;
+
+    @Setup
+    public void setup() {
+        engine = new VirtualMachineEngine();
+
+        emptyLoop = new VmAsm().countedLoop(1, () -> {
+        }).op(VMOpCode.I_LOAD, 1).op(VMOpCode.RET).build();
+
+        // acc = acc + i * 3 - 1
+        VmAsm a = new VmAsm();
+        a.op(VMOpCode.I_PUSH, 0).op(VMOpCode.I_STORE, 2);
+        a.countedLoop(1, () -> a
+                .op(VMOpCode.I_LOAD, 2).op(VMOpCode.I_LOAD, 1).op(VMOpCode.I_PUSH, 3).op(VMOpCode.I_MUL)
+                .op(VMOpCode.I_ADD).op(VMOpCode.I_PUSH, 1).op(VMOpCode.I_SUB).op(VMOpCode.I_STORE, 2));
+        arithmetic = a.op(VMOpCode.I_LOAD, 2).op(VMOpCode.RET).build();
+
+        // 两个槽位之间来回搬运
+        VmAsm m = new VmAsm();
+        m.op(VMOpCode.I_PUSH, 7).op(VMOpCode.I_STORE, 2);
+        m.countedLoop(1, () -> m
+                .op(VMOpCode.I_LOAD, 2).op(VMOpCode.I_STORE, 3)
+                .op(VMOpCode.I_LOAD, 3).op(VMOpCode.I_STORE, 2));
+        loadStore = m.op(VMOpCode.I_LOAD, 2).op(VMOpCode.RET).build();
+
+        // 一次不跳转、一次跳转的比较分支（目标均为下一条指令，只测比较与分派）
+        VmAsm c = new VmAsm();
+        c.countedLoop(1, () -> {
+            String t1 = "t1", t2 = "t2";
+            c.op(VMOpCode.I_LOAD, 1).op(VMOpCode.I_PUSH, 0).op(VMOpCode.I_CL, "@" + t1).label(t1);
+            c.op(VMOpCode.I_LOAD, 1).op(VMOpCode.I_PUSH, 0).op(VMOpCode.I_CGE, "@" + t2).label(t2);
+        });
+        compareBranch = c.op(VMOpCode.I_LOAD, 1).op(VMOpCode.RET).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object emptyLoop() {
+        return engine.invoke(emptyLoop, 0, LOOP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object arithmetic() {
+        return engine.invoke(arithmetic, 0, LOOP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object loadStore() {
+        return engine.invoke(loadStore, 0, LOOP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object compareBranch() {
+        return engine.invoke(compareBranch, 0, LOOP);
+    }
+}
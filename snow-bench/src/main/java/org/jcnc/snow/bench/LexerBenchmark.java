@@ -0,0 +1,120 @@
+package org.jcnc.snow.bench;
+
+import org.jcnc.snow.compiler.lexer.core.LexerEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 词法分析吞吐量基准，除 ops/s 外以辅助计数器报告 bytes/s（按 UTF-8 字节计）与 tokens/s。
+ * <p>
+ * 两组输入:
+ * <ul>
+ *     <li><b>corpus</b>: 仓库中的 {@code lib} 与 {@code playground} 下全部 .snow 文件
+ *         （在当前目录或上一级目录中查找，可用 {@code -Dsnow.corpus=路径1,路径2} 指定）</li>
+ *     <li><b>declare-heavy</b>: 生成的单个大文件，每行一个 {@code declare}，用于确认后置校验为线性时间</li>
+ * </ul>
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LexerBenchmark {
+
+    private static final String FILE = "bench.snow";
+
+    /**
+     * declare-heavy 输入的 declare 行数
+     */
+    private static final int DECLARES = 50_000;
+
+    @Param({"corpus", "declare-heavy"})
+    public String input;
+
+    private List<String> sources;
+    private long bytes;
+
+    /**
+     * 每次调用处理的字节数与 token 数，由 JMH 按时间折算为速率。
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Volume {
+        public long bytes;
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            tokens = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        sources = "corpus".equals(input) ? corpus() : List.of(declareHeavy(DECLARES));
+        if (sources.isEmpty()) throw new IllegalStateException("No .snow files found; set -Dsnow.corpus");
+        bytes = 0;
+        for (String s : sources) bytes += s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public long lex(Volume volume) {
+        long n = 0;
+        for (String s : sources) n += new LexerEngine(s, FILE, false).getAllTokens().size();
+        volume.bytes += bytes;
+        volume.tokens += n;
+        return n;
+    }
+
+    private static List<String> corpus() throws IOException {
+        List<Path> roots = new ArrayList<>();
+        String given = System.getProperty("snow.corpus");
+        if (given != null) {
+            for (String p : given.split(",")) roots.add(Path.of(p.trim()));
+        } else {
+            for (String name : List.of("lib", "playground")) {
+                Path p = Files.isDirectory(Path.of(name)) ? Path.of(name) : Path.of("..", name);
+                roots.add(p);
+            }
+        }
+        List<String> out = new ArrayList<>();
+        for (Path root : roots) {
+            if (!Files.exists(root)) continue;
+            try (Stream<Path> s = Files.walk(root)) {
+                s.filter(f -> f.toString().endsWith(".snow")).sorted().forEach(f -> {
+                    try {
+                        out.add(Files.readString(f, StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 生成 declare 密集的模块源码。
+     */
+    private static String declareHeavy(int declares) {
+        StringBuilder sb = new StringBuilder(declares * 40);
+        sb.append("module: bench\n    function: main\n        returns: int\n        body:\n");
+        for (int i = 0; i < declares; i++) {
+            sb.append("            declare v").append(i).append(": int = ").append(i).append(" + 1\n");
+        }
+        sb.append("            return 0\n        end body\n    end function\nend module\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package org.jcnc.snow.bench;
+
+import org.jcnc.snow.compiler.common.CompilationContext;
+import org.jcnc.snow.compiler.common.PhaseExecutor;
+import org.jcnc.snow.compiler.ir.builder.core.IRProgramBuilder;
+import org.jcnc.snow.compiler.ir.core.IRProgram;
+import org.jcnc.snow.compiler.lexer.core.LexerEngine;
+import org.jcnc.snow.compiler.parser.ast.base.Node;
+import org.jcnc.snow.compiler.parser.context.ParserContext;
+import org.jcnc.snow.compiler.parser.core.ParserEngine;
+import org.jcnc.snow.compiler.semantic.core.SemanticAnalyzerRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 语义分析与 IR 构建的并行加速基准。
+ * <p>
+ * 生成一个由 100 个模块组成的合成项目（共 10000 个函数），词法/语法分析只在 {@code @Setup} 中做一次，
+ * 然后以 {@code jobs} 个线程（1 与 4 比较即得加速比）执行函数体检查（{@code semantic}）
+ * 或检查加 IR 构建（{@code semanticAndIr}）。每次调用都在全新的 {@link CompilationContext} 中进行。
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PhaseBenchmark {
+
+    private static final int MODULES = 100;
+    private static final int FUNCTIONS_PER_MODULE = 100;
+
+    /**
+     * 阶段执行器的线程数
+     */
+    @Param({"1", "4"})
+    public int jobs;
+
+    private List<Node> ast;
+    private PhaseExecutor executor;
+    private CompilationContext.Scope scope;
+
+    @Setup
+    public void setup() {
+        ast = new ArrayList<>();
+        for (int m = 0; m < MODULES; m++) {
+            String file = "bench" + m + ".snow";
+            LexerEngine lex = new LexerEngine(module(m, FUNCTIONS_PER_MODULE), file, false);
+            ast.addAll(new ParserEngine(new ParserContext(lex.getAllTokens(), file)).parse());
+        }
+        executor = PhaseExecutor.create(jobs);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void openContext() {
+        scope = CompilationContext.open();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeContext() {
+        scope.close();
+    }
+
+    @Benchmark
+    public List<Node> semantic() {
+        SemanticAnalyzerRunner.runSemanticAnalysis(ast, false, mod -> true, executor);
+        return ast;
+    }
+
+    @Benchmark
+    public IRProgram semanticAndIr() {
+        SemanticAnalyzerRunner.runSemanticAnalysis(ast, false, mod -> true, executor);
+        return new IRProgramBuilder(executor).buildProgram(ast);
+    }
+
+    /**
+     * 生成一个模块: 每个函数含循环、分支与对同模块前一个函数的调用。
+     */
+    private static String module(int m, int functions) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("module: M").append(m).append('\n');
+        for (int f = 0; f < functions; f++) {
+            sb.append("    function: f").append(f).append('\n')
+                    .append("        params:\n")
+                    .append("            declare n: int\n")
+                    .append("        returns: int\n")
+                    .append("        body:\n")
+                    .append("            declare acc: int = n * 3 + 1\n")
+                    .append("            loop:\n")
+                    .append("                init:\n")
+                    .append("                    declare i: int = 0\n")
+                    .append("                cond:\n")
+                    .append("                    i < n\n")
+                    .append("                step:\n")
+                    .append("                    i = i + 1\n")
+                    .append("                body:\n")
+                    .append("                    if acc % 2 == 0 then\n")
+                    .append("                        acc = acc / 2 + i\n")
+                    .append("                    else\n")
+                    .append("                        acc = acc * 3 - i\n")
+                    .append("                    end if\n")
+                    .append("                end body\n")
+                    .append("            end loop\n");
+            if (f > 0) {
+                sb.append("            acc = acc + M").append(m).append(".f").append(f - 1).append("(n - 1)\n");
+            }
+            sb.append("            return acc\n")
+                    .append("        end body\n")
+                    .append("    end function\n");
+        }
+        sb.append("end module\n");
+        return sb.toString();
+    }
+}
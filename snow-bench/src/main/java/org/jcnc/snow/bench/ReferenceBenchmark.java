@@ -0,0 +1,67 @@
+package org.jcnc.snow.bench;
+
+import org.jcnc.snow.vm.engine.VMOpCode;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.jcnc.snow.bench.VmAsm.LOOP;
+
+/**
+ * 引用类指令微基准：{@code R_PUSH} 的字面量解析与 {@code R_ADD} 字符串拼接。
+ * <p>
+ * 拼接基准每次都以同一个 32 字符前缀开始，测的是单次拼接的开销而不是不断增长的字符串。
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReferenceBenchmark {
+
+    private VirtualMachineEngine engine;
+    private List<String> pushString;
+    private List<String> pushArray;
+    private List<String> concat;
+
+    @Setup
+    public void setup() {
+        engine = new VirtualMachineEngine();
+        pushString = push("\"hello, snow\"");
+        pushArray = push("[1, 2, 3, 4, 5, 6, 7, 8]");
+
+        VmAsm a = new VmAsm();
+        a.op(VMOpCode.R_PUSH, "\"" + "x".repeat(32) + "\"").op(VMOpCode.R_STORE, 2);
+        a.countedLoop(1, () -> a
+                .op(VMOpCode.R_LOAD, 2).op(VMOpCode.R_PUSH, "\"tail\"").op(VMOpCode.R_ADD).op(VMOpCode.R_STORE, 3));
+        concat = a.op(VMOpCode.R_LOAD, 3).op(VMOpCode.RET).build();
+    }
+
+    private static List<String> push(String literal) {
+        VmAsm a = new VmAsm();
+        a.countedLoop(1, () -> a.op(VMOpCode.R_PUSH, literal).op(VMOpCode.R_STORE, 2));
+        return a.op(VMOpCode.R_LOAD, 2).op(VMOpCode.RET).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object rPushString() {
+        return engine.invoke(pushString, 0, LOOP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object rPushArray() {
+        return engine.invoke(pushArray, 0, LOOP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public Object rAddConcat() {
+        return engine.invoke(concat, 0, LOOP);
+    }
+}
@@ -0,0 +1,64 @@
+package org.jcnc.snow.bench;
+
+/**
+ * 生成编译器基准的输入：单个模块、不依赖标准库，规模随函数个数线性增长。
+ * <p>
+ * 每个函数含局部变量、计数循环、if/else、算术与比较表达式，并调用前一个函数，
+ * 覆盖编译器各阶段的常见路径；输出只取决于函数个数，各次运行完全相同。
+ * </p>
+ */
+final class SnowSource {
+
+    private SnowSource() {
+    }
+
+    /**
+     * 生成含 {@code functions} 个函数（另加 main）的模块源码。
+     *
+     * @param functions 函数个数（≥ 1）
+     * @return Snow 源码
+     */
+    static String module(int functions) {
+        StringBuilder sb = new StringBuilder(functions * 640);
+        sb.append("module: bench\n");
+        for (int k = 0; k < functions; k++) {
+            sb.append("""
+                        function: f%1$d
+                            params:
+                                declare a: int
+                                declare b: int
+                            returns: int
+                            body:
+                                declare acc: int = %1$d
+                                loop:
+                                    init:
+                                        declare i: int = 0
+                                    cond:
+                                        i < a
+                                    step:
+                                        i = i + 1
+                                    body:
+                                        if i %% 3 == 0 then
+                                            acc = acc + i * b - (a / 2)
+                                        else
+                                            acc = acc - 1
+                                        end if
+                                    end body
+                                end loop
+                                return acc%2$s
+                            end body
+                        end function
+                    """.formatted(k, k == 0 ? "" : " + f" + (k - 1) + "(a, b)"));
+        }
+        sb.append("""
+                    function: main
+                        returns: void
+                        body:
+                            declare r: int = f%d(10, 2)
+                        end body
+                    end function
+                end module
+                """.formatted(functions - 1));
+        return sb.toString();
+    }
+}
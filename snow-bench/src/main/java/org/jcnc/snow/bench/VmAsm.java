@@ -0,0 +1,106 @@
+package org.jcnc.snow.bench;
+
+import org.jcnc.snow.vm.engine.VMOpCode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准用的极简 VM 汇编器：按操作码常量逐条拼出 .water 指令，并回填标签地址。
+ * <p>
+ * 只覆盖微基准需要的功能：标签以 {@code @名称} 形式出现在操作数中，{@link #build()} 时替换为地址。
+ * </p>
+ */
+final class VmAsm {
+
+    /**
+     * 解释器微基准每次调用执行的循环次数（即 {@code @OperationsPerInvocation} 的值）
+     */
+    static final int LOOP = 10_000;
+
+    private final List<String[]> code = new ArrayList<>();
+    private final Map<String, Integer> labels = new HashMap<>();
+
+    /**
+     * 在当前位置定义标签。
+     *
+     * @param name 标签名
+     * @return this
+     */
+    VmAsm label(String name) {
+        labels.put(name, code.size());
+        return this;
+    }
+
+    /**
+     * 追加一条指令。
+     *
+     * @param opcode   操作码（{@link VMOpCode} 常量）
+     * @param operands 操作数；{@code @名称} 表示标签地址
+     * @return this
+     */
+    VmAsm op(int opcode, Object... operands) {
+        String[] parts = new String[operands.length + 1];
+        parts[0] = String.valueOf(opcode);
+        for (int i = 0; i < operands.length; i++) parts[i + 1] = String.valueOf(operands[i]);
+        code.add(parts);
+        return this;
+    }
+
+    /**
+     * 追加一条系统调用指令（与编译器输出相同的 {@code 0X....} 形式）。
+     *
+     * @param syscall 系统调用号（{@code SyscallOpCode} 常量）
+     * @return this
+     */
+    VmAsm syscall(int syscall) {
+        return op(VMOpCode.SYSCALL, "0X" + Integer.toHexString(syscall).toUpperCase());
+    }
+
+    /**
+     * 生成计数循环 {@code for (slot = 0; slot < 槽位0; slot++) body}。
+     * <p>
+     * 槽位 0 为循环次数（即 {@code invoke} 的第一个实参）；循环体不得改写 {@code slot}。
+     * </p>
+     *
+     * @param slot 计数器槽位
+     * @param body 循环体
+     * @return this
+     */
+    VmAsm countedLoop(int slot, Runnable body) {
+        String head = "loop" + code.size(), end = "end" + code.size();
+        op(VMOpCode.I_PUSH, 0).op(VMOpCode.I_STORE, slot);
+        label(head);
+        op(VMOpCode.I_LOAD, slot).op(VMOpCode.I_LOAD, 0).op(VMOpCode.I_CGE, "@" + end);
+        body.run();
+        op(VMOpCode.I_LOAD, slot).op(VMOpCode.I_PUSH, 1).op(VMOpCode.I_ADD).op(VMOpCode.I_STORE, slot);
+        op(VMOpCode.JUMP, "@" + head);
+        return label(end);
+    }
+
+    /**
+     * 回填标签并输出指令行。
+     *
+     * @return 指令序列（不可变）
+     * @throws IllegalStateException 引用了未定义的标签
+     */
+    List<String> build() {
+        List<String> out = new ArrayList<>(code.size());
+        for (String[] parts : code) {
+            StringBuilder sb = new StringBuilder(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                String p = parts[i];
+                if (p.startsWith("@")) {
+                    Integer at = labels.get(p.substring(1));
+                    if (at == null) throw new IllegalStateException("Undefined label: " + p);
+                    p = String.valueOf(at);
+                }
+                sb.append(' ').append(p);
+            }
+            out.add(sb.toString());
+        }
+        return List.copyOf(out);
+    }
+}
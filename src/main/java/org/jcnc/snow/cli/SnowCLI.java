@@ -4,9 +4,13 @@ import org.jcnc.snow.cli.api.CLICommand;
 import org.jcnc.snow.cli.commands.*;
 import org.jcnc.snow.cli.utils.CLIUtils;
 import org.jcnc.snow.cli.utils.VersionUtils;
+import org.jcnc.snow.pkg.daemon.DaemonClient;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
 import java.util.function.Supplier;
 
 /**
@@ -24,23 +28,47 @@ public class SnowCLI {
     public static final String SNOW_VERSION = VersionUtils.loadVersion();
 
     /**
-     * 可用子命令名称与对应命令处理器的映射表。
+     * 可用子命令名称与对应命令处理器的映射表（按帮助输出顺序）。
      * 键为子命令名称（"compile", "run", "version"），
      * 值为返回相应 {@link CLICommand} 实例的 Supplier。
+     * <p>
+     * 命令类只在被选中时由 {@link #create(String)} 加载，
+     * 因此 {@code snow run} 等不会加载其余子命令及其依赖（编译器、包管理）。
+     * </p>
      */
-    private static final Map<String, Supplier<CLICommand>> COMMANDS = Map.of(
-            "generate", GenerateCommand::new,
-            "compile", CompileCommand::new,
-            "run", RunCommand::new,
-            "version", VersionCommand::new,
-            "init", InitCommand::new,
-            "build", BuildCommand::new,
-            "install", InstallCommand::new,
-            "publish", PublishCommand::new,
-            "clean", CleanCommand::new,
-            "test-all", TestAllCommand::new
+    private static final Map<String, Supplier<CLICommand>> COMMANDS = new LinkedHashMap<>();
 
-    );
+    static {
+        for (String name : List.of("generate", "compile", "daemon", "link", "run", "version",
+                "init", "build", "install", "publish", "clean", "test-all", "bench")) {
+            COMMANDS.put(name, () -> create(name));
+        }
+    }
+
+    /**
+     * 按名称创建子命令实例。
+     *
+     * @param name 子命令名称（须为 {@link #COMMANDS} 的键）
+     * @return 新的命令实例
+     */
+    private static CLICommand create(String name) {
+        return switch (name) {
+            case "generate" -> new GenerateCommand();
+            case "compile" -> new CompileCommand();
+            case "daemon" -> new DaemonCommand();
+            case "link" -> new LinkCommand();
+            case "run" -> new RunCommand();
+            case "version" -> new VersionCommand();
+            case "init" -> new InitCommand();
+            case "build" -> new BuildCommand();
+            case "install" -> new InstallCommand();
+            case "publish" -> new PublishCommand();
+            case "clean" -> new CleanCommand();
+            case "test-all" -> new TestAllCommand();
+            case "bench" -> new BenchCommand();
+            default -> throw new IllegalArgumentException("Unknown command: " + name);
+        };
+    }
 
     /**
      * 程序入口方法，解析并调度子命令。
@@ -52,6 +80,13 @@ public class SnowCLI {
      *             首参数为子命令名时，进一步解析该子命令的参数并执行
      */
     public static void main(String[] args) {
+        // 守护进程客户端: 转发成功则直接以其退出码结束，否则回退到本进程执行
+        if (args.length > 0 && CLIUtils.GLOBAL_DAEMON_FLAGS.contains(args[0])) {
+            args = Arrays.copyOfRange(args, 1, args.length);
+            OptionalInt code = DaemonClient.forward(args);
+            if (code.isPresent()) System.exit(code.getAsInt());
+        }
+
         // 处理全局帮助
         if (args.length == 0 || CLIUtils.GLOBAL_HELP_FLAGS.contains(args[0])) {
             CLIUtils.printGeneralUsage(COMMANDS);
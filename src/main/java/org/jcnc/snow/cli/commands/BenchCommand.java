@@ -0,0 +1,66 @@
+package org.jcnc.snow.cli.commands;
+
+import org.jcnc.snow.cli.api.CLICommand;
+import org.jcnc.snow.pkg.dsl.CloudDSLParser;
+import org.jcnc.snow.pkg.model.Project;
+import org.jcnc.snow.pkg.tasks.BenchTask;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CLI 命令: 运行项目中的 Snow 基准函数（名称以 {@code bench_} 开头、无参数），报告 ns/op 统计并与基线比较。
+ * <p>
+ * 未给出源文件或 {@code -d} 时，若存在 project.cloud 则使用其 {@code build.srcDir}（默认 src）。
+ * 实际工作委托给 {@link BenchTask}。
+ * </p>
+ *
+ * <pre>
+ * 用法示例:
+ * $ snow bench                          # 首次运行写入 build/bench/baseline.json
+ * $ snow bench --threshold 5            # 之后与基线比较，慢 5% 以上即失败
+ * $ snow bench --filter sort --iterations 500 -d src
+ * </pre>
+ */
+public final class BenchCommand implements CLICommand {
+
+    @Override
+    public String name() {
+        return "bench";
+    }
+
+    @Override
+    public String description() {
+        return "Run bench_* functions in the VM, report ns/op statistics and compare with a baseline.";
+    }
+
+    @Override
+    public void printUsage() {
+        System.out.println("Usage:");
+        System.out.println("  snow bench [options] [-d <srcDir>] [file1.snow …]");
+        System.out.println("Options:");
+        System.out.println("  -d <srcDir>          benchmark every .snow file in the directory (default: src, or build.srcDir)");
+        System.out.println("  --warmup <N>         untimed calls per benchmark before measuring (default " + BenchTask.DEFAULT_WARMUP + ")");
+        System.out.println("  --iterations <N>     timed calls per benchmark (default " + BenchTask.DEFAULT_ITERATIONS + ")");
+        System.out.println("  --filter <text>      only run benchmarks whose qualified name contains <text>");
+        System.out.println("  --baseline <file>    baseline file (default build/bench/baseline.json)");
+        System.out.println("  --save-baseline      overwrite the baseline with this run instead of comparing");
+        System.out.println("  --threshold <pct>    flag a regression when the mean is more than <pct>% slower (default 10)");
+    }
+
+    @Override
+    public int execute(String[] args) throws Exception {
+        List<String> argList = new ArrayList<>(Arrays.asList(args));
+        boolean hasSources = argList.contains("-d") || argList.stream().anyMatch(a -> a.endsWith(".snow"));
+        Path dslFile = Path.of("project.cloud");
+        if (!hasSources && Files.exists(dslFile)) {
+            Project project = CloudDSLParser.parse(dslFile);
+            argList.add("-d");
+            argList.add(project.getBuild().get("srcDir", "src"));
+        }
+        return new BenchTask(argList.toArray(new String[0])).execute();
+    }
+}
@@ -20,10 +20,10 @@ import java.util.List;
  *   <li><strong>Cloud 模式</strong>
  *       - 项目根目录存在 {@code project.cloud} 时触发；
  *       - 解析 build 区块，自动推导源码目录与输出文件名；
- *       - 用法: {@code snow compile [run]}</li>
+ *       - 用法: {@code snow compile [run] [-j <N>]}</li>
  *   <li><strong>Local 模式</strong>
  *       - 未检测到 {@code project.cloud} 时回退；
- *       - 保持向后兼容: {@code snow compile [run] [-o <name>] [-d <srcDir>] [file.snow …]}</li>
+ *       - 保持向后兼容: {@code snow compile [run] [-j <N>] [-o <name>] [-d <srcDir>] [file.snow …]}</li>
  * </ul>
  *
  * <p>两种模式均将最终参数交由 {@link CompileTask} 处理。</p>
@@ -43,8 +43,26 @@ public final class CompileCommand implements CLICommand {
     @Override
     public void printUsage() {
         System.out.println("Usage:");
-        System.out.println("  snow compile [run]                               (cloud mode, use project.cloud)");
-        System.out.println("  snow compile [run] [-o <name>] [-d <srcDir>] [file1.snow …]  (GOPATH mode)");
+        System.out.println("  snow compile [run] [-j <N>]                      (cloud mode, use project.cloud)");
+        System.out.println("  snow compile [run] [-j <N>] [-o <name>] [-d <srcDir>] [file1.snow …]  (GOPATH mode)");
+        System.out.println("Options:");
+        System.out.println("  -j <N>          lex/parse files, check and lower functions on N threads (default: number of CPUs)");
+        System.out.println("  --no-cache      do not use the library and incremental build caches in ~/.snow/cache");
+        System.out.println("  --cache-stats   print cache hit/miss and rebuilt/reused module statistics");
+        System.out.println("  --emit-obj <dir> also write one relocatable object (.sobj) per module for 'snow link'");
+        System.out.println("  --time-passes[=table|json]  report wall time, allocated bytes and item counts per phase and module");
+        System.out.println("  --time-passes-out <file>    write the --time-passes report to <file> instead of stderr");
+        System.out.println("  --profile[=<N>]             with 'run': profile the VM per opcode, PC and opcode pair (top N rows)");
+        System.out.println("  --profile-alloc             with 'run': also count bytes allocated per opcode, syscall and function");
+        System.out.println("  --profile-out <file>        with 'run': write the profile JSON to <file>");
+        System.out.println("  --sample[=<us>]             with 'run': sample Snow call stacks every <us> microseconds");
+        System.out.println("  --sample-out <file>         with 'run': write the collapsed stacks to <file>");
+        System.out.println("  --metrics[=<ms>]            with 'run': VM runtime counters over JMX and the METRICS syscall");
+        System.out.println("  --metrics-out <file>        with 'run': also append the metrics as JSON lines every <ms> (default 10000)");
+        System.out.println("  --syscall-latency[=<ms>]    with 'run': per-syscall latency histograms; log calls slower than <ms> (default 100)");
+        System.out.println("  --syscall-latency-out <file> with 'run': write the latency summary as JSON to <file>");
+        System.out.println("  --fuel=<n>                  with 'run': stop the program after <n> instructions; default budget of tasks");
+        System.out.println("  --quantum=<n>               with 'run': instructions a task runs before yielding (default 10000)");
     }
 
     @Override
@@ -60,10 +78,23 @@ public final class CompileCommand implements CLICommand {
 
             List<String> argList = new ArrayList<>();
 
-            // 保留用户在 cloud 模式下传入的 “run” / “--debug” 标志
-            for (String a : args) {
-                if ("run".equals(a) || "--debug".equals(a)) {
+            // 保留用户在 cloud 模式下传入的 “run” / “--debug” / “-j N” / “--emit-obj DIR” / 缓存、阶段统计、执行剖析与采样相关标志
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                if ("run".equals(a) || "--debug".equals(a)
+                        || "--no-cache".equals(a) || "--cache-stats".equals(a) || a.startsWith("--time-passes=")
+                        || "--time-passes".equals(a) || "--profile".equals(a) || a.startsWith("--profile=")
+                        || "--profile-alloc".equals(a) || "--sample".equals(a) || a.startsWith("--sample=")
+                        || "--metrics".equals(a) || a.startsWith("--metrics=")
+                        || "--syscall-latency".equals(a) || a.startsWith("--syscall-latency=")
+                        || a.startsWith("--fuel=") || a.startsWith("--quantum=")) {
                     argList.add(a);
+                } else if (("-j".equals(a) || "--emit-obj".equals(a) || "--time-passes-out".equals(a)
+                        || "--profile-out".equals(a) || "--sample-out".equals(a) || "--metrics-out".equals(a)
+                        || "--syscall-latency-out".equals(a))
+                        && i + 1 < args.length) {
+                    argList.add(a);
+                    argList.add(args[++i]);
                 }
             }
 
@@ -85,8 +116,7 @@ public final class CompileCommand implements CLICommand {
             compileArgs = args;                                    // 透传原始 CLI 参数
         }
 
-        // 委托给 CompileTask 完成实际编译/运行
-        new CompileTask(project, compileArgs).run();
-        return 0;
+        // 委托给 CompileTask 完成实际编译/运行，并返回其状态码
+        return new CompileTask(project, compileArgs).execute(compileArgs);
     }
 }
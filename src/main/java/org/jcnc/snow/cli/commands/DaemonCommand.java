@@ -0,0 +1,70 @@
+package org.jcnc.snow.cli.commands;
+
+import org.jcnc.snow.cli.api.CLICommand;
+import org.jcnc.snow.pkg.daemon.DaemonClient;
+import org.jcnc.snow.pkg.daemon.DaemonProtocol;
+import org.jcnc.snow.pkg.daemon.DaemonServer;
+
+import java.util.OptionalInt;
+
+/**
+ * CLI 命令: 启动、停止或查询常驻编译服务。
+ * <p>
+ * {@code start} 在前台运行服务（可配合 {@code &} / nohup 放入后台），之后以
+ * {@code snow --daemon <command> …} 把 compile / run / link 交给它执行。
+ * </p>
+ *
+ * <pre>
+ * 用法示例:
+ * $ snow daemon start &amp;
+ * $ snow --daemon compile main.snow run
+ * $ snow daemon status
+ * $ snow daemon stop
+ * </pre>
+ */
+public final class DaemonCommand implements CLICommand {
+
+    @Override
+    public String name() {
+        return "daemon";
+    }
+
+    @Override
+    public String description() {
+        return "Run a resident compile/run service on a local Unix-domain socket.";
+    }
+
+    @Override
+    public void printUsage() {
+        System.out.println("Usage:");
+        System.out.println("  snow daemon [start|stop|status]");
+        System.out.println("Actions:");
+        System.out.println("  start           serve requests on " + DaemonProtocol.socketPath() + " (foreground)");
+        System.out.println("  stop            stop the running daemon");
+        System.out.println("  status          print daemon status");
+        System.out.println("Client:");
+        System.out.println("  snow --daemon <compile|run|link> [args…]");
+        System.out.println("                  forward the command to the daemon; runs in-process if none is running.");
+        System.out.println("                  Standard input is not forwarded.");
+    }
+
+    @Override
+    public int execute(String[] args) throws Exception {
+        String action = args.length == 0 ? "start" : args[0];
+        return switch (action) {
+            case "start" -> new DaemonServer(DaemonProtocol.socketPath()).serve();
+            case "stop", "status" -> {
+                OptionalInt code = DaemonClient.control(action);
+                if (code.isEmpty()) {
+                    System.out.println("Snow daemon is not running");
+                    yield "stop".equals(action) ? 0 : 1;
+                }
+                yield code.getAsInt();
+            }
+            default -> {
+                printUsage();
+                yield 1;
+            }
+        };
+    }
+}
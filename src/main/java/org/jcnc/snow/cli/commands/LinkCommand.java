@@ -0,0 +1,50 @@
+package org.jcnc.snow.cli.commands;
+
+import org.jcnc.snow.cli.api.CLICommand;
+import org.jcnc.snow.pkg.tasks.LinkTask;
+
+/**
+ * CLI 命令: 把模块目标文件（.sobj）链接为 VM 字节码文件（.water）。
+ * <p>
+ * 仅做参数检查并委托给 {@link LinkTask}。
+ * </p>
+ *
+ * <pre>
+ * 用法示例:
+ * $ snow compile -d src -o app --emit-obj build/obj
+ * $ snow link -d build/obj -o app run
+ * $ snow link std_io.sobj main.sobj -o app
+ * </pre>
+ */
+public final class LinkCommand implements CLICommand {
+
+    @Override
+    public String name() {
+        return "link";
+    }
+
+    @Override
+    public String description() {
+        return "Link relocatable module objects (.sobj) into VM byte-code (.water).";
+    }
+
+    @Override
+    public void printUsage() {
+        System.out.println("Usage:");
+        System.out.println("  snow link [run] [--debug] [-o <name>] [-d <objDir>] [a.sobj b.sobj …]");
+        System.out.println("Options:");
+        System.out.println("  -d <objDir>     link every object in the directory, in the order of its link.lst");
+        System.out.println("  -o <name>       output file name (.water is appended when missing)");
+        System.out.println("  --debug         print link statistics");
+        System.out.println("  run             run the linked program");
+    }
+
+    @Override
+    public int execute(String[] args) throws Exception {
+        if (args.length == 0) {
+            printUsage();
+            return 1;
+        }
+        return new LinkTask(args).execute();
+    }
+}
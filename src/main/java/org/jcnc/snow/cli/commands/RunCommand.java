@@ -13,6 +13,12 @@ import org.jcnc.snow.pkg.tasks.RunTask;
  * <pre>
  * 用法示例:
  * $ snow run main.water
+ * $ snow run main.water --profile=30 --profile-out main.profile.json
+ * $ snow run main.water --profile-alloc
+ * $ snow run server.water --metrics=5000 --metrics-out server.metrics.jsonl
+ * $ snow run main.water --sample=500 --sample-out main.folded
+ * $ snow run server.water --syscall-latency=50
+ * $ snow run jobs.water --fuel=100000000 --quantum=5000
  * </pre>
  */
 public final class RunCommand implements CLICommand {
@@ -61,6 +67,25 @@ public final class RunCommand implements CLICommand {
     @Override
     public void printUsage() {
         System.out.println("Usage:");
-        System.out.println("  snow run <program.water>");
+        System.out.println("  snow run <program.water> [--profile[=<N>]] [--profile-alloc] [--profile-out <file>] [--sample[=<us>]] [--sample-out <file>]");
+        System.out.println("                       [--metrics[=<ms>]] [--metrics-out <file>] [--syscall-latency[=<ms>]] [--syscall-latency-out <file>]");
+        System.out.println("                       [--fuel=<n>] [--quantum=<n>]");
+        System.out.println("Options:");
+        System.out.println("  --profile[=<N>]       count and time every instruction; print the top N (default 20)");
+        System.out.println("                        opcodes, PCs and opcode pairs when the program ends");
+        System.out.println("  --profile-alloc       also count bytes allocated by each command (ThreadMXBean) and rank");
+        System.out.println("                        the top allocating opcodes, syscalls, functions and instructions");
+        System.out.println("  --profile-out <file>  write the full profile as JSON (default: <program>.profile.json)");
+        System.out.println("  --sample[=<us>]       sample the Snow call stack every <us> microseconds (default 1000)");
+        System.out.println("  --sample-out <file>   write collapsed stacks for flame graphs (default: <program>.folded)");
+        System.out.println("  --metrics[=<ms>]      count instructions, calls, syscalls, I/O bytes and lock waits; export them");
+        System.out.println("                        as the JMX bean org.jcnc.snow:type=VM and through the METRICS syscall");
+        System.out.println("  --metrics-out <file>  also append a JSON line of metrics to <file> every <ms> (default 10000)");
+        System.out.println("  --syscall-latency[=<ms>]  time every system call; print latency percentiles per syscall at exit");
+        System.out.println("                        and log calls slower than <ms> (default 100, 0 = no log) with fd, size and function");
+        System.out.println("  --syscall-latency-out <file>  write the latency summary and histogram buckets as JSON instead");
+        System.out.println("  --fuel=<n>            stop the program after <n> instructions (checked at loops and calls);");
+        System.out.println("                        also the budget of tasks spawned without one (TASK_SPAWN)");
+        System.out.println("  --quantum=<n>         instructions a task runs before yielding to the next one (default 10000)");
     }
 }
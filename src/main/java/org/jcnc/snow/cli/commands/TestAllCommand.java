@@ -1,19 +1,30 @@
 package org.jcnc.snow.cli.commands;
 
+import org.jcnc.snow.cli.SnowCLI;
 import org.jcnc.snow.cli.api.CLICommand;
+import org.jcnc.snow.cli.utils.TestAllReport;
+import org.jcnc.snow.cli.utils.TestAllReport.Result;
+import org.jcnc.snow.cli.utils.TestAllReport.Status;
+import org.jcnc.snow.common.Mode;
+import org.jcnc.snow.common.SnowConfig;
 import org.jcnc.snow.pkg.model.Project;
 import org.jcnc.snow.pkg.tasks.CompileTask;
+import org.jcnc.snow.pkg.tasks.RunTask;
+import org.jcnc.snow.vm.io.FDTable;
+import org.jcnc.snow.vm.io.VMExit;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * {@code TestAllCommand} 实现 CLI 命令 {@code test-all}，
@@ -31,6 +42,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  *   <li>{@code snow test-all --stop-on-failure} —— 首次失败/异常时立即终止批量</li>
  *   <li>{@code snow test-all --timeout=2000} —— 单个 Demo 的最大执行时间（默认 2000 毫秒）</li>
  *   <li>{@code snow test-all --snow-path=[path|auto]} —— 指定 snow 可执行文件路径，auto 时自动检测</li>
+ *   <li>{@code snow test-all --jobs=4} —— 并发测试的 Demo 数（默认 CPU 核数；1 为在本进程内逐个测试）</li>
+ *   <li>{@code snow test-all --baseline=target/test-all/baseline.json} —— 与基线比较，标记变慢的 Demo</li>
+ *   <li>{@code snow test-all --junit=target/test-all/junit.xml --json=target/test-all/report.json} —— 输出报告</li>
  * </ul>
  * </p>
  *
@@ -39,7 +53,11 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <ul>
  *   <li>支持多个根目录；每个根目录若存在子目录则以子目录为 demo，否则尝试将根目录本身作为单个 demo</li>
  *   <li>如有 project.cloud 且指定了 --snow-path，则调用外部 snow；否则使用内部 CompileTask</li>
- *   <li>每个 demo 支持超时与中途按 Enter 跳过；统计通过/失败并打印总结</li>
+ *   <li>{@code --jobs} 大于 1 时启动同样数量的工作进程并发测试：空闲的工作进程领取下一个 demo，
+ *       在自身 JVM 内编译与运行（同 {@code snow daemon}），输出按 demo 捕获；标准库 AST 经磁盘缓存在进程间共享</li>
+ *   <li>{@code --jobs=1} 时在本进程内逐个测试，支持中途按 Enter 跳过</li>
+ *   <li>记录每个 demo 编译与运行阶段的墙钟耗时；统计通过/失败并打印总结与最慢的 demo</li>
+ *   <li>JSON 报告可作为基线：总耗时慢于基线超过阈值（且至少慢 100 毫秒）或基线中通过、本次失败的 demo 被标记</li>
  * </ul>
  * </p>
  */
@@ -50,6 +68,21 @@ public final class TestAllCommand implements CLICommand {
      */
     private static final long DEFAULT_TIMEOUT_MS = 2000L;
 
+    /**
+     * 并发模式下编译阶段的最短超时时间（毫秒）；{@code --timeout} 只约束运行阶段
+     */
+    private static final long COMPILE_TIMEOUT_MS = 60_000L;
+
+    /**
+     * 未指定 {@code --baseline} 时 {@code --save-baseline} 写入的基线文件
+     */
+    private static final Path DEFAULT_BASELINE = Paths.get("target", "test-all", "baseline.json");
+
+    /**
+     * 总结中列出的最慢 demo 个数
+     */
+    private static final int SLOWEST = 5;
+
     // ANSI 控制台输出样式
     private static final String RESET = "\u001B[0m";
     private static final String BOLD = "\u001B[1m";
@@ -141,12 +174,22 @@ public final class TestAllCommand implements CLICommand {
         System.out.println("  --stop-on-failure        首次失败/异常时中止（超时不触发）");
         System.out.println("  --timeout=<ms>           设置单个 Demo 超时（毫秒，默认 2000）");
         System.out.println("  --snow-path=<path|auto>  指定 snow(.exe) 路径；auto 自动在 target/release/**/bin 下查找");
-        System.out.println("  测试时可随时按 [Enter] 跳过当前 demo，继续后续测试");
+        System.out.println("  --jobs=<n>               并发测试的 demo 数（默认 CPU 核数）；大于 1 时由同样数量的工作进程分担，");
+        System.out.println("                           超时只计运行阶段；1 为在本进程内逐个测试");
+        System.out.println("  --baseline=<file>        与基线（先前的 --json 报告）比较，标记变慢或新失败的 demo；文件不存在时写入本次结果");
+        System.out.println("  --save-baseline          把本次结果写为基线（缺省 target/test-all/baseline.json）");
+        System.out.println("  --threshold=<percent>    变慢阈值（百分比，默认 20）");
+        System.out.println("  --fail-on-slower         有 demo 变慢时以退出码 1 结束");
+        System.out.println("  --json=<file>            输出 JSON 报告（各 demo 状态与编译/运行耗时）");
+        System.out.println("  --junit=<file>           输出 JUnit XML 报告");
+        System.out.println("  逐个测试（--jobs=1）时可随时按 [Enter] 跳过当前 demo，继续后续测试");
         System.out.println();
         System.out.println("Examples:");
         System.out.println("  snow test-all");
         System.out.println("  snow test-all --dir=playground/Demo/DemoA");
         System.out.println("  snow test-all --dir=demo/set1 --dir=demo/set2 --dir=/abs/one");
+        System.out.println("  snow test-all --dir=playground/Demo/DemoA --jobs=8 --junit=target/test-all/junit.xml");
+        System.out.println("  snow test-all --baseline=target/test-all/baseline.json --threshold=30");
     }
 
     @Override
@@ -157,6 +200,14 @@ public final class TestAllCommand implements CLICommand {
         String externalSnowPath = null;
         boolean requestedAuto = false; // 用户是否传了 auto
         long timeoutMs = DEFAULT_TIMEOUT_MS;
+        int jobs = Runtime.getRuntime().availableProcessors();
+        Path baseline = null;
+        boolean saveBaseline = false;
+        boolean failOnSlower = false;
+        double threshold = TestAllReport.DEFAULT_THRESHOLD;
+        Path jsonOut = null;
+        Path junitOut = null;
+        boolean worker = false; // 并发模式启动的工作进程（内部使用）
 
         // 支持多个 --dir，按声明顺序去重保序
         Set<Path> demoRoots = new LinkedHashSet<>();
@@ -179,6 +230,35 @@ public final class TestAllCommand implements CLICommand {
                     System.err.println(RED + "Invalid timeout value: " + arg + RESET);
                     return 1;
                 }
+            } else if (arg.startsWith("--jobs=")) {
+                try {
+                    jobs = Integer.parseInt(arg.substring("--jobs=".length()).trim());
+                } catch (NumberFormatException e) {
+                    jobs = 0;
+                }
+                if (jobs < 1) {
+                    System.err.println(RED + "Invalid jobs value: " + arg + RESET);
+                    return 1;
+                }
+            } else if (arg.startsWith("--threshold=")) {
+                try {
+                    threshold = Double.parseDouble(arg.substring("--threshold=".length()).trim());
+                } catch (NumberFormatException e) {
+                    System.err.println(RED + "Invalid threshold value: " + arg + RESET);
+                    return 1;
+                }
+            } else if (arg.startsWith("--baseline=")) {
+                baseline = Paths.get(arg.substring("--baseline=".length()).trim());
+            } else if ("--save-baseline".equals(arg)) {
+                saveBaseline = true;
+            } else if ("--worker".equals(arg)) {
+                worker = true;
+            } else if ("--fail-on-slower".equals(arg)) {
+                failOnSlower = true;
+            } else if (arg.startsWith("--json=")) {
+                jsonOut = Paths.get(arg.substring("--json=".length()).trim());
+            } else if (arg.startsWith("--junit=")) {
+                junitOut = Paths.get(arg.substring("--junit=".length()).trim());
             } else if (arg.startsWith("--dir=")) {
                 String dir = arg.substring("--dir=".length()).trim();
                 if (!dir.isEmpty()) {
@@ -187,6 +267,8 @@ public final class TestAllCommand implements CLICommand {
             }
         }
 
+        if (worker) return serveWorker(externalSnowPath, runAfterCompile, timeoutMs);
+
         // 2. 若未显式指定 --dir，则回退默认目录 playground/Demo/DemoA
         if (demoRoots.isEmpty()) {
             demoRoots.add(Paths.get("playground", "Demo", "DemoA"));
@@ -272,12 +354,38 @@ public final class TestAllCommand implements CLICommand {
                 + " from " + demoRoots.size() + " root "
                 + (demoRoots.size() == 1 ? "path" : "paths")
                 + ". Starting tests..." + RESET + "\n");
+        // 并发模式需要能重新启动 snow 自身作为工作进程；取不到启动命令时退回本进程内逐个测试
+        List<String> self = jobs > 1 ? selfCommand() : null;
+        if (jobs > 1 && self == null) {
+            System.out.println(BRIGHT_YEL + "Cannot determine how to relaunch snow; testing demos in-process." + RESET);
+            jobs = 1;
+        }
+        jobs = Math.min(jobs, demoDirs.size());
+
         System.out.println(BRIGHT_YEL + "Timeout per demo: " + timeoutMs + " ms" + RESET);
-        System.out.println(BRIGHT_CYAN + "[提示] 测试进行时可随时按 [Enter] 跳过当前 demo" + RESET);
+        if (jobs > 1) {
+            System.out.println(BRIGHT_CYAN + "Running " + jobs + " demos at a time in worker processes" + RESET);
+        } else {
+            System.out.println(BRIGHT_CYAN + "[提示] 测试进行时可随时按 [Enter] 跳过当前 demo" + RESET);
+        }
 
-        AtomicInteger passed = new AtomicInteger(0);
-        AtomicInteger failed = new AtomicInteger(0);
-        List<String> failedTests = new ArrayList<>();
+        long wallStart = System.nanoTime();
+        List<Result> results = jobs > 1
+                ? runParallel(demoDirs, jobs, self, externalSnowPath, runAfterCompile, verbose, stopOnFailure, timeoutMs)
+                : runSequential(demoDirs, externalSnowPath, runAfterCompile, verbose, stopOnFailure, timeoutMs);
+        long wallMillis = (System.nanoTime() - wallStart) / 1_000_000;
+
+        return summarize(results, jobs, wallMillis, baseline, saveBaseline, threshold, failOnSlower, jsonOut, junitOut);
+    }
+
+    /**
+     * 在本进程内逐个测试 demo：编译与运行分别计时，支持超时与按 Enter 跳过。
+     */
+    private List<Result> runSequential(List<Path> demoDirs, String externalSnowPath, boolean runAfterCompile,
+                                       boolean verbose, boolean stopOnFailure, long timeoutMs) {
+        List<Result> results = new ArrayList<>();
+        skipCurrent = false;
+        inputThreadRunning = true;
 
         // 7. 启动输入监听线程：检测 [Enter] 跳过当前 demo
         Thread inputThread = new Thread(() -> {
@@ -299,6 +407,8 @@ public final class TestAllCommand implements CLICommand {
             skipCurrent = false; // 每个 demo 前重置
 
             String demoName = demoDir.getFileName().toString();
+            String key = TestAllReport.key(demoDir);
+            AtomicLongArray phases = new AtomicLongArray(3); // 编译、运行阶段耗时（毫秒）
             if (verbose)
                 System.out.println(CYAN + "Testing " + demoName + " (" + demoDir.toAbsolutePath() + ")..." + RESET);
 
@@ -306,31 +416,12 @@ public final class TestAllCommand implements CLICommand {
             ExecutorService executor = Executors.newSingleThreadExecutor();
 
             try {
-                Callable<Integer> task;
-
                 // 8.1 优先尝试外部 CLI 模式，否则回退内部 CompileTask
-                if (hasCloud && externalSnowPath != null) {
-                    String finalSnow = externalSnowPath;
-                    boolean finalRun = runAfterCompile;
-                    boolean finalVerbose = verbose;
-                    task = () -> runExternalSnowBuildAndMaybeRun(finalSnow, demoDir, finalRun, finalVerbose);
-                } else {
-                    if (!hasCloud && externalSnowPath != null && verbose) {
-                        System.out.println(BRIGHT_CYAN + "No project.cloud found; fallback to internal CompileTask for "
-                                + demoName + RESET);
-                    }
-                    List<String> compileArgs = new ArrayList<>();
-                    compileArgs.add("-d");
-                    compileArgs.add(demoDir.toString());
-                    compileArgs.add("-o");
-                    compileArgs.add("target/" + demoName);
-                    if (runAfterCompile) compileArgs.add("run");
-
-                    task = () -> new CompileTask(
-                            Project.fromFlatMap(Collections.emptyMap()),
-                            compileArgs.toArray(new String[0])
-                    ).execute(compileArgs.toArray(new String[0]));
+                if (!hasCloud && externalSnowPath != null && verbose) {
+                    System.out.println(BRIGHT_CYAN + "No project.cloud found; fallback to internal CompileTask for "
+                            + demoName + RESET);
                 }
+                Callable<Integer> task = demoTask(demoDir, externalSnowPath, runAfterCompile, verbose, phases);
 
                 Future<Integer> future = executor.submit(task);
                 int result = 0;
@@ -350,6 +441,8 @@ public final class TestAllCommand implements CLICommand {
                                 } else {
                                     System.out.print(BRIGHT_YEL + "S" + RESET);
                                 }
+                                results.add(new Result(key, demoName, Status.SKIPPED, -1, phases.get(0), phases.get(1),
+                                        null, "Skipped by Enter"));
                                 break;
                             }
                             if ((System.currentTimeMillis() - startTime) >= timeoutMs) {
@@ -360,14 +453,16 @@ public final class TestAllCommand implements CLICommand {
                     if (skipCurrent) continue; // 跳到下一个 demo
                 } catch (TimeoutException te) {
                     future.cancel(true);
+                    long runStart = phases.get(2);
+                    if (runStart != 0) phases.set(1, (System.nanoTime() - runStart) / 1_000_000);
                     if (!verbose) {
                         System.out.print(BRIGHT_YEL + "?" + RESET);
                     } else {
                         System.out.println(BOLD + BRIGHT_YEL + "✗ " + demoName
                                 + " TIMEOUT > " + timeoutMs + "ms" + RESET);
                     }
-                    failed.incrementAndGet();
-                    failedTests.add(demoName + " (Timeout > " + timeoutMs + "ms)");
+                    results.add(new Result(key, demoName, Status.TIMEOUT, -1, phases.get(0), phases.get(1),
+                            null, "Timeout > " + timeoutMs + "ms"));
                     continue;
                 }
 
@@ -375,13 +470,13 @@ public final class TestAllCommand implements CLICommand {
 
                 if (result == 0) {
                     if (!verbose) System.out.print(BRIGHT_GRN + "." + RESET);
-                    else System.out.println(BOLD + BRIGHT_RED + "✓ " + demoName + " PASSED" + RESET);
-                    passed.incrementAndGet();
+                    else System.out.println(BOLD + BRIGHT_RED + "✓ " + demoName + " PASSED" + timing(phases.get(0), phases.get(1)) + RESET);
+                    results.add(new Result(key, demoName, Status.PASSED, 0, phases.get(0), phases.get(1), null, null));
                 } else {
                     if (!verbose) System.out.print(RED + "F" + RESET);
                     else System.out.println(BOLD + RED + "✗ " + demoName + " FAILED (exit=" + result + ")" + RESET);
-                    failed.incrementAndGet();
-                    failedTests.add(demoName);
+                    results.add(new Result(key, demoName, Status.FAILED, result, phases.get(0), phases.get(1),
+                            null, "exit=" + result));
                     if (stopOnFailure) {
                         System.out.println("\n\n" + BOLD + RED + "=== Test stopped due to failure ===" + RESET);
                         break;
@@ -395,13 +490,15 @@ public final class TestAllCommand implements CLICommand {
                     } else {
                         System.out.print(BRIGHT_YEL + "S" + RESET);
                     }
+                    results.add(new Result(key, demoName, Status.SKIPPED, -1, phases.get(0), phases.get(1),
+                            null, "Skipped by Enter"));
                     continue;
                 }
                 if (!verbose) System.out.print(RED + "E" + RESET);
                 else
                     System.out.println(BOLD + RED + "✗ " + demoName + " FAILED with exception: " + e.getMessage() + RESET);
-                failed.incrementAndGet();
-                failedTests.add(demoName + " (Exception: " + e.getMessage() + ")");
+                results.add(new Result(key, demoName, Status.ERROR, -1, phases.get(0), phases.get(1),
+                        null, "Exception: " + e.getMessage()));
                 if (stopOnFailure) {
                     System.out.println("\n\n" + BOLD + RED + "=== Test stopped due to exception ===" + RESET);
                     executor.shutdownNow();
@@ -419,13 +516,243 @@ public final class TestAllCommand implements CLICommand {
             inputThread.interrupt();
         } catch (Exception ignore) {
         }
+        return results;
+    }
+
+    /**
+     * 并发测试 demo：启动 {@code jobs} 个工作进程（{@code test-all --worker}），谁空闲就把下一个 demo 交给谁。
+     * 工作进程在自身 JVM 内逐个编译、运行 demo，类加载与 JIT 预热只付一次；demo 超时或使工作进程退出时
+     * 换一个新的工作进程。{@code stopOnFailure} 时首个失败之后不再分派新的 demo。
+     */
+    private List<Result> runParallel(List<Path> demoDirs, int jobs, List<String> self, String externalSnowPath,
+                                     boolean runAfterCompile, boolean verbose, boolean stopOnFailure,
+                                     long timeoutMs) throws InterruptedException {
+        List<String> workerCmd = new ArrayList<>(self);
+        workerCmd.addAll(List.of("test-all", "--worker", "--timeout=" + timeoutMs));
+        if (!runAfterCompile) workerCmd.add("--no-run");
+        if (externalSnowPath != null) workerCmd.add("--snow-path=" + externalSnowPath);
+
+        Result[] results = new Result[demoDirs.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean(false);
+        ExecutorService pool = Executors.newFixedThreadPool(jobs);
+        try {
+            List<Future<?>> feeders = new ArrayList<>();
+            for (int i = 0; i < jobs; i++) {
+                feeders.add(pool.submit(() -> {
+                    Worker worker = null;
+                    try {
+                        for (int idx; !stop.get() && (idx = next.getAndIncrement()) < results.length; ) {
+                            Path demoDir = demoDirs.get(idx);
+                            Result r;
+                            try {
+                                if (worker == null) worker = Worker.start(workerCmd);
+                                r = worker.test(demoDir);
+                            } catch (IOException e) {
+                                r = new Result(TestAllReport.key(demoDir), demoDir.getFileName().toString(),
+                                        Status.ERROR, -1, 0, 0, null, "Worker failed: " + e.getMessage());
+                            }
+                            // 超时的 demo 仍占着工作进程（它会自行退出），出错的工作进程也不再复用
+                            if (r.status() == Status.TIMEOUT || !worker.isAlive()) {
+                                worker.close();
+                                worker = null;
+                            }
+                            results[idx] = r;
+                            if (stopOnFailure && (r.status() == Status.FAILED || r.status() == Status.ERROR)) {
+                                stop.set(true);
+                            }
+                            report(r, verbose);
+                        }
+                    } finally {
+                        if (worker != null) worker.close();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : feeders) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                Path demoDir = demoDirs.get(i);
+                results[i] = new Result(TestAllReport.key(demoDir), demoDir.getFileName().toString(),
+                        Status.SKIPPED, -1, 0, 0, null, "Not run after an earlier failure");
+            }
+        }
+        if (stop.get()) System.out.println("\n\n" + BOLD + RED + "=== Test stopped due to failure ===" + RESET);
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * 工作进程主循环（{@code test-all --worker}，由并发模式启动）：从标准输入逐行读取 demo 目录，
+     * 像 {@code snow daemon} 一样在本 JVM 内编译、运行（输出重定向到缓冲区，EXIT 只结束当前 demo），
+     * 每个 demo 向标准输出写一行结果（见 {@link TestAllReport#toLine(Result)}）。
+     * 编译阶段不超过 {@value #COMPILE_TIMEOUT_MS} 毫秒（或更长的 {@code timeoutMs}），运行阶段不超过
+     * {@code timeoutMs}；超时的 demo 线程无法可靠地停止，报告结果后整个工作进程立即退出。
+     */
+    private int serveWorker(String externalSnowPath, boolean runAfterCompile, long timeoutMs) throws Exception {
+        BufferedReader requests = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        System.setIn(InputStream.nullInputStream()); // demo 读取标准输入时立即得到 EOF，不会读走请求
+        PrintStream replies = System.out;
+        PrintStream replyErr = System.err;
+        VMExit.setEmbedded(true);
+        long compileLimit = Math.max(COMPILE_TIMEOUT_MS, timeoutMs);
+
+        for (String line; (line = requests.readLine()) != null; ) {
+            if (line.isBlank()) continue;
+            Path demoDir = Paths.get(line);
+            AtomicLongArray phases = new AtomicLongArray(3);
+            ByteArrayOutputStream captured = new ByteArrayOutputStream();
+            PrintStream capture = new PrintStream(captured, true, StandardCharsets.UTF_8);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            Status status;
+            int exit = -1;
+            String message = null;
+
+            System.setOut(capture);
+            System.setErr(capture);
+            // 每个 demo 从默认配置开始（与守护进程相同）
+            SnowConfig.MODE = Mode.RUN;
+            SnowConfig.setInstructionTraceEnabled(false);
+            try {
+                Future<Integer> future = executor.submit(demoTask(demoDir, externalSnowPath, runAfterCompile, false, phases));
+                long start = System.nanoTime();
+                while (true) {
+                    try {
+                        exit = future.get(50, TimeUnit.MILLISECONDS);
+                        status = exit == 0 ? Status.PASSED : Status.FAILED;
+                        break;
+                    } catch (TimeoutException te) {
+                        long runStart = phases.get(2);
+                        long limit = runStart == 0 ? compileLimit : timeoutMs;
+                        long elapsed = System.nanoTime() - (runStart == 0 ? start : runStart);
+                        if (elapsed >= limit * 1_000_000) {
+                            future.cancel(true);
+                            phases.set(runStart == 0 ? 0 : 1, elapsed / 1_000_000);
+                            status = Status.TIMEOUT;
+                            message = (runStart == 0 ? "Compile timeout > " : "Timeout > ") + limit + "ms";
+                            break;
+                        }
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof VMExit v) {
+                            exit = v.code();
+                            status = exit == 0 ? Status.PASSED : Status.FAILED;
+                        } else {
+                            status = Status.ERROR;
+                            message = "Exception: " + e.getCause();
+                        }
+                        break;
+                    }
+                }
+            } finally {
+                FDTable.flushStandardStreams();
+                System.setOut(replies);
+                System.setErr(replyErr);
+                executor.shutdownNow();
+            }
+            if (status == Status.FAILED) message = "exit=" + exit;
+
+            Result r = new Result(TestAllReport.key(demoDir), demoDir.getFileName().toString(), status, exit,
+                    phases.get(0), phases.get(1), captured.toString(StandardCharsets.UTF_8), message);
+            replies.println(TestAllReport.toLine(r));
+            replies.flush();
+            if (status == Status.TIMEOUT) Runtime.getRuntime().halt(0);
+        }
+        return 0;
+    }
+
+    /**
+     * 构造测试单个 demo 的任务：先编译、再（可选）运行，分别记录耗时。
+     *
+     * @param phases [编译毫秒, 运行毫秒, 运行开始时的 {@link System#nanoTime()}（尚未运行为 0）]
+     */
+    private Callable<Integer> demoTask(Path demoDir, String externalSnowPath, boolean runAfterCompile,
+                                       boolean verbose, AtomicLongArray phases) {
+        if (Files.exists(demoDir.resolve("project.cloud")) && externalSnowPath != null) {
+            return () -> runExternalSnowBuildAndMaybeRun(externalSnowPath, demoDir, runAfterCompile, verbose, phases);
+        }
+        String[] compileArgs = {"-d", demoDir.toString(), "-o", outputBase(demoDir).toString()};
+        return () -> {
+            long start = System.nanoTime();
+            int code = new CompileTask(Project.fromFlatMap(Collections.emptyMap()), compileArgs).execute(compileArgs);
+            phases.set(0, (System.nanoTime() - start) / 1_000_000);
+            if (code != 0 || !runAfterCompile) return code;
+            start = System.nanoTime();
+            phases.set(2, start);
+            try {
+                new RunTask(outputBase(demoDir) + ".water").run();
+            } finally {
+                phases.set(1, (System.nanoTime() - start) / 1_000_000);
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * 打印单个 demo 的结果（并发模式下由工作线程调用）。
+     */
+    private static synchronized void report(Result r, boolean verbose) {
+        if (!verbose) {
+            switch (r.status()) {
+                case PASSED -> System.out.print(BRIGHT_GRN + "." + RESET);
+                case FAILED -> System.out.print(RED + "F" + RESET);
+                case TIMEOUT -> System.out.print(BRIGHT_YEL + "?" + RESET);
+                case SKIPPED -> System.out.print(BRIGHT_YEL + "S" + RESET);
+                case ERROR -> System.out.print(RED + "E" + RESET);
+            }
+            System.out.flush();
+            return;
+        }
+        if (r.status() == Status.PASSED) {
+            System.out.println(BOLD + BRIGHT_RED + "✓ " + r.key() + " PASSED" + timing(r.compileMillis(), r.runMillis()) + RESET);
+        } else {
+            System.out.println(BOLD + RED + "✗ " + r.key() + " " + r.status() + " (" + r.message() + ")"
+                    + timing(r.compileMillis(), r.runMillis()) + RESET);
+        }
+        if (r.output() != null) {
+            r.output().lines().forEach(line -> System.out.println("  | " + line));
+        }
+    }
+
+    /**
+     * 打印测试总结、与基线比较并写出报告。
+     *
+     * @return 命令退出码
+     */
+    private int summarize(List<Result> results, int jobs, long wallMillis, Path baseline, boolean saveBaseline,
+                          double threshold, boolean failOnSlower, Path jsonOut, Path junitOut) throws IOException {
+        int passed = 0;
+        int failed = 0;
+        long compileMillis = 0;
+        long runMillis = 0;
+        List<String> failedTests = new ArrayList<>();
+        for (Result r : results) {
+            compileMillis += r.compileMillis();
+            runMillis += r.runMillis();
+            if (r.status() == Status.PASSED) {
+                passed++;
+            } else if (r.status() != Status.SKIPPED) {
+                failed++;
+                failedTests.add(r.message() == null ? r.key() : r.key() + " (" + r.message() + ")");
+            }
+        }
 
         // 10. 输出测试总结
         System.out.println("\n");
         System.out.println(BOLD + CYAN + "=== Test Summary ===" + RESET);
-        System.out.println(BRIGHT_GRN + "Passed: " + passed.get() + RESET);
-        System.out.println(RED + "Failed: " + failed.get() + RESET);
-        System.out.println("Total:  " + (passed.get() + failed.get()));
+        System.out.println(BRIGHT_GRN + "Passed: " + passed + RESET);
+        System.out.println(RED + "Failed: " + failed + RESET);
+        System.out.println("Total:  " + (passed + failed));
+        System.out.println("Time:   " + wallMillis + " ms wall (jobs=" + jobs + "), "
+                + compileMillis + " ms compile, " + runMillis + " ms run");
 
         if (!failedTests.isEmpty()) {
             System.out.println("\n" + BOLD + YELLOW + "Failed tests:" + RESET);
@@ -434,18 +761,103 @@ public final class TestAllCommand implements CLICommand {
             }
         }
 
-        return failed.get() > 0 ? 1 : 0;
+        List<Result> slowest = new ArrayList<>(results);
+        slowest.sort(Comparator.comparingLong(Result::totalMillis).reversed());
+        if (!slowest.isEmpty() && slowest.getFirst().totalMillis() > 0) {
+            System.out.println("\n" + BOLD + CYAN + "Slowest demos:" + RESET);
+            for (Result r : slowest.subList(0, Math.min(SLOWEST, slowest.size()))) {
+                System.out.printf(Locale.ROOT, "  %-24s %6d ms  (compile %d, run %d)%n",
+                        r.key(), r.totalMillis(), r.compileMillis(), r.runMillis());
+            }
+        }
+
+        // 11. 与基线比较；基线不存在或指定 --save-baseline 时写入本次结果
+        int slower = 0;
+        Map<String, Result> previous = baseline != null && !saveBaseline ? TestAllReport.readBaseline(baseline) : null;
+        if (previous != null) {
+            List<String> flagged = TestAllReport.compare(results, previous, threshold);
+            slower = flagged.size();
+            if (flagged.isEmpty()) {
+                System.out.printf(Locale.ROOT, "%nNo demo slower than baseline by more than %.1f%%%n", threshold);
+            } else {
+                System.out.printf(Locale.ROOT, "%n" + BOLD + YELLOW + "Slower than baseline %s (threshold %.1f%%):" + RESET + "%n",
+                        baseline, threshold);
+                for (String f : flagged) System.out.println("  - " + f);
+            }
+        } else if (saveBaseline || baseline != null) {
+            Path file = baseline != null ? baseline : DEFAULT_BASELINE;
+            TestAllReport.writeJson(file, results, jobs, wallMillis);
+            System.out.println("\nBaseline written to " + file.toAbsolutePath());
+        }
+
+        // 12. 报告
+        if (jsonOut != null) {
+            TestAllReport.writeJson(jsonOut, results, jobs, wallMillis);
+            System.out.println("JSON report written to " + jsonOut.toAbsolutePath());
+        }
+        if (junitOut != null) {
+            TestAllReport.writeJUnit(junitOut, results, wallMillis);
+            System.out.println("JUnit report written to " + junitOut.toAbsolutePath());
+        }
+
+        return failed > 0 || (failOnSlower && slower > 0) ? 1 : 0;
+    }
+
+    /**
+     * demo 的编译输出路径（不含 .water 扩展名），按 “分组/名称” 区分同名 demo。
+     */
+    private static Path outputBase(Path demoDir) {
+        return Paths.get("target", "test-all").resolve(TestAllReport.key(demoDir));
+    }
+
+    /**
+     * 格式化编译/运行耗时（用于详细输出）。
+     */
+    private static String timing(long compileMillis, long runMillis) {
+        return " [compile " + compileMillis + " ms, run " + runMillis + " ms]";
+    }
+
+    /**
+     * 重新启动 snow 自身的命令前缀：JVM 上运行时为 “java [转发的 JVM 选项] -cp 类路径 SnowCLI”，
+     * 原生镜像则为当前可执行文件；都取不到时返回 {@code null}。
+     */
+    private static List<String> selfCommand() {
+        String javaHome = System.getProperty("java.home");
+        String classPath = System.getProperty("java.class.path", "");
+        if (javaHome != null && !classPath.isEmpty()) {
+            List<String> cmd = new ArrayList<>();
+            cmd.add(Paths.get(javaHome, "bin", isWindows() ? "java.exe" : "java").toString());
+            for (String opt : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+                // 只转发系统属性、内存/栈大小与只读的类数据共享归档，不转发调试代理与归档输出
+                if (opt.startsWith("-D") || opt.startsWith("-Xss") || opt.startsWith("-Xm")
+                        || opt.startsWith("-XX:AOTCache=") || opt.startsWith("-XX:SharedArchiveFile=")
+                        || opt.equals("-XX:+IgnoreUnrecognizedVMOptions")) {
+                    cmd.add(opt);
+                }
+            }
+            cmd.add("-cp");
+            cmd.add(classPath);
+            cmd.add(SnowCLI.class.getName());
+            return cmd;
+        }
+        return ProcessHandle.current().info().command().map(List::of).orElse(null);
     }
 
     /**
      * 在 demo 目录下运行外部 snow 命令：build（必要）+ run（可选）
      */
-    private int runExternalSnowBuildAndMaybeRun(String snowPath, Path demoDir,
-                                                boolean runAfterCompile, boolean verbose) throws Exception {
+    private int runExternalSnowBuildAndMaybeRun(String snowPath, Path demoDir, boolean runAfterCompile,
+                                                boolean verbose, AtomicLongArray phases) throws Exception {
+        long start = System.nanoTime();
         int build = execExternal(snowPath, demoDir, verbose, "build");
+        phases.set(0, (System.nanoTime() - start) / 1_000_000);
         if (build != 0) return build;
         if (!runAfterCompile) return 0;
-        return execExternal(snowPath, demoDir, verbose, "run");
+        start = System.nanoTime();
+        phases.set(2, start);
+        int run = execExternal(snowPath, demoDir, verbose, "run");
+        phases.set(1, (System.nanoTime() - start) / 1_000_000);
+        return run;
     }
 
     /**
@@ -480,4 +892,71 @@ public final class TestAllCommand implements CLICommand {
 
         return process.waitFor();
     }
+
+    /**
+     * 并发模式下的一个工作进程：标准输入逐行接收 demo 目录，标准输出中以
+     * {@link TestAllReport#LINE_PREFIX} 开头的行为结果，其余输出忽略。
+     */
+    private static final class Worker implements AutoCloseable {
+
+        private final Process process;
+        private final BufferedWriter requests;
+        private final BufferedReader replies;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.requests = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.replies = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        static Worker start(List<String> cmd) throws IOException {
+            ProcessBuilder pb = new ProcessBuilder(cmd);
+            pb.redirectErrorStream(true);
+            return new Worker(pb.start());
+        }
+
+        /**
+         * 让工作进程测试一个 demo 并等待结果；工作进程中途退出时返回 ERROR 结果。
+         */
+        Result test(Path demoDir) throws IOException {
+            requests.write(demoDir.toAbsolutePath().toString());
+            requests.newLine();
+            requests.flush();
+            StringBuilder stray = new StringBuilder();
+            for (String line; (line = replies.readLine()) != null; ) {
+                if (line.startsWith(TestAllReport.LINE_PREFIX)) return TestAllReport.fromLine(line);
+                stray.append(line).append('\n');
+            }
+            int code;
+            try {
+                code = process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                code = -1;
+            }
+            return new Result(TestAllReport.key(demoDir), demoDir.getFileName().toString(), Status.ERROR, code,
+                    0, 0, stray.toString(), "Worker exited (code " + code + ")");
+        }
+
+        boolean isAlive() {
+            return process.isAlive();
+        }
+
+        /**
+         * 关闭请求流让工作进程正常结束；未及时结束则强制结束。
+         */
+        @Override
+        public void close() {
+            try {
+                requests.close();
+            } catch (IOException ignore) {
+            }
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) process.destroyForcibly();
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 }
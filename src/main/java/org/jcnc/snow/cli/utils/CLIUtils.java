@@ -33,13 +33,21 @@ public class CLIUtils {
             "--debug"
     );
 
+    /**
+     * 守护进程客户端标志: 把后续命令转发给 {@code snow daemon}。
+     */
+    public static final Set<String> GLOBAL_DAEMON_FLAGS = Set.of(
+            "--daemon"
+    );
+
     /**
      * 全局选项列表，包括帮助和版本选项的描述。
      */
     public static final List<Option> GLOBAL_OPTIONS = List.of(
             new Option(List.of("-h", "--help"), "Show this help message and exit"),
             new Option(List.of("-v", "--version"), "Print snow programming language version and exit"),
-            new Option(List.of("-debug", "--debug"), "Enable debug mode with verbose internal logs")
+            new Option(List.of("-debug", "--debug"), "Enable debug mode with verbose internal logs"),
+            new Option(List.of("--daemon"), "Forward compile/run/link to a running 'snow daemon'")
 
     );
 
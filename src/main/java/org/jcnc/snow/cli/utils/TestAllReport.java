@@ -0,0 +1,319 @@
+package org.jcnc.snow.cli.utils;
+
+import org.jcnc.snow.compiler.parser.utils.JSONParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * {@code snow test-all} 的结果汇总：单个 Demo 的结果、与基线的耗时比较，以及 JSON / JUnit XML 报告。
+ * <p>
+ * JSON 报告同时作为基线文件格式：以 “分组/Demo 名”（如 {@code DemoA/Demo1}）为键，
+ * 记录状态、退出码与编译、运行阶段的墙钟耗时（毫秒）。
+ * </p>
+ */
+public final class TestAllReport {
+
+    /**
+     * 默认慢化阈值（百分比）
+     */
+    public static final double DEFAULT_THRESHOLD = 20.0;
+
+    /**
+     * 判定变慢所需的最小绝对增量（毫秒），避免短小 Demo 的计时抖动被误报
+     */
+    public static final long MIN_SLOWDOWN_MS = 100;
+
+    /**
+     * 工作进程结果行的前缀（见 {@link #toLine(Result)}）
+     */
+    public static final String LINE_PREFIX = "@@snow-test-all ";
+
+    /**
+     * 工具类构造方法，禁止实例化。
+     */
+    private TestAllReport() {
+    }
+
+    /**
+     * 生成 Demo 的报告键：父目录名 + “/” + Demo 目录名；无父目录时只用 Demo 目录名。
+     *
+     * @param demoDir Demo 目录
+     * @return 报告键
+     */
+    public static String key(Path demoDir) {
+        Path abs = demoDir.toAbsolutePath().normalize();
+        Path parent = abs.getParent();
+        String name = abs.getFileName().toString();
+        return parent == null || parent.getFileName() == null ? name : parent.getFileName() + "/" + name;
+    }
+
+    /**
+     * 写出 JSON 报告（亦可作为基线）。
+     *
+     * @param file       输出文件
+     * @param results    各 Demo 结果（按测试顺序）
+     * @param jobs       并发数
+     * @param wallMillis 整个批次的墙钟耗时
+     * @throws IOException 写文件失败
+     */
+    public static void writeJson(Path file, List<Result> results, int jobs, long wallMillis) throws IOException {
+        Map<String, Object> demos = new LinkedHashMap<>();
+        for (Result r : results) {
+            Map<String, Object> e = new LinkedHashMap<>();
+            e.put("status", r.status().name());
+            e.put("exit", r.exitCode());
+            e.put("compileMillis", r.compileMillis());
+            e.put("runMillis", r.runMillis());
+            if (r.message() != null) e.put("message", r.message());
+            demos.put(r.key(), e);
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("jobs", jobs);
+        root.put("wallMillis", wallMillis);
+        root.put("passed", count(results, Status.PASSED));
+        root.put("failed", results.size() - count(results, Status.PASSED) - count(results, Status.SKIPPED));
+        root.put("skipped", count(results, Status.SKIPPED));
+        root.put("demos", demos);
+        createParent(file);
+        Files.writeString(file, JSONParser.toJson(root) + System.lineSeparator(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 写出 JUnit XML 报告：每个分组一个 {@code <testsuite>}，每个 Demo 一个 {@code <testcase>}，
+     * 用时为编译与运行之和；未通过的用例附带捕获的输出。
+     *
+     * @param file       输出文件
+     * @param results    各 Demo 结果
+     * @param wallMillis 整个批次的墙钟耗时
+     * @throws IOException 写文件失败
+     */
+    public static void writeJUnit(Path file, List<Result> results, long wallMillis) throws IOException {
+        Map<String, List<Result>> suites = new LinkedHashMap<>();
+        for (Result r : results) suites.computeIfAbsent(r.group(), g -> new ArrayList<>()).add(r);
+
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<testsuites name=\"snow test-all\"").append(counts(results))
+                .append(" time=\"").append(seconds(wallMillis)).append("\">\n");
+        for (Map.Entry<String, List<Result>> suite : suites.entrySet()) {
+            long suiteMillis = 0;
+            for (Result r : suite.getValue()) suiteMillis += r.totalMillis();
+            sb.append("  <testsuite name=\"").append(attr(suite.getKey())).append('"')
+                    .append(counts(suite.getValue()))
+                    .append(" time=\"").append(seconds(suiteMillis)).append("\">\n");
+            for (Result r : suite.getValue()) {
+                sb.append("    <testcase classname=\"").append(attr(suite.getKey()))
+                        .append("\" name=\"").append(attr(r.name()))
+                        .append("\" time=\"").append(seconds(r.totalMillis())).append('"');
+                if (r.status() == Status.PASSED) {
+                    sb.append("/>\n");
+                    continue;
+                }
+                sb.append(">\n");
+                String message = attr(r.message() != null ? r.message() : r.status().name());
+                switch (r.status()) {
+                    case SKIPPED -> sb.append("      <skipped message=\"").append(message).append("\"/>\n");
+                    case ERROR -> sb.append("      <error type=\"ERROR\" message=\"").append(message).append("\"/>\n");
+                    default -> sb.append("      <failure type=\"").append(r.status().name())
+                            .append("\" message=\"").append(message).append("\"/>\n");
+                }
+                if (r.output() != null && !r.output().isEmpty()) {
+                    sb.append("      <system-out><![CDATA[")
+                            .append(xmlText(r.output()).replace("]]>", "]]]]><![CDATA[>"))
+                            .append("]]></system-out>\n");
+                }
+                sb.append("    </testcase>\n");
+            }
+            sb.append("  </testsuite>\n");
+        }
+        sb.append("</testsuites>\n");
+        createParent(file);
+        Files.writeString(file, sb, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 把结果编码为工作进程回传的一行：{@link #LINE_PREFIX} + JSON，输出以 Base64 编码，
+     * 避免其中的换行与任意字节破坏行格式。
+     *
+     * @param r 结果
+     * @return 不含换行的一行文本
+     */
+    public static String toLine(Result r) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("key", r.key());
+        m.put("name", r.name());
+        m.put("status", r.status().name());
+        m.put("exit", r.exitCode());
+        m.put("compileMillis", r.compileMillis());
+        m.put("runMillis", r.runMillis());
+        if (r.message() != null) m.put("message", r.message());
+        if (r.output() != null) {
+            m.put("output", Base64.getEncoder().encodeToString(r.output().getBytes(StandardCharsets.UTF_8)));
+        }
+        return LINE_PREFIX + JSONParser.toJson(m).replace("\n", " ").replace("\r", " ");
+    }
+
+    /**
+     * 解析 {@link #toLine(Result)} 生成的一行。
+     *
+     * @param line 以 {@link #LINE_PREFIX} 开头的行
+     * @return 结果
+     */
+    public static Result fromLine(String line) {
+        Map<?, ?> m = (Map<?, ?>) JSONParser.parse(line.substring(LINE_PREFIX.length()));
+        String output = m.get("output") instanceof String s
+                ? new String(Base64.getDecoder().decode(s), StandardCharsets.UTF_8) : null;
+        return new Result(String.valueOf(m.get("key")), String.valueOf(m.get("name")),
+                Status.valueOf(String.valueOf(m.get("status"))), (int) number(m.get("exit")),
+                number(m.get("compileMillis")), number(m.get("runMillis")), output,
+                m.get("message") instanceof String s ? s : null);
+    }
+
+    /**
+     * 读取基线文件（先前的 JSON 报告）。
+     *
+     * @param file 基线文件
+     * @return 报告键 → 结果（不含输出）；文件不存在时返回 {@code null}
+     * @throws IOException 读文件失败
+     */
+    public static Map<String, Result> readBaseline(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) return null;
+        Object root = JSONParser.parse(Files.readString(file, StandardCharsets.UTF_8));
+        Map<String, Result> out = new LinkedHashMap<>();
+        if (root instanceof Map<?, ?> m && m.get("demos") instanceof Map<?, ?> demos) {
+            demos.forEach((k, v) -> {
+                if (!(v instanceof Map<?, ?> e)) return;
+                String key = String.valueOf(k);
+                Status status;
+                try {
+                    status = Status.valueOf(String.valueOf(e.get("status")));
+                } catch (IllegalArgumentException ex) {
+                    status = Status.ERROR;
+                }
+                out.put(key, new Result(key, key.substring(key.lastIndexOf('/') + 1), status,
+                        (int) number(e.get("exit")), number(e.get("compileMillis")), number(e.get("runMillis")),
+                        null, null));
+            });
+        }
+        return out;
+    }
+
+    /**
+     * 与基线比较：基线中通过、本次未通过的 Demo 视为新失败；两次都通过、总耗时比基线慢
+     * {@code threshold}% 以上且至少慢 {@value #MIN_SLOWDOWN_MS} 毫秒的 Demo 视为变慢。
+     *
+     * @param results   本次结果
+     * @param baseline  基线结果
+     * @param threshold 慢化阈值（百分比）
+     * @return 每个被标记 Demo 一行说明；无则为空列表
+     */
+    public static List<String> compare(List<Result> results, Map<String, Result> baseline, double threshold) {
+        List<String> flagged = new ArrayList<>();
+        for (Result r : results) {
+            Result base = baseline.get(r.key());
+            if (base == null || base.status() != Status.PASSED || r.status() == Status.SKIPPED) continue;
+            if (r.status() != Status.PASSED) {
+                flagged.add(String.format(Locale.ROOT, "%-24s %s (baseline PASSED)", r.key(), r.status()));
+                continue;
+            }
+            long before = base.totalMillis();
+            long now = r.totalMillis();
+            if (now - before >= MIN_SLOWDOWN_MS && now > before * (1 + threshold / 100.0)) {
+                flagged.add(String.format(Locale.ROOT,
+                        "%-24s %6d ms -> %6d ms  (+%.1f%%; compile %d -> %d, run %d -> %d)",
+                        r.key(), before, now, before == 0 ? 100.0 : (now - before) * 100.0 / before,
+                        base.compileMillis(), r.compileMillis(), base.runMillis(), r.runMillis()));
+            }
+        }
+        return flagged;
+    }
+
+    private static long count(List<Result> results, Status status) {
+        return results.stream().filter(r -> r.status() == status).count();
+    }
+
+    private static String counts(List<Result> results) {
+        long failures = count(results, Status.FAILED) + count(results, Status.TIMEOUT);
+        return " tests=\"" + results.size() + "\" failures=\"" + failures
+                + "\" errors=\"" + count(results, Status.ERROR)
+                + "\" skipped=\"" + count(results, Status.SKIPPED) + '"';
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+
+    private static long number(Object v) {
+        return v instanceof Number n ? n.longValue() : 0L;
+    }
+
+    /**
+     * 转义 XML 属性值，并去掉 XML 不允许的控制字符。
+     */
+    private static String attr(String s) {
+        return xmlText(s).replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("\n", "&#10;");
+    }
+
+    /**
+     * 去掉 XML 1.0 不允许出现的字符（Demo 输出中可能含有任意字节）。
+     */
+    private static String xmlText(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\t' || c == '\n' || c == '\r' || (c >= 0x20 && c < 0xD800) || (c >= 0xE000 && c < 0xFFFE)) {
+                sb.append(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                sb.append(c).append(s.charAt(++i));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void createParent(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+    }
+
+    /**
+     * 单个 Demo 的测试状态。
+     */
+    public enum Status {
+        PASSED, FAILED, ERROR, TIMEOUT, SKIPPED
+    }
+
+    /**
+     * 单个 Demo 的测试结果。
+     *
+     * @param key           报告键（见 {@link #key(Path)}）
+     * @param name          Demo 名称
+     * @param status        测试状态
+     * @param exitCode      编译或运行的退出码（未得到退出码时为 -1）
+     * @param compileMillis 编译阶段墙钟耗时（毫秒）
+     * @param runMillis     运行阶段墙钟耗时（毫秒；未运行时为 0）
+     * @param output        捕获的输出；未捕获时为 {@code null}
+     * @param message       失败说明；通过时为 {@code null}
+     */
+    public record Result(String key, String name, Status status, int exitCode,
+                         long compileMillis, long runMillis, String output, String message) {
+
+        /**
+         * @return 编译与运行耗时之和（毫秒）
+         */
+        public long totalMillis() {
+            return compileMillis + runMillis;
+        }
+
+        /**
+         * @return 分组名（报告键中最后一个 “/” 之前的部分；无分组时为空串）
+         */
+        public String group() {
+            int i = key.lastIndexOf('/');
+            return i < 0 ? "" : key.substring(0, i);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.jcnc.snow.cli.utils;
+
+import org.jcnc.snow.cli.commands.TestAllCommand;
+import org.jcnc.snow.cli.commands.VersionCommand;
+import org.jcnc.snow.vm.io.VMExit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * 生成 JVM 类数据共享归档（AOT 缓存 / AppCDS）时使用的训练入口。
+ * <p>
+ * 依次执行 {@code snow version} 与对示例集的 {@code snow test-all}（编译并运行每个 Demo），
+ * 使启动、CLI、编译器与虚拟机的常用类都被加载并记录到归档中。
+ * test-all 固定以 {@code --jobs=1} 在本进程内逐个测试（并发模式会把 Demo 放到子进程中，训练不到本 JVM）。
+ * 训练期间以嵌入模式运行虚拟机（见 {@link VMExit}），Demo 中的 {@code exit} 不会提前结束 JVM；
+ * 结束时总以退出码 0 退出，个别 Demo 失败不影响归档生成。
+ * </p>
+ *
+ * <pre>
+ * 用法（JDK 25+；参数原样传给 test-all，缺省为 playground/Demo 下的每个分组各一个 --dir）:
+ * $ java -XX:AOTCacheOutput=snow.aot -cp snow.jar org.jcnc.snow.cli.utils.TrainingRun [--dir=...]
+ * </pre>
+ */
+public final class TrainingRun {
+
+    private TrainingRun() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) args = defaultDirs(Path.of("playground", "Demo"));
+        VMExit.setEmbedded(true);
+        new VersionCommand().execute(new String[0]);
+        try {
+            String[] testArgs = Arrays.copyOf(args, args.length + 1);
+            testArgs[args.length] = "--jobs=1";
+            new TestAllCommand().execute(testArgs);
+        } catch (Exception e) {
+            System.err.println("Training run: " + e.getMessage());
+        }
+        System.exit(0);
+    }
+
+    /**
+     * 示例集按分组存放（如 {@code DemoA/Demo1}），test-all 只展开一层子目录，
+     * 因此为每个分组各生成一个 {@code --dir} 参数。
+     */
+    private static String[] defaultDirs(Path root) throws IOException {
+        try (Stream<Path> groups = Files.list(root)) {
+            return groups.filter(Files::isDirectory).sorted()
+                    .map(g -> "--dir=" + g)
+                    .toArray(String[]::new);
+        }
+    }
+}
@@ -7,6 +7,8 @@ import org.jcnc.snow.compiler.ir.core.IRInstruction;
 import org.jcnc.snow.compiler.ir.value.IRVirtualRegister;
 import org.jcnc.snow.compiler.ir.common.GlobalFunctionTable;
 
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -40,6 +42,12 @@ public final class VMCodeGenerator {
      */
     private final VMProgramBuilder out;
 
+    /**
+     * 最近一次规范化的源文件路径（原始 / 规范化后），同一函数内的指令通常来自同一文件
+     */
+    private String lastFile;
+    private String lastNormalized;
+
     /**
      * 构造函数。
      *
@@ -67,7 +75,7 @@ public final class VMCodeGenerator {
      * <ol>
      *     <li>调用 {@code out.beginFunction} 标记函数开始</li>
      *     <li>预设参数槽位的类型前缀，用于生成正确的 LOAD/STORE 指令</li>
-     *     <li>遍历函数体 IR 指令，分发给对应生成器输出 VM 指令</li>
+     *     <li>遍历函数体 IR 指令，标注其源码位置后分发给对应生成器输出 VM 指令</li>
      *     <li>根据函数是否为 main，补充末尾 HALT 或 RET 指令</li>
      *     <li>调用 {@code out.endFunction} 结束函数</li>
      * </ol>
@@ -101,6 +109,7 @@ public final class VMCodeGenerator {
                 throw new IllegalStateException("Unsupported IR: " + ins);
             }
 
+            out.markSource(normalizeFile(ins.sourceFile()), ins.sourceLine());
             gen.generate(ins, out, slotMap, currentFn);
         }
 
@@ -112,6 +121,25 @@ public final class VMCodeGenerator {
         out.endFunction();
     }
 
+    /**
+     * 规范化源文件路径（去掉 {@code ./}、{@code ../} 等冗余片段），用于行号表。
+     *
+     * @param file 解析器记录的源文件路径
+     * @return 规范化后的路径；null 保持为 null
+     */
+    private String normalizeFile(String file) {
+        if (file == null) return null;
+        if (!file.equals(lastFile)) {
+            lastFile = file;
+            try {
+                lastNormalized = Path.of(file).normalize().toString().replace('\\', '/');
+            } catch (InvalidPathException e) {
+                lastNormalized = file;
+            }
+        }
+        return lastNormalized;
+    }
+
     /**
      * 将类型名映射为 VM 槽位类型前缀。
      *
@@ -2,15 +2,20 @@ package org.jcnc.snow.compiler.backend.builder;
 
 import org.jcnc.snow.compiler.ir.builder.core.IRBuilderScope;
 import org.jcnc.snow.vm.engine.VMOpCode;
+import org.jcnc.snow.vm.io.LineTable;
+import org.jcnc.snow.vm.io.SymbolTable;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * {@code VMProgramBuilder} 负责后端阶段的 VM 指令序列组装及符号修补。
  * <ul>
  *     <li>管理函数与标签到指令地址的映射</li>
- *     <li>支持 CALL 和分支指令的延迟回填（符号修补）</li>
+ *     <li>支持 CALL、分支指令及函数地址常量（fnaddr）的延迟回填（符号修补）</li>
  *     <li>支持槽位类型标注（用于类型检查和后端优化，可选）</li>
+ *     <li>记录每个函数的指令区间，输出为 .water 的函数符号表</li>
+ *     <li>记录源码位置的变化点，输出为 .water 的行号表</li>
  * </ul>
  *
  * <p><b>符号修补机制：</b></p>
@@ -19,25 +24,62 @@ import java.util.*;
  *     <li>自动处理 super 调用的符号绑定，例如 Student.super 可自动绑定到 Person.__init__。</li>
  *     <li>所有未解决的 CALL 或分支符号在 build() 阶段将抛出异常，便于调试和定位错误。</li>
  * </ul>
+ *
+ * <p><b>一次性链接：</b></p>
+ * <ul>
+ *     <li>生成阶段只登记定义（函数与标签，按出现顺序编号并按名建立索引）和修补项，不回扫已有修补项。</li>
+ *     <li>{@link #build()} 中一次遍历全部修补项：按目标名在索引上二分查找“登记之后的第一个定义”，
+ *         结果与逐个定义即时回填完全一致，整体为近线性时间。</li>
+ *     <li>需修补的指令以“操作码 + 整数操作数”的结构化记录保存，回填只改整数字段；
+ *         其余指令保留生成器给出的文本（操作数可能是字符串或浮点字面量），最终统一序列化。</li>
+ * </ul>
+ *
+ * <p><b>调用记录与重放：</b></p>
+ * <ul>
+ *     <li>{@link #startRecording()} 之后，构建器按顺序记录每次 beginFunction / emit / emitCall /
+ *         emitBranch / emitFunctionAddress / markSource / endFunction 调用（符号形式，不含绝对地址）。</li>
+ *     <li>{@link #replay(List)} 在另一构建器上按原顺序重放记录。由于地址解析完全由调用序列决定，
+ *         以相同函数顺序重放得到的指令与直接生成的完全一致；增量编译借此复用未变化模块的代码。</li>
+ * </ul>
  */
 public final class VMProgramBuilder {
 
     /**
-     * 未解析地址的占位符，便于后期批量修补
+     * 未解析地址的占位值
      */
-    private static final String PLACEHOLDER = "-1";
+    private static final int UNRESOLVED = -1;
     /**
-     * VM 指令列表
+     * VM 指令列表（结构化，build() 时序列化）
      */
-    private final List<String> code = new ArrayList<>();
+    private final List<Insn> code = new ArrayList<>();
     /**
      * 槽位(寄存器)类型映射表(如 I/F...，用于类型检查或代码生成优化)
      */
     private final Map<Integer, Character> slotType = new HashMap<>();
     /**
-     * 符号(函数名/标签)到指令序号的映射表
+     * 符号(函数名/标签)到指令序号的映射表（同名符号取最近一次定义）
      */
     private final Map<String, Integer> addr = new HashMap<>();
+    /**
+     * 全部定义（函数与标签），按出现顺序
+     */
+    private final List<Def> defs = new ArrayList<>();
+    /**
+     * 符号名 → 该名全部定义在 {@link #defs} 中的序号（递增）
+     */
+    private final Map<String, List<Integer>> defsByName = new HashMap<>();
+    /**
+     * 函数名 → 该名函数定义的序号（递增）
+     */
+    private final Map<String, List<Integer>> funcsByName = new HashMap<>();
+    /**
+     * 函数简名 → 函数定义的序号（递增）
+     */
+    private final Map<String, List<Integer>> funcsBySimple = new HashMap<>();
+    /**
+     * 构造函数（名称含 {@code .__init__}）定义的序号（递增）
+     */
+    private final List<Integer> inits = new ArrayList<>();
     /**
      * 所有待修补的 CALL 指令集合
      */
@@ -46,6 +88,10 @@ public final class VMProgramBuilder {
      * 所有待修补的分支指令集合
      */
     private final List<BranchFix> branchFixes = new ArrayList<>();
+    /**
+     * 所有待修补的函数地址常量（fnaddr）集合
+     */
+    private final List<AddrFix> addrFixes = new ArrayList<>();
     /**
      * 当前代码指针(已生成指令的数量/下一个指令的位置)
      */
@@ -54,6 +100,22 @@ public final class VMProgramBuilder {
      * 当前正在生成代码的函数，用于为局部标签生成唯一前缀。
      */
     private String currentFunction;
+    /**
+     * 当前函数的起始地址
+     */
+    private int functionStart;
+    /**
+     * 已结束的函数及其指令区间，按生成顺序
+     */
+    private final List<SymbolTable.Function> functions = new ArrayList<>();
+    /**
+     * 行号表（源码位置变化点）
+     */
+    private final LineTable.Builder lines = new LineTable.Builder();
+    /**
+     * 构建器调用记录；为 null 表示未在记录
+     */
+    private List<Op> journal;
 
     /**
      * 提取给定名称的最后一个片段。
@@ -69,10 +131,12 @@ public final class VMProgramBuilder {
     }
 
     /**
-     * 读取当前已生成的代码列表（不可变视图）。
+     * 读取当前已生成的代码（序列化后的副本；未回填的地址显示为 -1）。
      */
     public List<String> getCode() {
-        return Collections.unmodifiableList(code);
+        List<String> out = new ArrayList<>(code.size());
+        for (Insn insn : code) out.add(insn.render());
+        return Collections.unmodifiableList(out);
     }
 
     /**
@@ -97,43 +161,95 @@ public final class VMProgramBuilder {
     }
 
     /**
-     * 声明一个函数/标签的起始地址，并尝试修补所有引用到此符号的 CALL/BRANCH。
+     * 声明一个函数的起始地址；引用此符号的 CALL/BRANCH 在 {@link #build()} 中统一回填。
      *
      * @param name 函数或标签全名（如 "Person.getName"、"loop.start"）
      */
     public void beginFunction(String name) {
+        record(Op.BEGIN, name, null, 0);
         // 函数粒度隔离槽位类型，避免跨函数类型污染
         slotType.clear();
         currentFunction = name;
-        addr.put(name, pc);
-        patchCallFixes(name);
-        patchBranchFixes(name);
+        functionStart = pc;
+        define(name, true);
+        // 函数入口先记为未知位置，避免未标注位置的函数沿用上一个函数的行号
+        lines.beginFunction();
+        lines.mark(pc, null, 0);
     }
 
     /**
-     * 函数结束接口，目前无具体实现，便于将来扩展。
+     * 结束当前函数，登记其指令区间 {@code [起始地址, 当前 pc)}。
      */
     public void endFunction() {
+        record(Op.END, null, null, 0);
+        if (currentFunction != null) functions.add(new SymbolTable.Function(currentFunction, functionStart, pc));
         currentFunction = null;
     }
 
+    /**
+     * 返回已生成函数的符号表（函数名与指令区间，按地址递增）。
+     *
+     * @return 函数符号列表（不可变）
+     */
+    public List<SymbolTable.Function> functionSymbols() {
+        return List.copyOf(functions);
+    }
+
+    /**
+     * 标注此后生成的指令所对应的源码位置；与上一位置相同时不产生任何记录。
+     *
+     * @param file 源文件路径，未知为 null
+     * @param line 行号（从 1 开始），未知为 0
+     */
+    public void markSource(String file, int line) {
+        if (!lines.changes(file, line)) return;
+        record(Op.LINE, file, null, line);
+        lines.mark(pc, file, line);
+    }
+
+    /**
+     * 返回行号表条目（按地址递增）。
+     *
+     * @return 行号表条目列表（不可变）
+     */
+    public List<LineTable.Entry> lineEntries() {
+        return lines.entries();
+    }
+
     /**
      * 添加一条 VM 指令或标签（末尾':'视为标签）。
      *
      * @param line 指令或标签
      */
     public void emit(String line) {
+        record(Op.EMIT, line, null, 0);
         if (line.endsWith(":")) {
-            String rawLabel = line.substring(0, line.length() - 1);
-            String scopedLabel = scopeLabel(rawLabel);
-            addr.put(scopedLabel, pc);
-            patchBranchFixes(scopedLabel);
+            define(scopeLabel(line.substring(0, line.length() - 1)), false);
             return;
         }
-        code.add(line);
+        append(new Insn(line, null, UNRESOLVED, Insn.NO_ARGS));
+    }
+
+    private void append(Insn insn) {
+        code.add(insn);
         pc++;
     }
 
+    /**
+     * 登记一个定义（函数入口或标签）于当前 pc。
+     */
+    private void define(String name, boolean function) {
+        int seq = defs.size();
+        defs.add(new Def(name, pc));
+        addr.put(name, pc);
+        defsByName.computeIfAbsent(name, k -> new ArrayList<>(1)).add(seq);
+        if (function) {
+            funcsByName.computeIfAbsent(name, k -> new ArrayList<>(1)).add(seq);
+            funcsBySimple.computeIfAbsent(lastSegment(name), k -> new ArrayList<>(1)).add(seq);
+            if (name.contains(".__init__")) inits.add(seq);
+        }
+    }
+
     /**
      * 生成一条 {@code CALL} 指令。
      * <p>
@@ -141,7 +257,7 @@ public final class VMProgramBuilder {
      * </p>
      * <ul>
      *     <li><b>静态可解析调用：</b>
-     *     如果 {@code target} 能够在编译/汇编期解析到绝对地址，
+     *     如果 {@code target} 此前已定义，
      *     则生成形如 {@code CALL <addr> <nArgs>} 的指令。</li>
      *
      *     <li><b>虚函数调用：</b>
@@ -151,31 +267,44 @@ public final class VMProgramBuilder {
      *     并在运行时通过 vtable 进行方法查找。</li>
      *
      *     <li><b>待回填调用：</b>
-     *     如果以上两种情况都不满足，则生成一个带占位符的指令
-     *     {@code CALL <PLACEHOLDER> <nArgs>}，
+     *     如果以上两种情况都不满足，则生成一条地址未定的 CALL 记录，
      *     并将该调用信息记录到 {@code callFixes} 列表中，
-     *     以便在后续回填阶段修正目标地址。</li>
+     *     由 {@link #build()} 统一回填目标地址。</li>
      * </ul>
      *
      * @param target 调用目标，可以是绝对地址、类方法签名（如 {@code "Animal::speak"}）或符号引用。
      * @param nArgs  调用参数个数。
      */
     public void emitCall(String target, int nArgs) {
+        record(Op.CALL, target, null, nArgs);
+        String call = String.valueOf(VMOpCode.CALL);
         Integer addr = resolve(target);
         if (addr != null) {
             /* 静态可解析：直接生成绝对地址调用 */
-            emit(VMOpCode.CALL + " " + addr + " " + nArgs);
+            append(new Insn(null, call, addr, nArgs));
         } else if (target.contains("::")) {
             /* 虚函数调用：运行时通过 vtable 查找 */
-            emit(VMOpCode.CALL + " @" + target + " " + nArgs);
+            append(new Insn(call + " @" + target + " " + nArgs, null, UNRESOLVED, Insn.NO_ARGS));
         } else {
-            /* 待回填调用：记录占位符，稍后修正 */
-            emit(VMOpCode.CALL + " " + PLACEHOLDER + " " + nArgs);
-            callFixes.add(new CallFix(pc - 1, target, nArgs));
+            /* 待回填调用：记录修补项，稍后修正 */
+            callFixes.add(new CallFix(pc, target, nArgs, defs.size()));
+            append(new Insn(null, call, UNRESOLVED, nArgs));
         }
     }
 
 
+    /**
+     * 生成一条将函数入口地址压栈的 {@code I_PUSH} 指令（用于 {@code fnaddr}）。
+     * 目标地址在 {@link #build()} 阶段统一回填：先按全名精确匹配，再按简名唯一匹配。
+     *
+     * @param target 函数名（通常为 "模块.函数"）
+     */
+    public void emitFunctionAddress(String target) {
+        record(Op.FNADDR, target, null, 0);
+        addrFixes.add(new AddrFix(pc, target));
+        append(new Insn(null, String.valueOf(VMOpCode.I_PUSH), UNRESOLVED, Insn.NO_ARGS));
+    }
+
     /**
      * 添加一条分支指令(如 JMP/BR/BEQ)，若目标未定义则延后修补。
      *
@@ -183,42 +312,121 @@ public final class VMProgramBuilder {
      * @param label  跳转目标标签名
      */
     public void emitBranch(String opcode, String label) {
+        record(Op.BRANCH, opcode, label, 0);
         String scoped = scopeLabel(label);
         Integer a = resolve(scoped);
-        if (a != null) {
-            emit(opcode + " " + a);
-        } else {
-            emit(opcode + " " + PLACEHOLDER);
-            branchFixes.add(new BranchFix(pc - 1, scoped));
+        if (a == null) branchFixes.add(new BranchFix(pc, scoped, defs.size()));
+        append(new Insn(null, opcode, a == null ? UNRESOLVED : a, Insn.NO_ARGS));
+    }
+
+    /**
+     * 开始记录构建器调用；此前的记录被丢弃。
+     */
+    public void startRecording() {
+        journal = new ArrayList<>();
+    }
+
+    /**
+     * 结束记录并返回自 {@link #startRecording()} 以来的调用序列。
+     *
+     * @return 调用记录（不可变）；未在记录时返回空列表
+     */
+    public List<Op> stopRecording() {
+        List<Op> ops = journal == null ? List.of() : List.copyOf(journal);
+        journal = null;
+        return ops;
+    }
+
+    /**
+     * 按顺序重放一段调用记录，效果等同于原样再次调用对应方法。
+     *
+     * @param ops 由 {@link #stopRecording()} 得到的调用记录
+     */
+    public void replay(List<Op> ops) {
+        for (Op op : ops) {
+            switch (op.kind()) {
+                case Op.BEGIN -> beginFunction(op.a());
+                case Op.END -> endFunction();
+                case Op.EMIT -> emit(op.a());
+                case Op.CALL -> emitCall(op.a(), op.n());
+                case Op.BRANCH -> emitBranch(op.a(), op.b());
+                case Op.FNADDR -> emitFunctionAddress(op.a());
+                case Op.LINE -> markSource(op.a(), op.n());
+                default -> throw new IllegalArgumentException("Unknown builder op: " + op);
+            }
         }
     }
 
+    private void record(char kind, String a, String b, int n) {
+        if (journal != null) journal.add(new Op(kind, a, b, n));
+    }
+
     /**
      * 完成代码生成，输出最终 VM 指令序列。
      * <p>
-     * 在最终报错前，统一做一次“继承链回填”：
+     * 一次遍历全部修补项完成链接。CALL 依次尝试:
      * <ol>
-     *   <li>优先尝试精确目标名（子类方法/重写优先）</li>
-     *   <li>否则递归查找父类同名方法</li>
+     *   <li>登记之后第一个满足以下任一条件的函数定义: 全名相同；目标为 {@code X.super} 且函数为
+     *       结构名相同或参数个数相同的 {@code __init__N}；目标为未限定名且简名相同</li>
+     *   <li>全部定义完成后的精确目标名（子类方法/重写优先）</li>
+     *   <li>递归查找父类同名方法</li>
      *   <li>最后仅在唯一情况下允许“简名唯一匹配”</li>
      * </ol>
+     * 分支绑定到登记之后第一个同名定义；fnaddr 先按全名、再按简名唯一匹配。
      * 如果还有未修补的调用或分支，将抛出异常（包含全部未解析符号，便于调试）。
      *
      * @return 指令序列(不可变)
      * @throws IllegalStateException 如果存在未修补符号
      */
     public List<String> build() {
-        // --- 统一做一次继承链回填 ---
-        patchRemainingFixesByInheritance();
+        List<CallFix> unresolvedCalls = new ArrayList<>();
+        List<BranchFix> unresolvedBranches = new ArrayList<>();
+        List<AddrFix> unresolvedAddrs = new ArrayList<>();
+        Map<String, Set<String>> keysBySimple = null; // 简名唯一匹配时才建立
+
+        for (BranchFix f : branchFixes) {
+            int seq = firstAtOrAfter(defsByName.get(f.label), f.defMark);
+            if (seq < 0) unresolvedBranches.add(f);
+            else code.get(f.index).target = defs.get(seq).pc;
+        }
+
+        for (CallFix f : callFixes) {
+            Integer a = bindForward(f);
+            if (a == null) a = addr.get(f.target);
+            if (a == null) {
+                int dot = f.target.indexOf('.');
+                if (dot > 0) {
+                    a = bindByInheritance(f.target.substring(0, dot), f.target.substring(dot + 1));
+                } else {
+                    if (keysBySimple == null) keysBySimple = indexKeysBySimpleName();
+                    a = uniqueBySimpleName(keysBySimple.get(f.target), false);
+                }
+            }
+            if (a == null) unresolvedCalls.add(f);
+            else code.get(f.index).target = a;
+        }
 
-        if (!callFixes.isEmpty() || !branchFixes.isEmpty()) {
+        for (AddrFix f : addrFixes) {
+            Integer a = addr.get(f.target);
+            if (a == null && f.target.indexOf('.') < 0) {
+                if (keysBySimple == null) keysBySimple = indexKeysBySimpleName();
+                a = uniqueBySimpleName(keysBySimple.get(f.target), true);
+            }
+            if (a == null) unresolvedAddrs.add(f);
+            else code.get(f.index).target = a;
+        }
+
+        if (!unresolvedCalls.isEmpty() || !unresolvedBranches.isEmpty() || !unresolvedAddrs.isEmpty()) {
             throw new IllegalStateException("""
             构建过程中存在未解析的符号：
               调用修复（calls）   = %s
               分支修复（branches）= %s
-            """.formatted(callFixes, branchFixes));
+              地址修复（fnaddr）  = %s
+            """.formatted(unresolvedCalls, unresolvedBranches, unresolvedAddrs));
         }
-        return List.copyOf(code);
+        List<String> out = new ArrayList<>(code.size());
+        for (Insn insn : code) out.add(insn.render());
+        return List.copyOf(out);
     }
 
     /**
@@ -251,149 +459,190 @@ public final class VMProgramBuilder {
     }
 
     /**
-     * 在所有函数都已落址后，统一对剩余 CALL 进行继承链/最终回填：
-     * 1. 若存在“精确目标名”，优先绑定到它（保证子类重写优先）；
-     * 2. 否则沿继承链向上查找第一个已定义的同名方法并绑定；
-     * 3. 若仍未命中，再尝试“简名唯一匹配”（避免多义性，只有唯一时才绑定）；
-     * 未能解析者保留给后续的未解析报错逻辑。
+     * 逐个函数定义出现时即可完成的绑定：登记之后第一个满足
+     * ‘全限定名精确匹配’、‘super(...) 构造调用’或‘原本未限定名的简名匹配’的函数。
+     * 继承链回填在全部定义完成后进行，避免过早把子类调用绑到父类。
+     *
+     * @return 目标地址；无匹配返回 null
      */
-    private void patchRemainingFixesByInheritance() {
-        for (Iterator<CallFix> it = callFixes.iterator(); it.hasNext(); ) {
-            CallFix f = it.next();
+    private Integer bindForward(CallFix f) {
+        // 1) 全限定名精确匹配
+        int best = firstAtOrAfter(funcsByName.get(f.target), f.defMark);
 
-            // 1) 精确目标名（如 Student.getName），保证优先匹配到子类重写方法
-            Integer exact = addr.get(f.target);
-            if (exact != null) {
-                code.set(f.index, VMOpCode.CALL + " " + exact + " " + f.nArgs);
-                it.remove();
-                continue;
-            }
+        // 2) 简名匹配（仅当“原始目标本来就是未限定名”时才允许）
+        if (f.target.lastIndexOf('.') < 0) {
+            best = earlier(best, firstAtOrAfter(funcsBySimple.get(f.target), f.defMark));
+        }
 
-            // 2) 沿父类链向上查找第一个已定义的同名方法
-            int dot = f.target.indexOf('.');
-            if (dot > 0) {
-                String curStruct = f.target.substring(0, dot);
-                String member = f.target.substring(dot + 1);
-
-                while (curStruct != null) {
-                    String cand = curStruct + "." + member;
-                    Integer a = addr.get(cand);
-                    if (a != null) {
-                        code.set(f.index, VMOpCode.CALL + " " + a + " " + f.nArgs);
-                        it.remove();
-                        break;
-                    }
-                    curStruct = IRBuilderScope.getStructParent(curStruct);
-                }
-                if (!it.hasNext()) { // 防止迭代器状态错误
-                    // no-op
+        // 3) super(...) 绑定（用于 __init__N）：结构名一致或参数个数一致即可认为匹配
+        if (f.target.endsWith(".super")) {
+            String tStruct = f.target.substring(0, f.target.length() - 6); // 去掉 ".super"
+            for (int i = lowerBound(inits, f.defMark); i < inits.size(); i++) {
+                int seq = inits.get(i);
+                if (best >= 0 && best < seq) break;
+                String name = defs.get(seq).name;
+                String nStruct = name.substring(0, name.indexOf(".__init__"));
+                int initArgc = -1;
+                try {
+                    initArgc = Integer.parseInt(name.substring(name.lastIndexOf("__init__") + 8));
+                } catch (NumberFormatException ignored) {
                 }
-                if (!callFixes.contains(f)) { // 已移除则继续
-                    continue;
+                if (tStruct.equals(nStruct) || initArgc == f.nArgs) {
+                    best = earlier(best, seq);
+                    break;
                 }
             }
+        }
+        return best < 0 ? null : defs.get(best).pc;
+    }
 
-            // 3) 简名唯一匹配（只允许唯一目标，否则放弃防止二义性）
-            if (dot < 0) {
-                String simple = f.target;
-                String chosen = null;
-                for (String k : addr.keySet()) {
-                    int i = k.lastIndexOf('.');
-                    String ks = (i >= 0) ? k.substring(i + 1) : k;
-                    if (ks.equals(simple)) {
-                        if (chosen != null && !chosen.equals(k)) {
-                            chosen = null; // 多义性，放弃
-                            break;
-                        }
-                        chosen = k;
-                    }
-                }
-                if (chosen != null) {
-                    int a = addr.get(chosen);
-                    code.set(f.index, VMOpCode.CALL + " " + a + " " + f.nArgs);
-                    it.remove();
-                }
-            }
+    /**
+     * 沿父类链向上查找第一个已定义的同名方法。
+     */
+    private Integer bindByInheritance(String struct, String member) {
+        for (String cur = struct; cur != null; cur = IRBuilderScope.getStructParent(cur)) {
+            Integer a = addr.get(cur + "." + member);
+            if (a != null) return a;
         }
+        return null;
     }
 
     /**
-     * 逐个函数定义出现时的回填：
-     * 仅处理‘全名精确匹配’、‘super(...) 构造调用’和‘原本未限定名的简名匹配’。
-     * 继承链回填改为在全部定义完成后统一进行，避免过早把子类调用绑到父类。
-     *
-     * @param name 当前刚声明/定义的函数名（通常为全限定名）
+     * 按简名对全部已定义符号建立索引。
      */
-    private void patchCallFixes(String name) {
-        // 当前刚定义/落址的函数的“简名”（不含结构体前缀）
-        String nameSimple;
-        int cut = name.lastIndexOf('.');
-        nameSimple = (cut >= 0) ? name.substring(cut + 1) : name;
+    private Map<String, Set<String>> indexKeysBySimpleName() {
+        Map<String, Set<String>> index = new HashMap<>();
+        for (String k : addr.keySet()) {
+            index.computeIfAbsent(lastSegment(k), x -> new HashSet<>(2)).add(k);
+        }
+        return index;
+    }
 
-        for (Iterator<CallFix> it = callFixes.iterator(); it.hasNext(); ) {
-            CallFix f = it.next();
+    /**
+     * 简名唯一匹配：候选全名恰有一个时返回其地址，否则（无或多义）返回 null。
+     *
+     * @param keys          简名相同的全部符号
+     * @param skipLabels    是否忽略带 {@code ::} 的标签符号（fnaddr 只绑定函数）
+     */
+    private Integer uniqueBySimpleName(Set<String> keys, boolean skipLabels) {
+        if (keys == null) return null;
+        String chosen = null;
+        for (String k : keys) {
+            if (skipLabels && k.contains("::")) continue;
+            if (chosen != null) return null; // 多义性，放弃
+            chosen = k;
+        }
+        return chosen == null ? null : addr.get(chosen);
+    }
 
-            // 1) 全限定名精确匹配
-            boolean qualifiedMatch = f.target.equals(name);
+    private static int earlier(int a, int b) {
+        if (a < 0) return b;
+        if (b < 0) return a;
+        return Math.min(a, b);
+    }
 
-            // 2) super(...) 绑定（用于 __init__N）
-            boolean superMatch = false;
-            if (f.target.endsWith(".super") && name.contains(".__init__")) {
-                String tStruct = f.target.substring(0, f.target.length() - 6); // 去掉 ".super"
-                String nStruct = name.substring(0, name.indexOf(".__init__"));
+    /**
+     * 递增序号表中第一个 ≥ mark 的元素；无则 -1。
+     */
+    private static int firstAtOrAfter(List<Integer> seqs, int mark) {
+        if (seqs == null) return -1;
+        int i = lowerBound(seqs, mark);
+        return i < seqs.size() ? seqs.get(i) : -1;
+    }
 
-                int initArgc = -1;
-                try {
-                    String num = name.substring(name.lastIndexOf("__init__") + 8);
-                    initArgc = Integer.parseInt(num);
-                } catch (NumberFormatException ignored) {
-                }
+    /**
+     * 二分查找第一个 ≥ mark 的下标。
+     */
+    private static int lowerBound(List<Integer> seqs, int mark) {
+        int lo = 0, hi = seqs.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (seqs.get(mid) < mark) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
 
-                // 结构名一致或参数个数一致即可认为匹配
-                if (tStruct.equals(nStruct) || initArgc == f.nArgs) {
-                    superMatch = true;
-                }
-            }
+    /**
+     * 一次构建器调用的记录。
+     *
+     * @param kind 调用种类（{@link #BEGIN}、{@link #EMIT} 等）
+     * @param a    第一个参数（函数名 / 指令行 / 调用目标 / 分支操作码 / 源文件）
+     * @param b    第二个参数（分支标签），无则为 null
+     * @param n    整数参数（CALL 的实参个数 / 源码行号），无则为 0
+     */
+    public record Op(char kind, String a, String b, int n) implements Serializable {
+        public static final char BEGIN = 'B';
+        public static final char END = 'E';
+        public static final char EMIT = 'I';
+        public static final char CALL = 'C';
+        public static final char BRANCH = 'J';
+        public static final char FNADDR = 'A';
+        public static final char LINE = 'L';
+    }
 
-            // 3) 简名匹配（仅当“原始目标本来就是未限定名”时才允许）
-            String targetSimple;
-            int p = f.target.lastIndexOf('.');
-            targetSimple = (p >= 0) ? f.target.substring(p + 1) : f.target;
-            boolean simpleMatch = (p < 0) && targetSimple.equals(nameSimple);
+    /**
+     * 一条 VM 指令。普通指令保存生成器给出的文本；CALL、分支与 fnaddr 保存操作码与整数操作数，
+     * 回填时只修改 {@link #target}。
+     */
+    private static final class Insn {
+        static final int NO_ARGS = -1;
+
+        /**
+         * 普通指令的文本；结构化指令为 null
+         */
+        final String text;
+        /**
+         * 结构化指令的操作码
+         */
+        final String opcode;
+        /**
+         * 目标地址（未回填时为 -1）
+         */
+        int target;
+        /**
+         * CALL 的实参个数；其他指令为 {@link #NO_ARGS}
+         */
+        final int nArgs;
+
+        Insn(String text, String opcode, int target, int nArgs) {
+            this.text = text;
+            this.opcode = opcode;
+            this.target = target;
+            this.nArgs = nArgs;
+        }
 
-            if (qualifiedMatch || superMatch || simpleMatch) {
-                int targetAddr = addr.get(name);
-                code.set(f.index, VMOpCode.CALL + " " + targetAddr + " " + f.nArgs);
-                it.remove();
-            }
+        String render() {
+            if (text != null) return text;
+            return nArgs == NO_ARGS ? opcode + " " + target : opcode + " " + target + " " + nArgs;
         }
     }
 
     /**
-     * 修补所有等待目标 label 的分支指令。
+     * 一次定义（函数入口或标签）。
+     */
+    private record Def(String name, int pc) {
+    }
+
+    /**
+     * 未知目标的 CALL 指令修补记录。
      *
-     * @param label 目标标签
-     */
-    private void patchBranchFixes(String label) {
-        for (Iterator<BranchFix> it = branchFixes.iterator(); it.hasNext(); ) {
-            BranchFix f = it.next();
-            if (f.label.equals(label)) {
-                String patched = code.get(f.index).replace(PLACEHOLDER, addr.get(label).toString());
-                code.set(f.index, patched);
-                it.remove();
-            }
-        }
+     * @param defMark 登记时已有的定义个数（只有此后的定义参与前向绑定）
+     */
+    private record CallFix(int index, String target, int nArgs, int defMark) {
     }
 
     /**
-     * 未知目标的 CALL 指令修补记录(待目标地址确定后修正)。
+     * 未知目标的分支指令修补记录。
+     *
+     * @param defMark 登记时已有的定义个数
      */
-    private record CallFix(int index, String target, int nArgs) {
+    private record BranchFix(int index, String label, int defMark) {
     }
 
     /**
-     * 未知目标的分支指令修补记录(待目标标签确定后修正)。
+     * 函数地址常量修补记录(待全部函数落址后修正)。
      */
-    private record BranchFix(int index, String label) {
+    private record AddrFix(int index, String target) {
     }
 }
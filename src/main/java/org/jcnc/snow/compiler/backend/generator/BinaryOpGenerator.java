@@ -5,13 +5,13 @@ import org.jcnc.snow.compiler.backend.core.InstructionGenerator;
 import org.jcnc.snow.compiler.backend.utils.IROpCodeMapper;
 import org.jcnc.snow.compiler.backend.utils.OpHelper;
 import org.jcnc.snow.compiler.backend.utils.TypePromoteUtils;
+import org.jcnc.snow.compiler.common.CompilationContext;
 import org.jcnc.snow.compiler.ir.core.IRValue;
 import org.jcnc.snow.compiler.ir.instruction.BinaryOperationInstruction;
 import org.jcnc.snow.compiler.ir.value.IRConstant;
 import org.jcnc.snow.compiler.ir.value.IRVirtualRegister;
 
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * {@code BinaryOpGenerator} 用于生成虚拟机的二元运算指令。
@@ -34,19 +34,14 @@ public class BinaryOpGenerator implements InstructionGenerator<BinaryOperationIn
     /*  常量与工具  */
 
     /**
-     * 用于生成唯一标签的计数器
-     */
-    private static final AtomicInteger COUNTER = new AtomicInteger(0);
-
-    /**
-     * 生成唯一标签。
+     * 生成唯一标签（计数器归属当前编译上下文）。
      *
      * @param fn  当前函数名（前缀）
      * @param tag 标签用途（中缀）
      * @return 形如 fn$tag$序号 的唯一标签
      */
     private static String fresh(String fn, String tag) {
-        return fn + "$" + tag + "$" + COUNTER.getAndIncrement();
+        return fn + "$" + tag + "$" + CompilationContext.current().labelCounter().getAndIncrement();
     }
 
     /**
@@ -136,7 +131,9 @@ public class BinaryOpGenerator implements InstructionGenerator<BinaryOperationIn
         char tType = TypePromoteUtils.promote(lType, rType); // 类型提升结果
         char irType = typeFromOpcode(irName);
         if (!"ADD".equals(opCore) && irType != 0 && tType != irType) {
-            tType = irType;
+            // 比较指令的跳转码由 IR 决定，必须与之一致；
+            // 算术指令只允许向更宽类型靠拢，避免 long / int 字面量被截断为 int 运算
+            tType = irName.startsWith("CMP_") ? irType : TypePromoteUtils.promote(tType, irType);
         }
         String tPre = TypePromoteUtils.str(tType);
 
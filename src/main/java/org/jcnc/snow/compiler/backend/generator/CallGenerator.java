@@ -4,6 +4,7 @@ import org.jcnc.snow.compiler.backend.builder.VMProgramBuilder;
 import org.jcnc.snow.compiler.backend.core.InstructionGenerator;
 import org.jcnc.snow.compiler.backend.utils.OpHelper;
 import org.jcnc.snow.compiler.backend.utils.TypePromoteUtils;
+import org.jcnc.snow.compiler.common.CompilationContext;
 import org.jcnc.snow.compiler.ir.common.GlobalFunctionTable;
 import org.jcnc.snow.compiler.ir.core.IRValue;
 import org.jcnc.snow.compiler.ir.instruction.CallInstruction;
@@ -14,7 +15,6 @@ import org.jcnc.snow.vm.engine.VMOpCode;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 负责将 IR 层的 {@link CallInstruction} 转换为 VM 层的函数调用指令。
@@ -25,6 +25,7 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <ul>
  *     <li>系统调用（syscall），支持子命令字符串常量池</li>
  *     <li>内置数组元素访问和赋值（如 <code>__index_* / __setindex_*</code>）</li>
+ *     <li>函数入口地址 <code>fnaddr("模块.函数")</code></li>
  *     <li>普通函数调用，根据返回类型生成对应的 STORE 指令</li>
  *   </ul>
  *   <li>支持字符串常量的注册与查找，用于 syscall 子命令参数优化</li>
@@ -34,15 +35,17 @@ import java.util.concurrent.ConcurrentHashMap;
 public class CallGenerator implements InstructionGenerator<CallInstruction> {
 
     /**
-     * 字符串常量池。
-     * 用于存储 syscall 子命令所需的字符串常量，key 为虚拟寄存器 ID，value 为字符串常量。
+     * 最近一次生成时所处的函数名，可用于调试和错误信息。
      */
-    private static final Map<Integer, String> STRING_CONST_POOL = new ConcurrentHashMap<>();
+    private String fn;
 
     /**
-     * 最近一次生成时所处的函数名，可用于调试和错误信息。
+     * 当前编译的字符串常量池。
+     * 用于存储 syscall 子命令所需的字符串常量，key 为虚拟寄存器 ID，value 为字符串常量。
      */
-    private String fn;
+    private static Map<Integer, String> stringConstPool() {
+        return CompilationContext.current().stringConstants();
+    }
 
     /**
      * 注册一个字符串常量到常量池，用于 syscall 子命令参数。
@@ -51,7 +54,7 @@ public class CallGenerator implements InstructionGenerator<CallInstruction> {
      * @param value 字符串常量内容
      */
     public static void registerStringConst(int regId, String value) {
-        STRING_CONST_POOL.put(regId, value);
+        stringConstPool().put(regId, value);
     }
 
     /**
@@ -121,7 +124,13 @@ public class CallGenerator implements InstructionGenerator<CallInstruction> {
             return;
         }
 
-        // 2. 处理内置数组读取和写入指令
+        // 2. 处理 fnaddr：取函数入口地址
+        if ("fnaddr".equals(fn) || fn.endsWith(".fnaddr")) {
+            generateFunctionAddress(ins, out, slotMap, fn);
+            return;
+        }
+
+        // 3. 处理内置数组读取和写入指令
         switch (fn) {
             case "__index_b" -> {
                 generateIndexInstruction(ins, out, slotMap, 'B');
@@ -181,7 +190,7 @@ public class CallGenerator implements InstructionGenerator<CallInstruction> {
             }
         }
 
-        // 3. 其余为普通函数调用
+        // 4. 其余为普通函数调用
         generateNormalCall(ins, out, slotMap, fn);
     }
 
@@ -265,8 +274,15 @@ public class CallGenerator implements InstructionGenerator<CallInstruction> {
                  "0X140E", "GETADDRINFO",
                  "0X140B", "GETSOCKOPT",
                  "0X1507", "THREAD_JOIN",
+                 "0X1509", "PARALLEL_FOR",
+                 "0X150A", "PARALLEL_MAP",
+                 "0X150D", "TASK_JOIN",
+                 "0X1617", "CHAN_RECV",
+                 "0X1619", "CHAN_TRY_RECV",
+                 "0X161B", "CHAN_RECV_TIMED",
                  "0X1900", "STDERR_WRITE",
                  "0X1906", "MEMINFO",
+                 "0X1907", "METRICS",
                  "0X1903", "RANDOM_BYTES" -> 'R';
 
             // 返回 long
@@ -317,6 +333,38 @@ public class CallGenerator implements InstructionGenerator<CallInstruction> {
         }
     }
 
+    /**
+     * 生成 fnaddr 的 VM 指令：将目标函数的入口地址以 int 形式写入目标槽位。
+     * 地址在 {@link VMProgramBuilder#build()} 时统一回填。
+     *
+     * @param ins     IR 调用指令
+     * @param out     VM 指令构建器
+     * @param slotMap 虚拟寄存器到槽位映射
+     * @param fn      函数名
+     */
+    private void generateFunctionAddress(CallInstruction ins, VMProgramBuilder out, Map<IRVirtualRegister, Integer> slotMap, String fn) {
+        List<IRValue> args = ins.getArguments();
+        if (args.size() != 1) throw new IllegalStateException("[CallGenerator] fnaddr 需要一个函数名参数");
+
+        String target;
+        if (args.getFirst() instanceof IRConstant(Object value) && value instanceof String s) {
+            target = s;
+        } else if (args.getFirst() instanceof IRVirtualRegister(int id) && stringConstPool().containsKey(id)) {
+            target = stringConstPool().get(id);
+        } else {
+            throw new IllegalStateException("[CallGenerator] fnaddr 的参数必须是字符串常量");
+        }
+
+        out.emitFunctionAddress(target);
+
+        IRVirtualRegister dest = ins.getDest();
+        if (dest == null) return;
+        Integer slot = slotMap.get(dest);
+        if (slot == null) throw new IllegalStateException("[CallGenerator] " + fn + " 未找到目标槽位");
+        out.emit(OpHelper.opcode("I_STORE") + " " + slot);
+        out.setSlotType(slot, 'I');
+    }
+
     /**
      * 解析 syscall 子命令参数。
      * 支持 IRConstant（直接字符串）和 IRVirtualRegister（常量池查找）。
@@ -332,7 +380,7 @@ public class CallGenerator implements InstructionGenerator<CallInstruction> {
             throw new IllegalStateException("[CallGenerator] syscall 子命令必须是字符串");
         }
         if (arg instanceof IRVirtualRegister(int id)) {
-            String s = STRING_CONST_POOL.get(id);
+            String s = stringConstPool().get(id);
             if (s == null) throw new IllegalStateException("[CallGenerator] 未注册的 syscall 字符串常量");
             return s.toUpperCase(Locale.ROOT);
         }
@@ -0,0 +1,37 @@
+package org.jcnc.snow.compiler.backend.link;
+
+import org.jcnc.snow.vm.io.LineTable;
+import org.jcnc.snow.vm.io.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 链接完成的 VM 程序：指令序列及其函数符号表、行号表。
+ * <p>
+ * 编译器（{@code VMProgramBuilder}）与链接器（{@link Linker}）都产出本记录；
+ * 写出 .water 时符号表与行号表以注释段附在代码之后（格式见 {@link SymbolTable}、{@link LineTable}），
+ * 不影响指令地址。
+ * </p>
+ *
+ * @param code    VM 指令序列
+ * @param symbols 函数符号表（函数名与指令区间）
+ * @param lines   行号表（指令地址到源码行）
+ */
+public record LinkedProgram(List<String> code, SymbolTable symbols, LineTable lines) {
+
+    /**
+     * 返回 .water 文件的全部行：指令在前，符号段与行号段在后。
+     *
+     * @return 文件行列表
+     */
+    public List<String> fileLines() {
+        List<String> symbolSection = SymbolTable.render(symbols.functions());
+        List<String> lineSection = LineTable.render(lines.entries());
+        List<String> out = new ArrayList<>(code.size() + symbolSection.size() + lineSection.size());
+        out.addAll(code);
+        out.addAll(symbolSection);
+        out.addAll(lineSection);
+        return out;
+    }
+}
@@ -0,0 +1,348 @@
+package org.jcnc.snow.compiler.backend.link;
+
+import org.jcnc.snow.compiler.backend.builder.VMProgramBuilder;
+import org.jcnc.snow.vm.engine.VMOpCode;
+import org.jcnc.snow.vm.io.LineTable;
+import org.jcnc.snow.vm.io.SymbolTable;
+
+import java.util.*;
+
+/**
+ * 链接器：把若干 {@link ObjectFile} 连接为完整的 VM 程序。
+ * <p>
+ * 链接分三步，每个重定位项只访问一次:
+ * <ol>
+ *     <li><b>布局</b>: 以函数为单位按目标文件顺序排列；入口函数（{@code main} 或 {@code *.main}）
+ *         与首个函数交换，保证入口 PC=0（与编译器的入口调整一致）</li>
+ *     <li><b>建表</b>: 按全名、简名与构造函数分别建立符号索引（均按定义顺序）</li>
+ *     <li><b>重定位</b>: 分支按所在函数的新基址平移；调用与 fnaddr 按 {@link VMProgramBuilder}
+ *         的绑定规则解析</li>
+ * </ol>
+ * </p>
+ * <p>
+ * 调用绑定规则（与整体编译逐条一致）:
+ * <ol>
+ *     <li>调用点之前已定义的同名函数（最近一次定义）</li>
+ *     <li>目标含 {@code ::} 时保留为虚调用 {@code CALL @目标}</li>
+ *     <li>调用点之后第一个满足以下任一条件的函数: 全名相同；目标为 {@code X.super} 且函数为
+ *         结构名相同或参数个数相同的 {@code __init__N}；目标为未限定名且简名相同</li>
+ *     <li>沿继承链查找 {@code 父类.方法}；未限定名则要求简名唯一</li>
+ * </ol>
+ * fnaddr 先按全名精确匹配，再按简名唯一匹配。无法解析的符号汇总后抛出异常。
+ * </p>
+ */
+public final class Linker {
+
+    private Linker() {
+    }
+
+    /**
+     * 链接目标文件。
+     *
+     * @param objects 目标文件，按链接顺序
+     * @return 链接后的程序：VM 指令序列（不可变）及按布局得到的函数符号表与行号表
+     * @throws IllegalStateException 存在无法解析的符号
+     */
+    public static LinkedProgram link(List<ObjectFile> objects) {
+        // ---------- 1. 布局：以函数为单位 ----------
+        List<Section> sections = new ArrayList<>();
+        Map<String, String> parents = new HashMap<>();
+        for (ObjectFile obj : objects) {
+            obj.structParents().forEach((k, v) -> {
+                if (v != null && !v.isBlank()) parents.put(k, v);
+            });
+            List<ObjectFile.Symbol> syms = obj.symbols();
+            if (syms.isEmpty() && !obj.code().isEmpty()) {
+                throw new IllegalStateException("目标文件 " + obj.module() + " 含有不属于任何函数的代码");
+            }
+            for (int i = 0; i < syms.size(); i++) {
+                int start = syms.get(i).offset();
+                int end = i + 1 < syms.size() ? syms.get(i + 1).offset() : obj.code().size();
+                sections.add(new Section(obj, syms.get(i).name(), start, end));
+            }
+        }
+        for (int i = 0; i < sections.size(); i++) {
+            String fn = sections.get(i).name;
+            if ("main".equals(fn) || fn.endsWith(".main")) {
+                Collections.swap(sections, 0, i);
+                break;
+            }
+        }
+        List<String> code = new ArrayList<>();
+        List<SymbolTable.Function> functions = new ArrayList<>(sections.size());
+        List<LineTable.Entry> lines = new ArrayList<>();
+        for (Section s : sections) {
+            s.base = code.size();
+            code.addAll(s.obj.code().subList(s.start, s.end));
+            functions.add(new SymbolTable.Function(s.name, s.base, code.size()));
+            for (LineTable.Entry e : linesIn(s)) {
+                lines.add(new LineTable.Entry(s.base + (e.pc() - s.start), e.file(), e.line()));
+            }
+        }
+
+        // ---------- 2. 符号索引（按定义顺序，地址单调不减） ----------
+        List<Sym> all = new ArrayList<>(sections.size());
+        Map<String, List<Sym>> byName = new HashMap<>();
+        Map<String, List<Sym>> bySimple = new HashMap<>();
+        List<Sym> inits = new ArrayList<>();
+        Map<String, Integer> finalAddr = new LinkedHashMap<>();
+        for (Section s : sections) {
+            Sym sym = new Sym(s.name, s.base, all.size());
+            all.add(sym);
+            byName.computeIfAbsent(s.name, k -> new ArrayList<>()).add(sym);
+            bySimple.computeIfAbsent(lastSegment(s.name), k -> new ArrayList<>()).add(sym);
+            if (s.name.contains(".__init__")) inits.add(sym);
+            finalAddr.put(s.name, s.base);
+        }
+
+        // ---------- 3. 重定位 ----------
+        List<String> unresolvedCalls = new ArrayList<>();
+        List<String> unresolvedAddrs = new ArrayList<>();
+        for (Section s : sections) {
+            for (ObjectFile.Reloc r : relocsIn(s)) {
+                int at = s.base + (r.index() - s.start);
+                switch (r.kind()) {
+                    case LOCAL -> {
+                        int target = ObjectFile.operand(code.get(at));
+                        code.set(at, ObjectFile.withOperand(code.get(at), s.base + (target - s.start)));
+                    }
+                    case CALL -> {
+                        String line = bindCall(r.target(), r.nArgs(), at, byName, bySimple, inits, finalAddr, parents);
+                        if (line == null) unresolvedCalls.add(r.target() + "@" + at);
+                        else code.set(at, line);
+                    }
+                    case ADDR -> {
+                        Integer a = bindAddr(r.target(), finalAddr, bySimple);
+                        if (a == null) unresolvedAddrs.add(r.target() + "@" + at);
+                        else code.set(at, VMOpCode.I_PUSH + " " + a);
+                    }
+                }
+            }
+        }
+        if (!unresolvedCalls.isEmpty() || !unresolvedAddrs.isEmpty()) {
+            throw new IllegalStateException("""
+            链接过程中存在未解析的符号：
+              调用修复（calls）   = %s
+              地址修复（fnaddr）  = %s
+            """.formatted(unresolvedCalls, unresolvedAddrs));
+        }
+        return new LinkedProgram(List.copyOf(code), new SymbolTable(functions), new LineTable(lines));
+    }
+
+    /**
+     * 解析一条 CALL 重定位，返回最终指令行；无法解析返回 null。
+     */
+    private static String bindCall(String target, int nArgs, int at,
+                                   Map<String, List<Sym>> byName, Map<String, List<Sym>> bySimple,
+                                   List<Sym> inits, Map<String, Integer> finalAddr, Map<String, String> parents) {
+        // 1) 调用点之前已定义：取最近一次定义
+        Sym before = lastAtOrBefore(byName.get(target), at);
+        if (before != null) return call(before.addr, nArgs);
+        // 2) 虚调用
+        if (target.contains("::")) return VMOpCode.CALL + " @" + target + " " + nArgs;
+
+        // 3) 调用点之后第一个匹配的定义
+        Sym best = firstAfter(byName.get(target), at);
+        if (target.lastIndexOf('.') < 0) best = earlier(best, firstAfter(bySimple.get(target), at));
+        if (target.endsWith(".super")) {
+            String tStruct = target.substring(0, target.length() - 6);
+            for (int i = firstIndexAfter(inits, at); i < inits.size(); i++) {
+                Sym s = inits.get(i);
+                if (best != null && best.seq < s.seq) break;
+                if (superMatches(tStruct, nArgs, s.name)) {
+                    best = earlier(best, s);
+                    break;
+                }
+            }
+        }
+        if (best != null) return call(best.addr, nArgs);
+
+        // 4) 全部定义完成后：精确名 → 继承链 → 简名唯一
+        Integer exact = finalAddr.get(target);
+        if (exact != null) return call(exact, nArgs);
+        int dot = target.indexOf('.');
+        if (dot > 0) {
+            String cur = target.substring(0, dot);
+            String member = target.substring(dot + 1);
+            while (cur != null) {
+                Integer a = finalAddr.get(cur + "." + member);
+                if (a != null) return call(a, nArgs);
+                cur = parentOf(parents, cur);
+            }
+            return null;
+        }
+        if (dot < 0) {
+            String chosen = uniqueBySimpleName(target, bySimple);
+            if (chosen != null) return call(finalAddr.get(chosen), nArgs);
+        }
+        return null;
+    }
+
+    /**
+     * 解析 fnaddr：全名精确匹配优先，否则仅在简名唯一时绑定。
+     */
+    private static Integer bindAddr(String target, Map<String, Integer> finalAddr, Map<String, List<Sym>> bySimple) {
+        Integer a = finalAddr.get(target);
+        if (a != null || target.indexOf('.') >= 0) return a;
+        String chosen = uniqueBySimpleName(target, bySimple);
+        return chosen == null ? null : finalAddr.get(chosen);
+    }
+
+    /**
+     * 简名唯一匹配：简名为 simple 的函数全名恰有一个时返回它，否则（无或多义）返回 null。
+     */
+    private static String uniqueBySimpleName(String simple, Map<String, List<Sym>> bySimple) {
+        List<Sym> syms = bySimple.get(simple);
+        if (syms == null) return null;
+        String chosen = null;
+        for (Sym s : syms) {
+            if (chosen != null && !chosen.equals(s.name)) return null; // 多义性，放弃
+            chosen = s.name;
+        }
+        return chosen;
+    }
+
+    /**
+     * super(...) 与构造函数的匹配：结构名相同或参数个数相同。
+     */
+    private static boolean superMatches(String tStruct, int nArgs, String name) {
+        String nStruct = name.substring(0, name.indexOf(".__init__"));
+        int initArgc = -1;
+        try {
+            initArgc = Integer.parseInt(name.substring(name.lastIndexOf("__init__") + 8));
+        } catch (NumberFormatException ignored) {
+        }
+        return tStruct.equals(nStruct) || initArgc == nArgs;
+    }
+
+    /**
+     * 父结构体查找，与 {@code IRBuilderScope.getStructParent} 相同:
+     * 先按原名，再按简名，最后按“键的简名等于给定名”查找。
+     */
+    private static String parentOf(Map<String, String> parents, String struct) {
+        String p = parents.get(struct);
+        if (p != null) return p;
+        int dot = struct.lastIndexOf('.');
+        if (dot >= 0 && dot + 1 < struct.length()) {
+            p = parents.get(struct.substring(dot + 1));
+            if (p != null) return p;
+        }
+        for (Map.Entry<String, String> e : parents.entrySet()) {
+            if (e.getValue() != null && lastSegment(e.getKey()).equals(struct) && e.getKey().contains(".")) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String call(int addr, int nArgs) {
+        return VMOpCode.CALL + " " + addr + " " + nArgs;
+    }
+
+    private static Sym earlier(Sym a, Sym b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return b.seq < a.seq ? b : a;
+    }
+
+    /**
+     * 地址 ≤ at 的最后一个符号。
+     */
+    private static Sym lastAtOrBefore(List<Sym> syms, int at) {
+        if (syms == null) return null;
+        int i = firstIndexAfter(syms, at) - 1;
+        return i >= 0 ? syms.get(i) : null;
+    }
+
+    /**
+     * 地址 > at 的第一个符号。
+     */
+    private static Sym firstAfter(List<Sym> syms, int at) {
+        if (syms == null) return null;
+        int i = firstIndexAfter(syms, at);
+        return i < syms.size() ? syms.get(i) : null;
+    }
+
+    /**
+     * 二分查找第一个地址 > at 的下标。
+     */
+    private static int firstIndexAfter(List<Sym> syms, int at) {
+        int lo = 0, hi = syms.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (syms.get(mid).addr <= at) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * 属于某个函数片段的重定位项（目标文件的重定位表按下标递增）。
+     */
+    private static List<ObjectFile.Reloc> relocsIn(Section s) {
+        List<ObjectFile.Reloc> relocs = s.obj.relocs();
+        int lo = 0, hi = relocs.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (relocs.get(mid).index() < s.start) lo = mid + 1;
+            else hi = mid;
+        }
+        int end = lo;
+        while (end < relocs.size() && relocs.get(end).index() < s.end) end++;
+        return relocs.subList(lo, end);
+    }
+
+    /**
+     * 属于某个函数片段的行号表条目（目标文件的行号表按下标递增）。
+     */
+    private static List<LineTable.Entry> linesIn(Section s) {
+        List<LineTable.Entry> lines = s.obj.lines();
+        int lo = 0, hi = lines.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lines.get(mid).pc() < s.start) lo = mid + 1;
+            else hi = mid;
+        }
+        int end = lo;
+        while (end < lines.size() && lines.get(end).pc() < s.end) end++;
+        return lines.subList(lo, end);
+    }
+
+    private static String lastSegment(String name) {
+        int i = name.lastIndexOf('.');
+        return (i < 0) ? name : name.substring(i + 1);
+    }
+
+    /**
+     * 函数片段：目标文件中 {@code [start, end)} 的指令，布局后位于 {@code base}。
+     */
+    private static final class Section {
+        final ObjectFile obj;
+        final String name;
+        final int start;
+        final int end;
+        int base;
+
+        Section(ObjectFile obj, String name, int start, int end) {
+            this.obj = obj;
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * 布局后的符号。
+     */
+    private static final class Sym {
+        final String name;
+        final int addr;
+        final int seq;
+
+        Sym(String name, int addr, int seq) {
+            this.name = name;
+            this.addr = addr;
+            this.seq = seq;
+        }
+    }
+}
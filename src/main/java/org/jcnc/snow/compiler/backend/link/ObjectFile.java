@@ -0,0 +1,325 @@
+package org.jcnc.snow.compiler.backend.link;
+
+import org.jcnc.snow.compiler.backend.builder.VMProgramBuilder;
+import org.jcnc.snow.vm.engine.VMOpCode;
+import org.jcnc.snow.vm.io.LineTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * 可重定位的模块目标文件（{@code .sobj}）。
+ * <p>
+ * 一个目标文件对应一个模块，包含:
+ * <ul>
+ *     <li><b>代码</b>: 以模块内偏移 0 为起点的 VM 指令；需要重定位的操作数暂为 {@code -1} 或模块内地址</li>
+ *     <li><b>符号表</b>: 模块定义的函数（含结构体构造与方法）及其模块内偏移，按定义顺序排列</li>
+ *     <li><b>重定位表</b>: {@link Kind#LOCAL}（分支，模块内地址，链接时加上函数新基址）、
+ *         {@link Kind#CALL}（按名调用）与 {@link Kind#ADDR}（fnaddr 函数地址常量）</li>
+ *     <li><b>结构体父类表</b>: 供链接器沿继承链解析方法调用</li>
+ *     <li><b>行号表</b>: 源码位置变化点（模块内偏移），每个函数入口各有一条，链接时随函数平移</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 文件为 UTF-8 文本，与 .water 一样一行一条记录:
+ * <pre>
+ * SNOWOBJ 2
+ * module &lt;模块名&gt;
+ * struct &lt;结构体名&gt; &lt;父类名或 -&gt;
+ * symbol &lt;函数全名&gt; &lt;偏移&gt;
+ * reloc &lt;指令下标&gt; LOCAL
+ * reloc &lt;指令下标&gt; CALL &lt;目标&gt; &lt;实参个数&gt;
+ * reloc &lt;指令下标&gt; ADDR &lt;目标&gt;
+ * line &lt;指令下标&gt; &lt;行号&gt; [&lt;源文件&gt;]
+ * code &lt;指令条数&gt;
+ * &lt;指令行 ...&gt;
+ * </pre>
+ * 行号为 0 表示位置未知（此时省略源文件）。格式 1 没有行号记录，仍可读取。
+ * </p>
+ *
+ * @param module        模块名
+ * @param structParents 模块内结构体名 → 父结构体名（无父类为 null）
+ * @param symbols       函数符号，按定义顺序
+ * @param relocs        重定位项，按指令下标递增
+ * @param code          指令行
+ * @param lines         行号表，按指令下标递增
+ */
+public record ObjectFile(String module,
+                         Map<String, String> structParents,
+                         List<Symbol> symbols,
+                         List<Reloc> relocs,
+                         List<String> code,
+                         List<LineTable.Entry> lines) {
+
+    /**
+     * 文件头（含格式号）
+     */
+    public static final String MAGIC = "SNOWOBJ 2";
+
+    /**
+     * 仍可读取的旧格式文件头（无行号表）
+     */
+    private static final String MAGIC_V1 = "SNOWOBJ 1";
+
+    /**
+     * 目标文件扩展名
+     */
+    public static final String EXTENSION = ".sobj";
+
+    /**
+     * 未解析操作数的占位符，与 {@link VMProgramBuilder} 一致
+     */
+    static final String PLACEHOLDER = "-1";
+
+    /**
+     * 由各函数的构建器调用记录汇编出目标文件。
+     * <p>
+     * 分支按与 {@link VMProgramBuilder} 相同的规则（标签以函数名为作用域）在模块内解析；
+     * 调用与 fnaddr 一律留作重定位项，由链接器统一解析，以保证与整体编译时的绑定规则一致。
+     * </p>
+     *
+     * @param module        模块名
+     * @param structParents 模块内结构体名 → 父结构体名
+     * @param functions     各函数的调用记录（{@link VMProgramBuilder#stopRecording()}），按构建顺序
+     * @return 目标文件
+     * @throws IllegalStateException 存在模块内无法解析的分支标签
+     */
+    public static ObjectFile assemble(String module, Map<String, String> structParents,
+                                      List<List<VMProgramBuilder.Op>> functions) {
+        List<String> code = new ArrayList<>();
+        List<Symbol> symbols = new ArrayList<>();
+        List<Reloc> relocs = new ArrayList<>();
+        Map<String, Integer> labels = new HashMap<>();
+        Map<String, List<Integer>> pending = new HashMap<>();
+        LineTable.Builder lines = new LineTable.Builder();
+        String current = null;
+
+        for (List<VMProgramBuilder.Op> fn : functions) {
+            for (VMProgramBuilder.Op op : fn) {
+                switch (op.kind()) {
+                    case VMProgramBuilder.Op.BEGIN -> {
+                        current = op.a();
+                        symbols.add(new Symbol(op.a(), code.size()));
+                        define(labels, pending, code, op.a());
+                        lines.beginFunction();
+                        lines.mark(code.size(), null, 0);
+                    }
+                    case VMProgramBuilder.Op.END -> current = null;
+                    case VMProgramBuilder.Op.EMIT -> {
+                        String line = op.a();
+                        if (line.endsWith(":")) {
+                            define(labels, pending, code, scopeLabel(current, line.substring(0, line.length() - 1)));
+                        } else {
+                            code.add(line);
+                        }
+                    }
+                    case VMProgramBuilder.Op.BRANCH -> {
+                        String scoped = scopeLabel(current, op.b());
+                        Integer at = labels.get(scoped);
+                        relocs.add(new Reloc(code.size(), Kind.LOCAL, null, 0));
+                        if (at == null) pending.computeIfAbsent(scoped, k -> new ArrayList<>()).add(code.size());
+                        code.add(op.a() + " " + (at == null ? PLACEHOLDER : at));
+                    }
+                    case VMProgramBuilder.Op.CALL -> {
+                        relocs.add(new Reloc(code.size(), Kind.CALL, op.a(), op.n()));
+                        code.add(VMOpCode.CALL + " " + PLACEHOLDER + " " + op.n());
+                    }
+                    case VMProgramBuilder.Op.FNADDR -> {
+                        relocs.add(new Reloc(code.size(), Kind.ADDR, op.a(), 0));
+                        code.add(VMOpCode.I_PUSH + " " + PLACEHOLDER);
+                    }
+                    case VMProgramBuilder.Op.LINE -> lines.mark(code.size(), op.a(), op.n());
+                    default -> throw new IllegalArgumentException("Unknown builder op: " + op);
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            throw new IllegalStateException("模块 " + module + " 中存在未解析的分支标签: " + pending.keySet());
+        }
+        return new ObjectFile(module, new LinkedHashMap<>(structParents), symbols, relocs, code, lines.entries());
+    }
+
+    /**
+     * 登记标签（或函数名）地址，并回填等待它的分支。
+     */
+    private static void define(Map<String, Integer> labels, Map<String, List<Integer>> pending,
+                               List<String> code, String label) {
+        int at = code.size();
+        labels.put(label, at);
+        List<Integer> waiting = pending.remove(label);
+        if (waiting == null) return;
+        for (int idx : waiting) {
+            code.set(idx, withOperand(code.get(idx), at));
+        }
+    }
+
+    /**
+     * 与 {@link VMProgramBuilder} 相同的标签作用域规则。
+     */
+    private static String scopeLabel(String function, String label) {
+        if (label == null || label.isEmpty() || label.contains("::")) return label;
+        if (function == null || function.isEmpty()) return label;
+        return function + "::" + label;
+    }
+
+    /**
+     * 把指令行的第一个操作数替换为给定值。
+     *
+     * @param line  指令行（{@code 操作码 操作数1 ...}）
+     * @param value 新操作数
+     * @return 替换后的指令行
+     */
+    static String withOperand(String line, Object value) {
+        String[] parts = line.split(" ", 3);
+        return parts[0] + " " + value + (parts.length > 2 ? " " + parts[2] : "");
+    }
+
+    /**
+     * 读取指令行的第一个操作数（整数）。
+     */
+    static int operand(String line) {
+        String[] parts = line.split(" ", 3);
+        return Integer.parseInt(parts[1]);
+    }
+
+    /**
+     * 写出目标文件。
+     *
+     * @param file 目标路径
+     * @throws IOException 写入失败
+     */
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write(MAGIC + "\n");
+            w.write("module " + module + "\n");
+            for (Map.Entry<String, String> e : structParents.entrySet()) {
+                w.write("struct " + e.getKey() + " " + (e.getValue() == null ? "-" : e.getValue()) + "\n");
+            }
+            for (Symbol s : symbols) {
+                w.write("symbol " + s.name() + " " + s.offset() + "\n");
+            }
+            for (Reloc r : relocs) {
+                w.write("reloc " + r.index() + " " + r.kind()
+                        + switch (r.kind()) {
+                    case LOCAL -> "";
+                    case CALL -> " " + r.target() + " " + r.nArgs();
+                    case ADDR -> " " + r.target();
+                } + "\n");
+            }
+            for (LineTable.Entry e : lines) {
+                w.write("line " + e.pc() + " " + e.line() + (e.file() == null ? "" : " " + e.file()) + "\n");
+            }
+            w.write("code " + code.size() + "\n");
+            for (String line : code) {
+                w.write(line + "\n");
+            }
+        }
+    }
+
+    /**
+     * 读取目标文件。
+     *
+     * @param file 目标文件路径
+     * @return 目标文件
+     * @throws IOException 读取失败或格式错误
+     */
+    public static ObjectFile read(Path file) throws IOException {
+        try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String magic = r.readLine();
+            if (!MAGIC.equals(magic) && !MAGIC_V1.equals(magic)) {
+                throw new IOException("Not a Snow object file (expected '" + MAGIC + "'): " + file);
+            }
+            String module = null;
+            Map<String, String> parents = new LinkedHashMap<>();
+            List<Symbol> symbols = new ArrayList<>();
+            List<Reloc> relocs = new ArrayList<>();
+            List<LineTable.Entry> lines = new ArrayList<>();
+            String line;
+            while ((line = r.readLine()) != null) {
+                String[] p = line.split(" ");
+                try {
+                    switch (p[0]) {
+                        case "module" -> module = p[1];
+                        case "struct" -> parents.put(p[1], "-".equals(p[2]) ? null : p[2]);
+                        case "symbol" -> symbols.add(new Symbol(p[1], Integer.parseInt(p[2])));
+                        case "reloc" -> {
+                            Kind kind = Kind.valueOf(p[2]);
+                            relocs.add(switch (kind) {
+                                case LOCAL -> new Reloc(Integer.parseInt(p[1]), kind, null, 0);
+                                case CALL -> new Reloc(Integer.parseInt(p[1]), kind, p[3], Integer.parseInt(p[4]));
+                                case ADDR -> new Reloc(Integer.parseInt(p[1]), kind, p[3], 0);
+                            });
+                        }
+                        case "line" -> {
+                            // 源文件路径可能含空格，取第三个空格之后的全部内容
+                            String[] q = line.split(" ", 4);
+                            String src = q.length > 3 ? q[3] : null;
+                            lines.add(new LineTable.Entry(Integer.parseInt(q[1]), src,
+                                    src == null ? 0 : Integer.parseInt(q[2])));
+                        }
+                        case "code" -> {
+                            int n = Integer.parseInt(p[1]);
+                            List<String> code = new ArrayList<>(n);
+                            for (int i = 0; i < n; i++) {
+                                String c = r.readLine();
+                                if (c == null) throw new IOException("Truncated code section in " + file);
+                                code.add(c);
+                            }
+                            if (module == null) throw new IOException("Missing module name in " + file);
+                            return new ObjectFile(module, parents, symbols, relocs, code, lines);
+                        }
+                        default -> throw new IOException("Unknown record '" + p[0] + "' in " + file);
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException("Malformed record '" + line + "' in " + file, e);
+                }
+            }
+            throw new IOException("Missing code section in " + file);
+        }
+    }
+
+    /**
+     * 重定位种类。
+     */
+    public enum Kind {
+        /**
+         * 分支: 操作数为模块内地址，链接时按所在函数的新基址平移
+         */
+        LOCAL,
+        /**
+         * 调用: {@code CALL <目标> <实参个数>}，按名解析
+         */
+        CALL,
+        /**
+         * 函数地址常量: {@code I_PUSH <目标入口>}，按名解析
+         */
+        ADDR
+    }
+
+    /**
+     * 函数符号。
+     *
+     * @param name   函数全名
+     * @param offset 模块内入口偏移
+     */
+    public record Symbol(String name, int offset) {
+    }
+
+    /**
+     * 重定位项。
+     *
+     * @param index  模块内指令下标
+     * @param kind   种类
+     * @param target 目标符号（LOCAL 为 null）
+     * @param nArgs  CALL 的实参个数
+     */
+    public record Reloc(int index, Kind kind, String target, int nArgs) {
+    }
+}
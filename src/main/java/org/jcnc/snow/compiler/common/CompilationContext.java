@@ -0,0 +1,185 @@
+package org.jcnc.snow.compiler.common;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一次编译的全部跨阶段共享状态。
+ * <p>
+ * 以下表曾是进程级静态单例，同一进程内的第二次编译会看到第一次的残留数据；
+ * 现在它们都归属于一个 {@code CompilationContext}，由原来的静态门面
+ * （{@code GlobalFunctionTable}、{@code GlobalConstTable}、{@code IRBuilderScope} 的结构体元数据、
+ * {@code CallGenerator} 的字符串常量池、{@code BinaryOpGenerator} 的标签计数器）
+ * 通过 {@link #current()} 访问:
+ * <ul>
+ *     <li>函数返回类型与参数类型表</li>
+ *     <li>模块级全局常量表</li>
+ *     <li>结构体字段布局、字段类型与继承关系</li>
+ *     <li>syscall 子命令字符串常量池</li>
+ *     <li>后端唯一标签计数器</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 上下文按线程绑定。{@link #open()} 创建并绑定一个全新的上下文，关闭时恢复之前的绑定，
+ * 因此守护进程中的每个请求都从干净状态开始编译。未绑定时使用进程级默认上下文，
+ * 与旧的单次编译行为一致。需要在工作线程中继续同一编译时，用 {@link #bind()} 绑定同一实例。
+ * </p>
+ */
+public final class CompilationContext {
+
+    /**
+     * 未显式绑定时使用的进程级默认上下文
+     */
+    private static final CompilationContext DEFAULT = new CompilationContext();
+
+    /**
+     * 当前线程绑定的上下文
+     */
+    private static final ThreadLocal<CompilationContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 函数名 → 返回类型
+     */
+    private final Map<String, String> functionReturnTypes = new ConcurrentHashMap<>();
+    /**
+     * 函数名 → 参数类型列表
+     */
+    private final Map<String, List<String>> functionParamTypes = new ConcurrentHashMap<>();
+    /**
+     * “模块名.常量名” → 常量值
+     */
+    private final Map<String, Object> constants = new ConcurrentHashMap<>();
+    /**
+     * 结构体名 → (字段名 → 槽位下标)
+     */
+    private final Map<String, Map<String, Integer>> structLayouts = new HashMap<>();
+    /**
+     * 结构体名 → (字段名 → 类型)
+     */
+    private final Map<String, Map<String, String>> structFieldTypes = new HashMap<>();
+    /**
+     * 子结构体名 → 父结构体名
+     */
+    private final Map<String, String> structParents = new HashMap<>();
+    /**
+     * 虚拟寄存器 ID → syscall 子命令字符串常量
+     */
+    private final Map<Integer, String> stringConstants = new ConcurrentHashMap<>();
+    /**
+     * 后端唯一标签计数器
+     */
+    private final AtomicInteger labelCounter = new AtomicInteger();
+    /**
+     * 各阶段耗时与分配统计；未启用 --time-passes 时为 {@link PassTimings#DISABLED}
+     */
+    private volatile PassTimings passTimings = PassTimings.DISABLED;
+
+    /**
+     * 返回当前线程绑定的上下文；未绑定时返回进程级默认上下文。
+     *
+     * @return 当前上下文
+     */
+    public static CompilationContext current() {
+        CompilationContext ctx = CURRENT.get();
+        return ctx != null ? ctx : DEFAULT;
+    }
+
+    /**
+     * 创建一个全新的上下文并绑定到当前线程。
+     *
+     * @return 作用域；关闭时恢复之前的绑定
+     */
+    public static Scope open() {
+        return new CompilationContext().bind();
+    }
+
+    /**
+     * 把本上下文绑定到当前线程（如并行阶段的工作线程）。
+     *
+     * @return 作用域；关闭时恢复之前的绑定
+     */
+    public Scope bind() {
+        CompilationContext previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(this, previous);
+    }
+
+    public Map<String, String> functionReturnTypes() {
+        return functionReturnTypes;
+    }
+
+    public Map<String, List<String>> functionParamTypes() {
+        return functionParamTypes;
+    }
+
+    public Map<String, Object> constants() {
+        return constants;
+    }
+
+    public Map<String, Map<String, Integer>> structLayouts() {
+        return structLayouts;
+    }
+
+    public Map<String, Map<String, String>> structFieldTypes() {
+        return structFieldTypes;
+    }
+
+    public Map<String, String> structParents() {
+        return structParents;
+    }
+
+    public Map<Integer, String> stringConstants() {
+        return stringConstants;
+    }
+
+    public AtomicInteger labelCounter() {
+        return labelCounter;
+    }
+
+    public PassTimings passTimings() {
+        return passTimings;
+    }
+
+    /**
+     * 为本次编译启用阶段统计。
+     *
+     * @param timings 统计对象
+     */
+    public void setPassTimings(PassTimings timings) {
+        this.passTimings = timings;
+    }
+
+    /**
+     * 上下文绑定作用域，在 finally 中关闭。
+     */
+    public static final class Scope implements AutoCloseable {
+        private final CompilationContext context;
+        private final CompilationContext previous;
+
+        private Scope(CompilationContext context, CompilationContext previous) {
+            this.context = context;
+            this.previous = previous;
+        }
+
+        /**
+         * 返回本作用域绑定的上下文。
+         *
+         * @return 上下文
+         */
+        public CompilationContext context() {
+            return context;
+        }
+
+        /**
+         * 恢复绑定前的上下文。
+         */
+        @Override
+        public void close() {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+}
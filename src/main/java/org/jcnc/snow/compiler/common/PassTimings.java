@@ -0,0 +1,390 @@
+package org.jcnc.snow.compiler.common;
+
+import org.jcnc.snow.compiler.parser.utils.JSONParser;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 编译各阶段的耗时、内存分配与产出规模统计（{@code snow compile --time-passes}）。
+ * <p>
+ * 每个阶段（{@link Pass}）有一条总计，并按模块细分:
+ * <ul>
+ *     <li>模块记录由 {@link #measure} / {@link #record} 按函数或文件累加，可在任意线程上调用，
+ *         其时间为各任务耗时之和，并行执行时可能大于阶段墙钟时间；</li>
+ *     <li>用 {@link #phase(Pass)} 区间包住的阶段，总计为区间的墙钟时间（含并行部分与不属于任何模块的
+ *         公共工作，如签名登记），分配字节为发起线程的分配加上工作线程上各模块记录的分配；</li>
+ *     <li>没有区间的阶段（词法、语法按文件在前端线程池上交错执行；寄存器分配与代码生成按函数交替执行），
+ *         总计为各模块记录之和。</li>
+ * </ul>
+ * 分配字节取自 {@code com.sun.management.ThreadMXBean} 的当前线程分配计数；JVM 不支持时报告为 -1。
+ * </p>
+ * <p>
+ * 未启用时使用 {@link #DISABLED}，各方法直接执行工作而不做任何计量。
+ * </p>
+ */
+public final class PassTimings {
+
+    /**
+     * 编译阶段及其产出单位。
+     */
+    public enum Pass {
+        LEX("lex", "tokens"),
+        PARSE("parse", "AST nodes"),
+        SEMANTIC("semantic", "functions"),
+        IR("ir", "IR instructions"),
+        REGALLOC("regalloc", "slots"),
+        CODEGEN("codegen", "VM instructions"),
+        LINK("link", "VM instructions");
+
+        private final String label;
+        private final String unit;
+
+        Pass(String label, String unit) {
+            this.label = label;
+            this.unit = unit;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public String unit() {
+            return unit;
+        }
+    }
+
+    /**
+     * 不做计量的共享实例
+     */
+    public static final PassTimings DISABLED = new PassTimings(false);
+
+    /**
+     * 不需要关闭动作的阶段区间
+     */
+    private static final Span NO_SPAN = () -> {
+    };
+
+    private final boolean enabled;
+
+    /**
+     * 阶段 → 总计
+     */
+    private final Map<Pass, Stat> totals = new EnumMap<>(Pass.class);
+
+    /**
+     * 阶段 → (模块 → 累计)
+     */
+    private final Map<Pass, Map<String, Stat>> modules = new EnumMap<>(Pass.class);
+
+    /**
+     * 阶段 → 正在进行该阶段的发起线程
+     */
+    private final Map<Pass, Thread> owners = new EnumMap<>(Pass.class);
+
+    /**
+     * 编译线程（调用 {@link #start()} 的线程）及其开始时间与分配计数
+     */
+    private final Thread compileThread;
+    private final long startNanos;
+    private final long startBytes;
+
+    /**
+     * 编译线程以外（前端线程池、阶段工作线程）记录的分配字节
+     */
+    private long offThreadBytes;
+
+    private PassTimings(boolean enabled) {
+        this.enabled = enabled;
+        this.compileThread = Thread.currentThread();
+        this.startNanos = enabled ? System.nanoTime() : 0;
+        this.startBytes = enabled ? allocatedBytes() : 0;
+    }
+
+    /**
+     * 创建一个启用的统计，从此刻开始计算编译总耗时。
+     *
+     * @return 新的统计对象
+     */
+    public static PassTimings start() {
+        return new PassTimings(true);
+    }
+
+    /**
+     * 返回当前 {@link CompilationContext} 上的统计。
+     *
+     * @return 统计对象；未启用时为 {@link #DISABLED}
+     */
+    public static PassTimings current() {
+        return CompilationContext.current().passTimings();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开始一个阶段的总计区间，在 finally 中关闭。
+     *
+     * @param pass 阶段
+     * @return 区间；关闭时记入该阶段的墙钟时间与发起线程的分配
+     */
+    public Span phase(Pass pass) {
+        if (!enabled) return NO_SPAN;
+        Thread self = Thread.currentThread();
+        synchronized (this) {
+            owners.put(pass, self);
+        }
+        long t0 = System.nanoTime();
+        long a0 = allocatedBytes();
+        return () -> {
+            long ns = System.nanoTime() - t0;
+            long bytes = delta(a0, allocatedBytes());
+            synchronized (this) {
+                owners.remove(pass);
+                Stat s = totals.computeIfAbsent(pass, p -> new Stat());
+                s.nanos += ns;
+                s.add(bytes);
+            }
+        };
+    }
+
+    /**
+     * 执行一项属于某模块的工作并记入该模块。
+     *
+     * @param pass   阶段
+     * @param module 模块名
+     * @param work   工作
+     * @param items  由结果计算产出数量
+     * @param <T>    结果类型
+     * @return 工作的结果
+     */
+    public <T> T measure(Pass pass, String module, Supplier<T> work, ToLongFunction<? super T> items) {
+        if (!enabled) return work.get();
+        long t0 = System.nanoTime();
+        long a0 = allocatedBytes();
+        T result = work.get();
+        long ns = System.nanoTime() - t0;
+        record(pass, module, ns, delta(a0, allocatedBytes()), items.applyAsLong(result));
+        return result;
+    }
+
+    /**
+     * 从此刻开始测量当前线程上的一段工作，用于归属在工作完成后才能确定的场合（如按解析出的模块名归属）。
+     *
+     * @return 测量起点；未启用时各读数为 0
+     */
+    public Probe probe() {
+        return enabled ? new Probe(System.nanoTime(), allocatedBytes()) : Probe.NONE;
+    }
+
+    /**
+     * 记入一条已测得的模块记录。
+     * <p>阶段区间未打开时，耗时与分配同时计入总计；区间打开时只计入发起线程以外线程上的分配。</p>
+     *
+     * @param pass   阶段
+     * @param module 模块名
+     * @param nanos  耗时（纳秒）
+     * @param bytes  分配字节；未知时为负数
+     * @param items  产出数量
+     */
+    public void record(Pass pass, String module, long nanos, long bytes, long items) {
+        if (!enabled) return;
+        synchronized (this) {
+            Stat m = modules.computeIfAbsent(pass, p -> new HashMap<>()).computeIfAbsent(module, k -> new Stat());
+            m.nanos += nanos;
+            m.add(bytes);
+            m.items += items;
+            Stat total = totals.computeIfAbsent(pass, p -> new Stat());
+            total.items += items;
+            Thread self = Thread.currentThread();
+            Thread owner = owners.get(pass);
+            if (owner == null) total.nanos += nanos;
+            if (owner != self) total.add(bytes);
+            if (self != compileThread && bytes > 0) offThreadBytes += bytes;
+        }
+    }
+
+    /**
+     * 为阶段总计补充不属于任何模块的产出数量（如链接后的指令总数）。
+     *
+     * @param pass  阶段
+     * @param items 产出数量
+     */
+    public synchronized void addItems(Pass pass, long items) {
+        if (!enabled) return;
+        totals.computeIfAbsent(pass, p -> new Stat()).items += items;
+    }
+
+    /**
+     * 以表格形式输出报告，模块按名称排序。
+     *
+     * @return 多行文本
+     */
+    public synchronized String toTable() {
+        StringBuilder sb = new StringBuilder();
+        Formatter f = new Formatter(sb, Locale.ROOT);
+        f.format("%-10s %-24s %10s %12s %12s  %s%n", "pass", "module", "wall ms", "alloc KB", "items", "unit");
+        for (Pass pass : Pass.values()) {
+            Stat total = totals.get(pass);
+            if (total == null) continue;
+            row(f, pass.label(), "(all)", total, pass.unit());
+            for (Map.Entry<String, Stat> e : sortedModules(pass)) {
+                row(f, "", e.getKey(), e.getValue(), "");
+            }
+        }
+        Stat all = overall();
+        all.items = -1;
+        row(f, "total", "", all, "");
+        return sb.toString();
+    }
+
+    /**
+     * 以 JSON 形式输出报告，时间单位为纳秒，分配单位为字节。
+     *
+     * @return 单行 JSON 文本
+     */
+    public synchronized String toJson() {
+        List<Object> passes = new ArrayList<>();
+        for (Pass pass : Pass.values()) {
+            Stat total = totals.get(pass);
+            if (total == null) continue;
+            Map<String, Object> p = new LinkedHashMap<>();
+            p.put("pass", pass.label());
+            p.put("unit", pass.unit());
+            p.putAll(total.toMap());
+            List<Object> mods = new ArrayList<>();
+            for (Map.Entry<String, Stat> e : sortedModules(pass)) {
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("module", e.getKey());
+                m.putAll(e.getValue().toMap());
+                mods.add(m);
+            }
+            p.put("modules", mods);
+            passes.add(p);
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        Stat all = overall();
+        root.put("wallNanos", all.nanos);
+        root.put("allocatedBytes", all.unknownBytes ? -1 : all.bytes);
+        root.put("passes", passes);
+        return JSONParser.toJson(root);
+    }
+
+    private List<Map.Entry<String, Stat>> sortedModules(Pass pass) {
+        List<Map.Entry<String, Stat>> list = new ArrayList<>(modules.getOrDefault(pass, Map.of()).entrySet());
+        list.sort(Map.Entry.comparingByKey());
+        return list;
+    }
+
+    /**
+     * 从 {@link #start()} 到现在的编译总计；分配为编译线程与其他线程上模块记录的分配之和。
+     */
+    private Stat overall() {
+        Stat all = new Stat();
+        all.nanos = System.nanoTime() - startNanos;
+        all.add(delta(startBytes, allocatedBytes()));
+        all.add(offThreadBytes);
+        return all;
+    }
+
+    private static void row(Formatter f, String pass, String module, Stat s, String unit) {
+        f.format("%-10s %-24s %10.2f %12s %12s  %s%n", pass, module, s.nanos / 1e6,
+                s.unknownBytes ? "n/a" : String.format(Locale.ROOT, "%.1f", s.bytes / 1024.0),
+                s.items < 0 ? "" : Long.toString(s.items), unit);
+    }
+
+    private static long delta(long before, long after) {
+        return before < 0 || after < 0 ? -1 : after - before;
+    }
+
+    private static long allocatedBytes() {
+        return Allocation.currentThread();
+    }
+
+    /**
+     * 当前线程上一段工作的测量起点。
+     */
+    public static final class Probe {
+        private static final Probe NONE = new Probe(0, 0);
+
+        private final long startNanos;
+        private final long startBytes;
+
+        private Probe(long startNanos, long startBytes) {
+            this.startNanos = startNanos;
+            this.startBytes = startBytes;
+        }
+
+        /**
+         * 自起点以来的耗时（纳秒）。
+         */
+        public long nanos() {
+            return this == NONE ? 0 : System.nanoTime() - startNanos;
+        }
+
+        /**
+         * 自起点以来当前线程分配的字节数；未知时为 -1。
+         */
+        public long bytes() {
+            return this == NONE ? 0 : delta(startBytes, allocatedBytes());
+        }
+    }
+
+    /**
+     * 阶段区间。
+     */
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * 一条累计记录。
+     */
+    private static final class Stat {
+        long nanos;
+        long bytes;
+        long items;
+        boolean unknownBytes;
+
+        void add(long b) {
+            if (b < 0) unknownBytes = true;
+            else bytes += b;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("wallNanos", nanos);
+            m.put("allocatedBytes", unknownBytes ? -1 : bytes);
+            m.put("items", items);
+            return m;
+        }
+    }
+
+    /**
+     * 线程分配计数；java.management 只在启用统计后才加载。
+     */
+    private static final class Allocation {
+        private static final com.sun.management.ThreadMXBean BEAN = init();
+
+        private static com.sun.management.ThreadMXBean init() {
+            try {
+                if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                        && bean.isThreadAllocatedMemorySupported()) {
+                    if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+                    return bean;
+                }
+            } catch (RuntimeException | LinkageError ignored) {
+            }
+            return null;
+        }
+
+        static long currentThread() {
+            return BEAN != null ? BEAN.getCurrentThreadAllocatedBytes() : -1;
+        }
+    }
+}
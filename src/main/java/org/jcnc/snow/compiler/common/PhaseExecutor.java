@@ -0,0 +1,107 @@
+package org.jcnc.snow.compiler.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * 按函数并行执行一个编译阶段。
+ * <p>
+ * 签名登记与结构体布局预载完成后，各函数的函数体检查与 IR 构建互不依赖，
+ * 可分发到工作窃取线程池（{@link ForkJoinPool}）。任务在工作线程上绑定发起线程的
+ * {@link CompilationContext}，结果按提交顺序返回，与顺序执行的结果逐项相同。
+ * </p>
+ * <p>
+ * 任务期间共享表只读: 函数签名、全局常量为并发表；结构体布局与继承关系在预载阶段写入，
+ * 线程池提交前已发布完成。{@link #SEQUENTIAL} 在调用线程上逐个执行（{@code -j 1}）。
+ * </p>
+ */
+public final class PhaseExecutor implements AutoCloseable {
+
+    /**
+     * 在调用线程上顺序执行
+     */
+    public static final PhaseExecutor SEQUENTIAL = new PhaseExecutor(null);
+
+    /**
+     * 工作窃取线程池；顺序执行时为 null
+     */
+    private final ForkJoinPool pool;
+
+    private PhaseExecutor(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 创建指定并行度的执行器。
+     *
+     * @param parallelism 线程数；不大于 1 时返回 {@link #SEQUENTIAL}
+     * @return 执行器，用完需 {@link #close()}
+     */
+    public static PhaseExecutor create(int parallelism) {
+        if (parallelism <= 1) return SEQUENTIAL;
+        return new PhaseExecutor(new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("snow-phase-" + t.getPoolIndex());
+            return t;
+        }, null, false));
+    }
+
+    /**
+     * 是否在多个线程上执行。
+     */
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * 执行全部任务并按提交顺序返回结果。
+     * <p>任一任务失败时，抛出按提交顺序第一个失败任务的异常（不包装）。</p>
+     *
+     * @param tasks 任务列表
+     * @param <T>   结果类型
+     * @return 结果列表，与 {@code tasks} 一一对应
+     */
+    public <T> List<T> map(List<? extends Supplier<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (pool == null || tasks.size() < 2) {
+            for (Supplier<T> t : tasks) results.add(t.get());
+            return results;
+        }
+        CompilationContext ctx = CompilationContext.current();
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Supplier<T> t : tasks) {
+            futures.add(pool.submit(() -> {
+                CompilationContext.Scope scope = ctx.bind();
+                try {
+                    return t.get();
+                } finally {
+                    scope.close();
+                }
+            }));
+        }
+        try {
+            for (Future<T> f : futures) results.add(f.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Compilation interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) pool.shutdownNow();
+    }
+}
@@ -1,5 +1,6 @@
 package org.jcnc.snow.compiler.ir.builder.core;
 
+import org.jcnc.snow.compiler.common.CompilationContext;
 import org.jcnc.snow.compiler.ir.core.IRFunction;
 import org.jcnc.snow.compiler.ir.value.IRVirtualRegister;
 
@@ -16,24 +17,12 @@ import java.util.Map;
  *   <li>支持变量与虚拟寄存器的重新绑定与查找</li>
  *   <li>支持变量类型和编译期常量值的记录与查询</li>
  *   <li>支持跨模块全局常量（如 ModuleA.a）查找</li>
- *   <li>维护结构体字段布局（全局共享）：字段名 → 槽位下标，用于对象字段读写</li>
+ *   <li>维护结构体字段布局（同一次编译内共享，见 {@link CompilationContext}）：字段名 → 槽位下标，用于对象字段读写</li>
  *   <li>维护结构体继承关系（子类 → 父类），super(...) 调用会用到</li>
  * </ul>
  */
 public final class IRBuilderScope {
 
-    /**
-     * 结构体字段布局表（全局共享）：结构体名 → (字段名 → 槽位下标)
-     */
-    private static final Map<String, Map<String, Integer>> STRUCT_LAYOUTS = new HashMap<>();
-    /**
-     * 结构体字段类型表（全局共享）：结构体名 → (字段名 → 类型)
-     */
-    private static final Map<String, Map<String, String>> STRUCT_FIELD_TYPES = new HashMap<>();
-    /**
-     * 结构体继承关系表（全局共享）：子类名 → 父类名
-     */
-    private static final Map<String, String> STRUCT_PARENTS = new HashMap<>();
     /**
      * 变量名到虚拟寄存器的映射表（本地变量，仅当前作用域）
      */
@@ -61,6 +50,27 @@ public final class IRBuilderScope {
 
     // ---------------- 结构体全局布局/继承 注册与查询 ----------------
 
+    /**
+     * 结构体字段布局表（当前编译共享）：结构体名 → (字段名 → 槽位下标)
+     */
+    private static Map<String, Map<String, Integer>> structLayouts() {
+        return CompilationContext.current().structLayouts();
+    }
+
+    /**
+     * 结构体字段类型表（当前编译共享）：结构体名 → (字段名 → 类型)
+     */
+    private static Map<String, Map<String, String>> structFieldTypes() {
+        return CompilationContext.current().structFieldTypes();
+    }
+
+    /**
+     * 结构体继承关系表（当前编译共享）：子类名 → 父类名
+     */
+    private static Map<String, String> structParents() {
+        return CompilationContext.current().structParents();
+    }
+
     /**
      * 注册结构体字段布局。注册后该结构体名对应的字段布局会被全局保存。
      *
@@ -69,7 +79,7 @@ public final class IRBuilderScope {
      */
     static void registerStructLayout(String structName, Map<String, Integer> fieldToIndex) {
         if (structName == null || fieldToIndex == null) return;
-        STRUCT_LAYOUTS.put(structName, new HashMap<>(fieldToIndex));
+        structLayouts().put(structName, new HashMap<>(fieldToIndex));
     }
 
     /**
@@ -80,7 +90,7 @@ public final class IRBuilderScope {
      */
     static void registerStructFieldTypes(String structName, Map<String, String> fieldToTypes) {
         if (structName == null || fieldToTypes == null) return;
-        STRUCT_FIELD_TYPES.put(structName, new HashMap<>(fieldToTypes));
+        structFieldTypes().put(structName, new HashMap<>(fieldToTypes));
     }
 
     /**
@@ -91,11 +101,11 @@ public final class IRBuilderScope {
      * @return 字段名到槽位下标的不可变映射表；若未注册则返回 null
      */
     public static Map<String, Integer> getStructLayout(String structName) {
-        Map<String, Integer> layout = STRUCT_LAYOUTS.get(structName);
+        Map<String, Integer> layout = structLayouts().get(structName);
         if (layout == null && structName != null) {
             int dot = structName.lastIndexOf('.');
             if (dot >= 0 && dot + 1 < structName.length()) {
-                layout = STRUCT_LAYOUTS.get(structName.substring(dot + 1));
+                layout = structLayouts().get(structName.substring(dot + 1));
             }
         }
         return layout == null ? null : Collections.unmodifiableMap(layout);
@@ -109,11 +119,11 @@ public final class IRBuilderScope {
      * @return 字段名到类型的不可变映射表；若未注册则返回 null
      */
     public static Map<String, String> getStructFieldTypes(String structName) {
-        Map<String, String> types = STRUCT_FIELD_TYPES.get(structName);
+        Map<String, String> types = structFieldTypes().get(structName);
         if (types == null && structName != null) {
             int dot = structName.lastIndexOf('.');
             if (dot >= 0 && dot + 1 < structName.length()) {
-                types = STRUCT_FIELD_TYPES.get(structName.substring(dot + 1));
+                types = structFieldTypes().get(structName.substring(dot + 1));
             }
         }
         return types == null ? null : Collections.unmodifiableMap(types);
@@ -146,7 +156,7 @@ public final class IRBuilderScope {
      */
     static void registerStructParent(String structName, String parentName) {
         if (structName == null || parentName == null || parentName.isBlank()) return;
-        STRUCT_PARENTS.put(structName, parentName);
+        structParents().put(structName, parentName);
     }
 
     /**
@@ -157,17 +167,17 @@ public final class IRBuilderScope {
      */
     public static String getStructParent(String structName) {
         if (structName == null || structName.isBlank()) return null;
-        String p = STRUCT_PARENTS.get(structName);
+        String p = structParents().get(structName);
         if (p != null) return p;
 
         int dot = structName.lastIndexOf('.');
         if (dot >= 0 && dot + 1 < structName.length()) {
             String simple = structName.substring(dot + 1);
-            p = STRUCT_PARENTS.get(simple);
+            p = structParents().get(simple);
             if (p != null) return p;
         }
 
-        for (Map.Entry<String, String> e : STRUCT_PARENTS.entrySet()) {
+        for (Map.Entry<String, String> e : structParents().entrySet()) {
             String k = e.getKey();
             int d = k.lastIndexOf('.');
             if (d >= 0 && d + 1 < k.length() && k.substring(d + 1).equals(structName)) {
@@ -3,6 +3,7 @@ package org.jcnc.snow.compiler.ir.builder.core;
 import org.jcnc.snow.compiler.ir.core.IRFunction;
 import org.jcnc.snow.compiler.ir.core.IRInstruction;
 import org.jcnc.snow.compiler.ir.value.IRVirtualRegister;
+import org.jcnc.snow.compiler.parser.ast.base.NodeContext;
 
 
 /**
@@ -17,6 +18,7 @@ import org.jcnc.snow.compiler.ir.value.IRVirtualRegister;
  *   <li>分配新的虚拟寄存器实例；</li>
  *   <li>将生成的 IRInstruction 自动添加到 IRFunction 中；</li>
  *   <li>支持声明阶段临时类型记录（如变量声明时的类型推断/校验）；</li>
+ *   <li>记录当前语句的源码位置，并标注到新添加的指令上；</li>
  * </ul>
  * <b>注：</b> 该类一般不直接暴露给最终用户，仅供 IR 构建器内部流程调用。
  */
@@ -38,6 +40,10 @@ public class IRContext {
      * 当前 declare 编译阶段变量类型，不在变量声明流程时为 null
      */
     private String varType;
+    /**
+     * 当前正在构建的语句的源码位置，新添加的指令以此作为其位置
+     */
+    private NodeContext position;
 
     /**
      * 构造一个新的 IRContext，并将指定的 IRFunction 与作用域管理器关联。
@@ -89,9 +95,24 @@ public class IRContext {
      * 将指定的 IRInstruction 添加到当前 IRFunction 的指令列表中。
      */
     public void addInstruction(IRInstruction instr) {
+        if (instr.sourceLine() == 0 && position != null) instr.setSource(position.file(), position.line());
         function.add(instr);
     }
 
+    /**
+     * 获取当前语句的源码位置（未知时为 null）
+     */
+    public NodeContext getPosition() {
+        return position;
+    }
+
+    /**
+     * 设置当前语句的源码位置，此后添加的指令均记录该位置
+     */
+    public void setPosition(NodeContext position) {
+        this.position = position;
+    }
+
     /**
      * 生成一个唯一标签名，如 L0、L1、L2...
      * <p>常用于条件跳转、分支合流等 IR 控制流构建场景。</p>
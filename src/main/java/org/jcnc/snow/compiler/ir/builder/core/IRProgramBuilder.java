@@ -1,6 +1,8 @@
 package org.jcnc.snow.compiler.ir.builder.core;
 
 import org.jcnc.snow.common.NumberLiteralHelper;
+import org.jcnc.snow.compiler.common.PassTimings;
+import org.jcnc.snow.compiler.common.PhaseExecutor;
 import org.jcnc.snow.compiler.ir.builder.statement.FunctionBuilder;
 import org.jcnc.snow.compiler.ir.common.GlobalConstTable;
 import org.jcnc.snow.compiler.ir.common.GlobalFunctionTable;
@@ -13,6 +15,7 @@ import org.jcnc.snow.compiler.parser.ast.base.NodeContext;
 import org.jcnc.snow.compiler.parser.ast.base.StatementNode;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * IRProgramBuilder 负责将 AST 顶层节点（如模块、函数、语句等）转换为可执行的 {@link IRProgram}。
@@ -29,11 +32,38 @@ import java.util.*;
  * </ul>
  *
  * <p>
- * 该类为不可变工具类，仅包含静态行为，不持有状态。
+ * 预扫描阶段即登记全部函数签名，之后各函数体的构建互不依赖：先把顶层节点降级为待构建的函数节点列表，
+ * 再交给 {@link PhaseExecutor} 按函数构建（可并行），结果按原顺序加入 IRProgram。
  * </p>
  */
 public final class IRProgramBuilder {
 
+    /**
+     * 不属于任何模块的顶层函数与语句在阶段统计中的归属名
+     */
+    private static final String TOP_LEVEL = "(top-level)";
+
+    /**
+     * 函数体构建的执行器
+     */
+    private final PhaseExecutor executor;
+
+    /**
+     * 创建在当前线程上顺序构建的 IR 构建器。
+     */
+    public IRProgramBuilder() {
+        this(PhaseExecutor.SEQUENTIAL);
+    }
+
+    /**
+     * 创建 IR 构建器。
+     *
+     * @param executor 函数体构建的执行器
+     */
+    public IRProgramBuilder(PhaseExecutor executor) {
+        this.executor = executor;
+    }
+
     /**
      * 将解析生成的 AST 根节点列表转换为 IRProgram。
      *
@@ -45,50 +75,167 @@ public final class IRProgramBuilder {
      *                               <ol>
      *                                 <li>登记全局常量（便于后续常量折叠）。</li>
      *                                 <li>注册所有 struct 的字段布局（为成员读写和 this.xx 做准备）。</li>
-     *                                 <li>遍历根节点：模块 → 先降级并注册 struct 的构造/方法，再处理模块函数；顶层函数直接构建；顶层语句打包为 "_start" 构建。</li>
+     *                                 <li>遍历根节点：模块 → 先降级 struct 的构造/方法，再处理模块函数；顶层函数直接加入；顶层语句打包为 "_start"。</li>
+     *                                 <li>按函数构建全部函数体，按上一步的顺序加入 IRProgram。</li>
      *                               </ol>
      */
     public IRProgram buildProgram(List<Node> roots) {
-        // 1. 先登记全局常量，便于后续常量折叠
-        preloadGlobals(roots);
-        // 2. 注册所有结构体的字段布局（为成员访问做准备）
-        preloadStructLayouts(roots);
-        // 3. 预注册所有 struct 的构造与方法签名，便于函数内互调时查找
-        preloadStructCallables(roots);
+        // 1~4. 预扫描全局常量、结构体布局与全部函数签名
+        preload(roots);
 
-        // 创建 IR 程序对象
-        IRProgram irProgram = new IRProgram();
-        // 4. 遍历并处理所有顶层节点
+        // 5. 遍历所有顶层节点，收集待构建的函数及其所属模块（用于 --time-passes 统计）
+        List<FunctionNode> pending = new ArrayList<>();
+        List<String> owners = new ArrayList<>();
         for (Node node : roots) {
             switch (node) {
                 case ModuleNode moduleNode -> {
-                    // 4.1 先降级并注册本模块所有 struct 的构造/方法（struct 方法降级）
-                    if (moduleNode.structs() != null) {
-                        for (StructNode structNode : moduleNode.structs()) {
-                            lowerAndRegisterStruct(structNode, irProgram);
-                        }
-                    }
-                    // 4.2 再处理模块里的普通函数，模块内函数名全限定，注入全局声明
-                    if (moduleNode.functions() != null) {
-                        for (FunctionNode f : moduleNode.functions()) {
-                            irProgram.add(buildFunctionWithGlobals(moduleNode, f));
-                        }
-                    }
+                    List<FunctionNode> lowered = lowerModule(moduleNode);
+                    pending.addAll(lowered);
+                    lowered.forEach(f -> owners.add(moduleNode.name()));
+                }
+                case FunctionNode functionNode -> {
+                    // 5.1 顶层函数节点：直接构建
+                    pending.add(functionNode);
+                    owners.add(TOP_LEVEL);
+                }
+                case StatementNode statementNode -> {
+                    // 5.2 脚本式顶层语句：封装成 "_start" 函数
+                    pending.add(wrapTopLevel(statementNode));
+                    owners.add(TOP_LEVEL);
                 }
-                case FunctionNode functionNode ->
-                    // 4.3 处理顶层函数节点：直接构建为 IRFunction 并加入
-                        irProgram.add(buildFunction(functionNode));
-                case StatementNode statementNode ->
-                    // 4.4 处理脚本式顶层语句：封装成 "_start" 函数后构建并添加
-                        irProgram.add(buildFunction(wrapTopLevel(statementNode)));
                 default ->
-                    // 4.5 遇到未知类型节点，抛出异常
+                    // 5.3 遇到未知类型节点，抛出异常
                         throw new IllegalStateException("Unsupported top-level node: " + node);
             }
         }
+
+        // 6. 构建函数体
+        IRProgram irProgram = new IRProgram();
+        buildFunctions(pending, owners).forEach(irProgram::add);
         return irProgram;
     }
 
+    /**
+     * 预扫描全部根节点：登记全局常量、结构体字段布局、结构体构造/方法签名与模块函数签名。
+     * <p>{@link #buildProgram(List)} 会自动调用；增量编译逐模块构建前需先调用一次。
+     * 调用后任一函数体的构建结果不再依赖其他函数的构建顺序。</p>
+     *
+     * @param roots 顶层 AST 根节点列表
+     */
+    public void preload(List<Node> roots) {
+        // 1. 先登记全局常量，便于后续常量折叠
+        preloadGlobals(roots);
+        // 2. 注册所有结构体的字段布局（为成员访问做准备）
+        preloadStructLayouts(roots);
+        // 3. 预注册所有 struct 的构造与方法签名，便于函数内互调时查找
+        preloadStructCallables(roots);
+        // 4. 预注册模块函数与顶层函数签名，前向调用同样能查到返回类型
+        preloadFunctionSignatures(roots);
+    }
+
+    /**
+     * 构建单个模块的全部 IR 函数（先 struct 构造/方法，再普通函数），按顺序追加到 {@code out}。
+     *
+     * @param moduleNode 模块节点
+     * @param out        输出 IRProgram
+     */
+    public void buildModule(ModuleNode moduleNode, IRProgram out) {
+        List<FunctionNode> lowered = lowerModule(moduleNode);
+        buildFunctions(lowered, Collections.nCopies(lowered.size(), moduleNode.name())).forEach(out::add);
+    }
+
+    /**
+     * 构建多个模块的 IR 函数；全部函数体作为一批调度，结果按模块分组。
+     *
+     * @param modules 模块节点列表
+     * @return 与 {@code modules} 一一对应的函数列表，组内顺序同 {@link #buildModule}
+     */
+    public List<List<IRFunction>> buildModules(List<ModuleNode> modules) {
+        List<FunctionNode> pending = new ArrayList<>();
+        List<String> owners = new ArrayList<>();
+        int[] counts = new int[modules.size()];
+        for (int i = 0; i < modules.size(); i++) {
+            List<FunctionNode> lowered = lowerModule(modules.get(i));
+            counts[i] = lowered.size();
+            pending.addAll(lowered);
+            owners.addAll(Collections.nCopies(lowered.size(), modules.get(i).name()));
+        }
+        List<IRFunction> built = buildFunctions(pending, owners);
+        List<List<IRFunction>> out = new ArrayList<>(modules.size());
+        int from = 0;
+        for (int n : counts) {
+            out.add(built.subList(from, from + n));
+            from += n;
+        }
+        return out;
+    }
+
+    /**
+     * 只登记模块内函数的签名而不构建函数体，登记顺序与 {@link #buildModule} 完全一致。
+     * <p>增量编译跳过未变化模块时调用，使后续模块构建时看到的全局函数表与全量构建相同。</p>
+     *
+     * @param moduleNode 模块节点
+     * @return 按构建顺序排列的函数全名（与 {@link #buildModule} 产生的 IRFunction 名称一一对应）
+     */
+    public List<String> registerModule(ModuleNode moduleNode) {
+        List<String> names = new ArrayList<>();
+        for (FunctionNode fn : lowerModule(moduleNode)) {
+            registerSignature(fn);
+            names.add(fn.name());
+        }
+        return names;
+    }
+
+    /**
+     * 将模块降级为待构建的函数节点列表: 先 struct 构造/方法，再模块函数（全限定名，注入全局声明）。
+     *
+     * @param moduleNode 模块节点
+     * @return 按构建顺序排列的函数节点
+     */
+    private List<FunctionNode> lowerModule(ModuleNode moduleNode) {
+        List<FunctionNode> out = new ArrayList<>();
+        // 1. 先降级本模块所有 struct 的构造/方法（struct 方法降级）
+        if (moduleNode.structs() != null) {
+            for (StructNode structNode : moduleNode.structs()) {
+                lowerStruct(structNode, out);
+            }
+        }
+        // 2. 再处理模块里的普通函数，模块内函数名全限定，注入全局声明
+        if (moduleNode.functions() != null) {
+            for (FunctionNode f : moduleNode.functions()) {
+                out.add(withGlobals(moduleNode, f));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 构建一组函数体，结果顺序与输入一致。
+     *
+     * @param functions 待构建的函数节点
+     * @param owners    与 {@code functions} 一一对应的所属模块名，用于阶段统计
+     */
+    private List<IRFunction> buildFunctions(List<FunctionNode> functions, List<String> owners) {
+        PassTimings timings = PassTimings.current();
+        List<Supplier<IRFunction>> tasks = new ArrayList<>(functions.size());
+        for (int i = 0; i < functions.size(); i++) {
+            FunctionNode fn = functions.get(i);
+            String owner = owners.get(i);
+            tasks.add(() -> timings.measure(PassTimings.Pass.IR, owner, () -> buildFunction(fn), f -> f.body().size()));
+        }
+        return executor.map(tasks);
+    }
+
+    /**
+     * 与 {@link FunctionBuilder#build} 第 1 步相同的全局函数表登记。
+     */
+    private void registerSignature(FunctionNode fn) {
+        List<String> paramTypes = fn.parameters() == null
+                ? List.of()
+                : fn.parameters().stream().map(ParameterNode::type).toList();
+        GlobalFunctionTable.register(fn.name(), fn.returnType(), paramTypes);
+    }
+
     // ===================== 预扫描：注册结构体字段布局 =====================
 
     /**
@@ -189,10 +336,27 @@ public final class IRProgramBuilder {
     }
 
 
+    /**
+     * 预注册所有模块函数（全限定名）与顶层函数的签名。
+     *
+     * @param roots AST 顶层节点列表
+     */
+    private void preloadFunctionSignatures(List<Node> roots) {
+        for (Node n : roots) {
+            if (n instanceof ModuleNode mod && mod.functions() != null) {
+                for (FunctionNode f : mod.functions()) {
+                    registerSignature(renameFunction(f, mod.name() + "." + f.name()));
+                }
+            } else if (n instanceof FunctionNode fn) {
+                registerSignature(fn);
+            }
+        }
+    }
+
     // ===================== Struct 降级：方法/构造 → 普通函数 =====================
 
     /**
-     * 将一个 Struct 的所有构造函数（inits）和方法（methods）降级为普通 Function，并注册进 IRProgram：
+     * 将一个 Struct 的所有构造函数（inits）和方法（methods）降级为普通 Function，追加到待构建列表：
      * <ul>
      *     <li>构造函数：StructName.__init__N(this:StructName, ...)，N为参数个数</li>
      *     <li>方法：StructName.method_N(this:StructName, ...)，N为参数个数（含this）</li>
@@ -205,9 +369,9 @@ public final class IRProgramBuilder {
      * </ol>
      *
      * @param structNode 当前结构体节点
-     * @param out        注册到的 IRProgram
+     * @param out        待构建的函数节点列表
      */
-    private void lowerAndRegisterStruct(StructNode structNode, IRProgram out) {
+    private void lowerStruct(StructNode structNode, List<FunctionNode> out) {
         String structName = structNode.name();
 
         // 1. 多构造函数：降级为 StructName.__init__N
@@ -219,7 +383,7 @@ public final class IRProgramBuilder {
                         loweredName,
                         structName
                 );
-                out.add(buildFunction(loweredInit));
+                out.add(loweredInit);
             }
         }
 
@@ -233,7 +397,7 @@ public final class IRProgramBuilder {
                         loweredName,
                         structName
                 );
-                out.add(buildFunction(loweredMethod));
+                out.add(loweredMethod);
             }
         }
     }
@@ -346,21 +510,21 @@ public final class IRProgramBuilder {
     // ===================== IRFunction 构建辅助 =====================
 
     /**
-     * 构建带有模块全局声明“注入”的函数，并将函数名加上模块前缀，保证模块内函数名唯一。
+     * 生成带有模块全局声明“注入”的函数节点，并将函数名加上模块前缀，保证模块内函数名唯一。
      * <p>
      * 如果模块有全局声明，则这些声明会被插入到函数体前部（<b>会过滤掉与参数同名的全局声明</b>，防止变量遮蔽）。
      * </p>
      *
      * @param moduleNode   所属模块节点
      * @param functionNode 待构建的函数节点
-     * @return 包含全局声明的 IRFunction
+     * @return 包含全局声明的函数节点
      */
-    private IRFunction buildFunctionWithGlobals(ModuleNode moduleNode, FunctionNode functionNode) {
+    private FunctionNode withGlobals(ModuleNode moduleNode, FunctionNode functionNode) {
         // 1. 拼接模块名和函数名，生成全限定名
         String qualifiedName = moduleNode.name() + "." + functionNode.name();
-        // 2. 若无全局声明，直接重命名构建
+        // 2. 若无全局声明，直接重命名
         if (moduleNode.globals() == null || moduleNode.globals().isEmpty()) {
-            return buildFunction(renameFunction(functionNode, qualifiedName));
+            return renameFunction(functionNode, qualifiedName);
         }
 
         // 3. 过滤掉与参数重名的全局声明（优先参数作用域，避免变量遮蔽）
@@ -376,23 +540,22 @@ public final class IRProgramBuilder {
             }
         }
 
-        // 4. 若无可插入的全局声明，直接重命名构建
+        // 4. 若无可插入的全局声明，直接重命名
         if (filteredGlobals.isEmpty()) {
-            return buildFunction(renameFunction(functionNode, qualifiedName));
+            return renameFunction(functionNode, qualifiedName);
         }
 
         // 5. 合并全局声明与函数体，前插全局声明
         List<StatementNode> newBody = new ArrayList<>(filteredGlobals.size() + functionNode.body().size());
         newBody.addAll(filteredGlobals);
         newBody.addAll(functionNode.body());
-        FunctionNode wrapped = new FunctionNode(
+        return new FunctionNode(
                 qualifiedName,
                 functionNode.parameters(),
                 functionNode.returnType(),
                 newBody,
                 functionNode.context()
         );
-        return buildFunction(wrapped);
     }
 
     /**
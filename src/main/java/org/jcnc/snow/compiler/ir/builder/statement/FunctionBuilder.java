@@ -58,6 +58,7 @@ public class FunctionBuilder {
         // 2) 初始化 IR 容器与上下文
         IRFunction irFunction = new IRFunction(functionNode.name());
         IRContext irContext = new IRContext(irFunction);
+        irContext.setPosition(functionNode.context());
 
         // 3) 导入所有全局/跨模块常量到当前作用域（便于常量折叠和跨模块引用）
         GlobalConstTable.all().forEach((k, v) ->
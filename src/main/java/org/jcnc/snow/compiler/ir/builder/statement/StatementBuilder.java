@@ -3,6 +3,7 @@ package org.jcnc.snow.compiler.ir.builder.statement;
 import org.jcnc.snow.compiler.ir.builder.core.IRContext;
 import org.jcnc.snow.compiler.ir.builder.expression.ExpressionBuilder;
 import org.jcnc.snow.compiler.ir.builder.statement.handlers.*;
+import org.jcnc.snow.compiler.parser.ast.base.NodeContext;
 import org.jcnc.snow.compiler.parser.ast.base.StatementNode;
 
 import java.util.ArrayDeque;
@@ -73,19 +74,27 @@ public class StatementBuilder {
 
     /**
      * 构建单条语句：根据语句类型自动分发至合适的处理器。
+     * 期间生成的指令均标注为该语句的源码位置。
      *
      * @param stmt AST语句节点（StatementNode）。
      * @throws IllegalStateException 如果未找到任何合适的处理器。
      */
     public void build(StatementNode stmt) {
-        for (IStatementHandler h : handlers) {
-            if (h.canHandle(stmt)) {
-                h.handle(stmt, context);
-                return;
+        // 嵌套语句（循环体、分支体）结束后恢复外层语句的位置，使条件判断、跳转等收尾指令归属外层语句
+        NodeContext outer = ctx.getPosition();
+        if (stmt.context() != null) ctx.setPosition(stmt.context());
+        try {
+            for (IStatementHandler h : handlers) {
+                if (h.canHandle(stmt)) {
+                    h.handle(stmt, context);
+                    return;
+                }
             }
+            throw new IllegalStateException("Unsupported statement: "
+                    + stmt.getClass().getSimpleName() + ": " + stmt);
+        } finally {
+            ctx.setPosition(outer);
         }
-        throw new IllegalStateException("Unsupported statement: "
-                + stmt.getClass().getSimpleName() + ": " + stmt);
     }
 
     /**
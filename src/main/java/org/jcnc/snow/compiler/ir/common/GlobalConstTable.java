@@ -1,7 +1,8 @@
 package org.jcnc.snow.compiler.ir.common;
 
+import org.jcnc.snow.compiler.common.CompilationContext;
+
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 全局常量表，用于跨模块编译期常量查询和折叠。
@@ -13,6 +14,7 @@ import java.util.concurrent.ConcurrentHashMap;
  *       （如 ModuleA.a）注册到全局常量表，支持跨模块访问。</li>
  *   <li>后续任何阶段均可通过 {@link #get(String)} 查询已注册常量，实现编译期常量折叠。</li>
  *   <li>保证线程安全，支持并发注册和访问。</li>
+ *   <li>数据归属当前 {@link CompilationContext}，不同编译互不可见。</li>
  * </ul>
  * <p>
  * 常量的 key 格式为“模块名.常量名”，如 "ModuleA.a"，以便唯一标识。
@@ -27,14 +29,16 @@ import java.util.concurrent.ConcurrentHashMap;
 public final class GlobalConstTable {
 
     /**
-     * 存储全局常量: “ModuleName.constName” → 常量值。线程安全。
+     * 工具类构造器，防止实例化。
      */
-    private static final Map<String, Object> CONSTS = new ConcurrentHashMap<>();
+    private GlobalConstTable() { /* utility class */ }
 
     /**
-     * 工具类构造器，防止实例化。
+     * 当前编译的全局常量: “ModuleName.constName” → 常量值。线程安全。
      */
-    private GlobalConstTable() { /* utility class */ }
+    private static Map<String, Object> consts() {
+        return CompilationContext.current().constants();
+    }
 
     /**
      * 注册一个全局常量到表中（只在首次注册时生效，避免被覆盖）。
@@ -47,7 +51,7 @@ public final class GlobalConstTable {
         if (qualifiedName == null || qualifiedName.isBlank()) {
             throw new IllegalArgumentException("常量名不能为空");
         }
-        CONSTS.putIfAbsent(qualifiedName, value);
+        consts().putIfAbsent(qualifiedName, value);
     }
 
     /**
@@ -57,7 +61,7 @@ public final class GlobalConstTable {
      * @return 查到的常量值，如果未注册则返回 null
      */
     public static Object get(String qualifiedName) {
-        return CONSTS.get(qualifiedName);
+        return consts().get(qualifiedName);
     }
 
     /**
@@ -67,6 +71,6 @@ public final class GlobalConstTable {
      * @return key=常量名，value=常量值的不可变 Map
      */
     public static Map<String, Object> all() {
-        return Map.copyOf(CONSTS);
+        return Map.copyOf(consts());
     }
 }
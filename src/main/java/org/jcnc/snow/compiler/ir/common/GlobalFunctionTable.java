@@ -1,7 +1,8 @@
 package org.jcnc.snow.compiler.ir.common;
 
+import org.jcnc.snow.compiler.common.CompilationContext;
+
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 全局函数返回类型表。
@@ -15,29 +16,35 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <li>在函数 IR 构建阶段，调用 {@link #register(String, String, java.util.List)} 方法登记函数名与返回类型。</li>
  *   <li>在生成调用指令阶段，通过 {@link #getReturnType(String)} 查询函数的返回类型。</li>
  *   <li>返回类型统一为小写；若调用 {@code register} 时传入的返回类型为 {@code null}，则登记为 {@code "void"}。</li>
+ *   <li>表数据归属当前 {@link CompilationContext}，不同编译互不可见。</li>
  * </ul>
  */
 public final class GlobalFunctionTable {
 
     /**
-     * 存储全局函数返回类型映射表。
+     * 私有构造函数，防止实例化。
+     */
+    private GlobalFunctionTable() {
+        // 工具类，禁止实例化
+    }
+
+    /**
+     * 当前编译的函数返回类型映射表。
      * <ul>
      *   <li>Key: 函数名（不含模块限定）</li>
      *   <li>Value: 返回类型，统一转换为小写字符串；若无返回值则为 {@code "void"}</li>
      * </ul>
      */
-    private static final Map<String, String> RETURN_TYPES = new ConcurrentHashMap<>();
-    /**
-     * 函数参数类型映射表。
-     * Key: 函数名，Value: 参数类型列表（按声明顺序）
-     */
-    private static final Map<String, java.util.List<String>> PARAM_TYPES = new ConcurrentHashMap<>();
+    private static Map<String, String> returnTypes() {
+        return CompilationContext.current().functionReturnTypes();
+    }
 
     /**
-     * 私有构造函数，防止实例化。
+     * 当前编译的函数参数类型映射表。
+     * Key: 函数名，Value: 参数类型列表（按声明顺序）
      */
-    private GlobalFunctionTable() {
-        // 工具类，禁止实例化
+    private static Map<String, java.util.List<String>> paramTypes() {
+        return CompilationContext.current().functionParamTypes();
     }
 
     /**
@@ -61,11 +68,11 @@ public final class GlobalFunctionTable {
         } else {
             normalized = returnType.trim();
         }
-        RETURN_TYPES.put(name, normalized);
+        returnTypes().put(name, normalized);
         if (paramTypes != null) {
-            PARAM_TYPES.put(name, java.util.List.copyOf(paramTypes));
+            paramTypes().put(name, java.util.List.copyOf(paramTypes));
         } else {
-            PARAM_TYPES.remove(name);
+            paramTypes().remove(name);
         }
     }
 
@@ -82,7 +89,7 @@ public final class GlobalFunctionTable {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("函数名不能为空或 null");
         }
-        return RETURN_TYPES.get(name);
+        return returnTypes().get(name);
     }
 
     /**
@@ -95,6 +102,6 @@ public final class GlobalFunctionTable {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("函数名不能为空或 null");
         }
-        return PARAM_TYPES.get(name);
+        return paramTypes().get(name);
     }
 }
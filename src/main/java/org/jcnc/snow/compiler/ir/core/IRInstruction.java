@@ -14,6 +14,16 @@ import java.util.List;
  */
 public abstract class IRInstruction {
 
+    /**
+     * 生成本指令的源码文件（所在语句），未知时为 null
+     */
+    private String sourceFile;
+
+    /**
+     * 生成本指令的源码行号（所在语句），未知时为 0
+     */
+    private int sourceLine;
+
     /**
      * 获取该指令的操作码（Opcode）。
      * <p>
@@ -60,4 +70,36 @@ public abstract class IRInstruction {
      * @param visitor 实现 IRVisitor 接口的访问者对象
      */
     public abstract void accept(IRVisitor visitor);
-}
\ No newline at end of file
+
+    /**
+     * 获取生成本指令的源码文件。
+     * <p>
+     * 位置以语句为粒度，由 IR 构建器在添加指令时记录，后端据此输出 .water 的行号表。
+     * </p>
+     *
+     * @return 源码文件，未知时返回 null
+     */
+    public String sourceFile() {
+        return sourceFile;
+    }
+
+    /**
+     * 获取生成本指令的源码行号。
+     *
+     * @return 源码行号，未知时返回 0
+     */
+    public int sourceLine() {
+        return sourceLine;
+    }
+
+    /**
+     * 设置生成本指令的源码位置。
+     *
+     * @param file 源码文件，可为 null
+     * @param line 源码行号，未知时为 0
+     */
+    public void setSource(String file, int line) {
+        this.sourceFile = file;
+        this.sourceLine = line;
+    }
+}
@@ -32,6 +32,21 @@ public interface TokenScanner {
      */
     boolean canHandle(char c, LexerContext ctx);
 
+    /**
+     * 判断该扫描器是否<em>可能</em>处理以字符 {@code c} 开头的 token（只看首字符，不看上下文）。
+     * <p>
+     * 词法分析器据此为 ASCII 字符预先建立“首字符 → 候选扫描器”分派表，
+     * 扫描时只对候选者调用 {@link #canHandle(char, LexerContext)}。
+     * 返回 {@code true} 只表示“需要进一步询问”，因此默认实现保守地返回 {@code true}。
+     * </p>
+     *
+     * @param c 候选的首字符
+     * @return 可能处理时为 {@code true}
+     */
+    default boolean canStartWith(char c) {
+        return true;
+    }
+
     /**
      * 处理以当前字符为起始的 token，并将扫描结果添加至 tokens 列表中。
      * <p>
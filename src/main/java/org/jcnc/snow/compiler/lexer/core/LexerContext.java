@@ -11,7 +11,8 @@ import org.jcnc.snow.compiler.lexer.base.TokenScanner;
  * <p>
  * 设计要点:
  * <ul>
- *     <li>构造时统一将 Windows 换行符 (<code>\r\n</code>) 转换为 Unix 风格 (<code>\n</code>)。</li>
+ *     <li>Windows 换行符 (<code>\r\n</code>) 在读取时即视为单个 <code>\n</code>（跳过其中的 <code>\r</code>），
+ *         不再在构造时复制并改写整份源码。</li>
  *     <li>所有坐标均以 <strong>1</strong> 为起始行／列号，更贴合人类直觉。</li>
  *     <li>提供 {@link #peekAhead(int)} 方法以支持“向前多字符查看”而不移动游标。</li>
  * </ul>
@@ -22,14 +23,19 @@ public class LexerContext {
     /* ───────────────────────────────── 私有字段 ───────────────────────────────── */
 
     /**
-     * 源代码字符串（换行符已标准化为 \n）
+     * 源代码字符串（原样保存，不做换行符改写）
      */
     private final String source;
 
     /**
-     * 当前扫描位置（自 0 起算的全局偏移量）
+     * 源代码长度
      */
-    private int pos = 0;
+    private final int length;
+
+    /**
+     * 当前扫描位置（自 0 起算的原始偏移量；从不停在 \r\n 的 \r 上）
+     */
+    private int pos;
 
     /**
      * 当前行号（从 1 开始）
@@ -49,12 +55,21 @@ public class LexerContext {
     /* ──────────────────────────────── 构造 & 基本信息 ─────────────────────────────── */
 
     /**
-     * 创建新的 {@code LexerContext}，并完成换行符标准化。
+     * 创建新的 {@code LexerContext}。
      *
      * @param rawSource 原始源代码文本
      */
     public LexerContext(String rawSource) {
-        this.source = rawSource.replace("\r\n", "\n");
+        this.source = rawSource;
+        this.length = rawSource.length();
+        this.pos = skipCr(0);
+    }
+
+    /**
+     * 若下标 i 处是 \r\n 中的 \r，返回其后 \n 的下标；否则原样返回。
+     */
+    private int skipCr(int i) {
+        return (i + 1 < length && source.charAt(i) == '\r' && source.charAt(i + 1) == '\n') ? i + 1 : i;
     }
 
     /**
@@ -63,7 +78,7 @@ public class LexerContext {
      * @return 若游标位于终点之后返回 {@code true}
      */
     public boolean isAtEnd() {
-        return pos >= source.length();
+        return pos >= length;
     }
 
     /* ──────────────────────────────── 指针推进与查看 ─────────────────────────────── */
@@ -76,7 +91,8 @@ public class LexerContext {
     public char advance() {
         if (isAtEnd()) return '\0';
 
-        char c = source.charAt(pos++);
+        char c = source.charAt(pos);
+        pos = skipCr(pos + 1);
         lastCol = col;
 
         if (c == '\n') {
@@ -103,7 +119,7 @@ public class LexerContext {
      * @return 下一字符；若越界则返回 {@code '\0'}
      */
     public char peekNext() {
-        return pos + 1 >= source.length() ? '\0' : source.charAt(pos + 1);
+        return peekAhead(1);
     }
 
     /**
@@ -114,8 +130,11 @@ public class LexerContext {
      */
     public char peekAhead(int offset) {
         if (offset <= 0) return peek();
-        int idx = pos + offset;
-        return idx >= source.length() ? '\0' : source.charAt(idx);
+        int idx = pos;
+        for (int k = 0; k < offset && idx < length; k++) {
+            idx = skipCr(idx + 1);
+        }
+        return idx >= length ? '\0' : source.charAt(idx);
     }
 
     /**
@@ -154,7 +173,7 @@ public class LexerContext {
     }
 
     /**
-     * @return 当前指针在源文件中的全局偏移 (0-based)
+     * @return 当前指针在原始源文本中的全局偏移 (0-based)
      */
     public int getPos() {
         return pos;
@@ -7,24 +7,57 @@ import org.jcnc.snow.compiler.lexer.token.TokenType;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Snow 语言词法分析器核心实现。
  * <p>采用“<b>先扫描 → 后批量校验 → 统一报告</b>”策略:
  * <ol>
- *   <li>{@link #scanAllTokens()}— 用扫描器链把字符流拆成 {@link Token}</li>
- *   <li>{@link #validateTokens()}— 基于 token 序列做轻量上下文校验</li>
+ *   <li>{@link #scanAllTokens()}— 按首字符分派表把字符流拆成 {@link Token}</li>
+ *   <li>{@link #validateTokens()}— 基于 token 序列做轻量上下文校验（单次线性扫描）</li>
  *   <li>{@link #report(List)}— 一次性输出所有词法错误</li>
  * </ol></p>
+ * <p>扫描器均无状态，由所有实例共享。ASCII 字符经 {@link #DISPATCH} 直接找到候选扫描器
+ * （绝大多数字符只有一个候选加兜底的 {@link UnknownTokenScanner}），非 ASCII 字符按完整扫描器链依次询问；
+ * 两种路径的优先级顺序一致。</p>
  */
 public class LexerEngine {
 
+    /**
+     * 扫描器链（按优先级）
+     */
+    private static final TokenScanner[] SCANNERS = {
+            new WhitespaceTokenScanner(),
+            new NewlineTokenScanner(),
+            new CommentTokenScanner(),
+            new NumberTokenScanner(),
+            new IdentifierTokenScanner(),
+            new StringTokenScanner(),
+            new OperatorTokenScanner(),
+            new SymbolTokenScanner(),
+            new UnknownTokenScanner()
+    };
+
+    /**
+     * 首字符分派表: ASCII 字符 → 按优先级排列的候选扫描器
+     */
+    private static final TokenScanner[][] DISPATCH = new TokenScanner[128][];
+
+    static {
+        for (char c = 0; c < DISPATCH.length; c++) {
+            List<TokenScanner> candidates = new ArrayList<>(2);
+            for (TokenScanner s : SCANNERS) {
+                if (s.canStartWith(c)) candidates.add(s);
+            }
+            DISPATCH[c] = candidates.toArray(new TokenScanner[0]);
+        }
+    }
+
     private final List<Token> tokens = new ArrayList<>();   // 扫描结果
     private final List<LexicalError> errors = new ArrayList<>();
     private final String absPath;                           // 绝对路径
     private final LexerContext context;                      // 字符流
-    private final List<TokenScanner> scanners;               // 扫描器链
 
     /**
      * 创建并立即执行扫描-校验-报告流程。
@@ -33,19 +66,21 @@ public class LexerEngine {
      * @param sourceName 文件名（诊断用）
      */
     public LexerEngine(String source, String sourceName) {
+        this(source, sourceName, true);
+    }
+
+    /**
+     * 创建并立即执行扫描-校验流程，可选择推迟错误报告。
+     * <p>并行编译时各文件在工作线程上词法分析，错误由调用方按文件顺序
+     * 通过 {@link #report(List)} 输出，避免多线程输出交错。</p>
+     *
+     * @param source       源代码文本
+     * @param sourceName   文件名（诊断用）
+     * @param reportErrors 是否立即向 stderr 报告词法错误
+     */
+    public LexerEngine(String source, String sourceName, boolean reportErrors) {
         this.absPath = new File(sourceName).getAbsolutePath().replace('\\', '/');
         this.context = new LexerContext(source);
-        this.scanners = List.of(
-                new WhitespaceTokenScanner(),
-                new NewlineTokenScanner(),
-                new CommentTokenScanner(),
-                new NumberTokenScanner(),
-                new IdentifierTokenScanner(),
-                new StringTokenScanner(),
-                new OperatorTokenScanner(),
-                new SymbolTokenScanner(),
-                new UnknownTokenScanner()
-        );
 
         /* 1. 扫描 */
         scanAllTokens();
@@ -58,7 +93,9 @@ public class LexerEngine {
 //        }
 
         /* 4. 统一报告错误 */
-        report(errors);
+        if (reportErrors) {
+            report(errors);
+        }
     }
 
     public static void report(List<LexicalError> errors) {
@@ -69,8 +106,13 @@ public class LexerEngine {
         errors.forEach(e -> System.err.println("\t" + e));
     }
 
+    /**
+     * 返回全部 token（含末尾 EOF）。
+     *
+     * @return 只读视图，不复制
+     */
     public List<Token> getAllTokens() {
-        return List.copyOf(tokens);
+        return Collections.unmodifiableList(tokens);
     }
 
     public List<LexicalError> getErrors() {
@@ -78,7 +120,7 @@ public class LexerEngine {
     }
 
     /**
-     * 逐字符扫描: 依次尝试各扫描器；扫描器抛出的
+     * 逐 token 扫描: 按首字符取候选扫描器并依次询问；扫描器抛出的
      * {@link LexicalException} 被捕获并转为 {@link LexicalError}。
      */
     private void scanAllTokens() {
@@ -86,7 +128,7 @@ public class LexerEngine {
             char ch = context.peek();
             boolean handled = false;
 
-            for (TokenScanner s : scanners) {
+            for (TokenScanner s : ch < DISPATCH.length ? DISPATCH[ch] : SCANNERS) {
                 if (!s.canHandle(ch, context)) continue;
 
                 try {
@@ -125,7 +167,7 @@ public class LexerEngine {
      * 目前包含2条规则: <br>
      * 1. Declare-Ident declare 后必须紧跟合法标识符（或 const + 标识符），并且只能一个<br>
      * 2. Double-Ident declare 后若出现第二个多余的 IDENTIFIER<br>
-     * <p>发现问题仅写入 {@link #errors}，不抛异常。</p>
+     * <p>发现问题仅写入 {@link #errors}，不抛异常。相邻 token 均按下标查找，整体为线性时间。</p>
      */
     private void validateTokens() {
         for (int i = 0; i < tokens.size(); i++) {
@@ -136,16 +178,18 @@ public class LexerEngine {
                     && "declare".equalsIgnoreCase(tok.getLexeme())) {
 
                 // 找 declare 后第一个非 NEWLINE token
-                Token t1 = findNextNonNewline(i);
+                int i1 = nextNonNewline(i);
+                Token t1 = i1 < 0 ? null : tokens.get(i1);
 
                 // 如果有 const，允许
                 boolean hasConst = t1 != null
                         && t1.getType() == TokenType.KEYWORD
                         && "const".equalsIgnoreCase(t1.getLexeme());
-                int identStartIdx = hasConst ? tokens.indexOf(t1) : i;
+                int identStartIdx = hasConst ? i1 : i;
 
                 // 找下一个非 NEWLINE token，如果有 const，就找下一个
-                Token id1 = findNextNonNewline(identStartIdx);
+                int idIdx = nextNonNewline(identStartIdx);
+                Token id1 = idIdx < 0 ? null : tokens.get(idIdx);
 
                 // id1 必须是 IDENTIFIER
                 if (id1 == null || id1.getType() != TokenType.IDENTIFIER) {
@@ -157,23 +201,22 @@ public class LexerEngine {
                 }
 
                 // 检查是否有第二个多余的 IDENTIFIER
-                Token id2 = findNextNonNewline(tokens.indexOf(id1));
-                if (id2 != null && id2.getType() == TokenType.IDENTIFIER) {
-                    errors.add(err(id2, "declare 声明中出现多余的标识符"));
+                int i2 = nextNonNewline(idIdx);
+                if (i2 >= 0 && tokens.get(i2).getType() == TokenType.IDENTIFIER) {
+                    errors.add(err(tokens.get(i2), "declare 声明中出现多余的标识符"));
                 }
             }
         }
     }
 
     /**
-     * index 右侧最近非 NEWLINE token；无则 null
+     * index 右侧最近非 NEWLINE token 的下标；无则 -1
      */
-    private Token findNextNonNewline(int index) {
+    private int nextNonNewline(int index) {
         for (int j = index + 1; j < tokens.size(); j++) {
-            Token t = tokens.get(j);
-            if (t.getType() != TokenType.NEWLINE) return t;
+            if (tokens.get(j).getType() != TokenType.NEWLINE) return j;
         }
-        return null;
+        return -1;
     }
 
     /**
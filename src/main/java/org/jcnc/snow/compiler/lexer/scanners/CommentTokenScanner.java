@@ -31,6 +31,17 @@ public class CommentTokenScanner extends AbstractTokenScanner {
         return c == '/' && (ctx.peekNext() == '/' || ctx.peekNext() == '*');
     }
 
+    /**
+     * 注释必以 {@code /} 开头；是否真是注释还需查看下一字符。
+     *
+     * @param c 首字符
+     * @return {@code c == '/'}
+     */
+    @Override
+    public boolean canStartWith(char c) {
+        return c == '/';
+    }
+
     /**
      * 执行注释扫描，生成 {@code COMMENT} Token。
      *
@@ -32,6 +32,17 @@ public class IdentifierTokenScanner extends AbstractTokenScanner {
      */
     @Override
     public boolean canHandle(char c, LexerContext ctx) {
+        return canStartWith(c);
+    }
+
+    /**
+     * 标识符以字母或下划线开头。
+     *
+     * @param c 首字符
+     * @return 是否为字母或下划线
+     */
+    @Override
+    public boolean canStartWith(char c) {
         return Character.isLetter(c) || c == '_';
     }
 
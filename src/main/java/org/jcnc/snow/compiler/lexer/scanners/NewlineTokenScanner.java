@@ -8,12 +8,10 @@ import org.jcnc.snow.compiler.lexer.token.TokenType;
  * 换行符扫描器: 将源代码中的换行符（\n）识别为 {@code NEWLINE} 类型的 Token。
  * <p>
  * 用于记录行的分界，辅助语法分析阶段进行行敏感的判断或保持结构清晰。
+ * 扫描器无状态，可在多个词法分析器间共享。
  */
 public class NewlineTokenScanner extends AbstractTokenScanner {
 
-    // 当前状态
-    private State currentState = State.INITIAL;
-
     /**
      * 判断是否可以处理当前位置的字符。
      * <p>当字符为换行符（\n）时返回 true。</p>
@@ -24,8 +22,18 @@ public class NewlineTokenScanner extends AbstractTokenScanner {
      */
     @Override
     public boolean canHandle(char c, LexerContext ctx) {
-        // 只有当处于 INITIAL 状态，并且遇到换行符时，才可以处理
-        return currentState == State.INITIAL && (c == '\n' || c == '\r');
+        return canStartWith(c);
+    }
+
+    /**
+     * 换行符，{@code \r\n} 已由 {@code LexerContext} 合并为 {@code \n}。
+     *
+     * @param c 首字符
+     * @return 是否为换行符
+     */
+    @Override
+    public boolean canStartWith(char c) {
+        return c == '\n' || c == '\r';
     }
 
     /**
@@ -39,8 +47,6 @@ public class NewlineTokenScanner extends AbstractTokenScanner {
      */
     @Override
     protected Token scanToken(LexerContext ctx, int line, int col) {
-        currentState = State.NEWLINE;
-
         char first = ctx.peek();
         String lexeme;
 
@@ -58,14 +64,6 @@ public class NewlineTokenScanner extends AbstractTokenScanner {
             lexeme = "\n";
         }
 
-        Token newlineToken = new Token(TokenType.NEWLINE, lexeme, line, col);
-        currentState = State.INITIAL;
-        return newlineToken;
-    }
-
-    // 定义状态枚举
-    private enum State {
-        INITIAL,
-        NEWLINE
+        return new Token(TokenType.NEWLINE, lexeme, line, col);
     }
 }
@@ -65,6 +65,17 @@ public class NumberTokenScanner extends AbstractTokenScanner {
      */
     @Override
     public boolean canHandle(char c, LexerContext ctx) {
+        return canStartWith(c);
+    }
+
+    /**
+     * 数字字面量以数字开头（十六进制的 {@code 0x} 前缀同样如此）。
+     *
+     * @param c 首字符
+     * @return 是否为数字
+     */
+    @Override
+    public boolean canStartWith(char c) {
         return Character.isDigit(c);
     }
 
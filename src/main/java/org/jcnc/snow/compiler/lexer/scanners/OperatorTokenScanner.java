@@ -31,6 +31,17 @@ public class OperatorTokenScanner extends AbstractTokenScanner {
      */
     @Override
     public boolean canHandle(char c, LexerContext ctx) {
+        return canStartWith(c);
+    }
+
+    /**
+     * 运算符首字符属于 {@code =!<>|&%}，最长匹配在扫描时进行。
+     *
+     * @param c 首字符
+     * @return 是否为运算符首字符
+     */
+    @Override
+    public boolean canStartWith(char c) {
         return "=!<>|&%".indexOf(c) >= 0;
     }
 
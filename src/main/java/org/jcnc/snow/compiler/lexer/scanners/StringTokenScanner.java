@@ -41,6 +41,17 @@ public class StringTokenScanner extends AbstractTokenScanner {
      */
     @Override
     public boolean canHandle(char c, LexerContext ctx) {
+        return canStartWith(c);
+    }
+
+    /**
+     * 字符串字面量以双引号开头。
+     *
+     * @param c 首字符
+     * @return 是否为双引号
+     */
+    @Override
+    public boolean canStartWith(char c) {
         return c == '"';  // 只处理双引号起始
     }
 
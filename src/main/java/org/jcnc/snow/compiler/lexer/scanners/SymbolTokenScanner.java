@@ -28,6 +28,17 @@ public class SymbolTokenScanner extends AbstractTokenScanner {
      */
     @Override
     public boolean canHandle(char c, LexerContext ctx) {
+        return canStartWith(c);
+    }
+
+    /**
+     * 单字符符号，首字符即决定类型；{@code /} 与注释冲突时由分派表中更靠前的注释扫描器优先判定。
+     *
+     * @param c 首字符
+     * @return 是否为符号字符
+     */
+    @Override
+    public boolean canStartWith(char c) {
         return ":,().+-*/[]".indexOf(c) >= 0;
     }
 
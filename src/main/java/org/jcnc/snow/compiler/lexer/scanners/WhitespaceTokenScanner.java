@@ -22,6 +22,17 @@ public class WhitespaceTokenScanner extends AbstractTokenScanner {
      */
     @Override
     public boolean canHandle(char c, LexerContext ctx) {
+        return canStartWith(c);
+    }
+
+    /**
+     * 除换行外的空白字符（含单独的 {@code \r}）。
+     *
+     * @param c 首字符
+     * @return 是否为非换行空白
+     */
+    @Override
+    public boolean canStartWith(char c) {
         return Character.isWhitespace(c) && c != '\n';
     }
 
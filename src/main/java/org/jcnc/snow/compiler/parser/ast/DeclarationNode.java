@@ -4,6 +4,7 @@ import org.jcnc.snow.compiler.parser.ast.base.ExpressionNode;
 import org.jcnc.snow.compiler.parser.ast.base.NodeContext;
 import org.jcnc.snow.compiler.parser.ast.base.StatementNode;
 
+import java.io.Serial;
 import java.util.Optional;
 
 /**
@@ -14,6 +15,12 @@ import java.util.Optional;
  */
 public class DeclarationNode implements StatementNode {
 
+    /**
+     * 序列化版本号；缓存失效由 {@code LibraryCache} 的编译器构建指纹负责
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /**
      * 声明的变量名称。
      */
@@ -31,9 +38,9 @@ public class DeclarationNode implements StatementNode {
 
     /**
      * 可选的初始化表达式。
-     * 如果未指定初始化表达式，则为 Optional.empty()。
+     * 如果未指定初始化表达式，则为 {@code null}（以便 AST 序列化）。
      */
-    private final Optional<ExpressionNode> initializer;
+    private final ExpressionNode initializer;
 
     /**
      * 节点上下文信息（如源码中的行号、列号等）。
@@ -53,7 +60,7 @@ public class DeclarationNode implements StatementNode {
         this.name = name;
         this.type = type;
         this.isConst = isConst;
-        this.initializer = Optional.ofNullable(initializer);
+        this.initializer = initializer;
         this.context = context;
     }
 
@@ -90,7 +97,7 @@ public class DeclarationNode implements StatementNode {
      * @return 一个 Optional 包装的初始化表达式对象，可能为空
      */
     public Optional<ExpressionNode> getInitializer() {
-        return initializer;
+        return Optional.ofNullable(initializer);
     }
 
     /**
@@ -4,6 +4,7 @@ import org.jcnc.snow.compiler.parser.ast.base.ExpressionNode;
 import org.jcnc.snow.compiler.parser.ast.base.NodeContext;
 import org.jcnc.snow.compiler.parser.ast.base.StatementNode;
 
+import java.io.Serial;
 import java.util.Optional;
 
 /**
@@ -22,9 +23,15 @@ import java.util.Optional;
 public class ReturnNode implements StatementNode {
 
     /**
-     * 可选的返回值表达式
+     * 序列化版本号；缓存失效由 {@code LibraryCache} 的编译器构建指纹负责
      */
-    private final Optional<ExpressionNode> expression;
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 可选的返回值表达式；无返回值时为 {@code null}（以便 AST 序列化）
+     */
+    private final ExpressionNode expression;
 
     /**
      * 节点上下文信息（包含行号、列号等）
@@ -38,7 +45,7 @@ public class ReturnNode implements StatementNode {
      * @param context    节点上下文信息（包含行号、列号等）
      */
     public ReturnNode(ExpressionNode expression, NodeContext context) {
-        this.expression = Optional.ofNullable(expression);
+        this.expression = expression;
         this.context = context;
     }
 
@@ -48,7 +55,7 @@ public class ReturnNode implements StatementNode {
      * @return 如果有返回值则返回 {@code Optional.of(expression)}，否则返回 {@code Optional.empty()}
      */
     public Optional<ExpressionNode> getExpression() {
-        return expression;
+        return Optional.ofNullable(expression);
     }
 
     /**
@@ -1,5 +1,7 @@
 package org.jcnc.snow.compiler.parser.ast.base;
 
+import java.io.Serializable;
+
 /**
  * {@code Node} 是抽象语法树（AST）中所有语法节点的统一根接口。
  * <p>
@@ -14,8 +16,13 @@ package org.jcnc.snow.compiler.parser.ast.base;
  * <p>
  * 所有 AST 处理逻辑（如遍历、分析、代码生成）均可基于该接口实现统一调度和类型判定。
  * </p>
+ * <p>
+ * AST 可序列化，以便编译器把库模块的解析结果写入磁盘缓存（见 {@code LibraryCache}）。
+ * 节点结构变化后的缓存失效由 {@code LibraryCache} 目录键中的编译器构建指纹负责，
+ * 不依赖 {@code serialVersionUID}。
+ * </p>
  */
-public interface Node {
+public interface Node extends Serializable {
     /**
      * 获取节点的上下文（行/列/文件等信息）。
      */
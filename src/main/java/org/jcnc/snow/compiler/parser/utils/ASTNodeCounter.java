@@ -0,0 +1,62 @@
+package org.jcnc.snow.compiler.parser.utils;
+
+import org.jcnc.snow.compiler.parser.ast.*;
+import org.jcnc.snow.compiler.parser.ast.base.Node;
+
+import java.util.List;
+
+/**
+ * {@code ASTNodeCounter} 统计语法树中的节点个数，供 {@code --time-passes} 报告语法分析的产出规模。
+ * <p>
+ * 每个 {@link Node} 实例计为一个节点（含模块、导入、参数与各类语句/表达式），
+ * 按节点类型显式遍历子节点，不依赖反射。
+ * </p>
+ */
+public final class ASTNodeCounter {
+
+    private ASTNodeCounter() {
+    }
+
+    /**
+     * 统计一组顶层节点及其全部子节点的个数。
+     *
+     * @param ast 顶层节点列表；为 null 时返回 0
+     * @return 节点总数
+     */
+    public static long count(List<? extends Node> ast) {
+        if (ast == null) return 0;
+        long n = 0;
+        for (Node node : ast) n += count(node);
+        return n;
+    }
+
+    /**
+     * 统计单个节点及其全部子节点的个数。
+     *
+     * @param node 节点；为 null 时返回 0
+     * @return 节点总数
+     */
+    public static long count(Node node) {
+        if (node == null) return 0;
+        return 1 + switch (node) {
+            case ModuleNode m -> count(m.imports()) + count(m.globals()) + count(m.structs()) + count(m.functions());
+            case StructNode s -> count(s.fields()) + count(s.inits()) + count(s.methods());
+            case FunctionNode f -> count(f.parameters()) + count(f.body());
+            case DeclarationNode d -> count(d.getInitializer().orElse(null));
+            case ReturnNode r -> count(r.getExpression().orElse(null));
+            case AssignmentNode a -> count(a.value());
+            case IndexAssignmentNode a -> count(a.target()) + count(a.value());
+            case ExpressionStatementNode e -> count(e.expression());
+            case IfNode i -> count(i.condition()) + count(i.thenBranch()) + count(i.elseBranch());
+            case LoopNode l -> count(l.init()) + count(l.cond()) + count(l.step()) + count(l.body());
+            case BinaryExpressionNode b -> count(b.left()) + count(b.right());
+            case UnaryExpressionNode u -> count(u.operand());
+            case CallExpressionNode c -> count(c.callee()) + count(c.arguments());
+            case MemberExpressionNode m -> count(m.object());
+            case IndexExpressionNode i -> count(i.array()) + count(i.index());
+            case ArrayLiteralNode a -> count(a.elements());
+            case NewExpressionNode e -> count(e.arguments());
+            default -> 0; // 叶子节点: 标识符、字面量、导入、参数、break/continue
+        };
+    }
+}
@@ -162,6 +162,11 @@ public class CallExpressionAnalyzer implements ExpressionAnalyzer {
                 );
             }
 
+            // 内置特例：fnaddr("模块.函数") 取函数入口地址，供 SERVE 等运行时设施回调
+            if (funcType == null && "fnaddr".equals(functionName)) {
+                funcType = new FunctionType(List.of(BuiltinType.STRING), BuiltinType.INT);
+            }
+
             // 如果找不到，检查导入模块里是否存在同名函数
             if (funcType == null) {
                 List<String> candidates = new ArrayList<>();
@@ -5,6 +5,7 @@ import org.jcnc.snow.compiler.semantic.error.SemanticError;
 import org.jcnc.snow.compiler.semantic.type.ArrayType;
 import org.jcnc.snow.compiler.semantic.type.Type;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -75,6 +76,21 @@ public class Context {
         this.registry = registry;
     }
 
+    /**
+     * 为单个函数的函数体分析创建子上下文。
+     * <p>
+     * 子上下文共享模块信息表与分析器注册表（分析期间只读），但拥有独立的错误列表与当前模块，
+     * 因此不同函数可以在不同线程上同时分析。
+     *
+     * @param moduleName 函数所属模块名
+     * @return 子上下文
+     */
+    public Context forFunction(String moduleName) {
+        Context child = new Context(modules, new ArrayList<>(), verbose, registry);
+        child.setCurrentModule(moduleName);
+        return child;
+    }
+
     // ==== Getter 方法（基本访问器） ====
 
     /**
@@ -1,5 +1,7 @@
 package org.jcnc.snow.compiler.semantic.core;
 
+import org.jcnc.snow.compiler.common.PassTimings;
+import org.jcnc.snow.compiler.common.PhaseExecutor;
 import org.jcnc.snow.compiler.parser.ast.DeclarationNode;
 import org.jcnc.snow.compiler.parser.ast.FunctionNode;
 import org.jcnc.snow.compiler.parser.ast.IfNode;
@@ -17,6 +19,8 @@ import org.jcnc.snow.compiler.semantic.type.Type;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * {@code FunctionChecker} 负责对所有模块的函数体进行两遍扫描式的语义检查。
@@ -24,7 +28,9 @@ import java.util.List;
  * 检查流程为：
  * <ol>
  *     <li>第一遍：为每个模块构建全局符号表，注册所有模块级变量与常量声明（并检查重复/未知类型）。</li>
- *     <li>第二遍：在所有全局符号表准备好后，依次分析各模块下所有函数的参数和函数体语句。</li>
+ *     <li>第二遍：在所有全局符号表准备好后，分析各模块下所有函数的参数和函数体语句。
+ *         每个函数使用独立的子上下文（{@link Context#forFunction}），由 {@link PhaseExecutor} 调度，
+ *         可并行；各函数的错误按模块、函数的声明顺序合并。</li>
  * </ol>
  * 检查要点：
  * <ul>
@@ -34,7 +40,16 @@ import java.util.List;
  *     <li>非 void 返回类型的函数，必须有至少一条 return。</li>
  * </ul>
  */
-public record FunctionChecker(Context ctx) {
+public record FunctionChecker(Context ctx, PhaseExecutor executor) {
+
+    /**
+     * 创建在当前线程上顺序检查的函数检查器。
+     *
+     * @param ctx 语义分析上下文
+     */
+    public FunctionChecker(Context ctx) {
+        this(ctx, PhaseExecutor.SEQUENTIAL);
+    }
 
     /**
      * 对传入的所有模块做函数体的两遍扫描式语义检查。
@@ -42,6 +57,17 @@ public record FunctionChecker(Context ctx) {
      * @param mods 所有待分析的模块 AST 节点集合
      */
     public void check(Iterable<ModuleNode> mods) {
+        check(mods, mod -> true);
+    }
+
+    /**
+     * 与 {@link #check(Iterable)} 相同，但第二遍只分析 {@code checkBodies} 选中模块的函数体。
+     * <p>增量编译用于跳过未变化且依赖签名未变化的模块；第一遍的全局符号表仍对全部模块建立。</p>
+     *
+     * @param mods        所有模块 AST 节点集合
+     * @param checkBodies 需要分析函数体的模块
+     */
+    public void check(Iterable<ModuleNode> mods, Predicate<ModuleNode> checkBodies) {
         List<ModuleNode> moduleList = new ArrayList<>();
 
         // ---------- 第一遍：构建并注册各模块全局符号表 ----------
@@ -72,48 +98,65 @@ public record FunctionChecker(Context ctx) {
         }
 
         // ---------- 第二遍：遍历各模块函数并分析函数体 ----------
+        PassTimings timings = PassTimings.current();
+        List<Supplier<List<SemanticError>>> tasks = new ArrayList<>();
         for (ModuleNode mod : moduleList) {
-            ctx.setCurrentModule(mod.name());
+            if (!checkBodies.test(mod)) continue;
             ModuleInfo mi = ctx.modules().get(mod.name());
-            SymbolTable globalScope = mi.getGlobals(); // 全局作用域
-
             for (FunctionNode fn : mod.functions()) {
-                // 构建函数的局部作用域（父作用域为模块全局）
-                SymbolTable locals = new SymbolTable(globalScope);
-
-                // 注册所有函数参数到局部作用域，类型未知时兜底为 int
-                fn.parameters().forEach(p -> {
-                    Type t = ctx.parseType(p.type());
-                    if (t == null) {
-                        ctx.errors().add(new SemanticError(p, "未知类型: " + p.type()));
-                        t = BuiltinType.INT;
-                    }
-                    locals.define(new Symbol(p.name(), t, SymbolKind.VARIABLE));
-                });
-
-                // 分析函数体所有语句
-                for (StatementNode stmt : fn.body()) {
-                    StatementAnalyzer<StatementNode> analyzer =
-                            ctx.getRegistry().getStatementAnalyzer(stmt);
-                    if (analyzer != null) {
-                        // 传递语义分析器“实例”，避免类型擦除/反射调用
-                        analyzer.analyze(ctx, mi, fn, locals, stmt);
-                    } else {
-                        // 语句类型未支持，收集错误
-                        ctx.errors().add(new SemanticError(stmt, "不支持的语句类型: " + stmt));
-                    }
-                }
+                tasks.add(() -> timings.measure(PassTimings.Pass.SEMANTIC, mod.name(),
+                        () -> checkFunction(ctx.forFunction(mod.name()), mi, fn), errs -> 1));
+            }
+        }
+        for (List<SemanticError> errs : executor.map(tasks)) {
+            ctx.errors().addAll(errs);
+        }
+    }
 
-                // 非 void 函数，要求必须含至少一条 return 语句
-                Type ret = ctx.parseType(fn.returnType());
-                if (ret != null && ret != BuiltinType.VOID) {
-                    boolean hasReturn = containsReturn(fn.body());
-                    if (!hasReturn) {
-                        ctx.errors().add(new SemanticError(fn, "非 void 函数必须包含至少一条 return 语句"));
-                    }
-                }
+    /**
+     * 分析单个函数的参数与函数体。
+     *
+     * @param fnCtx 该函数专用的子上下文
+     * @param mi    所属模块信息
+     * @param fn    函数节点
+     * @return 该函数产生的语义错误
+     */
+    private List<SemanticError> checkFunction(Context fnCtx, ModuleInfo mi, FunctionNode fn) {
+        // 构建函数的局部作用域（父作用域为模块全局）
+        SymbolTable locals = new SymbolTable(mi.getGlobals());
+
+        // 注册所有函数参数到局部作用域，类型未知时兜底为 int
+        fn.parameters().forEach(p -> {
+            Type t = fnCtx.parseType(p.type());
+            if (t == null) {
+                fnCtx.errors().add(new SemanticError(p, "未知类型: " + p.type()));
+                t = BuiltinType.INT;
+            }
+            locals.define(new Symbol(p.name(), t, SymbolKind.VARIABLE));
+        });
+
+        // 分析函数体所有语句
+        for (StatementNode stmt : fn.body()) {
+            StatementAnalyzer<StatementNode> analyzer =
+                    fnCtx.getRegistry().getStatementAnalyzer(stmt);
+            if (analyzer != null) {
+                // 传递语义分析器“实例”，避免类型擦除/反射调用
+                analyzer.analyze(fnCtx, mi, fn, locals, stmt);
+            } else {
+                // 语句类型未支持，收集错误
+                fnCtx.errors().add(new SemanticError(stmt, "不支持的语句类型: " + stmt));
+            }
+        }
+
+        // 非 void 函数，要求必须含至少一条 return 语句
+        Type ret = fnCtx.parseType(fn.returnType());
+        if (ret != null && ret != BuiltinType.VOID) {
+            boolean hasReturn = containsReturn(fn.body());
+            if (!hasReturn) {
+                fnCtx.errors().add(new SemanticError(fn, "非 void 函数必须包含至少一条 return 语句"));
             }
         }
+        return fnCtx.errors();
     }
 
     /**
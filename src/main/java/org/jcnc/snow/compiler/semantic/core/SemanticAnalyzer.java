@@ -1,5 +1,6 @@
 package org.jcnc.snow.compiler.semantic.core;
 
+import org.jcnc.snow.compiler.common.PhaseExecutor;
 import org.jcnc.snow.compiler.parser.ast.ModuleNode;
 import org.jcnc.snow.compiler.semantic.analyzers.AnalyzerRegistry;
 import org.jcnc.snow.compiler.semantic.error.SemanticError;
@@ -7,6 +8,7 @@ import org.jcnc.snow.compiler.semantic.error.SemanticError;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * {@code SemanticAnalyzer} 是编译器语义分析阶段的顶层调度器。
@@ -53,6 +55,16 @@ public class SemanticAnalyzer {
      * @param verbose 是否启用日志输出
      */
     public SemanticAnalyzer(boolean verbose) {
+        this(verbose, PhaseExecutor.SEQUENTIAL);
+    }
+
+    /**
+     * 构造语义分析器，函数体检查交由 {@code executor} 按函数调度。
+     *
+     * @param verbose  是否启用日志输出
+     * @param executor 函数体检查的执行器
+     */
+    public SemanticAnalyzer(boolean verbose, PhaseExecutor executor) {
         this.ctx = new Context(new HashMap<>(), new ArrayList<>(), verbose, registry);
 
         // 初始化内置模块及分析器注册表
@@ -62,7 +74,7 @@ public class SemanticAnalyzer {
         // 构造核心组件
         this.moduleRegistry = new ModuleRegistry(ctx);
         this.signatureRegistrar = new SignatureRegistrar(ctx);
-        this.functionChecker = new FunctionChecker(ctx);
+        this.functionChecker = new FunctionChecker(ctx, executor);
     }
 
     /**
@@ -74,11 +86,23 @@ public class SemanticAnalyzer {
      * @return 所有语义错误的列表，若分析无误则为空
      */
     public List<SemanticError> analyze(List<ModuleNode> modules) {
+        return analyze(modules, mod -> true);
+    }
+
+    /**
+     * 执行语义分析，但只分析 {@code checkBodies} 选中模块的函数体；
+     * 模块注册与签名提取仍覆盖全部模块。供增量编译跳过未变化模块使用。
+     *
+     * @param modules     所有用户模块（语法树）
+     * @param checkBodies 需要分析函数体的模块
+     * @return 所有语义错误的列表，若分析无误则为空
+     */
+    public List<SemanticError> analyze(List<ModuleNode> modules, Predicate<ModuleNode> checkBodies) {
         ctx.log("开始语义分析");
 
         moduleRegistry.registerUserModules(modules);  // 注册模块名
         signatureRegistrar.register(modules);         // 提取函数签名
-        functionChecker.check(modules);               // 分析函数体
+        functionChecker.check(modules, checkBodies);  // 分析函数体
 
         ctx.log("分析完成，错误总数: " + ctx.errors().size());
         return ctx.errors();
@@ -1,11 +1,13 @@
 package org.jcnc.snow.compiler.semantic.core;
 
+import org.jcnc.snow.compiler.common.PhaseExecutor;
 import org.jcnc.snow.compiler.parser.ast.ModuleNode;
 import org.jcnc.snow.compiler.parser.ast.base.Node;
 import org.jcnc.snow.compiler.semantic.error.SemanticError;
 import org.jcnc.snow.compiler.semantic.utils.SemanticAnalysisReporter;
 
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +36,30 @@ public class SemanticAnalyzerRunner {
      * @param verbose 是否启用详细日志（将控制内部 {@link Context#log(String)} 的行为）
      */
     public static void runSemanticAnalysis(List<Node> ast, boolean verbose) {
+        runSemanticAnalysis(ast, verbose, mod -> true);
+    }
+
+    /**
+     * 对输入的语法树执行语义分析，仅检查 {@code checkBodies} 选中模块的函数体（增量编译）。
+     *
+     * @param ast         根节点列表（应包含一个或多个 {@link ModuleNode}）
+     * @param verbose     是否启用详细日志
+     * @param checkBodies 需要分析函数体的模块
+     */
+    public static void runSemanticAnalysis(List<Node> ast, boolean verbose, Predicate<ModuleNode> checkBodies) {
+        runSemanticAnalysis(ast, verbose, checkBodies, PhaseExecutor.SEQUENTIAL);
+    }
+
+    /**
+     * 对输入的语法树执行语义分析，函数体检查交由 {@code executor} 按函数调度。
+     *
+     * @param ast         根节点列表（应包含一个或多个 {@link ModuleNode}）
+     * @param verbose     是否启用详细日志
+     * @param checkBodies 需要分析函数体的模块
+     * @param executor    函数体检查的执行器
+     */
+    public static void runSemanticAnalysis(List<Node> ast, boolean verbose, Predicate<ModuleNode> checkBodies,
+                                           PhaseExecutor executor) {
         // 1. 从 AST 列表中过滤所有模块节点 ModuleNode
         List<ModuleNode> modules = ast.stream()
                 .filter(ModuleNode.class::isInstance) // 保留类型为 ModuleNode 的节点
@@ -41,9 +67,9 @@ public class SemanticAnalyzerRunner {
                 .collect(Collectors.toList());        // 收集为 List<ModuleNode>
 
         // 2. 调用语义分析器，对所有模块进行全流程语义分析，返回错误列表
-        List<SemanticError> errors = new SemanticAnalyzer(verbose).analyze(modules);
+        List<SemanticError> errors = new SemanticAnalyzer(verbose, executor).analyze(modules, checkBodies);
 
-        // 3. 统一报告全部语义错误；如有错误则自动终止编译（System.exit）
-        SemanticAnalysisReporter.reportAndExitIfNecessary(errors);
+        // 3. 统一报告全部语义错误；如有错误则抛出 SemanticException 中止编译
+        SemanticAnalysisReporter.reportAndThrowIfNecessary(errors);
     }
 }
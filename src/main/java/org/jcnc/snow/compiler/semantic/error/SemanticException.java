@@ -0,0 +1,42 @@
+package org.jcnc.snow.compiler.semantic.error;
+
+import java.io.Serial;
+import java.util.List;
+
+/**
+ * 语义分析发现错误时抛出的异常，用于中止本次编译的后续阶段。
+ * <p>
+ * 错误详情在抛出前已由 {@code SemanticAnalysisReporter} 打印到标准错误；
+ * 调用方（如 {@code CompileTask}）捕获后以非零状态码结束本次编译即可，
+ * 不必终止整个进程（守护进程模式下进程需继续服务后续请求）。
+ * </p>
+ */
+public class SemanticException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 本次语义分析收集到的全部错误（仅供进程内使用，不随异常序列化）
+     */
+    private final transient List<SemanticError> errors;
+
+    /**
+     * 构造语义分析异常。
+     *
+     * @param errors 语义错误列表（非空）
+     */
+    public SemanticException(List<SemanticError> errors) {
+        super("语义分析发现 " + errors.size() + " 个错误");
+        this.errors = List.copyOf(errors);
+    }
+
+    /**
+     * 返回全部语义错误。
+     *
+     * @return 不可变错误列表
+     */
+    public List<SemanticError> getErrors() {
+        return errors;
+    }
+}
@@ -1,6 +1,7 @@
 package org.jcnc.snow.compiler.semantic.utils;
 
 import org.jcnc.snow.compiler.semantic.error.SemanticError;
+import org.jcnc.snow.compiler.semantic.error.SemanticException;
 
 import java.util.List;
 
@@ -10,7 +11,7 @@ import java.util.List;
  * 现在提供两个公共 API:
  * <ul>
  *   <li>{@link #report(List)} ‑ 仅打印，不终止；</li>
- *   <li>{@link #reportAndExitIfNecessary(List)} ‑ 若存在错误则 <b>打印并退出</b>。</li>
+ *   <li>{@link #reportAndThrowIfNecessary(List)} ‑ 若存在错误则 <b>打印并抛出 {@link SemanticException}</b>。</li>
  * </ul>
  * 调用方可根据需求选择合适方法。
  */
@@ -32,15 +33,19 @@ public final class SemanticAnalysisReporter {
     }
 
     /**
-     * 打印语义分析结果；如有错误立即以状态码 <code>1</code> 结束进程。
-     * 适用于 CLI 工具需要立即中止后续编译阶段的场景。
+     * 打印语义分析结果；如有错误立即抛出 {@link SemanticException} 中止后续编译阶段。
+     * <p>
+     * 不直接结束进程：CLI 由调用方把异常转换为状态码 <code>1</code>，
+     * 守护进程则只结束当前请求。
+     * </p>
      *
      * @param errors 语义分析阶段收集到的错误列表（允许为 {@code null}）
+     * @throws SemanticException 存在语义错误
      */
-    public static void reportAndExitIfNecessary(List<SemanticError> errors) {
+    public static void reportAndThrowIfNecessary(List<SemanticError> errors) {
         report(errors);
         if (hasErrors(errors)) {
-            System.exit(1);
+            throw new SemanticException(errors);
         }
     }
 
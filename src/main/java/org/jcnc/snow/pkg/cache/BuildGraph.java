@@ -0,0 +1,370 @@
+package org.jcnc.snow.pkg.cache;
+
+import org.jcnc.snow.cli.utils.VersionUtils;
+import org.jcnc.snow.compiler.backend.builder.VMProgramBuilder;
+import org.jcnc.snow.compiler.parser.ast.*;
+import org.jcnc.snow.compiler.parser.ast.base.ExpressionNode;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 增量编译的持久化构建图，位于 {@code ~/.snow/cache/build/<输出文件哈希>/}。
+ * <p>
+ * 构建图以模块为单位，记录:
+ * <ul>
+ *     <li>模块源文件的内容哈希</li>
+ *     <li>模块的导出签名哈希: 函数签名、全局声明、结构体布局与方法签名（见 {@link #signatureOf}）</li>
+ *     <li>编译该模块时，其 {@code import:} 传递闭包中每个模块的签名（以及它位于本模块之前还是之后）</li>
+ *     <li>模块目标文件 {@code modules/<模块名>.obj}: 各函数代码生成期间对
+ *         {@link VMProgramBuilder} 的调用记录（符号形式，可重定位）</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 模块在以下条件全部满足时视为“干净”，直接复用目标文件:
+ * 内容哈希未变；传递依赖的签名与相对位置未变；全体结构体布局未变；编译器指纹未变。
+ * 其余模块重新做函数体语义检查、IR 构建与代码生成。链接时按全量构建的函数顺序重放全部调用记录，
+ * 因此输出与全量构建逐字节一致。
+ * </p>
+ * <p>
+ * 编译器指纹由版本号与编译器类文件（或 jar）的大小/修改时间组成，编译器本身变化时全部重建。
+ * 任何读写失败均退化为全量构建。
+ * </p>
+ */
+public final class BuildGraph {
+
+    /**
+     * 构建图格式号；布局变化时递增
+     */
+    private static final String FORMAT = "2";
+
+    /**
+     * 反序列化白名单
+     */
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "org.jcnc.snow.pkg.cache.*;org.jcnc.snow.compiler.backend.builder.VMProgramBuilder$Op;java.util.*;java.lang.*;!*");
+
+    /**
+     * 构建目录；为 null 表示增量编译已禁用
+     */
+    private final Path dir;
+
+    /**
+     * 上次构建的状态
+     */
+    private final State previous;
+
+    private BuildGraph(Path dir, State previous) {
+        this.dir = dir;
+        this.previous = previous;
+    }
+
+    /**
+     * 打开输出文件对应的构建图。
+     *
+     * @param outFile 输出 .water 文件
+     * @param enabled 是否启用增量编译；为 false 时返回不读写磁盘、所有模块均需重建的构建图
+     * @return 构建图
+     */
+    public static BuildGraph open(Path outFile, boolean enabled) {
+        if (!enabled) return new BuildGraph(null, null);
+        Path dir = Paths.get(System.getProperty("user.home"), ".snow", "cache", "build",
+                sha256(outFile.toAbsolutePath().normalize().toString()));
+        Object loaded = readObject(dir.resolve("graph.ser"));
+        return new BuildGraph(dir, loaded instanceof State s ? s : null);
+    }
+
+    /**
+     * 计算本次构建计划: 哪些模块需要重建，哪些复用目标文件。
+     *
+     * @param modules    按编译顺序排列的全部模块
+     * @param fileHashes 源文件（绝对路径）→ 内容哈希
+     * @return 构建计划
+     */
+    public Plan plan(List<ModuleNode> modules, Map<String, String> fileHashes) {
+        Map<String, ModuleNode> byName = new LinkedHashMap<>();
+        Map<String, Integer> position = new HashMap<>();
+        boolean unique = true;
+        for (ModuleNode m : modules) {
+            if (byName.putIfAbsent(m.name(), m) != null) unique = false;
+            position.putIfAbsent(m.name(), position.size());
+        }
+
+        Map<String, String> sigs = new HashMap<>();
+        StringBuilder structs = new StringBuilder();
+        for (ModuleNode m : modules) {
+            sigs.put(m.name(), sha256(signatureOf(m)));
+            structs.append(structSignatureOf(m));
+        }
+        String compilerKey = compilerKey();
+        String structHash = sha256(structs.toString());
+
+        Map<String, Record> records = new LinkedHashMap<>();
+        Map<String, ModuleObject> reusable = new HashMap<>();
+        for (ModuleNode m : modules) {
+            String file = m.context() == null ? null : m.context().file();
+            String contentHash = file == null ? null : fileHashes.get(file);
+            Map<String, String> deps = new TreeMap<>();
+            for (String d : importClosure(m, byName)) {
+                String flag = position.get(d) < position.get(m.name()) ? "<" : ">";
+                deps.put(d, sigs.get(d) + flag);
+            }
+            Record rec = new Record(file, contentHash, sigs.get(m.name()), deps);
+            records.put(m.name(), rec);
+
+            if (dir == null || !unique || contentHash == null || previous == null) continue;
+            if (!compilerKey.equals(previous.compilerKey()) || !structHash.equals(previous.structHash())) continue;
+            Record old = previous.modules().get(m.name());
+            if (old == null || !rec.equals(old)) continue;
+            Object obj = readObject(objectFile(m.name()));
+            if (obj instanceof ModuleObject mo && mo.name().equals(m.name())
+                    && mo.functions().size() == mo.code().size()) {
+                reusable.put(m.name(), mo);
+            }
+        }
+        return new Plan(new State(compilerKey, structHash, records), reusable, dir != null && unique);
+    }
+
+    /**
+     * 构建成功后写回新生成的目标文件与构建图。
+     *
+     * @param plan    本次构建计划
+     * @param objects 本次重建模块的目标文件
+     */
+    public void commit(Plan plan, Collection<ModuleObject> objects) {
+        if (dir == null || !plan.persistent()) return;
+        for (ModuleObject o : objects) {
+            writeObject(objectFile(o.name()), o);
+        }
+        writeObject(dir.resolve("graph.ser"), plan.state());
+    }
+
+    private Path objectFile(String module) {
+        return dir.resolve("modules").resolve(module + ".obj");
+    }
+
+    /**
+     * 模块 import 的传递闭包（不含自身；不存在的模块忽略）。
+     */
+    private static Set<String> importClosure(ModuleNode m, Map<String, ModuleNode> byName) {
+        Set<String> seen = new TreeSet<>();
+        Deque<ModuleNode> q = new ArrayDeque<>(List.of(m));
+        while (!q.isEmpty()) {
+            ModuleNode cur = q.removeFirst();
+            if (cur.imports() == null) continue;
+            for (ImportNode imp : cur.imports()) {
+                ModuleNode dep = byName.get(imp.moduleName());
+                if (dep != null && !dep.name().equals(m.name()) && seen.add(dep.name())) {
+                    q.addLast(dep);
+                }
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * 模块导出签名的规范文本: 全局声明（常量含字面量初值）、函数签名与结构体签名。
+     * 只依赖声明，不依赖函数体与源码位置。
+     *
+     * @param m 模块
+     * @return 规范文本
+     */
+    public static String signatureOf(ModuleNode m) {
+        StringBuilder sb = new StringBuilder("module ").append(m.name()).append('\n');
+        if (m.globals() != null) {
+            for (DeclarationNode g : m.globals()) {
+                sb.append(g.isConst() ? "const " : "var ").append(g.getName()).append(':').append(g.getType());
+                if (g.isConst()) {
+                    sb.append('=').append(g.getInitializer().map(BuildGraph::literalText).orElse(""));
+                }
+                sb.append('\n');
+            }
+        }
+        if (m.functions() != null) {
+            for (FunctionNode f : m.functions()) {
+                sb.append("fn ").append(functionSignature(f)).append('\n');
+            }
+        }
+        sb.append(structSignatureOf(m));
+        return sb.toString();
+    }
+
+    /**
+     * 模块内全部结构体的规范文本（父类、字段、构造与方法签名）。
+     */
+    private static String structSignatureOf(ModuleNode m) {
+        StringBuilder sb = new StringBuilder();
+        if (m.structs() == null) return "";
+        for (StructNode s : m.structs()) {
+            sb.append("struct ").append(s.name()).append(" : ").append(s.parent()).append('\n');
+            if (s.fields() != null) {
+                for (DeclarationNode d : s.fields()) {
+                    sb.append("  field ").append(d.getName()).append(':').append(d.getType()).append('\n');
+                }
+            }
+            if (s.inits() != null) {
+                for (FunctionNode f : s.inits()) sb.append("  init ").append(functionSignature(f)).append('\n');
+            }
+            if (s.methods() != null) {
+                for (FunctionNode f : s.methods()) sb.append("  method ").append(functionSignature(f)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String functionSignature(FunctionNode f) {
+        StringJoiner params = new StringJoiner(",", "(", ")");
+        if (f.parameters() != null) {
+            f.parameters().forEach(p -> params.add(p.name() + ":" + p.type()));
+        }
+        return f.name() + params + "->" + f.returnType();
+    }
+
+    /**
+     * 常量初值的规范文本；只覆盖可做常量折叠的字面量形式。
+     */
+    private static String literalText(ExpressionNode e) {
+        return switch (e) {
+            case NumberLiteralNode n -> "n" + n.value();
+            case StringLiteralNode s -> "s" + s.value().length() + ":" + s.value();
+            case BoolLiteralNode b -> "b" + b.getValue();
+            case UnaryExpressionNode u -> u.operator() + literalText(u.operand());
+            default -> "?";
+        };
+    }
+
+    /**
+     * 编译器指纹: 版本号 + 构建格式 + 编译器代码（jar 或类目录）的大小与修改时间。
+     */
+    private static String compilerKey() {
+        StringBuilder sb = new StringBuilder(FORMAT).append('|');
+        try {
+            sb.append(VersionUtils.loadVersion());
+        } catch (RuntimeException ignored) {
+        }
+        try {
+            URI uri = BuildGraph.class.getProtectionDomain().getCodeSource().getLocation().toURI();
+            Path loc = Paths.get(uri);
+            if (Files.isRegularFile(loc)) {
+                sb.append('|').append(Files.size(loc)).append('|').append(Files.getLastModifiedTime(loc).toMillis());
+            } else if (Files.isDirectory(loc)) {
+                long newest = 0;
+                long count = 0;
+                try (Stream<Path> s = Files.walk(loc.resolve("org/jcnc/snow/compiler"))) {
+                    for (Path p : (Iterable<Path>) s.filter(Files::isRegularFile)::iterator) {
+                        newest = Math.max(newest, Files.getLastModifiedTime(p).toMillis());
+                        count++;
+                    }
+                }
+                sb.append('|').append(count).append('|').append(newest);
+            }
+        } catch (Exception ignored) {
+            // 无法定位编译器代码（如原生镜像）时仅以版本号为准
+        }
+        return sb.toString();
+    }
+
+    private static Object readObject(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            in.setObjectInputFilter(FILTER);
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void writeObject(Path file, Object value) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeObject(value);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * 计算文本的 SHA-256（十六进制），与标准库缓存索引中的内容哈希一致。
+     *
+     * @param text 文本
+     * @return 十六进制哈希
+     */
+    public static String sha256(String text) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 单个模块的构建记录。
+     *
+     * @param file        源文件绝对路径
+     * @param contentHash 源文件内容哈希
+     * @param sigHash     导出签名哈希
+     * @param deps        传递依赖模块 → 其签名哈希 + 相对位置（{@code <} 在前 / {@code >} 在后）
+     */
+    public record Record(String file, String contentHash, String sigHash, Map<String, String> deps)
+            implements Serializable {
+    }
+
+    /**
+     * 一次构建的整体状态。
+     *
+     * @param compilerKey 编译器指纹
+     * @param structHash  全体结构体签名哈希
+     * @param modules     模块名 → 构建记录
+     */
+    public record State(String compilerKey, String structHash, Map<String, Record> modules)
+            implements Serializable {
+    }
+
+    /**
+     * 模块目标文件: 模块内各函数（按构建顺序）的名称与代码生成调用记录。
+     *
+     * @param name      模块名
+     * @param functions 函数全名，按构建顺序
+     * @param code      与 functions 一一对应的构建器调用记录
+     */
+    public record ModuleObject(String name, List<String> functions, List<List<VMProgramBuilder.Op>> code)
+            implements Serializable {
+    }
+
+    /**
+     * 构建计划。
+     *
+     * @param state      本次构建完成后要写回的状态
+     * @param reusable   可复用的模块目标文件
+     * @param persistent 是否写回磁盘
+     */
+    public record Plan(State state, Map<String, ModuleObject> reusable, boolean persistent) {
+
+        /**
+         * 模块是否需要重建。
+         *
+         * @param m 模块
+         * @return 需要重建返回 true
+         */
+        public boolean isDirty(ModuleNode m) {
+            return !reusable.containsKey(m.name());
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package org.jcnc.snow.pkg.cache;
+
+import org.jcnc.snow.cli.utils.VersionUtils;
+import org.jcnc.snow.compiler.parser.ast.base.Node;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 标准库模块的磁盘缓存，位于 {@code ~/.snow/cache/compiler/<编译器版本>-<构建指纹>-f<格式号>/}。
+ * <p>
+ * 缓存两类数据:
+ * <ul>
+ *     <li><b>模块索引</b>: 每个库文件的大小、修改时间、内容哈希、{@code module:} 名称及 import 列表。
+ *         文件大小与修改时间均未变化时直接复用条目，无需重新读取文件；否则重新读取并计算哈希</li>
+ *     <li><b>AST</b>: 库文件解析所得的顶层节点列表，以 “文件路径 + 内容哈希” 为键，
+ *         命中时跳过读取、词法与语法分析</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 缓存目录按编译器版本、构建指纹与缓存格式号隔离。AST 节点多为 record，
+ * Java 序列化对 record 不校验 {@code serialVersionUID}、新增组件按默认值填充，
+ * 节点类或解析器变化后旧条目仍能“成功”反序列化；因此目录键含编译器自身的构建指纹
+ * （jar / 可执行文件的大小与修改时间，或开发时 class 目录下编译器各类文件的大小与修改时间），
+ * 重新构建编译器即换用新目录。无法确定指纹时不使用磁盘缓存。写入采用 “临时文件 + 原子重命名”，
+ * 并发编译互不干扰。任何缓存 I/O 失败都只会降级为未命中，不影响编译结果。
+ * </p>
+ * <p>
+ * 该类线程安全，可在并行前端的工作线程上同时使用。
+ * </p>
+ */
+public final class LibraryCache {
+
+    /**
+     * 缓存格式号；条目布局变化时递增
+     */
+    private static final String FORMAT = "1";
+
+    /**
+     * 反序列化白名单: 只允许 AST 节点、索引条目及其使用的 JDK 集合类型
+     */
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "org.jcnc.snow.compiler.parser.ast.**;org.jcnc.snow.pkg.cache.*;java.util.*;java.lang.*;!*");
+
+    /**
+     * 缓存根目录；为 null 表示缓存已禁用
+     */
+    private final Path root;
+
+    /**
+     * 索引文件路径（按库目录区分）
+     */
+    private final Path indexFile;
+
+    /**
+     * 库文件绝对路径 → 索引条目
+     */
+    private final Map<String, Entry> index;
+
+    private final AtomicInteger indexHits = new AtomicInteger();
+    private final AtomicInteger indexMisses = new AtomicInteger();
+    private final AtomicInteger astHits = new AtomicInteger();
+    private final AtomicInteger astMisses = new AtomicInteger();
+    private volatile boolean indexDirty;
+
+    private LibraryCache(Path root, Path indexFile, Map<String, Entry> index) {
+        this.root = root;
+        this.indexFile = indexFile;
+        this.index = index;
+    }
+
+    /**
+     * 打开指定库目录对应的缓存。
+     *
+     * @param libDir  标准库目录
+     * @param enabled 是否启用缓存；为 false 时返回不读写磁盘的空缓存
+     * @return 缓存实例
+     */
+    public static LibraryCache open(Path libDir, boolean enabled) {
+        Path root = enabled ? defaultRoot() : null;
+        if (root == null) {
+            return new LibraryCache(null, null, new ConcurrentHashMap<>());
+        }
+        Path indexFile = root.resolve("index-" + sha256(libDir.toAbsolutePath().normalize().toString()) + ".ser");
+        Map<String, Entry> index = new ConcurrentHashMap<>();
+        Object loaded = readObject(indexFile);
+        if (loaded instanceof Map<?, ?> m) {
+            m.forEach((k, v) -> {
+                if (k instanceof String key && v instanceof Entry e) index.put(key, e);
+            });
+        }
+        return new LibraryCache(root, indexFile, index);
+    }
+
+    /**
+     * 返回缓存根目录: {@code ~/.snow/cache/compiler/<版本>-<构建指纹>-f<格式号>}；
+     * 无法确定构建指纹时返回 null。
+     */
+    private static Path defaultRoot() {
+        String build = Fingerprint.VALUE;
+        if (build == null) return null;
+        String version;
+        try {
+            version = VersionUtils.loadVersion();
+        } catch (RuntimeException e) {
+            version = null;
+        }
+        if (version == null || version.isBlank() || version.contains("${")) {
+            version = "dev";
+        }
+        return Paths.get(System.getProperty("user.home"), ".snow", "cache", "compiler",
+                version.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + build + "-f" + FORMAT);
+    }
+
+    /**
+     * 编译器自身的构建指纹，每个进程只计算一次。
+     */
+    private static final class Fingerprint {
+        static final String VALUE = compute();
+
+        /**
+         * 以编译器代码来源计算指纹: jar 或原生可执行文件取大小与修改时间；
+         * class 目录取 {@code org/jcnc/snow/compiler} 下每个文件的相对路径、大小与修改时间。
+         *
+         * @return 16 位十六进制指纹；无法确定时返回 null
+         */
+        private static String compute() {
+            try {
+                Path source = null;
+                var cs = LibraryCache.class.getProtectionDomain().getCodeSource();
+                if (cs != null && cs.getLocation() != null && "file".equals(cs.getLocation().getProtocol())) {
+                    source = Path.of(cs.getLocation().toURI());
+                }
+                if (source == null || !Files.exists(source)) {
+                    // 原生镜像没有 class 来源，退而使用可执行文件本身
+                    source = ProcessHandle.current().info().command().map(Path::of).orElse(null);
+                }
+                if (source == null || !Files.exists(source)) return null;
+
+                StringBuilder sb = new StringBuilder();
+                if (Files.isDirectory(source)) {
+                    Path compiler = source.resolve("org/jcnc/snow/compiler");
+                    if (!Files.isDirectory(compiler)) return null;
+                    List<Path> files;
+                    try (var walk = Files.walk(compiler)) {
+                        files = walk.filter(Files::isRegularFile).sorted().toList();
+                    }
+                    for (Path f : files) {
+                        BasicFileAttributes a = Files.readAttributes(f, BasicFileAttributes.class);
+                        sb.append(compiler.relativize(f)).append(' ').append(a.size()).append(' ')
+                                .append(a.lastModifiedTime().toMillis()).append('\n');
+                    }
+                } else {
+                    BasicFileAttributes a = Files.readAttributes(source, BasicFileAttributes.class);
+                    sb.append(source.toAbsolutePath()).append(' ').append(a.size()).append(' ')
+                            .append(a.lastModifiedTime().toMillis());
+                }
+                return sha256(sb.toString()).substring(0, 16);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 查询库文件的索引条目；文件大小与修改时间未变时命中，无需读取文件。
+     *
+     * @param file 库文件
+     * @return 有效条目；未命中时返回 null，调用方应读取文件后调用 {@link #record}
+     * @throws IOException 读取文件属性失败
+     */
+    public Entry lookup(Path file) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        Entry e = index.get(key(file));
+        if (e != null && e.size() == attrs.size() && e.mtime() == attrs.lastModifiedTime().toMillis()) {
+            indexHits.incrementAndGet();
+            return e;
+        }
+        indexMisses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 在读取文件后登记其索引条目。
+     *
+     * @param file    库文件
+     * @param code    文件内容
+     * @param module  {@code module:} 声明的模块名，可为 null
+     * @param imports 文件内的 import 模块名
+     * @return 新条目
+     * @throws IOException 读取文件属性失败
+     */
+    public Entry record(Path file, String code, String module, Collection<String> imports) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        Entry e = new Entry(attrs.size(), attrs.lastModifiedTime().toMillis(), sha256(code),
+                module, List.copyOf(imports));
+        index.put(key(file), e);
+        indexDirty = true;
+        return e;
+    }
+
+    /**
+     * 读取缓存的 AST。
+     *
+     * @param file 库文件
+     * @param hash 文件内容哈希（来自索引条目）
+     * @return 顶层节点列表；未命中时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public List<Node> loadAst(Path file, String hash) {
+        if (root == null) {
+            astMisses.incrementAndGet();
+            return null;
+        }
+        Object o = readObject(astFile(file, hash));
+        if (o instanceof List<?> list) {
+            astHits.incrementAndGet();
+            return (List<Node>) list;
+        }
+        astMisses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 写入库文件的 AST。
+     *
+     * @param file 库文件
+     * @param hash 文件内容哈希
+     * @param ast  顶层节点列表
+     */
+    public void storeAst(Path file, String hash, List<Node> ast) {
+        if (root == null) return;
+        writeObject(astFile(file, hash), new ArrayList<>(ast));
+    }
+
+    /**
+     * 把有变化的索引写回磁盘。
+     */
+    public void save() {
+        if (root == null || !indexDirty) return;
+        writeObject(indexFile, new HashMap<>(index));
+        indexDirty = false;
+    }
+
+    /**
+     * 返回命中统计，如 {@code "index 40 hit / 0 miss, ast 12 hit / 0 miss"}。
+     *
+     * @return 统计字符串
+     */
+    public String stats() {
+        return "index " + indexHits.get() + " hit / " + indexMisses.get() + " miss, ast "
+                + astHits.get() + " hit / " + astMisses.get() + " miss"
+                + (root == null ? " (disabled)" : "");
+    }
+
+    private Path astFile(Path file, String hash) {
+        // 节点上下文记录的是路径原文，因此原文也参与键计算
+        return root.resolve("ast").resolve(sha256(key(file) + "\n" + file + "\n" + hash) + ".ast");
+    }
+
+    private static String key(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    private static Object readObject(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            in.setObjectInputFilter(FILTER);
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            // 损坏或过期的条目: 删除并按未命中处理
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+            }
+            return null;
+        }
+    }
+
+    private static void writeObject(Path file, Object value) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeObject(value);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 缓存不可写时静默降级
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 库文件的索引条目。
+     *
+     * @param size    文件大小（字节）
+     * @param mtime   修改时间（毫秒）
+     * @param hash    内容 SHA-256
+     * @param module  {@code module:} 声明的模块名，可为 null
+     * @param imports 文件内的 import 模块名
+     */
+    public record Entry(long size, long mtime, String hash, String module, List<String> imports)
+            implements Serializable {
+    }
+}
@@ -0,0 +1,192 @@
+package org.jcnc.snow.pkg.daemon;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * {@code snow daemon} 的瘦客户端: 把一条命令转发给守护进程，转播其输出并返回退出码。
+ * <p>
+ * 客户端只使用本包与 JDK 的类，不加载编译器与虚拟机。命令行中的路径（源文件、
+ * {@code -d}、{@code -o}、{@code --emit-obj}、.water/.sobj 文件）在转发前按客户端的
+ * 工作目录解析为绝对路径；未给出 {@code -o} 时补上与本地执行相同的默认输出路径。
+ * </p>
+ * <p>
+ * 守护进程未运行、命令不受支持或需要本地上下文（如 project.cloud 项目模式、帮助）时，
+ * {@link #forward} 返回空值，由调用方在本进程内执行。
+ * </p>
+ */
+public final class DaemonClient {
+
+    /**
+     * 参数为路径的选项
+     */
+    private static final Set<String> PATH_OPTIONS = Set.of("-d", "-o", "--emit-obj",
+            "--time-passes-out", "--profile-out", "--sample-out", "--metrics-out",
+            "--syscall-latency-out");
+
+    /**
+     * 参数不是路径、但需原样跳过的选项
+     */
+    private static final Set<String> VALUE_OPTIONS = Set.of("-j");
+
+    private DaemonClient() {
+    }
+
+    /**
+     * 判断套接字上是否有守护进程在监听。
+     *
+     * @param socket 套接字文件路径
+     * @return 可连接时为 true
+     */
+    public static boolean isRunning(Path socket) {
+        if (!Files.exists(socket)) return false;
+        try (SocketChannel ch = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            return ch.isConnected();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 把命令转发给守护进程执行。
+     *
+     * @param args 子命令及其参数（如 {@code compile main.snow run}）
+     * @return 守护进程返回的退出码；无法转发时为空
+     */
+    public static OptionalInt forward(String[] args) {
+        if (args.length == 0 || !DaemonProtocol.COMMANDS.contains(args[0])) return OptionalInt.empty();
+        for (String a : args) {
+            if ("-h".equals(a) || "--help".equals(a) || "help".equals(a)) return OptionalInt.empty();
+        }
+        Path cwd = Path.of("").toAbsolutePath();
+        if ("compile".equals(args[0]) && Files.exists(cwd.resolve("project.cloud"))) return OptionalInt.empty();
+        try {
+            return OptionalInt.of(send(DaemonProtocol.socketPath(), cwd, absolutize(cwd, args)));
+        } catch (IOException e) {
+            return OptionalInt.empty();
+        }
+    }
+
+    /**
+     * 向守护进程发送控制请求（stop / status）。
+     *
+     * @param action 控制动作
+     * @return 退出码；守护进程未运行时为空
+     */
+    public static OptionalInt control(String action) {
+        try {
+            return OptionalInt.of(send(DaemonProtocol.socketPath(), Path.of("").toAbsolutePath(),
+                    List.of("daemon", action)));
+        } catch (IOException e) {
+            return OptionalInt.empty();
+        }
+    }
+
+    /**
+     * 发送请求并把响应帧写到本进程的标准输出/错误。
+     *
+     * @return 退出码
+     * @throws IOException 连接失败（此时尚未产生任何输出）
+     */
+    private static int send(Path socket, Path cwd, List<String> args) throws IOException {
+        if (!Files.exists(socket)) throw new FileNotFoundException(socket.toString());
+        try (SocketChannel ch = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            ch.connect(UnixDomainSocketAddress.of(socket));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(ch)));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(ch)));
+            DaemonProtocol.writeRequest(out, cwd.toString(), args);
+            return relay(in);
+        }
+    }
+
+    /**
+     * 转播响应帧直至退出码帧。
+     */
+    private static int relay(DataInputStream in) {
+        byte[] buf = new byte[8192];
+        try {
+            while (true) {
+                byte type = in.readByte();
+                int len = in.readInt();
+                if (type == DaemonProtocol.EXIT) return in.readInt();
+                PrintStream target = type == DaemonProtocol.STDERR ? System.err : System.out;
+                while (len > 0) {
+                    int n = in.read(buf, 0, Math.min(buf.length, len));
+                    if (n < 0) throw new EOFException();
+                    target.write(buf, 0, n);
+                    len -= n;
+                }
+                target.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Connection to snow daemon lost: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * 把命令行中的路径按客户端工作目录解析为绝对路径，并补上默认输出路径。
+     *
+     * @param cwd  客户端工作目录
+     * @param args 子命令及其参数
+     * @return 转发用的参数列表
+     */
+    static List<String> absolutize(Path cwd, String[] args) {
+        String command = args[0];
+        List<String> out = new ArrayList<>(args.length + 2);
+        out.add(command);
+        boolean hasOut = false;
+        Path dir = null;
+        List<Path> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            String a = args[i];
+            if (PATH_OPTIONS.contains(a) && i + 1 < args.length) {
+                Path p = cwd.resolve(args[++i]).normalize();
+                hasOut |= "-o".equals(a);
+                if ("-d".equals(a)) dir = p;
+                out.add(a);
+                out.add(p.toString());
+            } else if (VALUE_OPTIONS.contains(a) && i + 1 < args.length) {
+                out.add(a);
+                out.add(args[++i]);
+            } else if (a.endsWith(".snow") || a.endsWith(".water") || a.endsWith(".sobj")) {
+                Path p = cwd.resolve(a).normalize();
+                files.add(p);
+                out.add(p.toString());
+            } else {
+                out.add(a);
+            }
+        }
+        // 默认输出名相对于工作目录，需在客户端一侧确定（规则同 CompileTask / LinkTask）
+        if (!hasOut) {
+            String base = null;
+            if ("compile".equals(command) && dir == null) {
+                base = files.size() == 1 ? stripExtension(files.getFirst()) : "program";
+            } else if ("link".equals(command) && dir != null) {
+                base = dir.getFileName().toString();
+            } else if ("link".equals(command) && files.size() == 1) {
+                base = stripExtension(files.getFirst());
+            }
+            if (base != null) {
+                out.add("-o");
+                out.add(cwd.resolve(base + ".water").toString());
+            }
+        }
+        return out;
+    }
+
+    private static String stripExtension(Path p) {
+        String name = p.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
@@ -0,0 +1,183 @@
+package org.jcnc.snow.pkg.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * {@code snow daemon} 与客户端之间的本地通信协议。
+ * <p>
+ * 守护进程监听 Unix 域套接字 {@code ~/.snow/daemon.sock}（仅当前用户可访问），
+ * 每个连接承载一次请求，按到达顺序串行处理。
+ * </p>
+ * <p>
+ * 请求（客户端 → 守护进程，{@link DataOutputStream#writeUTF} 编码）:
+ * <pre>
+ * MAGIC, 客户端工作目录, 参数个数 n (int), 参数 1 … 参数 n
+ * </pre>
+ * 参数的第一个元素为子命令名（compile / run / link），或 {@code daemon stop|status}。
+ * </p>
+ * <p>
+ * 响应（守护进程 → 客户端）为一串帧，每帧 {@code 类型 (byte) + 长度 (int) + 数据}:
+ * <ul>
+ *     <li>{@link #STDOUT}: 标准输出字节</li>
+ *     <li>{@link #STDERR}: 标准错误字节</li>
+ *     <li>{@link #EXIT}: 退出码（int），总是最后一帧</li>
+ * </ul>
+ * </p>
+ */
+public final class DaemonProtocol {
+
+    /**
+     * 请求头（含协议版本）
+     */
+    public static final String MAGIC = "SNOWD 1";
+
+    /**
+     * 标准输出帧
+     */
+    public static final byte STDOUT = 1;
+
+    /**
+     * 标准错误帧
+     */
+    public static final byte STDERR = 2;
+
+    /**
+     * 退出码帧
+     */
+    public static final byte EXIT = 3;
+
+    /**
+     * 可交由守护进程执行的子命令
+     */
+    public static final List<String> COMMANDS = List.of("compile", "run", "link");
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * 返回守护进程套接字路径 {@code ~/.snow/daemon.sock}。
+     *
+     * @return 套接字文件路径
+     */
+    public static Path socketPath() {
+        return Paths.get(System.getProperty("user.home"), ".snow", "daemon.sock");
+    }
+
+    /**
+     * 写出一个请求。
+     *
+     * @param out  连接输出流
+     * @param cwd  客户端工作目录
+     * @param args 子命令及其参数
+     * @throws IOException 写入失败
+     */
+    public static void writeRequest(DataOutputStream out, String cwd, List<String> args) throws IOException {
+        out.writeUTF(MAGIC);
+        out.writeUTF(cwd);
+        out.writeInt(args.size());
+        for (String a : args) out.writeUTF(a);
+        out.flush();
+    }
+
+    /**
+     * 读取一个请求。
+     *
+     * @param in 连接输入流
+     * @return 请求
+     * @throws IOException 读取失败或协议不匹配
+     */
+    public static Request readRequest(DataInputStream in) throws IOException {
+        String magic = in.readUTF();
+        if (!MAGIC.equals(magic)) {
+            throw new IOException("Unsupported daemon protocol: " + magic);
+        }
+        String cwd = in.readUTF();
+        int n = in.readInt();
+        if (n < 0 || n > 4096) throw new IOException("Invalid argument count: " + n);
+        String[] args = new String[n];
+        for (int i = 0; i < n; i++) args[i] = in.readUTF();
+        return new Request(cwd, List.of(args));
+    }
+
+    /**
+     * 写出一帧（多个线程可能同时输出，按连接加锁）。
+     *
+     * @param out  连接输出流
+     * @param type 帧类型
+     * @param data 数据
+     * @param off  起始偏移
+     * @param len  长度
+     * @throws IOException 写入失败
+     */
+    public static void writeFrame(DataOutputStream out, byte type, byte[] data, int off, int len) throws IOException {
+        synchronized (out) {
+            out.writeByte(type);
+            out.writeInt(len);
+            out.write(data, off, len);
+            out.flush();
+        }
+    }
+
+    /**
+     * 写出退出码帧。
+     *
+     * @param out  连接输出流
+     * @param code 退出码
+     * @throws IOException 写入失败
+     */
+    public static void writeExit(DataOutputStream out, int code) throws IOException {
+        synchronized (out) {
+            out.writeByte(EXIT);
+            out.writeInt(4);
+            out.writeInt(code);
+            out.flush();
+        }
+    }
+
+    /**
+     * 把写入内容作为指定类型的帧发往客户端的输出流。
+     * <p>
+     * 客户端断开后的写入静默丢弃，保证正在运行的程序不会因此失败。
+     * </p>
+     */
+    static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte type;
+        private volatile boolean broken;
+
+        FrameOutputStream(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (broken || len == 0) return;
+            try {
+                writeFrame(out, type, b, off, len);
+            } catch (IOException e) {
+                broken = true;
+            }
+        }
+    }
+
+    /**
+     * 一次守护进程请求。
+     *
+     * @param cwd  客户端工作目录
+     * @param args 子命令及其参数
+     */
+    public record Request(String cwd, List<String> args) {
+    }
+}
@@ -0,0 +1,311 @@
+package org.jcnc.snow.pkg.daemon;
+
+import org.jcnc.snow.common.Mode;
+import org.jcnc.snow.common.SnowConfig;
+import org.jcnc.snow.pkg.model.Project;
+import org.jcnc.snow.pkg.tasks.CompileTask;
+import org.jcnc.snow.pkg.tasks.LinkTask;
+import org.jcnc.snow.pkg.tasks.RunTask;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.jcnc.snow.vm.io.FDTable;
+import org.jcnc.snow.vm.io.StdStreams;
+import org.jcnc.snow.vm.io.VMExit;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 常驻的 Snow 编译/运行服务（{@code snow daemon}）。
+ * <p>
+ * 在一个 JVM 内反复执行 compile / run / link 请求，省去每次命令的 JVM 启动、类加载与 JIT 预热。
+ * 请求按到达顺序串行处理；每次编译都在全新的 {@code CompilationContext} 中进行，
+ * 互不可见。Snow 程序的 EXIT/EXEC 只结束当前请求（见 {@link VMExit}）。
+ * </p>
+ * <p>
+ * 标准输出/错误按线程路由（见 {@link StdStreams}）：System.out/err 在启动时一次性换成分发流，
+ * 请求线程及其创建的线程写入发往该请求客户端的帧，其余线程写入守护进程自身的输出。
+ * </p>
+ * <p>
+ * 每个请求在独立的工作线程上执行，接受线程同时监视客户端连接：客户端断开（如 Ctrl-C）时
+ * 放弃该请求，并请求所有引擎在下一个安全点停止（{@link VirtualMachineEngine#setStopRequested}），
+ * 而不是中断线程（中断会关闭请求正在使用的通道）。被放弃的请求结束前不接受新的 compile / run / link
+ * 请求：新请求最多等待 {@value #STOP_WAIT_MS} 毫秒，仍未结束则以错误拒绝。
+ * </p>
+ * <p>
+ * 限制:
+ * <ul>
+ *     <li>标准输入不转发，程序读取 stdin 时读到的是守护进程自身的标准输入</li>
+ *     <li>命令行中的路径由客户端解析为绝对路径；Snow 程序运行时使用的相对路径
+ *         仍相对于守护进程的启动目录</li>
+ *     <li>环境变量（如 {@code SNOW_HOME}）取自守护进程启动时的环境</li>
+ *     <li>VM 运行期注册表（文件描述符、线程等）为进程级，请求结束后未关闭的资源会保留</li>
+ *     <li>被放弃的请求若阻塞在系统调用中（如读取标准输入），调用返回前无法停止，
+ *         期间守护进程拒绝新请求，可用 {@code snow daemon stop} 结束</li>
+ * </ul>
+ * </p>
+ */
+public final class DaemonServer {
+
+    /**
+     * 套接字文件路径
+     */
+    private final Path socket;
+
+    /**
+     * 收到 stop 请求后置为 false
+     */
+    private volatile boolean running = true;
+
+    /**
+     * 已处理的请求数
+     */
+    private long served;
+
+    /**
+     * 启动时间（毫秒）
+     */
+    private final long startedAt = System.currentTimeMillis();
+
+    /**
+     * 守护进程自身的标准输出/错误，未绑定请求的线程写入这里
+     */
+    private final PrintStream daemonOut = System.out;
+    private final PrintStream daemonErr = System.err;
+
+    /**
+     * 被放弃的请求等待其停止的最长时间（毫秒）
+     */
+    private static final long STOP_WAIT_MS = 2000;
+
+    /**
+     * 被放弃但可能仍在运行的请求线程；无时为 null
+     */
+    private Thread abandoned;
+
+    /**
+     * 被放弃请求的命令行，用于提示
+     */
+    private String abandonedCommand;
+
+    /**
+     * 创建守护进程服务。
+     *
+     * @param socket 套接字文件路径
+     */
+    public DaemonServer(Path socket) {
+        this.socket = socket;
+    }
+
+    /**
+     * 绑定套接字并循环处理请求，直到收到 stop 请求。
+     *
+     * @return 0 正常停止，1 已有守护进程在运行
+     * @throws IOException 绑定失败
+     */
+    public int serve() throws IOException {
+        if (DaemonClient.isRunning(socket)) {
+            System.err.println("Snow daemon is already running at " + socket);
+            return 1;
+        }
+        Files.createDirectories(socket.getParent());
+        Files.deleteIfExists(socket); // 残留的套接字文件
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            restrictToOwner(socket);
+            Runtime.getRuntime().addShutdownHook(new Thread(this::deleteSocket));
+            VMExit.setEmbedded(true);
+            System.setOut(StdStreams.router(true, daemonOut));
+            System.setErr(StdStreams.router(false, daemonErr));
+            System.out.println("Snow daemon listening on " + socket + " (pid " + ProcessHandle.current().pid() + ")");
+
+            while (running) {
+                try (SocketChannel client = server.accept()) {
+                    handle(client);
+                } catch (IOException e) {
+                    System.err.println("[daemon] request failed: " + e.getMessage());
+                }
+            }
+        } finally {
+            System.setOut(daemonOut);
+            System.setErr(daemonErr);
+            VMExit.setEmbedded(false);
+            deleteSocket();
+        }
+        System.out.println("Snow daemon stopped after " + served + " requests");
+        return 0;
+    }
+
+    /**
+     * 处理一个连接上的请求。
+     */
+    private void handle(SocketChannel client) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(client)));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)));
+        DaemonProtocol.Request req = DaemonProtocol.readRequest(in);
+        List<String> args = req.args();
+
+        if (args.size() == 2 && "daemon".equals(args.get(0))) {
+            String reply = switch (args.get(1)) {
+                case "stop" -> {
+                    running = false;
+                    yield "Snow daemon stopping";
+                }
+                case "status" -> "Snow daemon running at " + socket
+                        + " (pid " + ProcessHandle.current().pid() + ", " + served + " requests served, up "
+                        + (System.currentTimeMillis() - startedAt) / 1000 + " s"
+                        + (abandoned != null && abandoned.isAlive() ? ", stopping: " + abandonedCommand : "") + ")";
+                default -> null;
+            };
+            if (reply == null) {
+                writeText(out, DaemonProtocol.STDERR, "Unknown daemon request: " + args.get(1));
+                DaemonProtocol.writeExit(out, 1);
+            } else {
+                writeText(out, DaemonProtocol.STDOUT, reply);
+                DaemonProtocol.writeExit(out, 0);
+            }
+            return;
+        }
+
+        if (!awaitAbandoned()) {
+            writeText(out, DaemonProtocol.STDERR, "Snow daemon is busy: an abandoned request is still running ("
+                    + abandonedCommand + "); try again later or run 'snow daemon stop'");
+            DaemonProtocol.writeExit(out, 1);
+            return;
+        }
+
+        served++;
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        Thread worker = new Thread(() -> done.complete(execute(args, out)), "snow-daemon-request-" + served);
+        worker.setDaemon(true);
+        worker.start();
+        Thread watcher = new Thread(() -> awaitDisconnect(client, done), "snow-daemon-watch-" + served);
+        watcher.setDaemon(true);
+        watcher.start();
+
+        Integer code = done.join();
+        if (code == null) {
+            VirtualMachineEngine.setStopRequested(true);
+            abandoned = worker;
+            abandonedCommand = String.join(" ", args);
+            daemonErr.println("[daemon] client disconnected, stopping request: " + abandonedCommand);
+            return;
+        }
+        DaemonProtocol.writeExit(out, code);
+    }
+
+    /**
+     * 等待被放弃的请求结束，结束后撤销停止请求。
+     *
+     * @return 没有仍在运行的被放弃请求时为 true
+     */
+    private boolean awaitAbandoned() {
+        if (abandoned == null) return true;
+        try {
+            abandoned.join(STOP_WAIT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (abandoned.isAlive()) return false;
+        abandoned = null;
+        VirtualMachineEngine.setStopRequested(false);
+        daemonErr.println("[daemon] abandoned request stopped: " + abandonedCommand);
+        return true;
+    }
+
+    /**
+     * 阻塞读取客户端连接直到其关闭；请求发出后客户端不再发送数据，读到 EOF 即已断开。
+     * 此时以 {@code null} 完成 {@code done}；请求先结束时由 {@link #handle} 返回后关闭连接结束本线程。
+     */
+    private static void awaitDisconnect(SocketChannel client, CompletableFuture<Integer> done) {
+        ByteBuffer buf = ByteBuffer.allocate(64);
+        try {
+            while (!done.isDone() && client.read(buf.clear()) >= 0) {
+                // 丢弃多余数据
+            }
+        } catch (IOException ignored) {
+        }
+        done.complete(null);
+    }
+
+    /**
+     * 在当前（请求）线程上绑定发往客户端的标准输出/错误并执行一条子命令，捕获其抛出的一切异常与错误。
+     *
+     * @return 退出码
+     */
+    private static int execute(List<String> args, DataOutputStream out) {
+        PrintStream reqOut = new PrintStream(new DaemonProtocol.FrameOutputStream(out, DaemonProtocol.STDOUT),
+                true, StandardCharsets.UTF_8);
+        PrintStream reqErr = new PrintStream(new DaemonProtocol.FrameOutputStream(out, DaemonProtocol.STDERR),
+                true, StandardCharsets.UTF_8);
+        StdStreams.bind(new StdStreams.Binding(reqOut, reqErr));
+        // 每个请求从默认配置开始（--debug 等标志会修改这些全局开关）
+        SnowConfig.MODE = Mode.RUN;
+        SnowConfig.setInstructionTraceEnabled(false);
+        try {
+            return run(args.getFirst(), args.subList(1, args.size()).toArray(new String[0]));
+        } catch (VMExit e) {
+            return e.code();
+        } catch (Exception e) {
+            System.err.println(e.getMessage());
+            return 1;
+        } catch (Throwable e) {
+            System.err.println(e);
+            return 1;
+        } finally {
+            FDTable.flushStandardStreams();
+        }
+    }
+
+    /**
+     * 分派子命令。compile 总按本地模式执行，项目（project.cloud）模式由客户端在本地处理。
+     */
+    private static int run(String command, String[] args) throws Exception {
+        return switch (command) {
+            case "compile" -> new CompileTask(Project.fromFlatMap(Collections.emptyMap()), args).execute(args);
+            case "run" -> {
+                new RunTask(args).run();
+                yield 0;
+            }
+            case "link" -> new LinkTask(args).execute();
+            default -> {
+                System.err.println("Command not supported by the daemon: " + command);
+                yield 1;
+            }
+        };
+    }
+
+    private static void writeText(DataOutputStream out, byte type, String text) throws IOException {
+        byte[] b = (text + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        DaemonProtocol.writeFrame(out, type, b, 0, b.length);
+    }
+
+    /**
+     * 仅允许当前用户连接（文件系统不支持 POSIX 权限时忽略）。
+     */
+    private static void restrictToOwner(Path file) {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException | IOException ignored) {
+        }
+    }
+
+    private void deleteSocket() {
+        try {
+            Files.deleteIfExists(socket);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package org.jcnc.snow.pkg.tasks;
+
+import org.jcnc.snow.cli.commands.BenchCommand;
+import org.jcnc.snow.compiler.lexer.core.LexerEngine;
+import org.jcnc.snow.compiler.parser.ast.FunctionNode;
+import org.jcnc.snow.compiler.parser.ast.ModuleNode;
+import org.jcnc.snow.compiler.parser.ast.base.Node;
+import org.jcnc.snow.compiler.parser.context.ParserContext;
+import org.jcnc.snow.compiler.parser.core.ParserEngine;
+import org.jcnc.snow.compiler.parser.utils.JSONParser;
+import org.jcnc.snow.pkg.model.Project;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.jcnc.snow.vm.execution.CommandLoader;
+import org.jcnc.snow.vm.io.DebugInfo;
+import org.jcnc.snow.vm.io.SymbolTable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * BenchTask 在虚拟机中运行项目里的 Snow 级基准函数，统计耗时并与基线比较。
+ * <p>
+ * 流程:
+ * <ol>
+ *     <li>解析源文件，收集名称以 {@value #PREFIX} 开头、无参数的函数作为基准</li>
+ *     <li>把全部源文件编译为 {@code build/bench/bench.water}，按符号表定位各基准函数的入口</li>
+ *     <li>每个基准在独立的引擎上先预热 {@code --warmup} 次，再计时调用 {@code --iterations} 次；
+ *         一次调用即一个 op，统计均值、标准差、最小值与 p50/p90/p99（ns/op）；
+ *         任一调用出现运行时错误的基准记为失败，不输出结果也不写入基线</li>
+ *     <li>基线文件不存在或指定 {@code --save-baseline} 时写入本次结果；
+ *         否则逐项比较均值，慢于基线超过 {@code --threshold} 即标记为回归，命令返回 1</li>
+ * </ol>
+ * </p>
+ *
+ * @param args 命令行参数
+ */
+public record BenchTask(String... args) implements Task {
+
+    /**
+     * 基准函数名前缀
+     */
+    public static final String PREFIX = "bench_";
+
+    /**
+     * 默认预热调用次数
+     */
+    public static final int DEFAULT_WARMUP = 10;
+
+    /**
+     * 默认计时调用次数
+     */
+    public static final int DEFAULT_ITERATIONS = 100;
+
+    /**
+     * 默认回归阈值（百分比）
+     */
+    public static final double DEFAULT_THRESHOLD = 10.0;
+
+    /**
+     * 基准程序与基线文件的输出目录
+     */
+    private static final Path OUT_DIR = Path.of("build", "bench");
+
+    @Override
+    public void run() throws Exception {
+        if (execute() != 0) {
+            throw new IllegalStateException("Benchmark failed");
+        }
+    }
+
+    /**
+     * 编译并运行基准，输出统计结果并与基线比较。
+     *
+     * @return 0 成功且无回归；1 参数错误、编译或运行失败、出现回归
+     * @throws Exception 读写文件或编译失败
+     */
+    public int execute() throws Exception {
+        int warmup = DEFAULT_WARMUP;
+        int iterations = DEFAULT_ITERATIONS;
+        double threshold = DEFAULT_THRESHOLD;
+        boolean saveBaseline = false;
+        String filter = null;
+        Path baseline = OUT_DIR.resolve("baseline.json");
+        Path dir = null;
+        List<Path> sources = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--save-baseline" -> saveBaseline = true;
+                case "--warmup", "--iterations" -> {
+                    if (i + 1 < args.length && args[i + 1].matches("\\d{1,9}")) {
+                        int n = Integer.parseInt(args[++i]);
+                        if (args[i - 1].equals("--warmup")) warmup = n;
+                        else if (n > 0) iterations = n;
+                        else return usageError("Invalid argument for --iterations: " + n);
+                    } else return usageError("Missing or invalid argument for " + args[i]);
+                }
+                case "--threshold" -> {
+                    if (i + 1 < args.length && args[i + 1].matches("\\d+(\\.\\d+)?%?")) {
+                        threshold = Double.parseDouble(args[++i].replace("%", ""));
+                    } else return usageError("Missing or invalid argument for --threshold");
+                }
+                case "--baseline" -> {
+                    if (i + 1 < args.length) baseline = Path.of(args[++i]);
+                    else return usageError("Missing argument for --baseline");
+                }
+                case "--filter" -> {
+                    if (i + 1 < args.length) filter = args[++i];
+                    else return usageError("Missing argument for --filter");
+                }
+                case "-d" -> {
+                    if (i + 1 < args.length) dir = Path.of(args[++i]);
+                    else return usageError("Missing argument for -d");
+                }
+                default -> {
+                    if (args[i].endsWith(".snow")) sources.add(Path.of(args[i]));
+                    else return usageError("Unknown option or file: " + args[i]);
+                }
+            }
+        }
+
+        // 未给出源文件时默认使用 src 目录，没有则为当前目录
+        if (dir == null && sources.isEmpty()) dir = Files.isDirectory(Path.of("src")) ? Path.of("src") : Path.of(".");
+        if (dir != null) {
+            if (!Files.isDirectory(dir)) {
+                System.err.println("Not a directory: " + dir);
+                return 1;
+            }
+            try (var stream = Files.walk(dir)) {
+                stream.filter(p -> p.toString().endsWith(".snow"))
+                        .sorted()
+                        .forEach(sources::add);
+            }
+        }
+        if (sources.isEmpty()) {
+            System.err.println("No .snow source files found.");
+            return 1;
+        }
+
+        // 1. 发现基准函数
+        List<String> names = new ArrayList<>();
+        for (Path src : sources) discover(src, names);
+        if (filter != null) {
+            String f = filter;
+            names.removeIf(n -> !n.contains(f));
+        }
+        if (names.isEmpty()) {
+            System.err.println("No benchmark functions (" + PREFIX + "*, no parameters) found"
+                    + (filter != null ? " matching '" + filter + "'." : "."));
+            return 1;
+        }
+
+        // 2. 编译为一个程序并按符号表定位入口
+        Path water = OUT_DIR.resolve("bench.water");
+        List<String> compileArgs = new ArrayList<>();
+        for (Path src : sources) compileArgs.add(src.toAbsolutePath().toString());
+        compileArgs.add("-o");
+        compileArgs.add(water.toString());
+        String[] argv = compileArgs.toArray(new String[0]);
+        if (new CompileTask(Project.fromFlatMap(Collections.emptyMap()), argv).execute(argv) != 0) {
+            System.err.println("Benchmark compilation failed.");
+            return 1;
+        }
+        List<String> program = CommandLoader.loadInstructions(water.toString());
+        Map<String, Integer> entries = new HashMap<>();
+        for (SymbolTable.Function f : SymbolTable.read(water).functions()) entries.put(f.name(), f.start());
+
+        // 3. 逐个运行
+        Map<String, Map<String, Object>> previous = readBaseline(baseline);
+        boolean writeBaseline = saveBaseline || previous == null;
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        int failures = 0;
+        int regressions = 0;
+
+        System.out.printf(Locale.ROOT, "Benchmarks: %d, warmup %d, iterations %d%s%n", names.size(), warmup, iterations,
+                writeBaseline ? "" : String.format(Locale.ROOT, ", baseline %s (threshold %.1f%%)", baseline, threshold));
+        System.out.println(String.format(Locale.ROOT, "%-32s %12s %12s %12s %12s %12s %12s  %s",
+                "benchmark (ns/op)", "mean", "stddev", "min", "p50", "p90", "p99",
+                writeBaseline ? "" : "vs baseline").stripTrailing());
+
+        DebugInfo.attach(program, water);
+        try {
+            for (String name : names) {
+                Integer entry = entries.get(name);
+                if (entry == null) {
+                    System.err.println(name + ": not found in the compiled program");
+                    failures++;
+                    continue;
+                }
+                Stats stats;
+                try {
+                    stats = measure(program, entry, warmup, iterations);
+                } catch (RuntimeException e) {
+                    System.err.println(name + ": " + e.getMessage());
+                    failures++;
+                    continue;
+                }
+                results.put(name, stats.toMap());
+
+                String verdict = "";
+                Map<String, Object> base = previous == null ? null : previous.get(name);
+                if (!writeBaseline && base != null && base.get("mean") instanceof Number m && m.doubleValue() > 0) {
+                    double change = (stats.mean / m.doubleValue() - 1) * 100;
+                    verdict = String.format(Locale.ROOT, "%+.1f%%", change);
+                    if (change > threshold) {
+                        verdict += "  REGRESSION";
+                        regressions++;
+                    }
+                } else if (!writeBaseline) {
+                    verdict = "new";
+                }
+                System.out.println(String.format(Locale.ROOT, "%-32s %12.0f %12.0f %12d %12d %12d %12d  %s", name,
+                        stats.mean, stats.stddev, stats.min, stats.p50, stats.p90, stats.p99, verdict).stripTrailing());
+            }
+        } finally {
+            DebugInfo.detach(program);
+        }
+
+        // 4. 写入基线：保留本次未运行（被过滤）的条目
+        if (writeBaseline && !results.isEmpty()) {
+            Map<String, Object> merged = new TreeMap<>();
+            if (previous != null) merged.putAll(previous);
+            merged.putAll(results);
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("unit", "ns/op");
+            root.put("warmup", warmup);
+            root.put("iterations", iterations);
+            root.put("benchmarks", merged);
+            Path parent = baseline.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Files.writeString(baseline, JSONParser.toJson(root) + System.lineSeparator(), StandardCharsets.UTF_8);
+            System.out.println("Baseline written to " + baseline.toAbsolutePath());
+        } else if (regressions > 0) {
+            System.out.printf(Locale.ROOT, "%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+        }
+        return failures > 0 || regressions > 0 ? 1 : 0;
+    }
+
+    private static int usageError(String msg) {
+        System.err.println(msg);
+        new BenchCommand().printUsage();
+        return 1;
+    }
+
+    /**
+     * 收集文件中的基准函数，名称与符号表一致（模块内函数为 {@code 模块.函数}）。
+     * 词法或语法错误留给随后的编译报告。
+     */
+    private static void discover(Path file, List<String> names) throws IOException {
+        String code = Files.readString(file, StandardCharsets.UTF_8);
+        LexerEngine lex = new LexerEngine(code, file.toString(), false);
+        if (!lex.getErrors().isEmpty()) return;
+        List<Node> ast;
+        try {
+            ast = new ParserEngine(new ParserContext(lex.getAllTokens(), file.toString())).parse();
+        } catch (RuntimeException e) {
+            return;
+        }
+        for (Node n : ast) {
+            if (n instanceof ModuleNode m) {
+                for (FunctionNode fn : m.functions()) addBenchmark(m.name() + "." + fn.name(), fn, names);
+            } else if (n instanceof FunctionNode fn) {
+                addBenchmark(fn.name(), fn, names);
+            }
+        }
+    }
+
+    private static void addBenchmark(String name, FunctionNode fn, List<String> names) {
+        if (!fn.name().startsWith(PREFIX)) return;
+        if (!fn.parameters().isEmpty()) {
+            System.err.println("Skipping " + name + ": benchmark functions must not take parameters");
+            return;
+        }
+        names.add(name);
+    }
+
+    /**
+     * 在新引擎上预热并计时调用一个函数。
+     *
+     * @throws IllegalStateException 某次调用未正常返回（运行时错误已由引擎输出到 stderr）
+     */
+    private static Stats measure(List<String> program, int entry, int warmup, int iterations) {
+        VirtualMachineEngine engine = new VirtualMachineEngine();
+        for (int i = 0; i < warmup; i++) call(engine, program, entry);
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long t0 = System.nanoTime();
+            call(engine, program, entry);
+            samples[i] = System.nanoTime() - t0;
+        }
+        return Stats.of(samples);
+    }
+
+    /**
+     * 调用一次基准函数；引擎遇到错误时只输出信息并停机，需检查调用是否正常返回。
+     */
+    private static void call(VirtualMachineEngine engine, List<String> program, int entry) {
+        engine.invoke(program, entry);
+        if (!engine.returned()) throw new IllegalStateException("did not return normally, result discarded");
+    }
+
+    /**
+     * 读取基线文件中的各基准结果。
+     *
+     * @return 基准名 → 统计值；文件不存在时返回 {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> readBaseline(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) return null;
+        Object root = JSONParser.parse(Files.readString(file, StandardCharsets.UTF_8));
+        Map<String, Map<String, Object>> out = new LinkedHashMap<>();
+        if (root instanceof Map<?, ?> m && m.get("benchmarks") instanceof Map<?, ?> benches) {
+            benches.forEach((k, v) -> {
+                if (v instanceof Map<?, ?> entry) out.put(String.valueOf(k), (Map<String, Object>) entry);
+            });
+        }
+        return out;
+    }
+
+    /**
+     * 一个基准的统计结果（纳秒/次）。
+     *
+     * @param samples 计时调用次数
+     * @param mean    均值
+     * @param stddev  样本标准差
+     * @param min     最小值
+     * @param p50     中位数
+     * @param p90     90 百分位
+     * @param p99     99 百分位
+     */
+    private record Stats(int samples, double mean, double stddev, long min, long p50, long p90, long p99) {
+
+        static Stats of(long[] samples) {
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            double sum = 0;
+            for (long s : sorted) sum += s;
+            double mean = sum / sorted.length;
+            double sq = 0;
+            for (long s : sorted) sq += (s - mean) * (s - mean);
+            double stddev = sorted.length > 1 ? Math.sqrt(sq / (sorted.length - 1)) : 0;
+            return new Stats(sorted.length, mean, stddev, sorted[0],
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99));
+        }
+
+        // 最近秩法
+        private static long percentile(long[] sorted, int p) {
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("samples", samples);
+            m.put("mean", Math.round(mean * 10) / 10.0);
+            m.put("stddev", Math.round(stddev * 10) / 10.0);
+            m.put("min", min);
+            m.put("p50", p50);
+            m.put("p90", p90);
+            m.put("p99", p99);
+            return m;
+        }
+    }
+}
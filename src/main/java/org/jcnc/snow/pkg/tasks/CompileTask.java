@@ -8,19 +8,33 @@ import org.jcnc.snow.compiler.backend.builder.VMCodeGenerator;
 import org.jcnc.snow.compiler.backend.builder.VMProgramBuilder;
 import org.jcnc.snow.compiler.backend.core.InstructionGenerator;
 import org.jcnc.snow.compiler.backend.generator.InstructionGeneratorProvider;
+import org.jcnc.snow.compiler.backend.link.LinkedProgram;
+import org.jcnc.snow.compiler.backend.link.ObjectFile;
 import org.jcnc.snow.compiler.backend.utils.OpHelper;
+import org.jcnc.snow.compiler.common.CompilationContext;
+import org.jcnc.snow.compiler.common.PassTimings;
+import org.jcnc.snow.compiler.common.PassTimings.Pass;
+import org.jcnc.snow.compiler.common.PhaseExecutor;
 import org.jcnc.snow.compiler.ir.builder.core.IRProgramBuilder;
 import org.jcnc.snow.compiler.ir.core.IRFunction;
 import org.jcnc.snow.compiler.ir.core.IRInstruction;
 import org.jcnc.snow.compiler.ir.core.IRProgram;
 import org.jcnc.snow.compiler.ir.value.IRVirtualRegister;
 import org.jcnc.snow.compiler.lexer.core.LexerEngine;
+import org.jcnc.snow.compiler.lexer.core.LexicalError;
+import org.jcnc.snow.compiler.parser.ast.ModuleNode;
 import org.jcnc.snow.compiler.parser.ast.base.Node;
 import org.jcnc.snow.compiler.parser.context.ParserContext;
 import org.jcnc.snow.compiler.parser.core.ParserEngine;
+import org.jcnc.snow.compiler.parser.utils.ASTNodeCounter;
 import org.jcnc.snow.compiler.semantic.core.SemanticAnalyzerRunner;
+import org.jcnc.snow.compiler.semantic.error.SemanticException;
+import org.jcnc.snow.pkg.cache.BuildGraph;
+import org.jcnc.snow.pkg.cache.LibraryCache;
 import org.jcnc.snow.pkg.model.Project;
 import org.jcnc.snow.vm.VMLauncher;
+import org.jcnc.snow.vm.io.LineTable;
+import org.jcnc.snow.vm.io.SymbolTable;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -28,6 +42,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -42,7 +61,8 @@ import static org.jcnc.snow.common.SnowConfig.print;
  *     <li>递归收集目录下所有 .snow 文件</li>
  *     <li>支持命令行参数自定义输出文件名、目录、是否自动运行 VM</li>
  *     <li>输出编译各阶段的关键信息（源码、IR、VM code）</li>
- *     <li>可选自动运行生成的字节码</li>
+ *     <li>可选按阶段与模块统计耗时、分配字节与产出规模（{@code --time-passes}），以表格或 JSON 输出</li>
+ *     <li>可选自动运行生成的字节码，并可对运行做指令级执行剖析（{@code --profile}）或函数级采样（{@code --sample}）</li>
  * </ul>
  */
 public record CompileTask(Project project, String[] args) implements Task {
@@ -244,70 +264,334 @@ public record CompileTask(Project project, String[] args) implements Task {
     }
 
     // 4. 读 module: xxx
-    private static String readModuleName(Path file) throws IOException {
-        String head = Files.readString(file, StandardCharsets.UTF_8);
-        Matcher m = Pattern.compile("(?m)^\\s*module:\\s*([A-Za-z0-9_]+)\\s*$").matcher(head);
+    private static String readModuleName(String code) {
+        Matcher m = Pattern.compile("(?m)^\\s*module:\\s*([A-Za-z0-9_]+)\\s*$").matcher(code);
         if (m.find()) return m.group(1).trim();
         return null;
     }
 
-    // 5. 建索引: 模块名 -> 文件路径
-    private static Map<String, Path> indexLibModules(Path libDir) throws IOException {
-        Map<String, Path> idx = new LinkedHashMap<>();
+    // 5. 建索引: 库文件 -> 缓存条目（模块名、import、内容哈希）；文件未变化时不读取文件
+    private static Map<Path, LibraryCache.Entry> indexLibModules(Path libDir, LibraryCache cache) throws IOException {
+        Map<Path, LibraryCache.Entry> idx = new LinkedHashMap<>();
         for (Path f : collectSnowFiles(libDir)) {
-            String mod = readModuleName(f);
-            if (mod != null && !idx.containsKey(mod)) {
-                idx.put(mod, f);
+            LibraryCache.Entry e = cache.lookup(f);
+            if (e == null) {
+                String code = Files.readString(f, StandardCharsets.UTF_8);
+                e = cache.record(f, code, readModuleName(code), extractImportsFromText(code));
             }
+            idx.put(f, e);
         }
         return idx;
     }
 
-    // 6. 读取库文件的 import
-    private static Set<String> readImportsOfLibFile(Path libFile) throws IOException {
-        String code = Files.readString(libFile, StandardCharsets.UTF_8);
-        return extractImportsFromText(code);
-    }
-
-    // 7. 闭包：从直接 import 出发递归抓取传递依赖
-    private static List<Path> resolveNeededLibFiles(Path libDir, Set<String> projectImports) throws IOException {
-        if (libDir == null || projectImports.isEmpty()) return List.of();
-        Map<String, Path> idx = indexLibModules(libDir);
-        Set<Path> needed = new LinkedHashSet<>();
+    // 6. 闭包：从直接 import 出发递归抓取传递依赖
+    private static Map<Path, LibraryCache.Entry> resolveNeededLibFiles(Path libDir, Set<String> projectImports,
+                                                                      LibraryCache cache) throws IOException {
+        if (libDir == null || projectImports.isEmpty()) return Map.of();
+        Map<Path, LibraryCache.Entry> files = indexLibModules(libDir, cache);
+        Map<String, Path> byModule = new HashMap<>();
+        files.forEach((f, e) -> {
+            if (e.module() != null) byModule.putIfAbsent(e.module(), f);
+        });
+
+        Map<Path, LibraryCache.Entry> needed = new LinkedHashMap<>();
         Deque<String> q = new ArrayDeque<>(projectImports);
         Set<String> seen = new HashSet<>();
 
         while (!q.isEmpty()) {
             String mod = q.removeFirst();
             if (!seen.add(mod)) continue;
-            Path f = idx.get(mod);
+            Path f = byModule.get(mod);
             if (f == null) continue; // 没有的模块交语义报错
-            if (needed.add(f)) {
-                for (String dep : readImportsOfLibFile(f)) {
+            LibraryCache.Entry e = files.get(f);
+            if (needed.putIfAbsent(f, e) == null) {
+                for (String dep : e.imports()) {
                     if (!seen.contains(dep)) q.addLast(dep);
                 }
             }
         }
-        return new ArrayList<>(needed);
+        return needed;
+    }
+
+    /**
+     * 并行前端（读取 + 词法 + 语法）的单文件结果。
+     *
+     * @param file       源文件
+     * @param code       源代码文本；由缓存 AST 得到时为 null
+     * @param lexErrors  词法错误（尚未报告）
+     * @param ast        顶层 AST 节点；有词法或语法错误时为 null
+     * @param parseError 语法分析抛出的异常；无则为 null
+     */
+    private record FrontEndUnit(Path file, String code, List<LexicalError> lexErrors,
+                                List<Node> ast, RuntimeException parseError) {
+    }
+
+    // 7. 单文件前端：读取、词法、语法。不向 stderr 输出，错误随结果返回；启用阶段统计时按文件中的模块记入
+    private static FrontEndUnit lexAndParse(Path file, PassTimings timings) throws IOException {
+        String code = Files.readString(file, StandardCharsets.UTF_8);
+        PassTimings.Probe lexProbe = timings.probe();
+        LexerEngine lex = new LexerEngine(code, file.toString(), false);
+        long lexNanos = lexProbe.nanos(), lexBytes = lexProbe.bytes();
+        if (!lex.getErrors().isEmpty()) {
+            return new FrontEndUnit(file, code, lex.getErrors(), null, null);
+        }
+        try {
+            PassTimings.Probe parseProbe = timings.probe();
+            ParserContext ctx = new ParserContext(lex.getAllTokens(), file.toString());
+            List<Node> ast = new ParserEngine(ctx).parse();
+            if (timings.isEnabled()) {
+                long parseNanos = parseProbe.nanos(), parseBytes = parseProbe.bytes();
+                String unit = timingUnit(file, ast);
+                timings.record(Pass.LEX, unit, lexNanos, lexBytes, lex.getAllTokens().size());
+                timings.record(Pass.PARSE, unit, parseNanos, parseBytes, ASTNodeCounter.count(ast));
+            }
+            return new FrontEndUnit(file, code, List.of(), ast, null);
+        } catch (RuntimeException e) {
+            return new FrontEndUnit(file, code, List.of(), null, e);
+        }
+    }
+
+    // 阶段统计中文件的归属名：文件声明的模块名，无模块时为文件名
+    private static String timingUnit(Path file, List<Node> ast) {
+        for (Node n : ast) {
+            if (n instanceof ModuleNode m) return m.name();
+        }
+        return file.getFileName().toString();
+    }
+
+    // 8. 库文件前端：优先使用缓存的 AST，未命中时解析并写回缓存
+    private static FrontEndUnit lexAndParseLib(Path file, LibraryCache.Entry entry, LibraryCache cache,
+                                               PassTimings timings) throws IOException {
+        List<Node> cached = cache.loadAst(file, entry.hash());
+        if (cached != null) {
+            return new FrontEndUnit(file, null, List.of(), cached, null);
+        }
+        FrontEndUnit unit = lexAndParse(file, timings);
+        if (unit.ast() != null) cache.storeAst(file, entry.hash(), unit.ast());
+        return unit;
+    }
+
+    // 9. 多文件前端：文件间互不依赖，分发到线程池；结果按输入顺序返回
+    private static List<FrontEndUnit> runFrontEnd(List<Callable<FrontEndUnit>> tasks, ExecutorService pool) throws Exception {
+        List<FrontEndUnit> units = new ArrayList<>(tasks.size());
+        if (pool == null || tasks.size() < 2) {
+            for (Callable<FrontEndUnit> t : tasks) units.add(t.call());
+            return units;
+        }
+        List<Future<FrontEndUnit>> futures = new ArrayList<>(tasks.size());
+        for (Callable<FrontEndUnit> t : tasks) futures.add(pool.submit(t));
+        try {
+            for (Future<FrontEndUnit> fu : futures) units.add(fu.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Compilation interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception ex) throw ex;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        }
+        return units;
+    }
+
+    // 10. 源文件键：与 ParserContext 记录在节点上下文中的路径一致
+    private static String sourceKey(Path file) {
+        return file.toAbsolutePath().toString().replace('\\', '/');
+    }
+
+    // 单个函数的寄存器分配与代码生成；启用阶段统计时分别记入所属模块
+    private static void generateFunction(IRFunction fn, String module, VMProgramBuilder builder,
+                                         List<InstructionGenerator<? extends IRInstruction>> gens,
+                                         PassTimings timings) {
+        Map<IRVirtualRegister, Integer> slotMap =
+                timings.measure(Pass.REGALLOC, module, () -> new RegisterAllocator().allocate(fn), Map::size);
+        int pc = builder.getPc();
+        timings.measure(Pass.CODEGEN, module, () -> {
+            new VMCodeGenerator(slotMap, builder, gens).generate(fn);
+            return builder.getPc() - pc;
+        }, n -> n);
+    }
+
+    // 链接：回填调用与跳转地址，得到最终指令序列及函数符号表、行号表
+    private static LinkedProgram link(VMProgramBuilder builder, PassTimings timings) {
+        LinkedProgram linked;
+        PassTimings.Span linkSpan = timings.phase(Pass.LINK);
+        try {
+            linked = new LinkedProgram(builder.build(), new SymbolTable(builder.functionSymbols()),
+                    new LineTable(builder.lineEntries()));
+        } finally {
+            linkSpan.close();
+        }
+        timings.addItems(Pass.LINK, linked.code().size());
+        return linked;
+    }
+
+    // 全量编译时函数的归属名：IR 函数名中的模块前缀（结构体方法为结构体名），无前缀时为顶层
+    private static String moduleOf(IRFunction fn) {
+        int dot = fn.name().indexOf('.');
+        return dot > 0 ? fn.name().substring(0, dot) : "(top-level)";
+    }
+
+    /**
+     * 增量编译中的一个函数槽位：按全量构建顺序排列，要么是新构建的 IR 函数，要么是复用的构建器调用记录。
+     *
+     * @param module 所属模块
+     * @param name   函数全名
+     * @param fn     新构建的 IR 函数；复用时为 null
+     * @param ops    复用的构建器调用记录；新构建时为 null
+     */
+    private record FunctionSlot(String module, String name, IRFunction fn, List<VMProgramBuilder.Op> ops) {
+    }
+
+    // 11. 按模块增量编译：只对需要重建的模块做函数体检查、IR 构建与代码生成，其余模块重放目标文件
+    private static LinkedProgram buildModules(List<Node> allAst, List<ModuleNode> modules, BuildGraph graph,
+                                             BuildGraph.Plan plan, boolean cacheStats, Path objDir,
+                                             PhaseExecutor phases, PassTimings timings) throws IOException {
+        // 4. 语义分析：签名对全部模块登记，函数体只检查需要重建的模块
+        PassTimings.Span semanticSpan = timings.phase(Pass.SEMANTIC);
+        try {
+            SemanticAnalyzerRunner.runSemanticAnalysis(allAst, false, plan::isDirty, phases);
+        } finally {
+            semanticSpan.close();
+        }
+
+        // 5. AST → IR：未变化模块只登记函数签名，保证全局函数表与全量构建一致
+        List<FunctionSlot> slots = new ArrayList<>();
+        Map<ModuleNode, List<IRFunction>> builtOrder = new IdentityHashMap<>(); // 重建模块 → 模块内函数构建顺序
+        List<ModuleNode> dirty = modules.stream().filter(plan::isDirty).toList();
+        int rebuilt = dirty.size();
+        PassTimings.Span irSpan = timings.phase(Pass.IR);
+        try {
+            IRProgramBuilder irBuilder = new IRProgramBuilder(phases);
+            irBuilder.preload(allAst);
+            List<List<IRFunction>> built = irBuilder.buildModules(dirty); // 全部重建模块的函数作为一批构建
+            for (int i = 0; i < dirty.size(); i++) builtOrder.put(dirty.get(i), built.get(i));
+            for (ModuleNode m : modules) {
+                if (plan.isDirty(m)) {
+                    builtOrder.get(m).forEach(f -> slots.add(new FunctionSlot(m.name(), f.name(), f, null)));
+                } else {
+                    irBuilder.registerModule(m);
+                    BuildGraph.ModuleObject obj = plan.reusable().get(m.name());
+                    for (int i = 0; i < obj.functions().size(); i++) {
+                        slots.add(new FunctionSlot(m.name(), obj.functions().get(i), null, obj.code().get(i)));
+                    }
+                }
+            }
+        } finally {
+            irSpan.close();
+        }
+        // 与 reorderForEntry 相同：main 或 *.main 交换到首位
+        for (int i = 0; i < slots.size(); i++) {
+            String fn = slots.get(i).name();
+            if ("main".equals(fn) || fn.endsWith(".main")) {
+                Collections.swap(slots, 0, i);
+                break;
+            }
+        }
+
+        print("### IR");
+        IRProgram fresh = new IRProgram();
+        slots.stream().filter(s -> s.fn() != null).forEach(s -> fresh.add(s.fn()));
+        print(fresh.toString());
+
+        // 6. IR → VM：新函数边生成边记录，复用函数直接重放；按模块收集新的目标文件
+        VMProgramBuilder builder = new VMProgramBuilder();
+        List<InstructionGenerator<? extends IRInstruction>> gens = InstructionGeneratorProvider.defaultGenerators();
+        Map<IRFunction, List<VMProgramBuilder.Op>> recorded = new IdentityHashMap<>();
+        for (FunctionSlot slot : slots) {
+            if (slot.fn() == null) {
+                builder.replay(slot.ops());
+                continue;
+            }
+            builder.startRecording();
+            generateFunction(slot.fn(), slot.module(), builder, gens, timings);
+            recorded.put(slot.fn(), builder.stopRecording());
+        }
+        LinkedProgram linked = link(builder, timings);
+
+        // 目标文件中的函数保持模块内构建顺序（而非入口调整后的顺序）
+        Map<ModuleNode, BuildGraph.ModuleObject> perModule = new IdentityHashMap<>();
+        List<BuildGraph.ModuleObject> objects = new ArrayList<>();
+        for (ModuleNode m : modules) {
+            if (!plan.isDirty(m)) {
+                perModule.put(m, plan.reusable().get(m.name()));
+                continue;
+            }
+            List<String> names = new ArrayList<>();
+            List<List<VMProgramBuilder.Op>> code = new ArrayList<>();
+            for (IRFunction f : builtOrder.get(m)) {
+                names.add(f.name());
+                code.add(recorded.get(f));
+            }
+            BuildGraph.ModuleObject obj = new BuildGraph.ModuleObject(m.name(), names, code);
+            perModule.put(m, obj);
+            objects.add(obj);
+        }
+        graph.commit(plan, objects);
+
+        // 可选：输出每个模块的可重定位目标文件及链接顺序，供 snow link 使用
+        if (objDir != null) {
+            List<String> order = new ArrayList<>();
+            Map<String, Integer> seen = new HashMap<>(); // 同名模块（分散在多个文件中）依次编号
+            for (ModuleNode m : modules) {
+                Map<String, String> parents = new LinkedHashMap<>();
+                if (m.structs() != null) m.structs().forEach(st -> parents.put(st.name(), st.parent()));
+                ObjectFile obj = ObjectFile.assemble(m.name(), parents, perModule.get(m).code());
+                int n = seen.merge(m.name(), 1, Integer::sum);
+                String fileName = m.name() + (n > 1 ? "-" + n : "") + ObjectFile.EXTENSION;
+                obj.write(objDir.resolve(fileName));
+                order.add(fileName);
+            }
+            Files.write(objDir.resolve(LinkTask.LINK_ORDER_FILE), order, StandardCharsets.UTF_8);
+            print("Objects written to " + objDir.toAbsolutePath());
+        }
+
+        String stats = "[cache] build " + rebuilt + " rebuilt / " + (modules.size() - rebuilt) + " reused";
+        if (cacheStats) System.out.println(stats);
+        else print(stats);
+        return linked;
     }
 
     @Override
     public void run() throws Exception {
-        execute(this.args);
+        if (execute(this.args) != 0) {
+            throw new IllegalStateException("Compilation failed");
+        }
     }
 
     /**
      * 编译 .snow 文件为 .water 字节码文件，可选自动运行。
+     * <p>
+     * 每次调用都在全新的 {@link CompilationContext} 中进行，同一进程内的多次编译互不影响。
+     * </p>
      *
      * @param args 命令行参数
-     * @return 0 成功，非0失败
+     * @return 0 成功，非0失败（含语义错误）
      */
     public int execute(String[] args) throws Exception {
+        CompilationContext.Scope scope = CompilationContext.open();
+        try {
+            return compile(args);
+        } catch (SemanticException e) {
+            return 1; // 错误详情已由 SemanticAnalysisReporter 打印
+        } finally {
+            scope.close();
+        }
+    }
+
+    private int compile(String[] args) throws Exception {
 
         boolean runAfterCompile = false; // 是否编译后自动运行
         String outputName = null;        // 用户指定的输出文件名
         Path dir = null;                 // 源文件目录
         List<Path> sources = new ArrayList<>(); // 源文件列表
+        int jobs = Runtime.getRuntime().availableProcessors(); // 前端、语义分析与 IR 构建的并行度
+        boolean useCache = true;         // 是否使用标准库缓存
+        boolean cacheStats = false;      // 是否输出缓存命中统计
+        Path objDir = null;              // 目标文件输出目录
+        String timePasses = null;        // 阶段统计报告格式（table / json）；null 表示不统计
+        Path timePassesOut = null;       // 阶段统计报告输出文件；null 时输出到 stderr
+        List<String> vmOptions = new ArrayList<>(); // 编译后运行时转交虚拟机的选项（--profile、--sample 等）
 
         // 解析命令行参数
         for (int i = 0; i < args.length; i++) {
@@ -315,6 +599,29 @@ public record CompileTask(Project project, String[] args) implements Task {
                 case "run" -> runAfterCompile = true; // run 表示编译后运行 VM
                 case "--debug" -> SnowConfig.MODE = Mode.DEBUG; // 开启 debug 模式
                 case "--trace" -> SnowConfig.setInstructionTraceEnabled(true); // 输出指令级 trace
+                case "--no-cache" -> useCache = false; // 不读写 ~/.snow/cache 中的标准库缓存
+                case "--cache-stats" -> cacheStats = true; // 输出标准库缓存命中统计
+                case "--time-passes", "--time-passes=table" -> timePasses = "table"; // 各阶段耗时/分配统计
+                case "--time-passes=json" -> timePasses = "json";
+                case "--profile", "--profile-alloc", "--sample", "--metrics", "--syscall-latency" -> vmOptions.add(args[i]); // 运行时剖析（可含分配统计） / 采样 / 指标 / 系统调用延迟
+                case "--profile-out", "--sample-out", "--metrics-out", "--syscall-latency-out" -> { // 剖析 JSON / 采样调用栈 / 指标 JSON 行 / 延迟汇总写入文件
+                    if (i + 1 < args.length) {
+                        vmOptions.add(args[i]);
+                        vmOptions.add(args[++i]);
+                    } else {
+                        System.err.println("Missing argument for " + args[i]);
+                        new CompileCommand().printUsage();
+                        return 1;
+                    }
+                }
+                case "--time-passes-out" -> { // 阶段统计报告写入文件
+                    if (i + 1 < args.length) timePassesOut = Path.of(args[++i]);
+                    else {
+                        System.err.println("Missing argument for --time-passes-out");
+                        new CompileCommand().printUsage();
+                        return 1;
+                    }
+                }
                 case "-o" -> { // 指定输出文件名
                     if (i + 1 < args.length) outputName = args[++i];
                     else {
@@ -323,6 +630,23 @@ public record CompileTask(Project project, String[] args) implements Task {
                         return 1;
                     }
                 }
+                case "-j" -> { // 并行线程数
+                    if (i + 1 < args.length && args[i + 1].matches("\\d+") && Integer.parseInt(args[i + 1]) > 0) {
+                        jobs = Integer.parseInt(args[++i]);
+                    } else {
+                        System.err.println("Missing or invalid argument for -j");
+                        new CompileCommand().printUsage();
+                        return 1;
+                    }
+                }
+                case "--emit-obj" -> { // 同时输出各模块的可重定位目标文件
+                    if (i + 1 < args.length) objDir = Path.of(args[++i]);
+                    else {
+                        System.err.println("Missing argument for --emit-obj");
+                        new CompileCommand().printUsage();
+                        return 1;
+                    }
+                }
                 case "-d" -> { // 指定目录
                     if (i + 1 < args.length) dir = Path.of(args[++i]);
                     else {
@@ -332,8 +656,12 @@ public record CompileTask(Project project, String[] args) implements Task {
                     }
                 }
                 default -> {
-                    // 识别 .snow 源文件，否则报错
+                    // 识别 .snow 源文件与 --profile=N / --sample=us / --metrics=ms，否则报错
                     if (args[i].endsWith(".snow")) sources.add(Path.of(args[i]));
+                    else if (args[i].startsWith("--profile=") || args[i].startsWith("--sample=")
+                            || args[i].startsWith("--metrics=") || args[i].startsWith("--syscall-latency=")
+                            || args[i].startsWith("--fuel=") || args[i].startsWith("--quantum="))
+                        vmOptions.add(args[i]);
                     else {
                         System.err.println("Unknown option or file: " + args[i]);
                         new CompileCommand().printUsage();
@@ -366,38 +694,65 @@ public record CompileTask(Project project, String[] args) implements Task {
             return 1;
         }
 
+        if (timePassesOut != null && timePasses == null) timePasses = "table";
+        PassTimings timings = timePasses != null ? PassTimings.start() : PassTimings.DISABLED;
+        CompilationContext.current().setPassTimings(timings);
+
         print("## 编译器输出");
         print("### Snow 源代码");
 
-        // 1. 先处理用户源码，收集 import
+        // 前端线程池：-j 1 时在当前线程顺序执行
+        ExecutorService frontEnd = jobs > 1
+                ? Executors.newFixedThreadPool(jobs, Thread.ofPlatform().name("snow-frontend-", 0).daemon().factory())
+                : null;
         List<Node> projectAst = new ArrayList<>();
-        Set<String> projectImports = new LinkedHashSet<>();
-
-        for (Path src : sources) {
-            String code = Files.readString(src, StandardCharsets.UTF_8);
-            print("#### " + fromDemoXX(src));
-            print(code);
-
-            projectImports.addAll(extractImportsFromText(code));
-            LexerEngine lex = new LexerEngine(code, src.toString());
-            if (!lex.getErrors().isEmpty()) return 1;
-            ParserContext ctx = new ParserContext(lex.getAllTokens(), src.toString());
-            projectAst.addAll(new ParserEngine(ctx).parse());
-        }
-
-        // 2. 只加载需要的标准库（含递归依赖）
-        Path baseDirForLib = (dir != null) ? dir : sources.getFirst().getParent();
-        Path libDir = findNearestLibDir(baseDirForLib);
         List<Node> libAst = new ArrayList<>();
-        if (libDir != null) {
-            List<Path> neededLibFiles = resolveNeededLibFiles(libDir, projectImports);
-            for (Path libSrc : neededLibFiles) {
-                String code = Files.readString(libSrc, StandardCharsets.UTF_8);
-                LexerEngine lex = new LexerEngine(code, libSrc.toString());
-                if (!lex.getErrors().isEmpty()) return 1;
-                ParserContext ctx0 = new ParserContext(lex.getAllTokens(), libSrc.toString());
-                libAst.addAll(new ParserEngine(ctx0).parse());
+        Map<String, String> fileHashes = new HashMap<>(); // 源文件 → 内容哈希，供增量编译判断变化
+        try {
+            // 1. 先处理用户源码，收集 import；按源文件顺序合并结果与错误
+            Set<String> projectImports = new LinkedHashSet<>();
+            List<Callable<FrontEndUnit>> projectTasks = new ArrayList<>();
+            for (Path src : sources) projectTasks.add(() -> lexAndParse(src, timings));
+            for (FrontEndUnit unit : runFrontEnd(projectTasks, frontEnd)) {
+                print("#### " + fromDemoXX(unit.file()));
+                print(unit.code());
+
+                projectImports.addAll(extractImportsFromText(unit.code()));
+                fileHashes.put(sourceKey(unit.file()), BuildGraph.sha256(unit.code()));
+                if (!unit.lexErrors().isEmpty()) {
+                    LexerEngine.report(unit.lexErrors());
+                    return 1;
+                }
+                if (unit.parseError() != null) throw unit.parseError();
+                projectAst.addAll(unit.ast());
+            }
+
+            // 2. 只加载需要的标准库（含递归依赖）
+            Path baseDirForLib = (dir != null) ? dir : sources.getFirst().getParent();
+            Path libDir = findNearestLibDir(baseDirForLib);
+            if (libDir != null) {
+                LibraryCache cache = LibraryCache.open(libDir, useCache);
+                Map<Path, LibraryCache.Entry> neededLibFiles = resolveNeededLibFiles(libDir, projectImports, cache);
+                List<Callable<FrontEndUnit>> libTasks = new ArrayList<>();
+                neededLibFiles.forEach((f, e) -> {
+                    libTasks.add(() -> lexAndParseLib(f, e, cache, timings));
+                    fileHashes.put(sourceKey(f), e.hash());
+                });
+                List<FrontEndUnit> libUnits = runFrontEnd(libTasks, frontEnd);
+                cache.save();
+                if (cacheStats) System.out.println("[cache] lib " + cache.stats());
+                else print("[cache] lib " + cache.stats());
+                for (FrontEndUnit unit : libUnits) {
+                    if (!unit.lexErrors().isEmpty()) {
+                        LexerEngine.report(unit.lexErrors());
+                        return 1;
+                    }
+                    if (unit.parseError() != null) throw unit.parseError();
+                    libAst.addAll(unit.ast());
+                }
             }
+        } finally {
+            if (frontEnd != null) frontEnd.shutdownNow();
         }
 
         // 3. 合并 AST
@@ -405,25 +760,53 @@ public record CompileTask(Project project, String[] args) implements Task {
         allAst.addAll(libAst);
         allAst.addAll(projectAst);
 
-        // 4. 语义分析
-        SemanticAnalyzerRunner.runSemanticAnalysis(allAst, false);
+        Path outFile = deriveOutputPath(sources, outputName, dir);
 
-        // 5. AST → IR
-        IRProgram program = new IRProgramBuilder().buildProgram(allAst);
-        program = reorderForEntry(program);
+        // 4~6. 语义分析 → IR → VM。全部根节点都是模块时按模块增量编译，否则全量编译
+        //      语义分析与 IR 构建按函数分发到工作窃取线程池（-j 1 时顺序执行）
+        LinkedProgram linked;
+        try (PhaseExecutor phases = PhaseExecutor.create(jobs)) {
+            if (allAst.stream().allMatch(n -> n instanceof ModuleNode)) {
+                List<ModuleNode> modules = allAst.stream().map(ModuleNode.class::cast).toList();
+                BuildGraph graph = BuildGraph.open(outFile, useCache);
+                BuildGraph.Plan plan = graph.plan(modules, fileHashes);
+                linked = buildModules(allAst, modules, graph, plan, cacheStats, objDir, phases, timings);
+            } else if (objDir != null) {
+                System.err.println("--emit-obj requires every source file to declare a module");
+                return 1;
+            } else {
+                // 4. 语义分析
+                PassTimings.Span semanticSpan = timings.phase(Pass.SEMANTIC);
+                try {
+                    SemanticAnalyzerRunner.runSemanticAnalysis(allAst, false, mod -> true, phases);
+                } finally {
+                    semanticSpan.close();
+                }
 
-        print("### IR");
-        print(program.toString());
+                // 5. AST → IR
+                IRProgram program;
+                PassTimings.Span irSpan = timings.phase(Pass.IR);
+                try {
+                    program = new IRProgramBuilder(phases).buildProgram(allAst);
+                } finally {
+                    irSpan.close();
+                }
+                program = reorderForEntry(program);
 
-        // 6. IR → VM
-        VMProgramBuilder builder = new VMProgramBuilder();
-        List<InstructionGenerator<? extends IRInstruction>> gens = InstructionGeneratorProvider.defaultGenerators();
+                print("### IR");
+                print(program.toString());
 
-        for (IRFunction fn : program.functions()) {
-            Map<IRVirtualRegister, Integer> slotMap = new RegisterAllocator().allocate(fn);
-            new VMCodeGenerator(slotMap, builder, gens).generate(fn);
+                // 6. IR → VM
+                VMProgramBuilder builder = new VMProgramBuilder();
+                List<InstructionGenerator<? extends IRInstruction>> gens = InstructionGeneratorProvider.defaultGenerators();
+
+                for (IRFunction fn : program.functions()) {
+                    generateFunction(fn, moduleOf(fn), builder, gens, timings);
+                }
+                linked = link(builder, timings);
+            }
         }
-        List<String> vmCode = builder.build();
+        List<String> vmCode = linked.code();
 
         print("### VM code");
         if (SnowConfig.isDebug()) {
@@ -435,18 +818,24 @@ public record CompileTask(Project project, String[] args) implements Task {
             }
         }
 
-        Path outFile = deriveOutputPath(sources, outputName, dir);
         // 确保输出目录存在
         Path parentDir = outFile.getParent();
         if (parentDir != null) {
             Files.createDirectories(parentDir);
         }
-        Files.write(outFile, vmCode, StandardCharsets.UTF_8);
+        Files.write(outFile, linked.fileLines(), StandardCharsets.UTF_8);
         print("Written to " + outFile.toAbsolutePath());
 
+        if (timings.isEnabled()) {
+            String report = "json".equals(timePasses) ? timings.toJson() + System.lineSeparator() : timings.toTable();
+            if (timePassesOut != null) Files.writeString(timePassesOut, report, StandardCharsets.UTF_8);
+            else System.err.print(report);
+        }
+
         if (runAfterCompile) {
             print("\nLaunching VM");
-            VMLauncher.main(new String[]{outFile.toString()});
+            vmOptions.addFirst(outFile.toString());
+            VMLauncher.main(vmOptions.toArray(new String[0]));
             print("\nVM exited");
         }
         return 0;
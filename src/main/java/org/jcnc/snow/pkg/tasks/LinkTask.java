@@ -0,0 +1,142 @@
+package org.jcnc.snow.pkg.tasks;
+
+import org.jcnc.snow.cli.commands.LinkCommand;
+import org.jcnc.snow.common.Mode;
+import org.jcnc.snow.common.SnowConfig;
+import org.jcnc.snow.compiler.backend.link.LinkedProgram;
+import org.jcnc.snow.compiler.backend.link.Linker;
+import org.jcnc.snow.compiler.backend.link.ObjectFile;
+import org.jcnc.snow.vm.VMLauncher;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.jcnc.snow.common.SnowConfig.print;
+
+/**
+ * LinkTask 把 {@code snow compile --emit-obj} 生成的模块目标文件链接为 .water 程序，可选自动运行。
+ * <p>
+ * 对象的链接顺序:
+ * <ul>
+ *     <li>命令行逐个列出的 .sobj 按给出的顺序</li>
+ *     <li>{@code -d <目录>} 时按目录中 {@value #LINK_ORDER_FILE} 记录的编译顺序；
+ *         该文件不存在时按文件名排序</li>
+ * </ul>
+ * 与编译器一致，入口函数（main 或 *.main）在链接时被调整到 PC=0。
+ * </p>
+ *
+ * @param args 命令行参数
+ */
+public record LinkTask(String... args) implements Task {
+
+    /**
+     * 目标目录中记录链接顺序的文件名
+     */
+    public static final String LINK_ORDER_FILE = "link.lst";
+
+    @Override
+    public void run() throws Exception {
+        execute();
+    }
+
+    /**
+     * 链接目标文件并写出 .water，可选自动运行。
+     *
+     * @return 0 成功，非0失败
+     * @throws Exception 读取、链接或运行失败
+     */
+    public int execute() throws Exception {
+        boolean runAfterLink = false;
+        String outputName = null;
+        Path dir = null;
+        List<Path> objects = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "run" -> runAfterLink = true;
+                case "--debug" -> SnowConfig.MODE = Mode.DEBUG;
+                case "-o" -> {
+                    if (i + 1 < args.length) outputName = args[++i];
+                    else return usageError("Missing argument for -o");
+                }
+                case "-d" -> {
+                    if (i + 1 < args.length) dir = Path.of(args[++i]);
+                    else return usageError("Missing argument for -d");
+                }
+                default -> {
+                    if (args[i].endsWith(ObjectFile.EXTENSION)) objects.add(Path.of(args[i]));
+                    else return usageError("Unknown option or file: " + args[i]);
+                }
+            }
+        }
+
+        if (dir != null) {
+            if (!Files.isDirectory(dir)) {
+                System.err.println("Not a directory: " + dir);
+                return 1;
+            }
+            Path order = dir.resolve(LINK_ORDER_FILE);
+            if (Files.isRegularFile(order)) {
+                for (String line : Files.readAllLines(order, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) objects.add(dir.resolve(line.trim()));
+                }
+            } else {
+                try (Stream<Path> s = Files.list(dir)) {
+                    s.filter(p -> p.toString().endsWith(ObjectFile.EXTENSION)).sorted().forEach(objects::add);
+                }
+            }
+        }
+        if (objects.isEmpty()) {
+            System.err.println("No " + ObjectFile.EXTENSION + " object files given.");
+            return 1;
+        }
+        if (objects.size() > 1 && outputName == null && dir == null) {
+            System.err.println("Please specify output name using -o <name>");
+            return 1;
+        }
+
+        List<ObjectFile> loaded = new ArrayList<>(objects.size());
+        for (Path p : objects) loaded.add(ObjectFile.read(p));
+        long t0 = System.nanoTime();
+        LinkedProgram linked = Linker.link(loaded);
+        print("Linked %d objects (%d instructions) in %.2f ms%n",
+                loaded.size(), linked.code().size(), (System.nanoTime() - t0) / 1e6);
+
+        Path outFile = outputPath(objects, outputName, dir);
+        Path parent = outFile.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Files.write(outFile, linked.fileLines(), StandardCharsets.UTF_8);
+        print("Written to " + outFile.toAbsolutePath());
+
+        if (runAfterLink) {
+            VMLauncher.main(new String[]{outFile.toString()});
+        }
+        return 0;
+    }
+
+    private static int usageError(String msg) {
+        System.err.println(msg);
+        new LinkCommand().printUsage();
+        return 1;
+    }
+
+    /**
+     * 输出文件名：-o 优先，其次目录名，最后单个目标文件名。
+     */
+    private static Path outputPath(List<Path> objects, String outName, Path dir) {
+        String base;
+        if (outName != null) {
+            base = outName.endsWith(".water") ? outName : outName + ".water";
+        } else if (dir != null) {
+            base = dir.toAbsolutePath().normalize().getFileName() + ".water";
+        } else {
+            String f = objects.getFirst().getFileName().toString();
+            base = f.substring(0, f.length() - ObjectFile.EXTENSION.length()) + ".water";
+        }
+        return Path.of(base);
+    }
+}
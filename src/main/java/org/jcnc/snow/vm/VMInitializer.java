@@ -2,11 +2,21 @@ package org.jcnc.snow.vm;
 
 import org.jcnc.snow.common.Mode;
 import org.jcnc.snow.vm.engine.VMCommandExecutor;
+import org.jcnc.snow.vm.engine.VMProfiler;
+import org.jcnc.snow.vm.engine.VMSampler;
+import org.jcnc.snow.vm.engine.VMScheduler;
 import org.jcnc.snow.vm.engine.VirtualMachineEngine;
 import org.jcnc.snow.vm.execution.CommandLoader;
 import org.jcnc.snow.vm.io.FilePathResolver;
+import org.jcnc.snow.vm.io.DebugInfo;
+import org.jcnc.snow.vm.metrics.SyscallLatency;
+import org.jcnc.snow.vm.metrics.VMMetrics;
+import org.jcnc.snow.vm.utils.LoggingUtils;
 import org.jcnc.snow.vm.utils.VMStateLogger;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -41,13 +51,43 @@ public class VMInitializer {
      * Initializes the virtual machine by processing the file path, loading instructions, executing them,
      * and printing the virtual machine's state.
      *
+     * <p>Profiler options ({@code --profile}, {@code --profile=<N>}, {@code --profile-out <file>})
+     * and sampler options ({@code --sample}, {@code --sample=<us>}, {@code --sample-out <file>})
+     * are removed from {@code args} first; when present, the run is profiled or sampled and the
+     * report is emitted when it ends (see {@link VMProfiler} and {@link VMSampler}).  Metrics
+     * options ({@code --metrics}, {@code --metrics=<ms>}, {@code --metrics-out <file>}) turn on
+     * the runtime counters and their JMX / JSON-lines export (see {@link VMMetrics}), and
+     * {@code --syscall-latency[=<ms>]} / {@code --syscall-latency-out <file>} time every system
+     * call and log the slow ones (see {@link SyscallLatency}).  {@code --fuel=<n>} stops the
+     * program after {@code n} instructions, failing the run with an {@link IllegalStateException}
+     * so the launcher exits with an error status, and is the default budget of spawned tasks;
+     * {@code --quantum=<n>} sets their time slice (see {@link VMScheduler}).</p>
+     *
      * @param args   Command-line arguments containing the file path of the virtual machine instructions
      * @param vmMode The mode in which the virtual machine should operate.
      *               This can be used to specify different operational modes (e.g., debug mode, normal mode).
      */
     public static void initializeAndRunVM(String[] args, Mode vmMode) {
+        // Separate profiler options from the program arguments
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+        VMProfiler.Options profile;
+        VMSampler.Options sample;
+        VMMetrics.Options metricsOptions;
+        SyscallLatency.Options latencyOptions;
+        VMScheduler.Options budget;
+        try {
+            profile = VMProfiler.Options.extract(rest);
+            sample = VMSampler.Options.extract(rest);
+            metricsOptions = VMMetrics.Options.extract(rest);
+            latencyOptions = SyscallLatency.Options.extract(rest);
+            budget = VMScheduler.Options.extract(rest);
+        } catch (IllegalArgumentException e) {
+            LoggingUtils.logError(e.getMessage());
+            return;
+        }
+
         // Retrieve and validate file path
-        String filePath = FilePathResolver.getFilePath(args);
+        String filePath = FilePathResolver.getFilePath(rest.toArray(new String[0]));
         if (filePath == null) return;
 
         // Load commands from the file
@@ -55,8 +95,27 @@ public class VMInitializer {
         if (commands.isEmpty()) return;
 
         // Execute the commands using the virtual machine engine
+        DebugInfo.attach(commands, Path.of(filePath));
+        VMProfiler profiler = profile != null ? VMProfiler.start(commands, profile) : null;
+        VMSampler sampler = sample != null ? VMSampler.start(commands, sample) : null;
+        VMMetrics metrics = metricsOptions != null ? VMMetrics.start(metricsOptions) : null;
+        SyscallLatency latency = latencyOptions != null ? SyscallLatency.start(latencyOptions) : null;
         VirtualMachineEngine virtualMachineEngine = new VirtualMachineEngine();
-        VMCommandExecutor.executeInstructions(virtualMachineEngine, commands);
+        // Reset as well: the compile daemon runs many programs in one JVM
+        VMScheduler.configure(budget != null ? budget : VMScheduler.Options.DEFAULT);
+        try {
+            if (budget == null) {
+                VMCommandExecutor.executeInstructions(virtualMachineEngine, commands);
+            } else {
+                VMCommandExecutor.executeInstructions(virtualMachineEngine, commands, budget.fuel());
+            }
+        } finally {
+            if (latency != null) latency.finish();
+            if (metrics != null) metrics.finish();
+            if (sampler != null) sampler.finish();
+            if (profiler != null) profiler.finish();
+            DebugInfo.detach(commands);
+        }
 
         // Print the virtual machine's state
         VMStateLogger.printVMState(virtualMachineEngine);
@@ -2,6 +2,8 @@ package org.jcnc.snow.vm.commands.system.control;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.interfaces.Command;
+import org.jcnc.snow.vm.metrics.SyscallLatency;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -64,8 +66,30 @@ public class SyscallCommand implements Command {
             throw new IllegalArgumentException("Invalid syscall opcode format: " + parts[1], e);
         }
 
+        if (VMMetrics.isEnabled()) VMMetrics.syscall(opcode);
         SyscallHandler handler = SyscallFactory.getHandler(opcode);
 
+        SyscallLatency latency = SyscallLatency.active();
+        if (latency == null) {
+            dispatch(handler, stack, locals, callStack);
+        } else {
+            // 参数在 handler 中会被弹出，需先记下 fd/size 以便慢调用日志输出
+            Object[] args = latency.arguments(opcode, stack);
+            long start = System.nanoTime();
+            dispatch(handler, stack, locals, callStack);
+            latency.record(opcode, System.nanoTime() - start, args, pc);
+        }
+
+        return pc + 1;
+    }
+
+    /**
+     * 调用 handler，并按结果设置或清除全局 errno/errstr。
+     */
+    private static void dispatch(SyscallHandler handler,
+                                 OperandStack stack,
+                                 LocalVariableStore locals,
+                                 CallStack callStack) {
         try {
             handler.handle(stack, locals, callStack);
             // 成功时重置 errno/errstr
@@ -74,7 +98,5 @@ public class SyscallCommand implements Command {
             // 失败时压入 -1（int）并记录错误串
             SyscallUtils.pushErr(stack, e);
         }
-
-        return pc + 1;
     }
 }
@@ -20,129 +20,18 @@ import org.jcnc.snow.vm.engine.SyscallOpCode;
 
 /**
  * SyscallFactory —— 将 SyscallOpCode 映射到具体的 SyscallHandler。
+ * <p>
+ * 处理器在第一次调用对应 syscall 时才创建（其类也在此时加载），
+ * 不使用网络、并发等子系统的程序不会加载这些处理器。
+ * </p>
  */
 public final class SyscallFactory {
 
     /**
-     * 完整的 syscall 表。0x1000 – 0x19FF。
+     * syscall 表，首次使用时填充。0x1000 – 0x19FF。
      */
     private static final SyscallHandler[] SYSCALLS = new SyscallHandler[0x1A00];
 
-    static {
-        // ================= 文件 & FD =================
-        SYSCALLS[SyscallOpCode.OPEN] = new OpenHandler();
-        SYSCALLS[SyscallOpCode.READ] = new ReadHandler();
-        SYSCALLS[SyscallOpCode.WRITE] = new WriteHandler();
-        SYSCALLS[SyscallOpCode.SEEK] = new SeekHandler();
-        SYSCALLS[SyscallOpCode.CLOSE] = new CloseHandler();
-        SYSCALLS[SyscallOpCode.STAT] = new StatHandler();
-        SYSCALLS[SyscallOpCode.FSTAT] = new FstatHandler();
-        SYSCALLS[SyscallOpCode.UNLINK] = new UnlinkHandler();
-        SYSCALLS[SyscallOpCode.DUP] = new DupHandler();
-        SYSCALLS[SyscallOpCode.DUP2] = new Dup2Handler();
-        SYSCALLS[SyscallOpCode.PIPE] = new PipeHandler();
-        SYSCALLS[SyscallOpCode.TRUNCATE] = new TruncateHandler();
-        SYSCALLS[SyscallOpCode.FTRUNCATE] = new FtruncateHandler();
-        SYSCALLS[SyscallOpCode.RENAME] = new RenameHandler();
-        SYSCALLS[SyscallOpCode.LINK] = new LinkHandler();
-        SYSCALLS[SyscallOpCode.SYMLINK] = new SymlinkHandler();
-        SYSCALLS[SyscallOpCode.READLINK] = new ReadlinkHandler();
-        SYSCALLS[SyscallOpCode.SET_NONBLOCK] = new SetNonblockHandler();
-
-        // ================= 目录 & FS =================
-        SYSCALLS[SyscallOpCode.MKDIR] = new MkdirHandler();
-        SYSCALLS[SyscallOpCode.RMDIR] = new RmdirHandler();
-        SYSCALLS[SyscallOpCode.CHDIR] = new ChdirHandler();
-        SYSCALLS[SyscallOpCode.GETCWD] = new GetcwdHandler();
-        SYSCALLS[SyscallOpCode.READDIR] = new ReaddirHandler();
-        SYSCALLS[SyscallOpCode.CHMOD] = new ChmodHandler();
-        SYSCALLS[SyscallOpCode.FCHMOD] = new FchmodHandler();
-        SYSCALLS[SyscallOpCode.UTIME] = new UtimeHandler();
-
-        // ================= 标准 IO =================
-        SYSCALLS[SyscallOpCode.STDIN_READ] = new StdinReadHandler();
-        SYSCALLS[SyscallOpCode.STDOUT_WRITE] = new StdoutWriteHandler();
-        SYSCALLS[SyscallOpCode.STDERR_WRITE] = new StderrWriteHandler();
-
-        // ================= 多路复用 =================
-        SYSCALLS[SyscallOpCode.SELECT] = new SelectHandler();
-        SYSCALLS[SyscallOpCode.EPOLL_CREATE] = new EpollCreateHandler();
-        SYSCALLS[SyscallOpCode.EPOLL_CTL] = new EpollCtlHandler();
-        SYSCALLS[SyscallOpCode.EPOLL_WAIT] = new EpollWaitHandler();
-        SYSCALLS[SyscallOpCode.IO_WAIT] = new IoWaitHandler();
-
-        // ================= 网络 =================
-        SYSCALLS[SyscallOpCode.SOCKET] = new SocketHandler();
-        SYSCALLS[SyscallOpCode.BIND] = new BindHandler();
-        SYSCALLS[SyscallOpCode.LISTEN] = new ListenHandler();
-        SYSCALLS[SyscallOpCode.ACCEPT] = new AcceptHandler();
-        SYSCALLS[SyscallOpCode.CONNECT] = new ConnectHandler();
-        SYSCALLS[SyscallOpCode.SEND] = new SendHandler();
-        SYSCALLS[SyscallOpCode.RECV] = new RecvHandler();
-        SYSCALLS[SyscallOpCode.SENDTO] = new SendToHandler();
-        SYSCALLS[SyscallOpCode.RECVFROM] = new RecvFromHandler();
-        SYSCALLS[SyscallOpCode.SHUTDOWN] = new ShutdownHandler();
-        SYSCALLS[SyscallOpCode.SETSOCKOPT] = new SetSockOptHandler();
-        SYSCALLS[SyscallOpCode.GETSOCKOPT] = new GetSockOptHandler();
-        SYSCALLS[SyscallOpCode.GETPEERNAME] = new GetPeerNameHandler();
-        SYSCALLS[SyscallOpCode.GETSOCKNAME] = new GetSockNameHandler();
-        SYSCALLS[SyscallOpCode.GETADDRINFO] = new GetAddrInfoHandler();
-
-        // ================= 进程 & 线程 =================
-        SYSCALLS[SyscallOpCode.EXIT] = new ExitHandler();
-        SYSCALLS[SyscallOpCode.FORK] = new ForkHandler();
-        SYSCALLS[SyscallOpCode.EXEC] = new ExecHandler();
-        SYSCALLS[SyscallOpCode.WAIT] = new WaitHandler();
-        SYSCALLS[SyscallOpCode.GETPID] = new GetPidHandler();
-        SYSCALLS[SyscallOpCode.GETPPID] = new GetPpidHandler();
-        SYSCALLS[SyscallOpCode.THREAD_CREATE] = new ThreadCreateHandler();
-        SYSCALLS[SyscallOpCode.THREAD_JOIN] = new ThreadJoinHandler();
-        SYSCALLS[SyscallOpCode.SLEEP] = new SleepHandler();
-
-        // ================= 并发原语 =================
-        SYSCALLS[SyscallOpCode.MUTEX_NEW] = new MutexNewHandler();
-        SYSCALLS[SyscallOpCode.MUTEX_LOCK] = new MutexLockHandler();
-        SYSCALLS[SyscallOpCode.MUTEX_TRYLOCK] = new MutexTrylockHandler();
-        SYSCALLS[SyscallOpCode.MUTEX_UNLOCK] = new MutexUnlockHandler();
-        SYSCALLS[SyscallOpCode.COND_NEW] = new CondNewHandler();
-        SYSCALLS[SyscallOpCode.COND_WAIT] = new CondWaitHandler();
-        SYSCALLS[SyscallOpCode.COND_SIGNAL] = new CondSignalHandler();
-        SYSCALLS[SyscallOpCode.COND_BROADCAST] = new CondBroadcastHandler();
-        SYSCALLS[SyscallOpCode.SEM_NEW] = new SemNewHandler();
-        SYSCALLS[SyscallOpCode.SEM_WAIT] = new SemWaitHandler();
-        SYSCALLS[SyscallOpCode.SEM_POST] = new SemPostHandler();
-        SYSCALLS[SyscallOpCode.RWLOCK_NEW] = new RwlockNewHandler();
-        SYSCALLS[SyscallOpCode.RWLOCK_RLOCK] = new RwlockRlockHandler();
-        SYSCALLS[SyscallOpCode.RWLOCK_WLOCK] = new RwlockWlockHandler();
-        SYSCALLS[SyscallOpCode.RWLOCK_UNLOCK] = new RwlockUnlockHandler();
-
-        // ================= 时间 & 计时 =================
-        SYSCALLS[SyscallOpCode.CLOCK_GETTIME] = new ClockGettimeHandler();
-        SYSCALLS[SyscallOpCode.NANOSLEEP] = new NanosleepHandler();
-        SYSCALLS[SyscallOpCode.TIMEOFDAY] = new TimeOfDayHandler();
-        SYSCALLS[SyscallOpCode.TICK_MS] = new TickMsHandler();
-
-        // ================= 数组 =================
-        SYSCALLS[SyscallOpCode.ARR_LEN]    = new ArrLenHandler();
-        SYSCALLS[SyscallOpCode.ARR_GET]    = new ArrGetHandler();
-        SYSCALLS[SyscallOpCode.ARR_SET]    = new ArrSetHandler();
-        SYSCALLS[SyscallOpCode.ARR_PUSH]   = new ArrPushHandler();
-        SYSCALLS[SyscallOpCode.ARR_POP]    = new ArrPopHandler();
-        SYSCALLS[SyscallOpCode.ARR_INSERT] = new ArrInsertHandler();
-        SYSCALLS[SyscallOpCode.ARR_REMOVE] = new ArrRemoveHandler();
-        SYSCALLS[SyscallOpCode.ARR_RESIZE] = new ArrResizeHandler();
-        SYSCALLS[SyscallOpCode.ARR_CLEAR]  = new ArrClearHandler();
-
-        // ================= 系统信息 =================
-        SYSCALLS[SyscallOpCode.GETENV] = new GetEnvHandler();
-        SYSCALLS[SyscallOpCode.SETENV] = new SetEnvHandler();
-        SYSCALLS[SyscallOpCode.NCPU] = new NcpuHandler();
-        SYSCALLS[SyscallOpCode.RANDOM_BYTES] = new RandomBytesHandler();
-        SYSCALLS[SyscallOpCode.ERRSTR] = new ErrStrHandler();
-        SYSCALLS[SyscallOpCode.ERRNO] = new ErrnoHandler();
-        SYSCALLS[SyscallOpCode.MEMINFO] = new MemInfoHandler();
-    }
-
     private SyscallFactory() {
     }
 
@@ -152,8 +41,160 @@ public final class SyscallFactory {
         }
         SyscallHandler handler = SYSCALLS[opcode];
         if (handler == null) {
-            throw new UnsupportedOperationException("Unsupported syscall opcode: " + opcode);
+            // 处理器无实例状态，并发首次调用时重复创建无害
+            handler = create(opcode);
+            if (handler == null) {
+                throw new UnsupportedOperationException("Unsupported syscall opcode: " + opcode);
+            }
+            SYSCALLS[opcode] = handler;
         }
         return handler;
     }
+
+    /**
+     * 创建 syscall 处理器；仅在对应分支执行时解析处理器类。
+     *
+     * @param opcode syscall 编号
+     * @return 新的处理器；未分配的编号返回 null
+     */
+    private static SyscallHandler create(int opcode) {
+        return switch (opcode) {
+            // ================= 文件 & FD =================
+            case SyscallOpCode.OPEN -> new OpenHandler();
+            case SyscallOpCode.READ -> new ReadHandler();
+            case SyscallOpCode.WRITE -> new WriteHandler();
+            case SyscallOpCode.SEEK -> new SeekHandler();
+            case SyscallOpCode.CLOSE -> new CloseHandler();
+            case SyscallOpCode.STAT -> new StatHandler();
+            case SyscallOpCode.FSTAT -> new FstatHandler();
+            case SyscallOpCode.UNLINK -> new UnlinkHandler();
+            case SyscallOpCode.DUP -> new DupHandler();
+            case SyscallOpCode.DUP2 -> new Dup2Handler();
+            case SyscallOpCode.PIPE -> new PipeHandler();
+            case SyscallOpCode.TRUNCATE -> new TruncateHandler();
+            case SyscallOpCode.FTRUNCATE -> new FtruncateHandler();
+            case SyscallOpCode.RENAME -> new RenameHandler();
+            case SyscallOpCode.LINK -> new LinkHandler();
+            case SyscallOpCode.SYMLINK -> new SymlinkHandler();
+            case SyscallOpCode.READLINK -> new ReadlinkHandler();
+            case SyscallOpCode.SET_NONBLOCK -> new SetNonblockHandler();
+
+            // ================= 目录 & FS =================
+            case SyscallOpCode.MKDIR -> new MkdirHandler();
+            case SyscallOpCode.RMDIR -> new RmdirHandler();
+            case SyscallOpCode.CHDIR -> new ChdirHandler();
+            case SyscallOpCode.GETCWD -> new GetcwdHandler();
+            case SyscallOpCode.READDIR -> new ReaddirHandler();
+            case SyscallOpCode.CHMOD -> new ChmodHandler();
+            case SyscallOpCode.FCHMOD -> new FchmodHandler();
+            case SyscallOpCode.UTIME -> new UtimeHandler();
+
+            // ================= 标准 IO =================
+            case SyscallOpCode.STDIN_READ -> new StdinReadHandler();
+            case SyscallOpCode.STDOUT_WRITE -> new StdoutWriteHandler();
+            case SyscallOpCode.STDERR_WRITE -> new StderrWriteHandler();
+
+            // ================= 多路复用 =================
+            case SyscallOpCode.SELECT -> new SelectHandler();
+            case SyscallOpCode.EPOLL_CREATE -> new EpollCreateHandler();
+            case SyscallOpCode.EPOLL_CTL -> new EpollCtlHandler();
+            case SyscallOpCode.EPOLL_WAIT -> new EpollWaitHandler();
+            case SyscallOpCode.IO_WAIT -> new IoWaitHandler();
+
+            // ================= 网络 =================
+            case SyscallOpCode.SOCKET -> new SocketHandler();
+            case SyscallOpCode.BIND -> new BindHandler();
+            case SyscallOpCode.LISTEN -> new ListenHandler();
+            case SyscallOpCode.ACCEPT -> new AcceptHandler();
+            case SyscallOpCode.CONNECT -> new ConnectHandler();
+            case SyscallOpCode.SEND -> new SendHandler();
+            case SyscallOpCode.RECV -> new RecvHandler();
+            case SyscallOpCode.SENDTO -> new SendToHandler();
+            case SyscallOpCode.RECVFROM -> new RecvFromHandler();
+            case SyscallOpCode.SHUTDOWN -> new ShutdownHandler();
+            case SyscallOpCode.SETSOCKOPT -> new SetSockOptHandler();
+            case SyscallOpCode.GETSOCKOPT -> new GetSockOptHandler();
+            case SyscallOpCode.GETPEERNAME -> new GetPeerNameHandler();
+            case SyscallOpCode.GETSOCKNAME -> new GetSockNameHandler();
+            case SyscallOpCode.GETADDRINFO -> new GetAddrInfoHandler();
+            case SyscallOpCode.SERVE -> new ServeHandler();
+            case SyscallOpCode.SERVE_STOP -> new ServeStopHandler();
+
+            // ================= 进程 & 线程 =================
+            case SyscallOpCode.EXIT -> new ExitHandler();
+            case SyscallOpCode.FORK -> new ForkHandler();
+            case SyscallOpCode.EXEC -> new ExecHandler();
+            case SyscallOpCode.WAIT -> new WaitHandler();
+            case SyscallOpCode.GETPID -> new GetPidHandler();
+            case SyscallOpCode.GETPPID -> new GetPpidHandler();
+            case SyscallOpCode.THREAD_CREATE -> new ThreadCreateHandler();
+            case SyscallOpCode.THREAD_JOIN -> new ThreadJoinHandler();
+            case SyscallOpCode.SLEEP -> new SleepHandler();
+            case SyscallOpCode.PARALLEL_FOR -> new ParallelForHandler();
+            case SyscallOpCode.PARALLEL_MAP -> new ParallelMapHandler();
+            case SyscallOpCode.PARALLEL_THREADS -> new ParallelThreadsHandler();
+            case SyscallOpCode.TASK_SPAWN -> new TaskSpawnHandler();
+            case SyscallOpCode.TASK_JOIN -> new TaskJoinHandler();
+
+            // ================= 并发原语 =================
+            case SyscallOpCode.MUTEX_NEW -> new MutexNewHandler();
+            case SyscallOpCode.MUTEX_LOCK -> new MutexLockHandler();
+            case SyscallOpCode.MUTEX_TRYLOCK -> new MutexTrylockHandler();
+            case SyscallOpCode.MUTEX_UNLOCK -> new MutexUnlockHandler();
+            case SyscallOpCode.COND_NEW -> new CondNewHandler();
+            case SyscallOpCode.COND_WAIT -> new CondWaitHandler();
+            case SyscallOpCode.COND_SIGNAL -> new CondSignalHandler();
+            case SyscallOpCode.COND_BROADCAST -> new CondBroadcastHandler();
+            case SyscallOpCode.SEM_NEW -> new SemNewHandler();
+            case SyscallOpCode.SEM_WAIT -> new SemWaitHandler();
+            case SyscallOpCode.SEM_POST -> new SemPostHandler();
+            case SyscallOpCode.RWLOCK_NEW -> new RwlockNewHandler();
+            case SyscallOpCode.RWLOCK_RLOCK -> new RwlockRlockHandler();
+            case SyscallOpCode.RWLOCK_WLOCK -> new RwlockWlockHandler();
+            case SyscallOpCode.RWLOCK_UNLOCK -> new RwlockUnlockHandler();
+            case SyscallOpCode.ATOMIC_NEW -> new AtomicNewHandler();
+            case SyscallOpCode.ATOMIC_GET -> new AtomicGetHandler();
+            case SyscallOpCode.ATOMIC_SET -> new AtomicSetHandler();
+            case SyscallOpCode.ATOMIC_ADD -> new AtomicAddHandler();
+            case SyscallOpCode.ATOMIC_CAS -> new AtomicCasHandler();
+            case SyscallOpCode.ATOMIC_XCHG -> new AtomicXchgHandler();
+            case SyscallOpCode.CHAN_NEW -> new ChanNewHandler();
+            case SyscallOpCode.CHAN_SEND -> new ChanSendHandler();
+            case SyscallOpCode.CHAN_RECV -> new ChanRecvHandler();
+            case SyscallOpCode.CHAN_TRY_SEND -> new ChanTrySendHandler();
+            case SyscallOpCode.CHAN_TRY_RECV -> new ChanTryRecvHandler();
+            case SyscallOpCode.CHAN_SEND_TIMED -> new ChanSendTimedHandler();
+            case SyscallOpCode.CHAN_RECV_TIMED -> new ChanRecvTimedHandler();
+            case SyscallOpCode.CHAN_CLOSE -> new ChanCloseHandler();
+            case SyscallOpCode.CHAN_LEN -> new ChanLenHandler();
+
+            // ================= 时间 & 计时 =================
+            case SyscallOpCode.CLOCK_GETTIME -> new ClockGettimeHandler();
+            case SyscallOpCode.NANOSLEEP -> new NanosleepHandler();
+            case SyscallOpCode.TIMEOFDAY -> new TimeOfDayHandler();
+            case SyscallOpCode.TICK_MS -> new TickMsHandler();
+
+            // ================= 数组 =================
+            case SyscallOpCode.ARR_LEN -> new ArrLenHandler();
+            case SyscallOpCode.ARR_GET -> new ArrGetHandler();
+            case SyscallOpCode.ARR_SET -> new ArrSetHandler();
+            case SyscallOpCode.ARR_PUSH -> new ArrPushHandler();
+            case SyscallOpCode.ARR_POP -> new ArrPopHandler();
+            case SyscallOpCode.ARR_INSERT -> new ArrInsertHandler();
+            case SyscallOpCode.ARR_REMOVE -> new ArrRemoveHandler();
+            case SyscallOpCode.ARR_RESIZE -> new ArrResizeHandler();
+            case SyscallOpCode.ARR_CLEAR -> new ArrClearHandler();
+
+            // ================= 系统信息 =================
+            case SyscallOpCode.GETENV -> new GetEnvHandler();
+            case SyscallOpCode.SETENV -> new SetEnvHandler();
+            case SyscallOpCode.NCPU -> new NcpuHandler();
+            case SyscallOpCode.RANDOM_BYTES -> new RandomBytesHandler();
+            case SyscallOpCode.ERRSTR -> new ErrStrHandler();
+            case SyscallOpCode.ERRNO -> new ErrnoHandler();
+            case SyscallOpCode.MEMINFO -> new MemInfoHandler();
+            case SyscallOpCode.METRICS -> new MetricsHandler();
+            default -> null;
+        };
+    }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package org.jcnc.snow.vm.commands.system.control.console;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * {@code StderrWriteHandler} 实现 STDERR_WRITE (0x1202) 系统调用，
  * 用于向标准错误输出（stderr）写入字符串。
@@ -48,6 +51,9 @@ public class StderrWriteHandler implements SyscallHandler {
         }
         // 确保立即刷新
         System.err.flush();
+        if (VMMetrics.isEnabled()) {
+            VMMetrics.written(VMMetrics.FdClass.STDIO, String.valueOf(dataObj).getBytes(StandardCharsets.UTF_8).length);
+        }
 
         // 向栈压入 0，保持栈平衡
         stack.push(0);
@@ -1,6 +1,8 @@
 package org.jcnc.snow.vm.commands.system.control.console;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.StdinPump;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -30,7 +32,7 @@ public class StdinReadHandler implements SyscallHandler {
      * 用于读取标准输入的缓冲流
      */
     private static final BufferedReader READER =
-            new BufferedReader(new InputStreamReader(System.in));
+            new BufferedReader(new InputStreamReader(StdinPump.inputStream()));
 
     /**
      * 处理系统调用 STDIN_READ 的具体实现。
@@ -51,6 +53,8 @@ public class StdinReadHandler implements SyscallHandler {
         // 若 EOF 或发生异常，压入空字符串
         if (line == null) {
             line = "";
+        } else if (VMMetrics.isEnabled()) {
+            VMMetrics.read(VMMetrics.FdClass.STDIO, line.length() + 1L); // 含换行，按字符计
         }
 
         // 将结果压入栈顶
@@ -1,6 +1,7 @@
 package org.jcnc.snow.vm.commands.system.control.console;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -60,6 +61,7 @@ public class StdoutWriteHandler implements SyscallHandler {
         // 3. 写入 System.out
         System.out.write(data);
         System.out.flush();
+        if (VMMetrics.isEnabled()) VMMetrics.written(VMMetrics.FdClass.STDIO, data.length);
 
         // 4. 返回实际写入字节数
         stack.push(data.length);
@@ -2,6 +2,7 @@ package org.jcnc.snow.vm.commands.system.control.fd;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.FDTable;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -62,6 +63,7 @@ public class ReadHandler implements SyscallHandler {
 
         ByteBuffer buffer = ByteBuffer.allocate(size);
         int bytesRead = rch.read(buffer);
+        if (VMMetrics.isEnabled()) VMMetrics.read(VMMetrics.classify(fd, ch), bytesRead);
         if (bytesRead <= 0) {
             stack.push(new byte[0]);
             return;
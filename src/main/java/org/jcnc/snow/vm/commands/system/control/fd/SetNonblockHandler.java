@@ -1,5 +1,6 @@
 package org.jcnc.snow.vm.commands.system.control.fd;
 
+import org.jcnc.snow.vm.commands.system.control.multiplex.utils.SelectorUtils;
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.FDTable;
 import org.jcnc.snow.vm.module.CallStack;
@@ -63,7 +64,7 @@ public class SetNonblockHandler implements SyscallHandler {
 
         // 如果支持 SelectableChannel，设置阻塞/非阻塞模式
         if (ch instanceof SelectableChannel selectable) {
-            selectable.configureBlocking(on == 0); // on=1 → 非阻塞，所以 blocking=false
+            SelectorUtils.setBlocking(selectable, on == 0); // on=1 → 非阻塞，所以 blocking=false
         }
 
         // 成功返回 0
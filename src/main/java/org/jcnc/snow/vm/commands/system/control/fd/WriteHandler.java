@@ -2,6 +2,7 @@ package org.jcnc.snow.vm.commands.system.control.fd;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.FDTable;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -77,6 +78,7 @@ public class WriteHandler implements SyscallHandler {
         // 4. 执行写入
         ByteBuffer buffer = ByteBuffer.wrap(data);
         int written = wch.write(buffer);
+        if (VMMetrics.isEnabled()) VMMetrics.written(VMMetrics.classify(fd, ch), written);
 
         // 5. 将写入字节数压回栈
         stack.push(written);
@@ -1,6 +1,7 @@
 package org.jcnc.snow.vm.commands.system.control.multiplex;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
 import org.jcnc.snow.vm.io.EpollInstance;
 import org.jcnc.snow.vm.io.EpollRegistry;
 import org.jcnc.snow.vm.io.FDTable;
@@ -28,7 +29,7 @@ import java.nio.channels.SelectableChannel;
  *   <li>{@code op=3 (DEL)} — 移除 fd 的监控</li>
  * </ul>
  * 支持标准流 fd=0/1/2 伪通道（stdin/stdout/stderr）。
- * 其它 fd 要求为 {@link SelectableChannel}。
+ * 其它 fd 要求为 {@link SelectableChannel} 或通道 fd（{@link BoundedChannel}，READ=可接收，WRITE=可发送）。
  * 事件掩码：1=READ，2=WRITE，4=CONNECT。
  * </p>
  *
@@ -84,7 +85,7 @@ public class EpollCtlHandler implements SyscallHandler {
 
         // 其它 fd 还是用 SelectableChannel
         Channel ch = FDTable.get(fd);
-        if (!(ch instanceof SelectableChannel)) {
+        if (!(ch instanceof SelectableChannel) && !(ch instanceof BoundedChannel)) {
             throw new IllegalArgumentException("epoll_ctl: fd " + fd + " is not a selectable channel and not a pseudo-fd");
         }
 
@@ -26,7 +26,7 @@ import java.util.*;
  * 阻塞或超时等待 epoll 实例中已注册 fd 的 I/O 事件，最多返回 {@code max} 个活跃事件。
  * 支持伪 fd（fd=0/1/2）检测：
  * <ul>
- *   <li>fd=0（stdin）：可读事件由 {@code System.in.available()} 判断</li>
+ *   <li>fd=0（stdin）：可读事件由注册在同一 Selector 上的 {@link org.jcnc.snow.vm.io.StdinPump} 信号管道报告</li>
  *   <li>fd=1/2（stdout/stderr）：写事件始终就绪</li>
  * </ul>
  * 其它 fd 采用 Java NIO {@link Selector} 检查就绪状态。
@@ -64,65 +64,50 @@ public class EpollWaitHandler implements SyscallHandler {
         EpollInstance instance = EpollRegistry.get(epfd);
         Selector selector = instance.getSelector();
 
-        // 1. 检查 fd（标准流）就绪情况
+        // 1. stdout/stderr 始终可写；stdin 与其它 fd 一样由 Selector 中的信号管道报告
         Map<Integer, Integer> pseudoFds = instance.getPseudoFds();
         List<Map<String, Object>> ready = new ArrayList<>();
-        long deadline = (timeoutMs < 0) ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMs;
-        boolean found = false;
-
-        do {
-            for (var entry : pseudoFds.entrySet()) {
-                int fd = entry.getKey();
-                int events = entry.getValue();
-                // 1 = READ, 2 = WRITE
-                try {
-                    if (fd == 0 && (events & 1) != 0) { // stdin 可读
-                        if (System.in.available() > 0) {
-                            ready.add(Map.of("fd", 0, "events", 1));
-                        }
-                    }
-                    if ((fd == 1 || fd == 2) && (events & 2) != 0) { // stdout/stderr 可写
-                        ready.add(Map.of("fd", fd, "events", 2));
-                    }
-                } catch (IOException ignored) {
-                }
-                if (ready.size() >= max) break;
-            }
-            if (!ready.isEmpty() || timeoutMs == 0) {
-                break;
+        for (var entry : pseudoFds.entrySet()) {
+            int fd = entry.getKey();
+            int events = entry.getValue();
+            if ((fd == 1 || fd == 2) && (events & 2) != 0 && ready.size() < max) { // stdout/stderr 可写
+                ready.add(Map.of("fd", fd, "events", 2));
             }
-            if (System.currentTimeMillis() >= deadline) break;
-            Thread.sleep(10);
-        } while (!found);
-
-        // 如果已就绪（或者 max 满了），直接返回
-        if (!ready.isEmpty()) {
-            stack.push(ready.size() > max ? ready.subList(0, max) : ready);
-            return;
         }
 
-        // 2. Selector 检查其它 fd
-        int n = SelectorUtils.selectWithTimeout(selector, timeoutMs);
+        // 2. Selector 检查其它 fd；已有就绪项时只做一次非阻塞检查
+        int n = (ready.size() >= max) ? 0
+                : SelectorUtils.selectWithTimeout(selector, ready.isEmpty() ? timeoutMs : 0);
 
         if (n > 0) {
+            // 通道 fd 的可接收/可发送信号来自两个 key，按 fd 合并
+            Map<Integer, Integer> merged = new LinkedHashMap<>();
             Set<SelectionKey> keys = selector.selectedKeys();
             Iterator<SelectionKey> it = keys.iterator();
-            while (it.hasNext() && ready.size() < max) {
+            while (it.hasNext()) {
                 SelectionKey key = it.next();
-                it.remove();
 
-                if (!key.isValid()) continue;
+                Integer fd = instance.fdOf(key.channel());
+                if (fd == null || !key.isValid()) {
+                    it.remove();
+                    continue;
+                }
+                if (!merged.containsKey(fd) && ready.size() + merged.size() >= max) {
+                    continue; // 已达 max：其余 fd 留待下次返回
+                }
+                it.remove();
 
                 int ev = 0;
-                if (key.isReadable() || key.isAcceptable()) ev |= 1;
-                if (key.isWritable()) ev |= 2;
-                if (key.isConnectable()) ev |= 4;
-
-                Integer fd = instance.fdOf(key.channel());
-                if (fd != null) {
-                    ready.add(Map.of("fd", fd, "events", ev));
+                if (instance.isWriteSignal(key.channel())) {
+                    if (key.isReadable()) ev |= 2;
+                } else {
+                    if (key.isReadable() || key.isAcceptable()) ev |= 1;
+                    if (key.isWritable()) ev |= 2;
+                    if (key.isConnectable()) ev |= 4;
                 }
+                merged.merge(fd, ev, (a, b) -> a | b);
             }
+            merged.forEach((fd, ev) -> ready.add(Map.of("fd", fd, "events", ev)));
         }
         stack.push(ready);
     }
@@ -2,12 +2,13 @@ package org.jcnc.snow.vm.commands.system.control.multiplex;
 
 import org.jcnc.snow.vm.commands.system.control.multiplex.utils.SelectorUtils;
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
 import org.jcnc.snow.vm.io.FDTable;
+import org.jcnc.snow.vm.io.StdinPump;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
 
-import java.io.IOException;
 import java.nio.channels.Channel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
@@ -26,13 +27,16 @@ import java.util.*;
  * 对指定的 fd 集合等待 I/O 事件直到超时，返回就绪的 (fd, events) 列表。
  * 事件位定义：READ=1、WRITE=2、CONNECT=4。
  * <ul>
- *   <li>对 {@link SelectableChannel}，通过 Java NIO {@link Selector} 监听对应事件。</li>
+ *   <li>对 {@link SelectableChannel}，通过线程缓存的 Java NIO {@link Selector} 监听对应事件，
+ *       注册关系在多次调用间复用。</li>
  *   <li>标准输入/输出/错误（fd=0/1/2）兼容处理：
  *     <ul>
- *       <li>fd=0 (stdin) 监听 READ，通过 {@link System#in#available()} 检查可读</li>
+ *       <li>fd=0 (stdin) 监听 READ，通过 {@link StdinPump#readySource()} 信号管道与其它通道一起阻塞等待</li>
  *       <li>fd=1/2 (stdout/stderr) 监听 WRITE，视为始终可写</li>
  *     </ul>
  *   </li>
+ *   <li>通道 fd（CHAN_NEW）：READ 监听 {@link BoundedChannel#readReady()}，
+ *       WRITE 监听 {@link BoundedChannel#writeReady()}，同一 fd 的两类就绪合并为一项返回</li>
  * </ul>
  * </p>
  *
@@ -50,16 +54,6 @@ import java.util.*;
  */
 public class IoWaitHandler implements SyscallHandler {
 
-    private static boolean waitStdinReadable(int timeoutMs) throws IOException, InterruptedException {
-        if (timeoutMs == 0) return System.in.available() > 0;
-        long deadline = (timeoutMs < 0) ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMs;
-        while (System.currentTimeMillis() < deadline) {
-            if (System.in.available() > 0) return true;
-            Thread.sleep(10); // 10ms 轮询
-        }
-        return false;
-    }
-
     @Override
     public void handle(OperandStack stack,
                        LocalVariableStore locals,
@@ -73,9 +67,11 @@ public class IoWaitHandler implements SyscallHandler {
             throw new IllegalArgumentException("IO_WAIT: fds 必须是数组类型");
         }
 
-        // 1. 处理不可选择通道（fd 0/1/2），收集需要注册到 Selector 的条目
+        // 1. 解析参数：stdout/stderr 直接就绪，其余通道（含 stdin 信号源）注册到线程缓存的 Selector
         List<Map<String, Object>> result = new ArrayList<>();
-        List<Map.Entry<Integer, Integer>> toRegister = new ArrayList<>(); // (fd, interestOps)
+        Selector selector = SelectorUtils.threadSelector();
+        Map<SelectionKey, Integer> keyToFd = new HashMap<>();
+        Set<SelectionKey> writeSignals = new HashSet<>();
 
         for (Object obj : fdsList) {
             int fd;
@@ -97,16 +93,24 @@ public class IoWaitHandler implements SyscallHandler {
             }
 
             Channel ch = FDTable.get(fd);
-            if (!(ch instanceof SelectableChannel)) {
-                int readyEv = 0;
+            if (ch instanceof BoundedChannel q) {
+                // 通道：两条信号管道均以 OP_READ 监听，写就绪信号在结果中映射为 WRITE
+                if ((events & 1) != 0) {
+                    keyToFd.put(SelectorUtils.arm(selector, q.readReady(), SelectionKey.OP_READ), fd);
+                }
+                if ((events & 2) != 0) {
+                    SelectionKey k = SelectorUtils.arm(selector, q.writeReady(), SelectionKey.OP_READ);
+                    keyToFd.put(k, fd);
+                    writeSignals.add(k);
+                }
+                continue;
+            }
+            if (!(ch instanceof SelectableChannel sc)) {
                 if (fd == 0 && (events & 1) != 0) {
-                    if (waitStdinReadable(timeoutMs)) readyEv |= 1;
+                    keyToFd.put(SelectorUtils.arm(selector, StdinPump.readySource(), SelectionKey.OP_READ), fd);
                 }
                 if ((fd == 1 || fd == 2) && (events & 2) != 0) {
-                    readyEv |= 2;
-                }
-                if (readyEv != 0) {
-                    result.add(Map.of("fd", fd, "events", readyEv));
+                    result.add(Map.of("fd", fd, "events", 2));
                 }
                 continue;
             }
@@ -116,48 +120,40 @@ public class IoWaitHandler implements SyscallHandler {
             if ((events & 1) != 0) ops |= SelectionKey.OP_READ | SelectionKey.OP_ACCEPT;
             if ((events & 2) != 0) ops |= SelectionKey.OP_WRITE;
             if ((events & 4) != 0) ops |= SelectionKey.OP_CONNECT;
-            toRegister.add(new AbstractMap.SimpleEntry<>(fd, ops));
+            keyToFd.put(SelectorUtils.arm(selector, sc, ops), fd);
         }
 
-        // 没有需要注册的通道，直接返回
-        if (toRegister.isEmpty()) {
+        // 没有需要等待的通道，直接返回
+        if (keyToFd.isEmpty()) {
             stack.push(result);
             return;
         }
 
-        // 2. 使用 Selector 监听剩余通道
-        try (Selector selector = Selector.open()) {
-            Map<SelectionKey, Integer> keyToFd = new HashMap<>();
-
-            for (Map.Entry<Integer, Integer> e : toRegister) {
-                int fd = e.getKey();
-                int ops = e.getValue();
-                Channel ch = FDTable.get(fd);
-
-                SelectableChannel sc = (SelectableChannel) ch;
-                sc.configureBlocking(false);
-                SelectionKey key = sc.register(selector, ops);
-                keyToFd.put(key, fd);
-            }
-
-            int n = SelectorUtils.selectWithTimeout(selector, timeoutMs);
+        // 2. 在内核中阻塞等待；已有就绪项时只做一次非阻塞检查
+        SelectorUtils.disarmOthers(selector, keyToFd.keySet());
+        int n = SelectorUtils.selectWithTimeout(selector, result.isEmpty() ? timeoutMs : 0);
 
-            if (n > 0) {
-                for (SelectionKey key : selector.selectedKeys()) {
-                    Integer fd = keyToFd.get(key);
-                    if (fd == null) continue;
+        if (n > 0) {
+            Map<Integer, Integer> ready = new LinkedHashMap<>();
+            for (SelectionKey key : selector.selectedKeys()) {
+                Integer fd = keyToFd.get(key);
+                if (fd == null || !key.isValid()) continue;
 
-                    int ev = 0;
+                int ev = 0;
+                if (writeSignals.contains(key)) {
+                    if (key.isReadable()) ev |= 2;
+                } else {
                     if (key.isReadable() || key.isAcceptable()) ev |= 1;
                     if (key.isWritable()) ev |= 2;
                     if (key.isConnectable()) ev |= 4;
+                }
 
-                    if (ev != 0) {
-                        result.add(Map.of("fd", fd, "events", ev));
-                    }
+                if (ev != 0) {
+                    ready.merge(fd, ev, (a, b) -> a | b);
                 }
-                selector.selectedKeys().clear();
             }
+            selector.selectedKeys().clear();
+            ready.forEach((fd, ev) -> result.add(Map.of("fd", fd, "events", ev)));
         }
 
         stack.push(result);
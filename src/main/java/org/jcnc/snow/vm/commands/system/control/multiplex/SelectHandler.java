@@ -1,7 +1,10 @@
 package org.jcnc.snow.vm.commands.system.control.multiplex;
 
+import org.jcnc.snow.vm.commands.system.control.multiplex.utils.SelectorUtils;
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
 import org.jcnc.snow.vm.io.FDTable;
+import org.jcnc.snow.vm.io.StdinPump;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -12,7 +15,7 @@ import java.util.*;
 
 /**
  * {@code SelectHandler} 实现 SELECT (0x1300) 系统调用，
- * 基于 Java NIO {@link Selector} 实现 I/O 多路复用，兼容标准流 fd=0/1/2。
+ * 基于线程缓存的 Java NIO {@link Selector} 实现 I/O 多路复用，兼容标准流 fd=0/1/2。
  *
  * <p><b>Stack：</b>
  * 入参 {@code (readSet: List<int>, writeSet: List<int>, exceptSet: List<int>, timeout_ms:int)} →
@@ -25,10 +28,11 @@ import java.util.*;
  *   <li>支持 {@link SelectableChannel}（SocketChannel、ServerSocketChannel、DatagramChannel 等）</li>
  *   <li>兼容标准流：
  *     <ul>
- *       <li>fd=0 (stdin)：支持 READ，采用 {@link System#in} 可用性轮询</li>
+ *       <li>fd=0 (stdin)：支持 READ，通过 {@link StdinPump#readySource()} 信号管道阻塞等待</li>
  *       <li>fd=1/2 (stdout/stderr)：支持 WRITE，视为始终可写</li>
  *     </ul>
  *   </li>
+ *   <li>通道 fd（CHAN_NEW）：readSet 表示可接收，writeSet 表示可发送，均通过通道的就绪信号管道等待</li>
  *   <li>{@code readSet} → {@link SelectionKey#OP_READ} / {@link SelectionKey#OP_ACCEPT}</li>
  *   <li>{@code writeSet} → {@link SelectionKey#OP_WRITE}</li>
  *   <li>{@code exceptSet} → {@link SelectionKey#OP_CONNECT}</li>
@@ -50,18 +54,6 @@ import java.util.*;
  */
 public class SelectHandler implements SyscallHandler {
 
-    private static boolean waitStdinReadable(int timeoutMs)
-            throws InterruptedException, IOException {
-        if (timeoutMs == 0) return System.in.available() > 0;
-        long deadline = (timeoutMs < 0) ? Long.MAX_VALUE
-                : System.currentTimeMillis() + timeoutMs;
-        while (System.currentTimeMillis() < deadline) {
-            if (System.in.available() > 0) return true;
-            Thread.sleep(10);          // 10 ms 轮询
-        }
-        return false;
-    }
-
     private static void pushResult(OperandStack stack,
                                    List<Integer> r, List<Integer> w, List<Integer> e) {
         Map<String, Object> ready = new HashMap<>();
@@ -118,7 +110,11 @@ public class SelectHandler implements SyscallHandler {
         final List<Integer> readyWrite = new ArrayList<>();
         final List<Integer> readyExcept = new ArrayList<>();
 
-        // 1. 处理不可选择通道 (fd0/1/2)
+        // 1. 处理不可选择通道 (fd0/1/2)：stdout/stderr 直接可写，stdin 改为监听就绪信号管道
+        final Selector selector = SelectorUtils.threadSelector();
+        final Map<SelectionKey, Integer> key2fd = new HashMap<>();
+        final Set<SelectionKey> writeSignals = new HashSet<>();
+
         for (Iterator<Map.Entry<Integer, Integer>> it = fdOps.entrySet().iterator(); it.hasNext(); ) {
             Map.Entry<Integer, Integer> e = it.next();
             int fd = e.getKey();
@@ -127,8 +123,22 @@ public class SelectHandler implements SyscallHandler {
 
             if (ch == null || ch instanceof SelectableChannel) continue;
 
+            if (ch instanceof BoundedChannel q) {
+                // 通道：可接收/可发送两条信号管道均以 OP_READ 监听
+                if ((ops & SelectionKey.OP_READ) != 0) {
+                    key2fd.put(SelectorUtils.arm(selector, q.readReady(), SelectionKey.OP_READ), fd);
+                }
+                if ((ops & SelectionKey.OP_WRITE) != 0) {
+                    SelectionKey k = SelectorUtils.arm(selector, q.writeReady(), SelectionKey.OP_READ);
+                    key2fd.put(k, fd);
+                    writeSignals.add(k);
+                }
+                it.remove();
+                continue;
+            }
+
             if (fd == 0 && (ops & SelectionKey.OP_READ) != 0) {
-                if (waitStdinReadable(timeoutMs)) readyRead.add(fd);
+                key2fd.put(SelectorUtils.arm(selector, StdinPump.readySource(), SelectionKey.OP_READ), fd);
             }
             if ((fd == 1 || fd == 2) && (ops & SelectionKey.OP_WRITE) != 0) {
                 readyWrite.add(fd);
@@ -136,52 +146,45 @@ public class SelectHandler implements SyscallHandler {
             it.remove();
         }
 
-        if (fdOps.isEmpty()) {
+        // 2. 剩余可选择通道注册到线程缓存的 Selector（注册关系跨调用复用）
+        final int validOps = SelectionKey.OP_READ | SelectionKey.OP_WRITE |
+                SelectionKey.OP_CONNECT | SelectionKey.OP_ACCEPT;
+
+        for (Map.Entry<Integer, Integer> e : fdOps.entrySet()) {
+            int fd = e.getKey();
+            int ops = e.getValue();
+            Channel ch = FDTable.get(fd);
+
+            if (!(ch instanceof SelectableChannel sc)) continue;
+            int interest = (ops & validOps);
+            if ((interest & SelectionKey.OP_READ) != 0 && sc instanceof ServerSocketChannel)
+                interest = (interest & ~SelectionKey.OP_READ) | SelectionKey.OP_ACCEPT;
+
+            key2fd.put(SelectorUtils.arm(selector, sc, interest), fd);
+        }
+
+        if (key2fd.isEmpty()) {
             pushResult(stack, readyRead, readyWrite, readyExcept);
             return;
         }
 
-        // 2. 剩余可选择通道交给 Selector
-        Selector selector = Selector.open();
-        try {
-            final Map<SelectableChannel, Integer> ch2fd = new HashMap<>();
-            final int validOps = SelectionKey.OP_READ | SelectionKey.OP_WRITE |
-                    SelectionKey.OP_CONNECT | SelectionKey.OP_ACCEPT;
-
-            for (Map.Entry<Integer, Integer> e : fdOps.entrySet()) {
-                int fd = e.getKey();
-                int ops = e.getValue();
-                Channel ch = FDTable.get(fd);
-
-                if (!(ch instanceof SelectableChannel sc)) continue;
-                int interest = (ops & validOps);
-                if ((interest & SelectionKey.OP_READ) != 0 && sc instanceof ServerSocketChannel)
-                    interest = (interest & ~SelectionKey.OP_READ) | SelectionKey.OP_ACCEPT;
-
-                sc.configureBlocking(false);
-                SelectionKey key = sc.keyFor(selector);
-                if (key == null) sc.register(selector, interest);
-                else key.interestOps(key.interestOps() | interest);
-                ch2fd.put(sc, fd);
-            }
-
-            int selected = (timeoutMs < 0) ? selector.select()
-                    : (timeoutMs == 0) ? selector.selectNow()
-                    : selector.select(timeoutMs);
-
-            if (selected > 0) {
-                for (SelectionKey k : selector.selectedKeys()) {
-                    if (!k.isValid()) continue;
-                    int fd = ch2fd.get(k.channel());
-                    if (k.isAcceptable() || k.isReadable()) readyRead.add(fd);
-                    if (k.isWritable()) readyWrite.add(fd);
-                    if (k.isConnectable()) readyExcept.add(fd);
+        // 3. 在内核中阻塞等待；已有就绪项时只做一次非阻塞检查
+        SelectorUtils.disarmOthers(selector, key2fd.keySet());
+        int selected = SelectorUtils.selectWithTimeout(selector, readyWrite.isEmpty() ? timeoutMs : 0);
+
+        if (selected > 0) {
+            for (SelectionKey k : selector.selectedKeys()) {
+                Integer fd = key2fd.get(k);
+                if (fd == null || !k.isValid()) continue;
+                if (writeSignals.contains(k)) {
+                    if (k.isReadable()) readyWrite.add(fd);
+                    continue;
                 }
-                selector.selectedKeys().clear();
+                if (k.isAcceptable() || k.isReadable()) readyRead.add(fd);
+                if (k.isWritable()) readyWrite.add(fd);
+                if (k.isConnectable()) readyExcept.add(fd);
             }
-        } finally {
-            selector.keys().forEach(SelectionKey::cancel);
-            selector.close();
+            selector.selectedKeys().clear();
         }
 
         // 返回结果
@@ -1,7 +1,12 @@
 package org.jcnc.snow.vm.commands.system.control.multiplex.utils;
 
 import java.io.IOException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
  * {@code SelectorUtils} 提供 {@link Selector} 的辅助方法，
@@ -29,6 +34,13 @@ import java.nio.channels.Selector;
  * 返回就绪的 channel 数量。若无就绪事件，则可能返回 0。
  * </p>
  *
+ * <p><b>线程缓存：</b>
+ * IO_WAIT / SELECT 不再每次调用都新建并关闭 {@link Selector}，
+ * 而是复用 {@link #threadSelector()} 返回的线程私有 Selector。
+ * 通道注册在多次调用间保留，本次未关注的 key 通过 {@link #disarmOthers} 将兴趣集置 0。
+ * 通道可能注册在多个线程的 Selector 上，切回阻塞模式前需经 {@link #setBlocking} 全部注销。
+ * </p>
+ *
  * <p><b>异常：</b>
  * <ul>
  *   <li>I/O 错误时抛出 {@link IOException}</li>
@@ -37,6 +49,129 @@ import java.nio.channels.Selector;
  */
 public class SelectorUtils {
 
+    /**
+     * 线程私有的持久 Selector 缓存
+     */
+    private static final ThreadLocal<Selector> THREAD_SELECTOR = new ThreadLocal<>();
+
+    /**
+     * 全部线程缓存的 Selector（弱引用，线程未关闭其 Selector 即退出时不阻止回收）
+     */
+    private static final Set<Selector> ALL_SELECTORS =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * 返回当前线程缓存的 {@link Selector}，不存在或已关闭时新建。
+     *
+     * @return 线程私有 Selector
+     * @throws IOException 打开 Selector 失败
+     */
+    public static Selector threadSelector() throws IOException {
+        Selector selector = THREAD_SELECTOR.get();
+        if (selector == null || !selector.isOpen()) {
+            selector = Selector.open();
+            THREAD_SELECTOR.set(selector);
+            ALL_SELECTORS.add(selector);
+        }
+        return selector;
+    }
+
+    /**
+     * 关闭并移除当前线程缓存的 Selector（线程退出前调用，避免泄漏）。
+     */
+    public static void closeThreadSelector() {
+        Selector selector = THREAD_SELECTOR.get();
+        THREAD_SELECTOR.remove();
+        if (selector != null) {
+            ALL_SELECTORS.remove(selector);
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * 在 {@code selector} 上注册通道或更新其兴趣集（覆盖写入）。
+     * 通道会被切换为非阻塞模式。
+     *
+     * @param selector 目标 Selector
+     * @param sc       通道
+     * @param ops      兴趣集，会按 {@link SelectableChannel#validOps()} 过滤
+     * @return 对应的 {@link SelectionKey}
+     * @throws IOException 配置或注册失败
+     */
+    public static SelectionKey arm(Selector selector, SelectableChannel sc, int ops) throws IOException {
+        int interest = ops & sc.validOps();
+        SelectionKey key = sc.keyFor(selector);
+        if (key != null && key.isValid()) {
+            key.interestOps(interest);
+            return key;
+        }
+        if (key != null) {
+            // 已取消但尚未注销：先刷新一次再重新注册
+            selector.selectNow();
+        }
+        sc.configureBlocking(false);
+        return sc.register(selector, interest);
+    }
+
+    /**
+     * 将 {@code selector} 中除 {@code keep} 以外的有效 key 的兴趣集清零，
+     * 并清空上一次残留的已选择集合。
+     *
+     * @param selector 目标 Selector
+     * @param keep     本次需要监听的 key
+     */
+    public static void disarmOthers(Selector selector, Set<SelectionKey> keep) {
+        selector.selectedKeys().clear();
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && !keep.contains(key) && key.interestOps() != 0) {
+                key.interestOps(0);
+            }
+        }
+    }
+
+    /**
+     * 取消通道在所有线程缓存的 Selector 上的 key，使其可以重新切换为阻塞模式。
+     *
+     * <p>通道可能在一个线程上 IO_WAIT / SELECT 后，在另一个线程上切回阻塞模式（如 SERVE 的处理线程）。
+     * 已取消的 key 立即失效，不再阻止 {@code configureBlocking(true)}；当前线程的 Selector 随即刷新注销，
+     * 其它线程的 Selector 在其下一次选择操作时注销（{@link #arm} 会处理已取消但尚未注销的 key）。</p>
+     *
+     * @param sc 通道
+     * @throws IOException 刷新 Selector 失败
+     */
+    public static void release(SelectableChannel sc) throws IOException {
+        synchronized (ALL_SELECTORS) {
+            for (Selector selector : ALL_SELECTORS) {
+                SelectionKey key = sc.keyFor(selector);
+                if (key != null) key.cancel();
+            }
+        }
+        Selector own = THREAD_SELECTOR.get();
+        if (own != null && own.isOpen() && sc.keyFor(own) != null) {
+            own.selectNow();
+            own.selectedKeys().clear();
+        }
+    }
+
+    /**
+     * 切换通道的阻塞模式。
+     *
+     * <p>IO_WAIT / SELECT 之后通道仍注册在（可能属于其它线程的）缓存 Selector 上，
+     * 此时直接 {@code configureBlocking(true)} 会抛出 {@link java.nio.channels.IllegalBlockingModeException}；
+     * 切回阻塞模式前先经 {@link #release} 注销。所有把通道恢复为阻塞模式的地方都应使用本方法。</p>
+     *
+     * @param sc       通道
+     * @param blocking 是否切换为阻塞模式
+     * @throws IOException 注销或配置失败
+     */
+    public static void setBlocking(SelectableChannel sc, boolean blocking) throws IOException {
+        if (blocking) release(sc);
+        sc.configureBlocking(blocking);
+    }
+
     /**
      * 根据 {@code timeoutMs} 执行 {@link Selector} 的选择操作。
      *
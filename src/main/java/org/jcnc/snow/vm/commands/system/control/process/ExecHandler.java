@@ -5,6 +5,7 @@ import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
 import org.jcnc.snow.vm.io.EnvRegistry;
+import org.jcnc.snow.vm.io.VMExit;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -162,7 +163,7 @@ public class ExecHandler implements SyscallHandler {
             errForwarder.join(100);
         } catch (InterruptedException ignored) { }
 
-        // 11. 终止当前 VM（不会返回到 Snow 代码）
-        Runtime.getRuntime().halt(0);
+        // 11. 终止当前 VM（不会返回到 Snow 代码；嵌入运行时抛出 VMExit）
+        VMExit.halt(0);
     }
 }
@@ -1,6 +1,7 @@
 package org.jcnc.snow.vm.commands.system.control.process;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.VMExit;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -11,9 +12,10 @@ import org.jcnc.snow.vm.module.OperandStack;
  *
  * <p><b>Stack</b>：入参 {@code (code:int)} → 无返回</p>
  *
- * <p><b>语义</b>：以指定退出码 {@code code} 立即结束整个 JVM 进程。</p>
+ * <p><b>语义</b>：以指定退出码 {@code code} 立即结束整个 JVM 进程；
+ * 嵌入运行（守护进程）时只结束当前程序，见 {@link VMExit}。</p>
  *
- * <p><b>返回</b>：无（JVM 直接退出）</p>
+ * <p><b>返回</b>：无（JVM 直接退出，或抛出 {@link VMExit}）</p>
  *
  * <p><b>异常</b>：
  * <ul>
@@ -44,7 +46,7 @@ public class ExitHandler implements SyscallHandler {
         }
         int code = (int) codeObj;
 
-        // 直接结束整个 JVM 进程
-        System.exit(code);
+        // 结束整个 JVM 进程（嵌入运行时只结束当前程序）
+        VMExit.exit(code);
     }
 }
@@ -0,0 +1,70 @@
+package org.jcnc.snow.vm.commands.system.control.process;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.jcnc.snow.vm.io.ParallelPool;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+import java.util.List;
+
+/**
+ * {@code ParallelForHandler} 实现 PARALLEL_FOR (0x1509) 系统调用，
+ * 在 ForkJoin 线程池上对整数区间并行执行 Snow 函数。
+ *
+ * <p><b>Stack</b>：入参 {@code (start:int, end:int, grain:int, fn:int)} → 出参 {@code (results:any[])}</p>
+ *
+ * <p><b>语义</b>：</p>
+ * <ul>
+ *   <li>对 {@code start <= i < end} 的每个 i 调用 {@code fn(i)}，
+ *       {@code fn} 为 Snow 函数入口地址（由 {@code fnaddr("模块.函数")} 得到），签名为 {@code (i:int) → any}</li>
+ *   <li>区间按 {@code grain} 切块（{@code grain <= 0} 时自动选取），
+ *       每块在工作线程上以独立的 {@link VirtualMachineEngine}（共享当前只读程序）执行</li>
+ *   <li>调用线程阻塞直到全部块完成</li>
+ * </ul>
+ *
+ * <p><b>返回</b>：新数组，第 {@code i - start} 个元素为 {@code fn(i)} 的返回值（void 函数为 null）；
+ * {@code end <= start} 时返回空数组。</p>
+ *
+ * <p><b>异常</b>：</p>
+ * <ul>
+ *   <li>参数非 int 或 fn 地址无效时抛出 {@link IllegalArgumentException}</li>
+ *   <li>不在 VM 执行上下文中调用时抛出 {@link IllegalStateException}</li>
+ *   <li>任一回调抛出的异常原样传播给调用方；回调因运行时错误（如除以零）停机时抛出 {@link IllegalStateException}</li>
+ * </ul>
+ */
+public class ParallelForHandler implements SyscallHandler {
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+
+        // 出栈顺序：fn, grain, end, start
+        Object fnObj = stack.pop();
+        Object grainObj = stack.pop();
+        Object endObj = stack.pop();
+        Object startObj = stack.pop();
+
+        if (!(startObj instanceof Number) || !(endObj instanceof Number)
+                || !(grainObj instanceof Number) || !(fnObj instanceof Number)) {
+            throw new IllegalArgumentException("PARALLEL_FOR: start, end, grain and fn must be int");
+        }
+        int start = ((Number) startObj).intValue();
+        int end = ((Number) endObj).intValue();
+        int grain = ((Number) grainObj).intValue();
+        int entry = ((Number) fnObj).intValue();
+
+        List<String> program = VirtualMachineEngine.currentProgram();
+        if (program == null) {
+            throw new IllegalStateException("PARALLEL_FOR: no program is executing on this thread");
+        }
+        if (entry < 0 || entry >= program.size()) {
+            throw new IllegalArgumentException("PARALLEL_FOR: invalid fn address: " + entry);
+        }
+
+        int count = Math.max(0, end - start);
+        stack.push(ParallelPool.map(program, entry, count, grain, i -> start + i));
+    }
+}
@@ -0,0 +1,73 @@
+package org.jcnc.snow.vm.commands.system.control.process;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.jcnc.snow.vm.io.ParallelPool;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+import java.lang.reflect.Array;
+import java.util.List;
+
+/**
+ * {@code ParallelMapHandler} 实现 PARALLEL_MAP (0x150A) 系统调用，
+ * 在 ForkJoin 线程池上对数组的每个元素并行执行 Snow 函数。
+ *
+ * <p><b>Stack</b>：入参 {@code (arr:any, fn:int)} → 出参 {@code (results:any[])}</p>
+ *
+ * <p><b>语义</b>：</p>
+ * <ul>
+ *   <li>对 {@code arr} 的每个元素 e 调用 {@code fn(e)}，
+ *       {@code fn} 为 Snow 函数入口地址（由 {@code fnaddr("模块.函数")} 得到），签名为 {@code (e:any) → any}</li>
+ *   <li>切块粒度自动选取；每块在工作线程上以独立的 {@link VirtualMachineEngine}（共享当前只读程序）执行</li>
+ *   <li>调用线程阻塞直到全部块完成；原数组不被修改</li>
+ * </ul>
+ *
+ * <p><b>支持</b>：{@link List}、原生 Java 数组。</p>
+ *
+ * <p><b>返回</b>：与 {@code arr} 等长的新数组，元素按原顺序对应 {@code fn(e)} 的返回值。</p>
+ *
+ * <p><b>异常</b>：</p>
+ * <ul>
+ *   <li>arr 不是数组/列表、fn 非 int 或地址无效时抛出 {@link IllegalArgumentException}</li>
+ *   <li>不在 VM 执行上下文中调用时抛出 {@link IllegalStateException}</li>
+ *   <li>任一回调抛出的异常原样传播给调用方；回调因运行时错误（如除以零）停机时抛出 {@link IllegalStateException}</li>
+ * </ul>
+ */
+public class ParallelMapHandler implements SyscallHandler {
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+
+        // 出栈顺序：fn, arr
+        Object fnObj = stack.pop();
+        Object arrObj = stack.pop();
+
+        if (!(fnObj instanceof Number)) {
+            throw new IllegalArgumentException("PARALLEL_MAP: fn must be an int, got: " + fnObj);
+        }
+        int entry = ((Number) fnObj).intValue();
+
+        List<String> program = VirtualMachineEngine.currentProgram();
+        if (program == null) {
+            throw new IllegalStateException("PARALLEL_MAP: no program is executing on this thread");
+        }
+        if (entry < 0 || entry >= program.size()) {
+            throw new IllegalArgumentException("PARALLEL_MAP: invalid fn address: " + entry);
+        }
+
+        if (arrObj instanceof List<?> list) {
+            // 先做快照，回调执行期间不受原列表修改影响
+            Object[] items = list.toArray();
+            stack.push(ParallelPool.map(program, entry, items.length, 0, i -> items[i]));
+        } else if (arrObj != null && arrObj.getClass().isArray()) {
+            int len = Array.getLength(arrObj);
+            stack.push(ParallelPool.map(program, entry, len, 0, i -> Array.get(arrObj, i)));
+        } else {
+            throw new IllegalArgumentException("PARALLEL_MAP: not an array/list: " + arrObj);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.jcnc.snow.vm.commands.system.control.process;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.ParallelPool;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code ParallelThreadsHandler} 实现 PARALLEL_THREADS (0x150B) 系统调用，
+ * 设置 PARALLEL_FOR / PARALLEL_MAP 使用的并行度。
+ *
+ * <p><b>Stack</b>：入参 {@code (threads:int)} → 出参 {@code (parallelism:int)}</p>
+ *
+ * <p><b>语义</b>：{@code threads > 0} 时后续并行调用改用该线程数的专用 ForkJoin 池；
+ * {@code threads == 0} 时恢复使用 JVM 公共池。</p>
+ *
+ * <p><b>返回</b>：设置后的实际并行度。</p>
+ *
+ * <p><b>异常</b>：threads 非 int 或为负数时抛出 {@link IllegalArgumentException}。</p>
+ */
+public class ParallelThreadsHandler implements SyscallHandler {
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+
+        Object threadsObj = stack.pop();
+        if (!(threadsObj instanceof Number)) {
+            throw new IllegalArgumentException("PARALLEL_THREADS: threads must be an int, got: " + threadsObj);
+        }
+        stack.push(ParallelPool.setParallelism(((Number) threadsObj).intValue()));
+    }
+}
@@ -0,0 +1,60 @@
+package org.jcnc.snow.vm.commands.system.control.process;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.engine.VMScheduler;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@code TaskJoinHandler} 实现 TASK_JOIN (0x150D) 系统调用，
+ * 等待 TASK_SPAWN 创建的任务结束并取得其返回值。
+ *
+ * <p><b>Stack</b>：入参 {@code (id:int)} → 出参 {@code (retval:any?)}</p>
+ *
+ * <p><b>语义</b>：阻塞当前线程直到任务结束；任务随后被注销，同一 id 不能再次 join。
+ * 在任务内部 join 时不阻塞所在的工作线程，而是由它继续运行队列中的其它任务切片，直到被等待的任务结束
+ * （见 {@link VMScheduler#join}），因此只有一个工作线程时也不会死锁。</p>
+ *
+ * <p><b>返回</b>：任务函数的返回值，允许为 null。</p>
+ *
+ * <p><b>异常</b>：</p>
+ * <ul>
+ *   <li>任务 id 不存在或已被 join 时抛出 {@link IllegalArgumentException}</li>
+ *   <li>任务耗尽指令预算或因运行时错误停止时抛出 {@link IllegalStateException}</li>
+ *   <li>任务执行中抛出的异常原样传播给调用方</li>
+ * </ul>
+ */
+public class TaskJoinHandler implements SyscallHandler {
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+
+        Object idObj = stack.pop();
+        if (!(idObj instanceof Number)) {
+            throw new IllegalArgumentException("TASK_JOIN: id must be an int, got: " + idObj);
+        }
+        int id = ((Number) idObj).intValue();
+
+        VMScheduler scheduler = VMScheduler.shared();
+        VMScheduler.Task task = scheduler.get(id);
+        if (task == null) {
+            throw new IllegalArgumentException("Invalid task id: " + id);
+        }
+
+        Object result;
+        try {
+            result = scheduler.join(task);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        } finally {
+            scheduler.remove(id);
+        }
+        stack.push(result);
+    }
+}
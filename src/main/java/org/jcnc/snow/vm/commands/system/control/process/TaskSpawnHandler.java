@@ -0,0 +1,66 @@
+package org.jcnc.snow.vm.commands.system.control.process;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.engine.VMScheduler;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+import java.util.List;
+
+/**
+ * {@code TaskSpawnHandler} 实现 TASK_SPAWN (0x150C) 系统调用，
+ * 把一次 Snow 函数调用作为轻量任务交给 {@link VMScheduler} 分时执行。
+ *
+ * <p><b>Stack</b>：入参 {@code (fn:int, arg:any, fuel:int)} → 出参 {@code (id:int)}</p>
+ *
+ * <p><b>语义</b>：</p>
+ * <ul>
+ *   <li>{@code fn} 为 Snow 函数入口地址（由 {@code fnaddr("模块.函数")} 得到），签名为 {@code (arg:any) → any}</li>
+ *   <li>任务以独立的 {@link VirtualMachineEngine}（共享当前只读程序）在调度器的少量工作线程上运行，
+ *       每执行一个时间片（默认 {@value VMScheduler#DEFAULT_QUANTUM} 条指令）后在安全点让出，排到队尾</li>
+ *   <li>{@code fuel > 0} 时为该任务的总指令预算，耗尽后任务被终止，TASK_JOIN 返回错误；
+ *       {@code fuel <= 0} 时使用 {@code --fuel} 指定的默认预算（未指定则不限）</li>
+ * </ul>
+ *
+ * <p><b>返回</b>：任务 id，供 TASK_JOIN 使用。</p>
+ *
+ * <p><b>异常</b>：</p>
+ * <ul>
+ *   <li>fn 或 fuel 非 int、fn 地址无效时抛出 {@link IllegalArgumentException}</li>
+ *   <li>不在 VM 执行上下文中调用时抛出 {@link IllegalStateException}</li>
+ * </ul>
+ */
+public class TaskSpawnHandler implements SyscallHandler {
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+
+        // 出栈顺序：fuel, arg, fn
+        Object fuelObj = stack.pop();
+        Object arg = stack.pop();
+        Object fnObj = stack.pop();
+
+        if (!(fnObj instanceof Number) || !(fuelObj instanceof Number)) {
+            throw new IllegalArgumentException("TASK_SPAWN: fn and fuel must be int");
+        }
+        int entry = ((Number) fnObj).intValue();
+        long fuel = ((Number) fuelObj).longValue();
+
+        List<String> program = VirtualMachineEngine.currentProgram();
+        if (program == null) {
+            throw new IllegalStateException("TASK_SPAWN: no program is executing on this thread");
+        }
+        if (entry < 0 || entry >= program.size()) {
+            throw new IllegalArgumentException("TASK_SPAWN: invalid fn address: " + entry);
+        }
+
+        VMScheduler scheduler = VMScheduler.shared();
+        VMScheduler.Task task = scheduler.submit(program, entry,
+                fuel > 0 ? fuel : VMScheduler.defaultFuel(), arg);
+        stack.push(task.id());
+    }
+}
@@ -1,11 +1,15 @@
 package org.jcnc.snow.vm.commands.system.control.process;
 
+import org.jcnc.snow.vm.commands.system.control.multiplex.utils.SelectorUtils;
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
 import org.jcnc.snow.vm.io.ThreadRegistry;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
 
+import java.util.List;
+
 /**
  * {@code ThreadCreateHandler} 实现 THREAD_CREATE (0x1506) 系统调用，
  * 用于在 VM 内部创建新线程并返回其线程 ID。
@@ -16,9 +20,12 @@ import org.jcnc.snow.vm.module.OperandStack;
  * </p>
  *
  * <p><b>语义：</b>
- * 在虚拟机环境下创建一个新线程。支持两种 entry 形式：
+ * 在虚拟机环境下创建一个新线程。支持三种 entry 形式：
  * <ul>
  *   <li>{@code Runnable}：直接作为线程体执行</li>
+ *   <li>{@code int}：Snow 函数入口地址（{@code fnaddr("模块.函数")}），
+ *       在新线程中以全新的 {@link VirtualMachineEngine}（共享当前只读程序）调用 {@code entry(arg)}，
+ *       函数返回值作为线程结果；函数抛出异常或因运行时错误停机时记录为失败，由 THREAD_JOIN 报告</li>
  *   <li>{@code String}：通用入口名（如 "app.worker"），模拟为打印 arg 并返回 {@code "done:" + arg}</li>
  * </ul>
  * 子线程的返回值存储于 {@link ThreadRegistry}。
@@ -48,6 +55,26 @@ public class ThreadCreateHandler implements SyscallHandler {
 
         if (entry instanceof Runnable runnable) {
             task = runnable;
+        } else if (entry instanceof Integer addr) {
+            List<String> program = VirtualMachineEngine.currentProgram();
+            if (program == null || addr < 0 || addr >= program.size()) {
+                System.err.println("THREAD_CREATE: invalid entry address: " + addr);
+                stack.push(-1);
+                return;
+            }
+            task = () -> {
+                long tid = Thread.currentThread().threadId();
+                try {
+                    VirtualMachineEngine engine = new VirtualMachineEngine();
+                    Object result = engine.invoke(program, addr, arg);
+                    // 出错时引擎只输出信息并停机，返回值不可信
+                    if (engine.returned()) ThreadRegistry.setResult(tid, result);
+                    else ThreadRegistry.setFailure(tid, new IllegalStateException(
+                            "Thread body failed at " + engine.location()));
+                } catch (RuntimeException e) {
+                    ThreadRegistry.setFailure(tid, e);
+                }
+            };
         } else if (entry instanceof String name) {
             task = () -> {
                 Object result = null;
@@ -65,8 +92,14 @@ public class ThreadCreateHandler implements SyscallHandler {
             return;
         }
 
-        // 启动线程并登记
-        Thread thread = new Thread(task, "snow-thread-" + System.nanoTime());
+        // 启动线程并登记；线程退出时释放其缓存的 Selector
+        Thread thread = new Thread(() -> {
+            try {
+                task.run();
+            } finally {
+                SelectorUtils.closeThreadSelector();
+            }
+        }, "snow-thread-" + System.nanoTime());
         ThreadRegistry.register(thread);
         thread.start();
 
@@ -20,6 +20,7 @@ import org.jcnc.snow.vm.module.OperandStack;
  * <ul>
  *   <li>线程 id 不存在时抛出 {@link IllegalArgumentException}</li>
  *   <li>等待过程中被中断时抛出 {@link InterruptedException}</li>
+ *   <li>线程体失败（抛出异常或因运行时错误停机）时抛出其失败原因</li>
  * </ul>
  * </p>
  */
@@ -31,7 +32,7 @@ public class ThreadJoinHandler implements SyscallHandler {
      * @param stack     操作数栈，提供线程 id（tid）
      * @param locals    局部变量存储器（未使用）
      * @param callStack 调用栈（未使用）
-     * @throws Exception 线程 id 不存在或等待被中断时抛出
+     * @throws Exception 线程 id 不存在、等待被中断或线程体失败时抛出
      */
     @Override
     public void handle(OperandStack stack,
@@ -50,11 +51,13 @@ public class ThreadJoinHandler implements SyscallHandler {
         // 3. 等待线程结束
         thread.join();
 
-        // 4. 获取返回值
+        // 4. 获取返回值与失败原因
         Object result = ThreadRegistry.getResult(tid);
+        RuntimeException failure = ThreadRegistry.getFailure(tid);
 
-        // 5. 注销线程
+        // 5. 注销线程；线程体失败时报告给调用方
         ThreadRegistry.unregister(tid);
+        if (failure != null) throw failure;
 
         // 6. 压回返回值（允许为 null）
         stack.push(result);
@@ -1,5 +1,6 @@
 package org.jcnc.snow.vm.commands.system.control.socket;
 
+import org.jcnc.snow.vm.commands.system.control.multiplex.utils.SelectorUtils;
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.SocketRegistry;
 import org.jcnc.snow.vm.module.CallStack;
@@ -67,7 +68,7 @@ public class AcceptHandler implements SyscallHandler {
             stack.push(-1);
             return;
         }
-        channel.configureBlocking(true);
+        SelectorUtils.setBlocking(channel, true);
 
         // 4. 注册到 SocketRegistry，获得新的 cfd
         int cfd = SocketRegistry.register(channel);
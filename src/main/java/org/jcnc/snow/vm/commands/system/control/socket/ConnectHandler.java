@@ -1,5 +1,6 @@
 package org.jcnc.snow.vm.commands.system.control.socket;
 
+import org.jcnc.snow.vm.commands.system.control.multiplex.utils.SelectorUtils;
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.SocketRegistry;
 import org.jcnc.snow.vm.module.CallStack;
@@ -73,7 +74,7 @@ public class ConnectHandler implements SyscallHandler {
             case null -> {
                 // 若 fd 尚未关联通道，则新建 SocketChannel 并注册
                 sc = SocketChannel.open();
-                sc.configureBlocking(true);
+                SelectorUtils.setBlocking(sc, true);
                 SocketRegistry.replace(fd, sc);
             }
             case SocketChannel socketChannel -> sc = socketChannel;
@@ -84,7 +85,7 @@ public class ConnectHandler implements SyscallHandler {
                 } catch (Exception ignore) {
                 }
                 sc = SocketChannel.open();
-                sc.configureBlocking(true);
+                SelectorUtils.setBlocking(sc, true);
                 SocketRegistry.replace(fd, sc);
             }
             default -> throw new IllegalArgumentException("CONNECT: unsupported channel type for fd "
@@ -2,6 +2,7 @@ package org.jcnc.snow.vm.commands.system.control.socket;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.SocketRegistry;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -64,6 +65,7 @@ public class RecvFromHandler implements SyscallHandler {
         buffer.flip();
         byte[] data = new byte[buffer.remaining()];
         buffer.get(data);
+        if (VMMetrics.isEnabled()) VMMetrics.read(VMMetrics.FdClass.SOCKET, data.length);
 
         String addr = "";
         int port = 0;
@@ -2,6 +2,7 @@ package org.jcnc.snow.vm.commands.system.control.socket;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.SocketRegistry;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -54,6 +55,7 @@ public class RecvHandler implements SyscallHandler {
         // 3. 接收数据
         ByteBuffer buffer = ByteBuffer.allocate(n);
         int read = channel.read(buffer);
+        if (VMMetrics.isEnabled()) VMMetrics.read(VMMetrics.FdClass.SOCKET, read);
 
         byte[] data;
         if (read == -1) {
@@ -2,6 +2,7 @@ package org.jcnc.snow.vm.commands.system.control.socket;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.SocketRegistry;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -66,6 +67,7 @@ public class SendHandler implements SyscallHandler {
         // 4. 写入数据
         ByteBuffer buffer = ByteBuffer.wrap(bytes);
         int written = channel.write(buffer);
+        if (VMMetrics.isEnabled()) VMMetrics.written(VMMetrics.FdClass.SOCKET, written);
 
         // 5. 压回写入的字节数
         stack.push(written);
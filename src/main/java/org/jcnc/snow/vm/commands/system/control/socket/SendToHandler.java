@@ -2,6 +2,7 @@ package org.jcnc.snow.vm.commands.system.control.socket;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.SocketRegistry;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -68,6 +69,7 @@ public class SendToHandler implements SyscallHandler {
 
         // 4. 发送数据
         int sent = channel.send(ByteBuffer.wrap(bytes), new InetSocketAddress(addr, port));
+        if (VMMetrics.isEnabled()) VMMetrics.written(VMMetrics.FdClass.SOCKET, sent);
 
         // 5. 压回返回值
         stack.push(sent);
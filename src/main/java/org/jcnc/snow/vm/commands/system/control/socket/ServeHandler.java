@@ -0,0 +1,148 @@
+package org.jcnc.snow.vm.commands.system.control.socket;
+
+import org.jcnc.snow.vm.commands.system.control.multiplex.utils.SelectorUtils;
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.jcnc.snow.vm.io.ServerRegistry;
+import org.jcnc.snow.vm.io.SocketRegistry;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+import org.jcnc.snow.vm.utils.LoggingUtils;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@code ServeHandler} 实现 SERVE (0x140F) 系统调用：
+ * 每个连接一个 Java 虚拟线程的 TCP 服务运行时。
+ *
+ * <p><b>Stack</b>：入参 {@code (fd:int, handler:int, max_conns:int)} → 出参 {@code (served:int)}</p>
+ *
+ * <p><b>语义</b>：</p>
+ * <ul>
+ *   <li>{@code fd} 为已 bind + listen 的 TCP 监听套接字</li>
+ *   <li>{@code handler} 为 Snow 函数入口地址（由 {@code fnaddr("模块.函数")} 得到），
+ *       签名为 {@code (cfd:int) → any}</li>
+ *   <li>每接受一个连接，在独立的虚拟线程中以全新的 {@link VirtualMachineEngine}
+ *       （共享当前只读程序）调用 {@code handler(cfd)}；处理函数返回后连接自动关闭</li>
+ *   <li>{@code max_conns > 0} 时最多同时处理该数量的连接，达到上限后暂停 accept；
+ *       {@code max_conns <= 0} 表示不限</li>
+ *   <li>调用线程阻塞直到 SERVE_STOP 请求停机；随后不再接受新连接，
+ *       并等待所有在途连接处理完毕后返回（优雅停机）</li>
+ * </ul>
+ *
+ * <p><b>返回</b>：本次服务期间接受的连接总数。</p>
+ *
+ * <p><b>异常</b>：</p>
+ * <ul>
+ *   <li>fd 不是监听套接字、handler 非 int 时抛出 {@link IllegalArgumentException}</li>
+ *   <li>fd 已在服务中、或不在 VM 执行上下文中调用时抛出 {@link IllegalStateException}</li>
+ *   <li>底层 I/O 失败时抛出 {@link IOException}</li>
+ * </ul>
+ */
+public class ServeHandler implements SyscallHandler {
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+
+        // 出栈顺序：max_conns, handler, fd
+        Object maxObj = stack.pop();
+        Object handlerObj = stack.pop();
+        Object fdObj = stack.pop();
+
+        if (!(fdObj instanceof Number) || !(handlerObj instanceof Number) || !(maxObj instanceof Number)) {
+            throw new IllegalArgumentException("SERVE: fd, handler and max_conns must be int");
+        }
+        int fd = ((Number) fdObj).intValue();
+        int entry = ((Number) handlerObj).intValue();
+        int maxConns = ((Number) maxObj).intValue();
+
+        if (!(SocketRegistry.get(fd) instanceof ServerSocketChannel server)) {
+            throw new IllegalArgumentException("SERVE: invalid listen fd: " + fd);
+        }
+        List<String> program = VirtualMachineEngine.currentProgram();
+        if (program == null) {
+            throw new IllegalStateException("SERVE: no program is executing on this thread");
+        }
+        if (entry < 0 || entry >= program.size()) {
+            throw new IllegalArgumentException("SERVE: invalid handler address: " + entry);
+        }
+
+        // 不限连接数时不使用许可，避免计数达到 Integer.MAX_VALUE 上限
+        Semaphore permits = maxConns > 0 ? new Semaphore(maxConns) : null;
+        Selector selector = Selector.open();
+        ServerRegistry.Server state;
+        try {
+            state = ServerRegistry.open(fd, selector, permits);
+        } catch (RuntimeException e) {
+            selector.close();
+            throw e;
+        }
+
+        int served = 0;
+        SelectionKey key = null;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.configureBlocking(false);
+            key = server.register(selector, SelectionKey.OP_ACCEPT);
+
+            while (!state.isStopping()) {
+                if (permits != null) permits.acquire();
+
+                // 非阻塞 accept；无连接时在 Selector 上阻塞，SERVE_STOP 通过 wakeup 唤醒
+                SocketChannel ch = null;
+                while (!state.isStopping() && (ch = server.accept()) == null) {
+                    selector.select();
+                    selector.selectedKeys().clear();
+                }
+                if (ch == null) {
+                    // 停机：本轮取得的许可不再归还，stop() 已额外释放过一个
+                    break;
+                }
+
+                SelectorUtils.setBlocking(ch, true);
+                int cfd = SocketRegistry.register(ch);
+                served++;
+                state.connectionOpened();
+                workers.submit(() -> runConnection(program, entry, cfd, state));
+            }
+            // try-with-resources: ExecutorService.close() 等待所有在途连接结束
+        } finally {
+            ServerRegistry.remove(fd);
+            if (key != null) key.cancel();
+            selector.close();
+            if (server.isOpen()) {
+                SelectorUtils.setBlocking(server, true); // 恢复 ACCEPT 期望的阻塞模式
+            }
+        }
+
+        stack.push(served);
+    }
+
+    /**
+     * 在当前虚拟线程上以隔离的引擎执行一次连接处理函数，结束后关闭连接。
+     */
+    private static void runConnection(List<String> program, int entry, int cfd, ServerRegistry.Server state) {
+        try {
+            new VirtualMachineEngine().invoke(program, entry, cfd);
+        } catch (Throwable t) {
+            LoggingUtils.logError("SERVE: handler failed on fd " + cfd + ": " + t.getMessage());
+        } finally {
+            try {
+                SocketRegistry.close(cfd);
+            } catch (IOException ignored) {
+            }
+            SelectorUtils.closeThreadSelector();
+            state.connectionClosed();
+        }
+    }
+}
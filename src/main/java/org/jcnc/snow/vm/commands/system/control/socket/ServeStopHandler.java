@@ -0,0 +1,36 @@
+package org.jcnc.snow.vm.commands.system.control.socket;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.ServerRegistry;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code ServeStopHandler} 实现 SERVE_STOP (0x1410) 系统调用，
+ * 请求正在运行的 SERVE 优雅停机。
+ *
+ * <p><b>Stack</b>：入参 {@code (fd:int)} → 出参 {@code (rc:int)}</p>
+ *
+ * <p><b>语义</b>：停止在监听 fd 上接受新连接；已接受的连接继续处理至结束，
+ * 之后阻塞在 SERVE 中的调用返回。可在任意线程（包括连接处理函数内部）调用。</p>
+ *
+ * <p><b>返回</b>：成功返回 {@code 0}。</p>
+ *
+ * <p><b>异常</b>：fd 非 int 或未处于服务状态时抛出 {@link IllegalArgumentException}。</p>
+ */
+public class ServeStopHandler implements SyscallHandler {
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+
+        Object fdObj = stack.pop();
+        if (!(fdObj instanceof Number)) {
+            throw new IllegalArgumentException("SERVE_STOP: fd must be an int, got: " + fdObj);
+        }
+        ServerRegistry.stop(((Number) fdObj).intValue());
+        stack.push(0);
+    }
+}
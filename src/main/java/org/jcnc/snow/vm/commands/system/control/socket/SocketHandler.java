@@ -1,5 +1,6 @@
 package org.jcnc.snow.vm.commands.system.control.socket;
 
+import org.jcnc.snow.vm.commands.system.control.multiplex.utils.SelectorUtils;
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.SocketRegistry;
 import org.jcnc.snow.vm.module.CallStack;
@@ -58,12 +59,12 @@ public class SocketHandler implements SyscallHandler {
         if (type == SOCK_STREAM) {
             // TCP（默认创建 ServerSocketChannel，供 bind/listen/accept 使用）
             ServerSocketChannel server = ServerSocketChannel.open();
-            server.configureBlocking(true);
+            SelectorUtils.setBlocking(server, true);
             fd = SocketRegistry.register(server);
         } else if (type == SOCK_DGRAM) {
             // UDP
             DatagramChannel udp = DatagramChannel.open();
-            udp.configureBlocking(true);
+            SelectorUtils.setBlocking(udp, true);
             fd = SocketRegistry.register(udp);
         } else {
             throw new UnsupportedOperationException("Unsupported socket type: " + type);
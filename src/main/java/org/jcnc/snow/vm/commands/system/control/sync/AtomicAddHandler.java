@@ -0,0 +1,48 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.AtomicRegistry;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code AtomicAddHandler} 实现 ATOMIC_ADD (0x1612) 系统调用，
+ * 对原子单元执行 add-and-get。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (aid:int, delta:int)} →
+ * 出参 {@code (value:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 原子地将单元值加上 delta（可为负数），溢出按补码回绕。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 相加后的新值。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * aid 无效或 delta 不是整数时抛出 {@link IllegalArgumentException}。
+ * </p>
+ */
+public class AtomicAddHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("ATOMIC_ADD: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        // 出栈顺序：delta, aid
+        int delta = toInt(stack.pop(), "delta");
+        int aid = toInt(stack.pop(), "aid");
+        stack.push(AtomicRegistry.addAndGet(aid, delta));
+    }
+}
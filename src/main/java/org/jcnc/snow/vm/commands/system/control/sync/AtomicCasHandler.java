@@ -0,0 +1,49 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.AtomicRegistry;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code AtomicCasHandler} 实现 ATOMIC_CAS (0x1613) 系统调用，
+ * 对原子单元执行 compare-and-set。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (aid:int, expect:int, update:int)} →
+ * 出参 {@code (ok:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 当单元值等于 expect 时原子地替换为 update。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 替换成功返回 {@code 1}，否则返回 {@code 0}。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * aid 无效或参数不是整数时抛出 {@link IllegalArgumentException}。
+ * </p>
+ */
+public class AtomicCasHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("ATOMIC_CAS: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        // 出栈顺序：update, expect, aid
+        int update = toInt(stack.pop(), "update");
+        int expect = toInt(stack.pop(), "expect");
+        int aid = toInt(stack.pop(), "aid");
+        stack.push(AtomicRegistry.compareAndSet(aid, expect, update) ? 1 : 0);
+    }
+}
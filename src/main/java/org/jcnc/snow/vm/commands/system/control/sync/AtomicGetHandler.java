@@ -0,0 +1,46 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.AtomicRegistry;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code AtomicGetHandler} 实现 ATOMIC_GET (0x1610) 系统调用，
+ * 读取原子单元的当前值。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (aid:int)} →
+ * 出参 {@code (value:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 以 volatile 语义读取单元值，无锁。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 单元当前值。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * aid 无效时抛出 {@link IllegalArgumentException}。
+ * </p>
+ */
+public class AtomicGetHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("ATOMIC_GET: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        int aid = toInt(stack.pop(), "aid");
+        stack.push(AtomicRegistry.get(aid));
+    }
+}
@@ -0,0 +1,46 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.AtomicRegistry;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code AtomicNewHandler} 实现 ATOMIC_NEW (0x160F) 系统调用，
+ * 创建一个新的原子整数单元并返回其 aid。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (init:int)} →
+ * 出参 {@code (aid:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 新建一个初始值为 init 的原子单元，分配唯一 aid 并登记到 {@link AtomicRegistry}。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 返回分配的单元 aid（int）。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * init 不是整数时抛出 {@link IllegalArgumentException}。
+ * </p>
+ */
+public class AtomicNewHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("ATOMIC_NEW: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        int init = toInt(stack.pop(), "init");
+        stack.push(AtomicRegistry.create(init));
+    }
+}
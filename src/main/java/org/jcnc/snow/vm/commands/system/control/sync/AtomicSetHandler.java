@@ -0,0 +1,49 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.AtomicRegistry;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code AtomicSetHandler} 实现 ATOMIC_SET (0x1611) 系统调用，
+ * 写入原子单元的值。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (aid:int, value:int)} →
+ * 出参 {@code (rc:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 以 volatile 语义写入单元值，无锁。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 成功返回 {@code 0}。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * aid 无效或 value 不是整数时抛出 {@link IllegalArgumentException}。
+ * </p>
+ */
+public class AtomicSetHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("ATOMIC_SET: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        // 出栈顺序：value, aid
+        int value = toInt(stack.pop(), "value");
+        int aid = toInt(stack.pop(), "aid");
+        AtomicRegistry.set(aid, value);
+        stack.push(0);
+    }
+}
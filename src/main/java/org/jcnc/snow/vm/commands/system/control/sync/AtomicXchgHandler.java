@@ -0,0 +1,48 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.AtomicRegistry;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code AtomicXchgHandler} 实现 ATOMIC_XCHG (0x1614) 系统调用，
+ * 对原子单元执行 exchange。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (aid:int, value:int)} →
+ * 出参 {@code (old:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 原子地写入 value 并返回写入前的值。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 单元的旧值。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * aid 无效或 value 不是整数时抛出 {@link IllegalArgumentException}。
+ * </p>
+ */
+public class AtomicXchgHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("ATOMIC_XCHG: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        // 出栈顺序：value, aid
+        int value = toInt(stack.pop(), "value");
+        int aid = toInt(stack.pop(), "aid");
+        stack.push(AtomicRegistry.exchange(aid, value));
+    }
+}
@@ -0,0 +1,47 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code ChanCloseHandler} 实现 CHAN_CLOSE (0x161C) 系统调用，
+ * 关闭通道并唤醒所有等待者。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (fd:int)} →
+ * 出参 {@code (rc:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 此后 send 失败；recv 取完剩余元素后报告关闭。阻塞中的 send/recv 与 IO_WAIT/EPOLL 等待者都会被立即唤醒。
+ * 该调用不释放 fd，接收方仍可继续取出剩余元素；释放 fd 请使用 CLOSE。重复关闭无副作用。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 成功返回 {@code 0}。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * fd 不是通道时抛出异常。
+ * </p>
+ */
+public class ChanCloseHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("CHAN_CLOSE: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        BoundedChannel.fromFd(toInt(stack.pop(), "fd")).closeChannel();
+        stack.push(0);
+    }
+}
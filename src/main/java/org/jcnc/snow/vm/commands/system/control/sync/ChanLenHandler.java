@@ -0,0 +1,45 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code ChanLenHandler} 实现 CHAN_LEN (0x161D) 系统调用，
+ * 查询通道中当前的元素个数。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (fd:int)} →
+ * 出参 {@code (n:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 返回调用时刻队列中的元素个数；并发收发下仅为瞬时近似值。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 元素个数。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * fd 不是通道时抛出异常。
+ * </p>
+ */
+public class ChanLenHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("CHAN_LEN: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        stack.push(BoundedChannel.fromFd(toInt(stack.pop(), "fd")).size());
+    }
+}
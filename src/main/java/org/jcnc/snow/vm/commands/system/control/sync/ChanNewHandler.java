@@ -0,0 +1,48 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
+import org.jcnc.snow.vm.io.FDTable;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code ChanNewHandler} 实现 CHAN_NEW (0x1615) 系统调用，
+ * 创建一个有界通道并返回其 fd。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (cap:int)} →
+ * 出参 {@code (fd:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 创建容量为 cap 的有界 MPMC 通道，并登记到 {@link FDTable}。通道 fd 可用 IO_WAIT / SELECT / EPOLL 监听：
+ * READ 表示 recv 不会阻塞，WRITE 表示 send 不会阻塞。使用完毕后通过 CLOSE 释放 fd。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 通道 fd（int）。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * cap 非正整数时抛出 {@link IllegalArgumentException}。
+ * </p>
+ */
+public class ChanNewHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("CHAN_NEW: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        int cap = toInt(stack.pop(), "cap");
+        stack.push(FDTable.register(new BoundedChannel(cap)));
+    }
+}
@@ -0,0 +1,50 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code ChanRecvHandler} 实现 CHAN_RECV (0x1617) 系统调用，
+ * 从通道接收一个元素，队列空时阻塞。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (fd:int)} →
+ * 出参 {@code (value:any)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 队列非空时无锁出队；为空时阻塞直到有元素或通道被关闭。关闭前已入队的元素仍会被依次交付。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 取得的元素。需要区分关闭与正常值时请使用 CHAN_RECV_TIMED / CHAN_TRY_RECV。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * fd 不是通道、通道已关闭且已取空时抛出异常。
+ * </p>
+ */
+public class ChanRecvHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("CHAN_RECV: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        BoundedChannel ch = BoundedChannel.fromFd(toInt(stack.pop(), "fd"));
+        Object v = ch.recv(-1);
+        if (v == BoundedChannel.CLOSED) {
+            throw new IllegalStateException("recv on closed channel");
+        }
+        stack.push(v);
+    }
+}
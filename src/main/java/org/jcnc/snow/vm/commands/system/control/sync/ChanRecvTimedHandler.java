@@ -0,0 +1,66 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@code ChanRecvTimedHandler} 实现 CHAN_RECV_TIMED (0x161B) 系统调用，
+ * 从通道接收一个元素，最多等待 timeout_ms 毫秒。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (fd:int, timeout_ms:int)} →
+ * 出参 {@code (result:any[])}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 队列为空时最多等待 timeout_ms 毫秒；{@code timeout_ms < 0} 表示无限等待，{@code 0} 等同于 CHAN_TRY_RECV。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 返回二元数组 {@code [status, value]}：
+ * <ul>
+ *   <li>{@code status = 1}：成功取得元素，value 为该元素</li>
+ *   <li>{@code status = 0}：等待超时，value 为 {@code 0}</li>
+ *   <li>{@code status = -1}：通道已关闭且已取空，value 为 {@code 0}</li>
+ * </ul>
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * fd 不是通道时抛出异常。
+ * </p>
+ */
+public class ChanRecvTimedHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("CHAN_RECV_TIMED: " + what + " must be int, got: " + v);
+    }
+
+    /**
+     * 将接收结果编码为 {@code [status, value]}。
+     */
+    private static List<Object> result(Object v) {
+        if (v == BoundedChannel.CLOSED) return new ArrayList<>(Arrays.asList(-1, 0));
+        if (v == BoundedChannel.EMPTY) return new ArrayList<>(Arrays.asList(0, 0));
+        return new ArrayList<>(Arrays.asList(1, v));
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        // 出栈顺序：timeout_ms, fd
+        int timeoutMs = toInt(stack.pop(), "timeout_ms");
+        BoundedChannel ch = BoundedChannel.fromFd(toInt(stack.pop(), "fd"));
+        stack.push(result(ch.recv(BoundedChannel.timeoutNanos(timeoutMs))));
+    }
+}
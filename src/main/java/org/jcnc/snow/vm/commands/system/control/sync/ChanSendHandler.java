@@ -0,0 +1,49 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code ChanSendHandler} 实现 CHAN_SEND (0x1616) 系统调用，
+ * 向通道发送一个元素，队列满时阻塞。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (fd:int, value:any)} →
+ * 出参 {@code (rc:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 队列未满时无锁入队；已满时阻塞直到有空位。等待期间通道被关闭会立即失败。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 成功返回 {@code 0}。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * fd 不是通道、通道已关闭时抛出异常。
+ * </p>
+ */
+public class ChanSendHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("CHAN_SEND: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        // 出栈顺序：value, fd
+        Object value = stack.pop();
+        BoundedChannel ch = BoundedChannel.fromFd(toInt(stack.pop(), "fd"));
+        ch.send(value, -1);
+        stack.push(0);
+    }
+}
@@ -0,0 +1,49 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code ChanSendTimedHandler} 实现 CHAN_SEND_TIMED (0x161A) 系统调用，
+ * 向通道发送一个元素，最多等待 timeout_ms 毫秒。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (fd:int, value:any, timeout_ms:int)} →
+ * 出参 {@code (ok:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 队列已满时最多等待 timeout_ms 毫秒；{@code timeout_ms < 0} 表示无限等待，{@code 0} 等同于 CHAN_TRY_SEND。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 入队成功返回 {@code 1}，超时返回 {@code 0}。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * fd 不是通道、通道已关闭时抛出异常。
+ * </p>
+ */
+public class ChanSendTimedHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("CHAN_SEND_TIMED: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        // 出栈顺序：timeout_ms, value, fd
+        int timeoutMs = toInt(stack.pop(), "timeout_ms");
+        Object value = stack.pop();
+        BoundedChannel ch = BoundedChannel.fromFd(toInt(stack.pop(), "fd"));
+        stack.push(ch.send(value, BoundedChannel.timeoutNanos(timeoutMs)) ? 1 : 0);
+    }
+}
@@ -0,0 +1,64 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@code ChanTryRecvHandler} 实现 CHAN_TRY_RECV (0x1619) 系统调用，
+ * 尝试从通道接收一个元素，不阻塞。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (fd:int)} →
+ * 出参 {@code (result:any[])}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 队列非空时出队，为空时立即返回。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 返回二元数组 {@code [status, value]}：
+ * <ul>
+ *   <li>{@code status = 1}：成功取得元素，value 为该元素</li>
+ *   <li>{@code status = 0}：队列为空，value 为 {@code 0}</li>
+ *   <li>{@code status = -1}：通道已关闭且已取空，value 为 {@code 0}</li>
+ * </ul>
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * fd 不是通道时抛出异常。
+ * </p>
+ */
+public class ChanTryRecvHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("CHAN_TRY_RECV: " + what + " must be int, got: " + v);
+    }
+
+    /**
+     * 将接收结果编码为 {@code [status, value]}。
+     */
+    private static List<Object> result(Object v) {
+        if (v == BoundedChannel.CLOSED) return new ArrayList<>(Arrays.asList(-1, 0));
+        if (v == BoundedChannel.EMPTY) return new ArrayList<>(Arrays.asList(0, 0));
+        return new ArrayList<>(Arrays.asList(1, v));
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        BoundedChannel ch = BoundedChannel.fromFd(toInt(stack.pop(), "fd"));
+        stack.push(result(ch.tryRecv()));
+    }
+}
@@ -0,0 +1,48 @@
+package org.jcnc.snow.vm.commands.system.control.sync;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.io.BoundedChannel;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code ChanTrySendHandler} 实现 CHAN_TRY_SEND (0x1618) 系统调用，
+ * 尝试向通道发送一个元素，不阻塞。
+ *
+ * <p><b>Stack：</b>
+ * 入参 {@code (fd:int, value:any)} →
+ * 出参 {@code (ok:int)}
+ * </p>
+ *
+ * <p><b>语义：</b>
+ * 队列未满时入队，已满时立即返回。
+ * </p>
+ *
+ * <p><b>返回：</b>
+ * 入队成功返回 {@code 1}，队列已满返回 {@code 0}。
+ * </p>
+ *
+ * <p><b>异常：</b>
+ * fd 不是通道、通道已关闭时抛出异常。
+ * </p>
+ */
+public class ChanTrySendHandler implements SyscallHandler {
+
+    private static int toInt(Object v, String what) {
+        if (v instanceof Number n) {
+            return n.intValue();
+        }
+        throw new IllegalArgumentException("CHAN_TRY_SEND: " + what + " must be int, got: " + v);
+    }
+
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        // 出栈顺序：value, fd
+        Object value = stack.pop();
+        BoundedChannel ch = BoundedChannel.fromFd(toInt(stack.pop(), "fd"));
+        stack.push(ch.trySend(value) ? 1 : 0);
+    }
+}
@@ -2,6 +2,7 @@ package org.jcnc.snow.vm.commands.system.control.sync;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.MutexRegistry;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -61,7 +62,13 @@ public class MutexLockHandler implements SyscallHandler {
                        CallStack callStack) throws Exception {
         int mid = resolveMid(stack, locals);
         ReentrantLock lock = MutexRegistry.get(mid);
-        lock.lock();
+        if (VMMetrics.isEnabled() && lock.isLocked() && !lock.isHeldByCurrentThread()) {
+            long t0 = System.nanoTime();
+            lock.lock();
+            VMMetrics.lockWait(System.nanoTime() - t0);
+        } else {
+            lock.lock();
+        }
         // 约定：成功返回 0
         stack.push(0);
     }
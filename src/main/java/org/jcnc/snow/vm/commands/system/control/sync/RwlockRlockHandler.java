@@ -2,6 +2,7 @@ package org.jcnc.snow.vm.commands.system.control.sync;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.RwlockRegistry;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -42,7 +43,13 @@ public class RwlockRlockHandler implements SyscallHandler {
             throw new IllegalArgumentException("RWLOCK_RLOCK: rwl must be int");
         }
         ReentrantReadWriteLock rwl = RwlockRegistry.get((Integer) idObj);
-        rwl.readLock().lock();
+        if (VMMetrics.isEnabled() && rwl.isWriteLocked() && !rwl.isWriteLockedByCurrentThread()) {
+            long t0 = System.nanoTime();
+            rwl.readLock().lock();
+            VMMetrics.lockWait(System.nanoTime() - t0);
+        } else {
+            rwl.readLock().lock();
+        }
         stack.push(0);
     }
 }
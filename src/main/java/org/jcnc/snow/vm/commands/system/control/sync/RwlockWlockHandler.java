@@ -2,6 +2,7 @@ package org.jcnc.snow.vm.commands.system.control.sync;
 
 import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
 import org.jcnc.snow.vm.io.RwlockRegistry;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -42,7 +43,14 @@ public class RwlockWlockHandler implements SyscallHandler {
             throw new IllegalArgumentException("RWLOCK_WLOCK: rwl must be int");
         }
         ReentrantReadWriteLock rwl = RwlockRegistry.get((Integer) idObj);
-        rwl.writeLock().lock();
+        if (VMMetrics.isEnabled() && !rwl.isWriteLockedByCurrentThread()
+                && (rwl.isWriteLocked() || rwl.getReadLockCount() > 0)) {
+            long t0 = System.nanoTime();
+            rwl.writeLock().lock();
+            VMMetrics.lockWait(System.nanoTime() - t0);
+        } else {
+            rwl.writeLock().lock();
+        }
         stack.push(0);
     }
 }
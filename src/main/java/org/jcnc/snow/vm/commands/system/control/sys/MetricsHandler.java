@@ -0,0 +1,28 @@
+package org.jcnc.snow.vm.commands.system.control.sys;
+
+import org.jcnc.snow.vm.commands.system.control.syscalls.SyscallHandler;
+import org.jcnc.snow.vm.metrics.VMMetrics;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.LocalVariableStore;
+import org.jcnc.snow.vm.module.OperandStack;
+
+/**
+ * {@code MetricsHandler} 实现 METRICS (0x1907) 系统调用，
+ * 用于在 Snow 代码中读取虚拟机运行时指标。
+ *
+ * <p><b>Stack</b>：入参 {@code ()} → 出参 {@code (map:Map<String,Object>)}</p>
+ *
+ * <p><b>语义</b>：返回 {@link VMMetrics#snapshot()}。计数类指标（指令数、调用次数、syscall 次数、读写字节、锁等待）
+ * 仅在以 {@code --metrics} 运行时累计，键 {@code "enabled"} 表示其是否开启；
+ * 描述符数、线程数、GC 次数与耗时、堆使用量每次调用时即时读取。</p>
+ *
+ * <p><b>异常</b>：正常情况下不抛出异常。</p>
+ */
+public class MetricsHandler implements SyscallHandler {
+    @Override
+    public void handle(OperandStack stack,
+                       LocalVariableStore locals,
+                       CallStack callStack) throws Exception {
+        stack.push(VMMetrics.snapshot());
+    }
+}
@@ -3,6 +3,10 @@ package org.jcnc.snow.vm.engine;
 import org.jcnc.snow.vm.io.EnvRegistry;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * SyscallOpCode —— 系统调用操作码表
@@ -366,7 +370,7 @@ public final class SyscallOpCode {
      *   <li>支持 {@link java.nio.channels.SelectableChannel}（SocketChannel、ServerSocketChannel、DatagramChannel 等）</li>
      *   <li>兼容标准流：
      *     <ul>
-     *       <li>fd=0 (stdin)：支持 READ，采用 {@link System#in} 可用性轮询</li>
+     *       <li>fd=0 (stdin)：支持 READ，通过 {@link org.jcnc.snow.vm.io.StdinPump} 信号管道在内核中阻塞等待</li>
      *       <li>fd=1/2 (stdout/stderr)：支持 WRITE，视为始终可写</li>
      *     </ul>
      *   </li>
@@ -640,6 +644,28 @@ public final class SyscallOpCode {
      * <p><b>异常</b>：主机未知、服务非法、解析失败。</p>
      */
     public static final int GETADDRINFO = 0x140E;
+
+    /**
+     * 以“每连接一个虚拟线程”的方式在监听套接字上提供服务。
+     *
+     * <p><b>Stack</b>：入参 {@code (fd:int, handler:int, max_conns:int)} → 出参 {@code (served:int)}</p>
+     * <p><b>语义</b>：循环 accept，每个连接在独立虚拟线程中以全新 VM 引擎调用 {@code handler(cfd)}，
+     * 返回后自动关闭连接；{@code max_conns > 0} 时限制并发连接数。阻塞直到 SERVE_STOP，
+     * 并等待在途连接处理完毕后返回。</p>
+     * <p><b>返回</b>：接受的连接总数。</p>
+     * <p><b>异常</b>：fd 非监听套接字、handler 地址非法、fd 已在服务中、I/O 错误。</p>
+     */
+    public static final int SERVE = 0x140F;
+
+    /**
+     * 请求 SERVE 优雅停机。
+     *
+     * <p><b>Stack</b>：入参 {@code (fd:int)} → 出参 {@code (rc:int)}</p>
+     * <p><b>语义</b>：停止接受新连接，在途连接继续处理至结束。</p>
+     * <p><b>返回</b>：成功返回 0。</p>
+     * <p><b>异常</b>：fd 未处于服务状态。</p>
+     */
+    public static final int SERVE_STOP = 0x1410;
     // endregion
 
 
@@ -771,7 +797,8 @@ public final class SyscallOpCode {
      * 创建线程。
      *
      * <p><b>Stack</b>：入参 {@code (entry:fn/ptr, arg:any)} → 出参 {@code (tid:int)}</p>
-     * <p><b>语义</b>：创建一个新线程，并在线程中执行 {@code entry}。</p>
+     * <p><b>语义</b>：创建一个新线程，并在线程中执行 {@code entry}。
+     * entry 为 int 时视为函数入口地址（{@code fnaddr("模块.函数")}），以独立引擎调用 {@code entry(arg)}。</p>
      * <p><b>返回</b>：新线程的线程 ID。</p>
      * <p><b>异常</b>：线程创建失败、资源不足。</p>
      */
@@ -796,6 +823,59 @@ public final class SyscallOpCode {
      * <p><b>异常</b>：被中断时可能抛出异常。</p>
      */
     public static final int SLEEP = 0x1508;
+
+    /**
+     * 并行区间循环。
+     *
+     * <p><b>Stack</b>：入参 {@code (start:int, end:int, grain:int, fn:int)} → 出参 {@code (results:any[])}</p>
+     * <p><b>语义</b>：把区间 {@code [start, end)} 按 grain 切块提交到 ForkJoin 池，
+     * 每块以独立引擎对每个 i 调用 {@code fn(i)}；{@code grain <= 0} 时自动选取粒度。</p>
+     * <p><b>返回</b>：按 i 顺序排列的返回值数组。</p>
+     * <p><b>异常</b>：参数非法、fn 地址无效；回调异常传播给调用方。</p>
+     */
+    public static final int PARALLEL_FOR = 0x1509;
+
+    /**
+     * 并行映射数组。
+     *
+     * <p><b>Stack</b>：入参 {@code (arr:any, fn:int)} → 出参 {@code (results:any[])}</p>
+     * <p><b>语义</b>：在 ForkJoin 池上对每个元素 e 调用 {@code fn(e)}，原数组不变。</p>
+     * <p><b>返回</b>：与 arr 等长、按原顺序排列的新数组。</p>
+     * <p><b>异常</b>：arr 不是数组、fn 地址无效；回调异常传播给调用方。</p>
+     */
+    public static final int PARALLEL_MAP = 0x150A;
+
+    /**
+     * 设置并行度。
+     *
+     * <p><b>Stack</b>：入参 {@code (threads:int)} → 出参 {@code (parallelism:int)}</p>
+     * <p><b>语义</b>：threads &gt; 0 时 PARALLEL_FOR / PARALLEL_MAP 改用该线程数的专用池；
+     * 0 表示恢复使用 JVM 公共池。</p>
+     * <p><b>返回</b>：设置后的实际并行度。</p>
+     * <p><b>异常</b>：threads 为负数。</p>
+     */
+    public static final int PARALLEL_THREADS = 0x150B;
+
+    /**
+     * 创建分时任务。
+     *
+     * <p><b>Stack</b>：入参 {@code (fn:int, arg:any, fuel:int)} → 出参 {@code (id:int)}</p>
+     * <p><b>语义</b>：把 {@code fn(arg)} 交给协作式调度器，在少量工作线程上按时间片轮转执行；
+     * {@code fuel > 0} 为任务的总指令预算，{@code fuel <= 0} 使用 {@code --fuel} 的默认值。</p>
+     * <p><b>返回</b>：任务 id。</p>
+     * <p><b>异常</b>：fn 地址无效、参数类型错误。</p>
+     */
+    public static final int TASK_SPAWN = 0x150C;
+
+    /**
+     * 等待分时任务结束。
+     *
+     * <p><b>Stack</b>：入参 {@code (id:int)} → 出参 {@code (retval:any?)}</p>
+     * <p><b>语义</b>：阻塞直到任务结束并注销该任务。</p>
+     * <p><b>返回</b>：任务函数的返回值。</p>
+     * <p><b>异常</b>：id 无效、任务耗尽指令预算或执行失败。</p>
+     */
+    public static final int TASK_JOIN = 0x150D;
     // endregion
 
 
@@ -945,6 +1025,152 @@ public final class SyscallOpCode {
      */
     public static final int RWLOCK_UNLOCK = 0x160E;
 
+    /**
+     * 创建原子整数单元。
+     *
+     * <p><b>Stack</b>：入参 {@code (init:int)} → 出参 {@code (aid:int)}</p>
+     * <p><b>语义</b>：创建初始值为 init 的无锁共享单元。</p>
+     * <p><b>返回</b>：单元 ID。</p>
+     */
+    public static final int ATOMIC_NEW = 0x160F;
+
+    /**
+     * 读取原子单元。
+     *
+     * <p><b>Stack</b>：入参 {@code (aid:int)} → 出参 {@code (value:int)}</p>
+     * <p><b>语义</b>：volatile 读。</p>
+     * <p><b>返回</b>：当前值。</p>
+     * <p><b>异常</b>：aid 无效。</p>
+     */
+    public static final int ATOMIC_GET = 0x1610;
+
+    /**
+     * 写入原子单元。
+     *
+     * <p><b>Stack</b>：入参 {@code (aid:int, value:int)} → 出参 {@code (rc:int)}</p>
+     * <p><b>语义</b>：volatile 写。</p>
+     * <p><b>返回</b>：成功返回 {@code 0}。</p>
+     * <p><b>异常</b>：aid 无效。</p>
+     */
+    public static final int ATOMIC_SET = 0x1611;
+
+    /**
+     * 原子加（add-and-get）。
+     *
+     * <p><b>Stack</b>：入参 {@code (aid:int, delta:int)} → 出参 {@code (value:int)}</p>
+     * <p><b>语义</b>：原子地加上 delta，溢出按补码回绕。</p>
+     * <p><b>返回</b>：相加后的新值。</p>
+     * <p><b>异常</b>：aid 无效。</p>
+     */
+    public static final int ATOMIC_ADD = 0x1612;
+
+    /**
+     * 原子比较并交换（compare-and-set）。
+     *
+     * <p><b>Stack</b>：入参 {@code (aid:int, expect:int, update:int)} → 出参 {@code (ok:int)}</p>
+     * <p><b>语义</b>：当前值等于 expect 时替换为 update。</p>
+     * <p><b>返回</b>：成功返回 {@code 1}，否则 {@code 0}。</p>
+     * <p><b>异常</b>：aid 无效。</p>
+     */
+    public static final int ATOMIC_CAS = 0x1613;
+
+    /**
+     * 原子交换（exchange）。
+     *
+     * <p><b>Stack</b>：入参 {@code (aid:int, value:int)} → 出参 {@code (old:int)}</p>
+     * <p><b>语义</b>：写入 value 并返回旧值。</p>
+     * <p><b>返回</b>：旧值。</p>
+     * <p><b>异常</b>：aid 无效。</p>
+     */
+    public static final int ATOMIC_XCHG = 0x1614;
+
+    /**
+     * 创建有界通道（MPMC 队列）。
+     *
+     * <p><b>Stack</b>：入参 {@code (cap:int)} → 出参 {@code (fd:int)}</p>
+     * <p><b>语义</b>：通道以 fd 形式存在，可被 IO_WAIT / SELECT / EPOLL 监听（READ=可接收，WRITE=可发送），用 CLOSE 释放。</p>
+     * <p><b>返回</b>：通道 fd。</p>
+     * <p><b>异常</b>：cap 非正。</p>
+     */
+    public static final int CHAN_NEW = 0x1615;
+
+    /**
+     * 阻塞发送。
+     *
+     * <p><b>Stack</b>：入参 {@code (fd:int, value:any)} → 出参 {@code (rc:int)}</p>
+     * <p><b>语义</b>：队列满时阻塞直到有空位。</p>
+     * <p><b>返回</b>：成功返回 {@code 0}。</p>
+     * <p><b>异常</b>：fd 非通道、通道已关闭。</p>
+     */
+    public static final int CHAN_SEND = 0x1616;
+
+    /**
+     * 阻塞接收。
+     *
+     * <p><b>Stack</b>：入参 {@code (fd:int)} → 出参 {@code (value:any)}</p>
+     * <p><b>语义</b>：队列空时阻塞直到有元素或通道关闭。</p>
+     * <p><b>返回</b>：取得的元素。</p>
+     * <p><b>异常</b>：fd 非通道、通道已关闭且已取空。</p>
+     */
+    public static final int CHAN_RECV = 0x1617;
+
+    /**
+     * 非阻塞发送。
+     *
+     * <p><b>Stack</b>：入参 {@code (fd:int, value:any)} → 出参 {@code (ok:int)}</p>
+     * <p><b>返回</b>：成功返回 {@code 1}，队列满返回 {@code 0}。</p>
+     * <p><b>异常</b>：fd 非通道、通道已关闭。</p>
+     */
+    public static final int CHAN_TRY_SEND = 0x1618;
+
+    /**
+     * 非阻塞接收。
+     *
+     * <p><b>Stack</b>：入参 {@code (fd:int)} → 出参 {@code (result:any[])}</p>
+     * <p><b>返回</b>：{@code [status, value]}，status：1=成功，0=为空，-1=已关闭且取空。</p>
+     * <p><b>异常</b>：fd 非通道。</p>
+     */
+    public static final int CHAN_TRY_RECV = 0x1619;
+
+    /**
+     * 限时发送。
+     *
+     * <p><b>Stack</b>：入参 {@code (fd:int, value:any, timeout_ms:int)} → 出参 {@code (ok:int)}</p>
+     * <p><b>语义</b>：队列满时最多等待 timeout_ms 毫秒（负数表示无限）。</p>
+     * <p><b>返回</b>：成功返回 {@code 1}，超时返回 {@code 0}。</p>
+     * <p><b>异常</b>：fd 非通道、通道已关闭。</p>
+     */
+    public static final int CHAN_SEND_TIMED = 0x161A;
+
+    /**
+     * 限时接收。
+     *
+     * <p><b>Stack</b>：入参 {@code (fd:int, timeout_ms:int)} → 出参 {@code (result:any[])}</p>
+     * <p><b>语义</b>：队列空时最多等待 timeout_ms 毫秒（负数表示无限）。</p>
+     * <p><b>返回</b>：{@code [status, value]}，status：1=成功，0=超时，-1=已关闭且取空。</p>
+     * <p><b>异常</b>：fd 非通道。</p>
+     */
+    public static final int CHAN_RECV_TIMED = 0x161B;
+
+    /**
+     * 关闭通道。
+     *
+     * <p><b>Stack</b>：入参 {@code (fd:int)} → 出参 {@code (rc:int)}</p>
+     * <p><b>语义</b>：拒绝后续发送并唤醒所有等待者；不释放 fd。</p>
+     * <p><b>返回</b>：成功返回 {@code 0}。</p>
+     * <p><b>异常</b>：fd 非通道。</p>
+     */
+    public static final int CHAN_CLOSE = 0x161C;
+
+    /**
+     * 查询通道元素个数。
+     *
+     * <p><b>Stack</b>：入参 {@code (fd:int)} → 出参 {@code (n:int)}</p>
+     * <p><b>返回</b>：当前元素个数（瞬时值）。</p>
+     * <p><b>异常</b>：fd 非通道。</p>
+     */
+    public static final int CHAN_LEN = 0x161D;
+
     // endregion
 
 
@@ -1271,5 +1497,55 @@ public final class SyscallOpCode {
      * <p><b>异常</b>：收集平台级指标时若遇到权限或平台差异，处理器会忽略这些额外项并仍返回 JVM heap 信息；因此通常不会向上抛出异常。</p>
      */
     public static final int MEMINFO = 0x1906;
+
+    /**
+     * 读取虚拟机运行时指标。
+     *
+     * <p><b>Stack</b>：入参 {@code ()} → 出参 {@code (map:Map<String,Object>)}</p>
+     * <p><b>语义</b>：返回 {@link org.jcnc.snow.vm.metrics.VMMetrics} 的当前快照：执行指令数、调用次数、最大调用深度、
+     * 各 syscall 调用次数、按 fd 类别统计的读写字节、打开的描述符与线程数、锁等待与 GC 停顿等。</p>
+     * <p><b>返回（典型键）</b>：
+     * <ul>
+     *   <li>{@code "enabled"}: 计数器是否开启（{@code snow run --metrics}）；未开启时计数类指标为 0，
+     *       描述符、线程、GC 等即时量仍有效</li>
+     *   <li>{@code "instructions"} / {@code "calls"} / {@code "maxCallDepth"}（long）</li>
+     *   <li>{@code "syscalls"}: syscall 名 → 调用次数（Map）</li>
+     *   <li>{@code "bytesRead"} / {@code "bytesWritten"}: fd 类别（stdio/file/socket/pipe/other）→ 字节数（Map）</li>
+     *   <li>{@code "openDescriptors"}、{@code "threads"}、{@code "lockWaits"}、{@code "gcCount"}、{@code "gcTimeMillis"} 等</li>
+     * </ul>
+     * </p>
+     * <p><b>异常</b>：正常情况下不抛出异常。</p>
+     */
+    public static final int METRICS = 0x1907;
     // endregion
+
+    /**
+     * 返回 syscall 编号对应的常量名，供剖析报告与运行时指标使用。
+     * <p>
+     * 名称表在首次调用时由本类的 {@code public static final int} 常量反射生成；
+     * 反射不可用（如未登记的 native-image）时表为空。
+     * </p>
+     *
+     * @param opcode syscall 编号
+     * @return 常量名（如 {@code "READ"}），未知编号返回 {@code null}
+     */
+    public static String nameOf(int opcode) {
+        return Names.BY_CODE.get(opcode);
+    }
+
+    private static final class Names {
+        static final Map<Integer, String> BY_CODE = new HashMap<>();
+
+        static {
+            for (Field f : SyscallOpCode.class.getFields()) {
+                int mod = f.getModifiers();
+                if (f.getType() != int.class || !Modifier.isStatic(mod) || !Modifier.isFinal(mod)) continue;
+                try {
+                    BY_CODE.putIfAbsent(f.getInt(null), f.getName());
+                } catch (IllegalAccessException ignored) {
+                    // 仅 public 常量
+                }
+            }
+        }
+    }
 }
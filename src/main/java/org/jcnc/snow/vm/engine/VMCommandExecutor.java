@@ -41,4 +41,31 @@ public class VMCommandExecutor {
             LoggingUtils.logError("Error while executing instructions: " + e.getMessage());
         }
     }
+
+    /**
+     * Executes the virtual machine instructions with an instruction budget.
+     * <p>
+     * If the program is still running once the budget is used up, it is stopped at the next safepoint and the
+     * run fails, so a runaway loop cannot keep the VM busy forever and the caller can exit with an error status.
+     * </p>
+     *
+     * @param virtualMachineEngine The virtual machine instance used to execute the instructions.
+     * @param instructions         The list of instructions to be executed.
+     * @param fuel                 The maximum number of instructions to execute.
+     * @throws IllegalStateException if the budget ran out; the message names the position the program stopped at.
+     */
+    public static void executeInstructions(VirtualMachineEngine virtualMachineEngine, List<String> instructions,
+                                           long fuel) {
+        boolean finished;
+        try {
+            finished = virtualMachineEngine.execute(instructions, fuel);
+        } catch (Exception e) {
+            LoggingUtils.logError("Error while executing instructions: " + e.getMessage());
+            return;
+        }
+        if (!finished) {
+            throw new IllegalStateException("Instruction budget of " + fuel + " exhausted at "
+                    + virtualMachineEngine.location());
+        }
+    }
 }
@@ -0,0 +1,731 @@
+package org.jcnc.snow.vm.engine;
+
+import org.jcnc.snow.compiler.backend.utils.OpHelper;
+import org.jcnc.snow.compiler.parser.utils.JSONParser;
+import org.jcnc.snow.vm.io.DebugInfo;
+import org.jcnc.snow.vm.io.LineTable;
+import org.jcnc.snow.vm.io.SymbolTable;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opcode-level execution profiler ({@code snow run --profile}).
+ *
+ * <p>While a profiling session is active every {@link VirtualMachineEngine}
+ * records, per executed instruction, its opcode, its PC and the opcode that
+ * ran immediately before it on the same engine, together with the wall-clock
+ * time spent on the instruction (fetch, decode and dispatch).  Opcode pairs
+ * point at sequences worth fusing into superinstructions.</p>
+ *
+ * <p>Each engine owns a {@link Recorder} that only its own thread writes to,
+ * so the hot path takes no locks; the report sums all recorders of the
+ * session.  When no session is active the engine gets no recorder and the
+ * interpreter loop does no timing at all.</p>
+ *
+ * <p>The report is produced once per session: when the launcher returns, or
+ * from a shutdown hook when the program ends the JVM through {@code EXIT}.
+ * A top-N table goes to standard error and the full data is written as JSON
+ * (opcode names resolved through {@link OpHelper#opcodeName(int)}).  Engines
+ * still running on other threads at that point contribute whatever they have
+ * recorded so far.</p>
+ *
+ * <p>If the program carries a line table (see {@link LineTable}) each hot
+ * instruction is annotated with its {@code .snow} source position, and the
+ * per-instruction numbers are also summed per source line.</p>
+ *
+ * <p>With {@code --profile-alloc} the recorder also reads the thread's
+ * allocation counter ({@code com.sun.management.ThreadMXBean}) around every
+ * dispatched command and charges the bytes to the opcode, the PC and, for
+ * {@code SYSCALL}, the system call number; the report ranks the top
+ * allocating opcodes, system calls, functions (through the
+ * {@link SymbolTable}) and instructions.  Reading the counter costs a few
+ * tens of nanoseconds, which shows up in the instruction times of that
+ * mode.</p>
+ */
+public final class VMProfiler {
+
+    /**
+     * Size of the per-opcode tables; all opcodes are below {@code 0x0500}.
+     */
+    private static final int OPCODES = 0x0500;
+
+    /**
+     * Size of the per-syscall tables; all system call numbers are below {@code 0x1A00}.
+     */
+    private static final int SYSCALLS = 0x1A00;
+
+    /**
+     * Default number of rows in each section of the table.
+     */
+    public static final int DEFAULT_TOP = 20;
+
+    /**
+     * The active session, or {@code null} when profiling is off.
+     */
+    private static volatile VMProfiler active;
+
+    private final List<String> program;
+    private final DebugInfo debug;
+    private final Path output;
+    private final int top;
+    private final boolean allocations;
+    private final long startNanos = System.nanoTime();
+    private final List<Recorder> recorders = new ArrayList<>();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final Thread shutdownHook = new Thread(this::finish, "snow-profiler");
+
+    private VMProfiler(List<String> program, Options options) {
+        this.program = program;
+        this.debug = DebugInfo.of(program);
+        this.output = options.output();
+        this.top = options.top();
+        this.allocations = options.allocations() && Allocation.SUPPORTED;
+        if (options.allocations() && !allocations)
+            System.err.println("Warning: allocation counters are not supported by this JVM; --profile-alloc ignored");
+    }
+
+    /* ---------- Session lifecycle ---------- */
+
+    /**
+     * Starts a profiling session for {@code program}.
+     *
+     * @param program the loaded instructions
+     * @param options report settings
+     * @return the new session
+     */
+    public static VMProfiler start(List<String> program, Options options) {
+        VMProfiler session = new VMProfiler(program, options);
+        Runtime.getRuntime().addShutdownHook(session.shutdownHook);
+        active = session;
+        return session;
+    }
+
+    /**
+     * Ends the session and prints / writes its report; later calls do nothing.
+     */
+    public void finish() {
+        if (!finished.compareAndSet(false, true)) return;
+        if (active == this) active = null;
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ignored) {
+                // JVM already shutting down
+            }
+        }
+        Report report = report();
+        System.err.print(report.toTable(top));
+        System.err.flush();
+        try {
+            Files.writeString(output, report.toJson() + System.lineSeparator(), StandardCharsets.UTF_8);
+            System.err.println("Profile written to " + output.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Error: cannot write profile " + output + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a recorder for an engine about to run {@code program}.
+     *
+     * @param cached the recorder the engine used last time, may be {@code null}
+     * @param program the instructions the engine runs
+     * @return {@code cached} if it belongs to the active session, a new recorder,
+     * or {@code null} when profiling is off
+     */
+    static Recorder recorder(Recorder cached, List<String> program) {
+        VMProfiler session = active;
+        if (session == null) return null;
+        if (cached != null && cached.session == session && cached.program == program) return cached;
+        Recorder r = new Recorder(session, program);
+        synchronized (session.recorders) {
+            session.recorders.add(r);
+        }
+        return r;
+    }
+
+    /* ---------- Recording ---------- */
+
+    /**
+     * Per-engine counters, written only by the engine's own thread.
+     */
+    static final class Recorder {
+        private final VMProfiler session;
+        private final List<String> program;
+
+        private final long[] opCount = new long[OPCODES];
+        private final long[] opNanos = new long[OPCODES];
+        private final long[] pcCount;
+        private final long[] pcNanos;
+
+        /* allocated bytes; null unless the session counts allocations */
+        private final long[] opBytes;
+        private final long[] pcBytes;
+        private final long[] sysCount;
+        private final long[] sysBytes;
+
+        /* open-addressing table: key = prev * OPCODES + op + 1, 0 = empty */
+        private int[] pairKeys = new int[256];
+        private long[] pairCount = new long[256];
+        private long[] pairNanos = new long[256];
+        private int pairSize;
+
+        private int prevOp = -1;
+        private long prevNanos;
+
+        private Recorder(VMProfiler session, List<String> program) {
+            this.session = session;
+            this.program = program;
+            this.pcCount = new long[program.size()];
+            this.pcNanos = new long[program.size()];
+            boolean alloc = session.allocations;
+            this.opBytes = alloc ? new long[OPCODES] : null;
+            this.pcBytes = alloc ? new long[program.size()] : null;
+            this.sysCount = alloc ? new long[SYSCALLS] : null;
+            this.sysBytes = alloc ? new long[SYSCALLS] : null;
+        }
+
+        /**
+         * Reads the allocation counter before a command is dispatched.
+         *
+         * @return bytes allocated by the current thread so far, or 0 when the
+         * session does not count allocations
+         */
+        long allocated() {
+            return opBytes != null ? Allocation.currentThread() : 0L;
+        }
+
+        /**
+         * Records one executed instruction.
+         *
+         * @param pc         address of the instruction
+         * @param opCode     its opcode
+         * @param parts      its decoded operands (the system call number of {@code SYSCALL})
+         * @param nanos      time spent on it
+         * @param allocStart {@link #allocated()} just before it was dispatched
+         */
+        void record(int pc, int opCode, String[] parts, long nanos, long allocStart) {
+            if (opCode < 0 || opCode >= OPCODES) return;
+            if (opBytes != null) {
+                long bytes = Allocation.currentThread() - allocStart;
+                opBytes[opCode] += bytes;
+                pcBytes[pc] += bytes;
+                if (opCode == VMOpCode.SYSCALL && parts.length > 1) {
+                    int sys = syscallNumber(parts[1]);
+                    if (sys >= 0 && sys < SYSCALLS) {
+                        sysCount[sys]++;
+                        sysBytes[sys] += bytes;
+                    }
+                }
+            }
+            opCount[opCode]++;
+            opNanos[opCode] += nanos;
+            pcCount[pc]++;
+            pcNanos[pc] += nanos;
+            if (prevOp >= 0) {
+                int slot = pairSlot(prevOp * OPCODES + opCode + 1);
+                pairCount[slot]++;
+                pairNanos[slot] += prevNanos + nanos;
+            }
+            prevOp = opCode;
+            prevNanos = nanos;
+        }
+
+        private int pairSlot(int key) {
+            int mask = pairKeys.length - 1;
+            int i = (key * 0x9E3779B9) >>> 8 & mask;
+            while (true) {
+                int k = pairKeys[i];
+                if (k == key) return i;
+                if (k == 0) break;
+                i = (i + 1) & mask;
+            }
+            if ((pairSize + 1) * 2 > pairKeys.length) {
+                grow();
+                return pairSlot(key);
+            }
+            pairKeys[i] = key;
+            pairSize++;
+            return i;
+        }
+
+        private synchronized void grow() {
+            int[] keys = pairKeys;
+            long[] counts = pairCount;
+            long[] nanos = pairNanos;
+            int n = keys.length * 2;
+            int[] nk = new int[n];
+            long[] nc = new long[n];
+            long[] nn = new long[n];
+            for (int j = 0; j < keys.length; j++) {
+                if (keys[j] == 0) continue;
+                int i = (keys[j] * 0x9E3779B9) >>> 8 & (n - 1);
+                while (nk[i] != 0) i = (i + 1) & (n - 1);
+                nk[i] = keys[j];
+                nc[i] = counts[j];
+                nn[i] = nanos[j];
+            }
+            pairKeys = nk;
+            pairCount = nc;
+            pairNanos = nn;
+        }
+
+        /**
+         * Adds this recorder's pairs to {@code into}; synchronized with {@link #grow()}
+         * so the three tables are read consistently.
+         */
+        private synchronized void addPairs(Map<Integer, long[]> into) {
+            for (int j = 0; j < pairKeys.length; j++) {
+                if (pairKeys[j] == 0) continue;
+                long[] acc = into.computeIfAbsent(pairKeys[j] - 1, k -> new long[2]);
+                acc[0] += pairCount[j];
+                acc[1] += pairNanos[j];
+            }
+        }
+    }
+
+    /* ---------- Reporting ---------- */
+
+    private Report report() {
+        Report r = new Report(program.size(), System.nanoTime() - startNanos);
+        List<Recorder> all;
+        synchronized (recorders) {
+            all = new ArrayList<>(recorders);
+        }
+        for (Recorder rec : all) {
+            for (int op = 0; op < OPCODES; op++) {
+                r.opCount[op] += rec.opCount[op];
+                r.opNanos[op] += rec.opNanos[op];
+            }
+            if (rec.program == program) {
+                for (int pc = 0; pc < r.pcCount.length; pc++) {
+                    r.pcCount[pc] += rec.pcCount[pc];
+                    r.pcNanos[pc] += rec.pcNanos[pc];
+                }
+            }
+            if (allocations) {
+                for (int op = 0; op < OPCODES; op++) r.opBytes[op] += rec.opBytes[op];
+                for (int sys = 0; sys < SYSCALLS; sys++) {
+                    r.sysCount[sys] += rec.sysCount[sys];
+                    r.sysBytes[sys] += rec.sysBytes[sys];
+                }
+                if (rec.program == program) {
+                    for (int pc = 0; pc < r.pcBytes.length; pc++) r.pcBytes[pc] += rec.pcBytes[pc];
+                }
+            }
+            rec.addPairs(r.pairs);
+        }
+        r.engines = all.size();
+        return r;
+    }
+
+    /**
+     * Merged counters of one session.
+     */
+    private final class Report {
+        final long[] opCount = new long[OPCODES];
+        final long[] opNanos = new long[OPCODES];
+        final long[] pcCount;
+        final long[] pcNanos;
+        final long[] opBytes = new long[OPCODES];
+        final long[] pcBytes;
+        final long[] sysCount = new long[SYSCALLS];
+        final long[] sysBytes = new long[SYSCALLS];
+        final Map<Integer, long[]> pairs = new HashMap<>();
+        final LineTable lines = debug.lines();
+        final long wallNanos;
+        int engines;
+
+        Report(int programSize, long wallNanos) {
+            this.pcCount = new long[programSize];
+            this.pcNanos = new long[programSize];
+            this.pcBytes = new long[programSize];
+            this.wallNanos = wallNanos;
+        }
+
+        long totalCount() {
+            long n = 0;
+            for (long c : opCount) n += c;
+            return n;
+        }
+
+        long totalNanos() {
+            long n = 0;
+            for (long c : opNanos) n += c;
+            return n;
+        }
+
+        long totalBytes() {
+            long n = 0;
+            for (long c : opBytes) n += c;
+            return n;
+        }
+
+        String toTable(int top) {
+            long count = totalCount();
+            long nanos = totalNanos();
+            StringBuilder sb = new StringBuilder();
+            Formatter f = new Formatter(sb, Locale.ROOT);
+            f.format("%n== VM profile: %d instructions, %.2f ms in instructions, %.2f ms wall, %d engine(s) ==%n",
+                    count, nanos / 1e6, wallNanos / 1e6, engines);
+
+            f.format("%n-- top %d opcodes by time --%n", top);
+            f.format("%-18s %12s %7s %12s %7s %11s%n", "opcode", "count", "count%", "total ms", "time%", "ns/op");
+            for (int op : topIndices(opNanos, opCount, top)) {
+                f.format("%-18s %12d %6.2f%% %12.3f %6.2f%% %11.1f%n", opcodeName(op), opCount[op],
+                        percent(opCount[op], count), opNanos[op] / 1e6, percent(opNanos[op], nanos),
+                        (double) opNanos[op] / opCount[op]);
+            }
+
+            f.format("%n-- top %d instructions by time --%n", top);
+            f.format("%8s %12s %12s %7s  %s%n", "pc", "count", "total ms", "time%", "instruction");
+            for (int pc : topIndices(pcNanos, pcCount, top)) {
+                LineTable.Entry src = lines.at(pc);
+                f.format("%8d %12d %12.3f %6.2f%%  %s%s%n", pc, pcCount[pc], pcNanos[pc] / 1e6,
+                        percent(pcNanos[pc], nanos), describe(pc), src == null ? "" : "  (" + src + ")");
+            }
+
+            if (!lines.isEmpty()) {
+                List<Map.Entry<String, long[]>> bySource = bySource();
+                f.format("%n-- top %d source lines by time --%n", top);
+                f.format("%12s %12s %7s  %s%n", "count", "total ms", "time%", "source");
+                for (Map.Entry<String, long[]> e : bySource.subList(0, Math.min(top, bySource.size()))) {
+                    long[] v = e.getValue();
+                    f.format("%12d %12.3f %6.2f%%  %s%n", v[0], v[1] / 1e6, percent(v[1], nanos), e.getKey());
+                }
+            }
+
+            f.format("%n-- top %d opcode pairs by count --%n", top);
+            f.format("%-37s %12s %7s %12s%n", "first -> second", "count", "count%", "total ms");
+            for (Map.Entry<Integer, long[]> e : topPairs(top)) {
+                int key = e.getKey();
+                long[] v = e.getValue();
+                f.format("%-37s %12d %6.2f%% %12.3f%n",
+                        opcodeName(key / OPCODES) + " -> " + opcodeName(key % OPCODES),
+                        v[0], percent(v[0], count), v[1] / 1e6);
+            }
+            if (allocations) allocationTable(f, top);
+            return sb.toString();
+        }
+
+        private void allocationTable(Formatter f, int top) {
+            long bytes = totalBytes();
+            f.format("%n== VM allocations: %d bytes allocated by dispatched commands ==%n", bytes);
+
+            f.format("%n-- top %d opcodes by allocated bytes --%n", top);
+            f.format("%-18s %12s %14s %7s %11s%n", "opcode", "count", "bytes", "bytes%", "B/op");
+            for (int op : topIndices(opBytes, opCount, top)) {
+                if (opBytes[op] == 0) break;
+                f.format("%-18s %12d %14d %6.2f%% %11.1f%n", opcodeName(op), opCount[op], opBytes[op],
+                        percent(opBytes[op], bytes), (double) opBytes[op] / opCount[op]);
+            }
+
+            f.format("%n-- top %d syscalls by allocated bytes --%n", top);
+            f.format("%-24s %12s %14s %7s %11s%n", "syscall", "count", "bytes", "bytes%", "B/call");
+            for (int sys : topIndices(sysBytes, sysCount, top)) {
+                f.format("%-24s %12d %14d %6.2f%% %11.1f%n", syscallName(sys), sysCount[sys], sysBytes[sys],
+                        percent(sysBytes[sys], bytes), (double) sysBytes[sys] / sysCount[sys]);
+            }
+
+            List<Map.Entry<String, long[]>> byFunction = byFunction();
+            f.format("%n-- top %d functions by allocated bytes (self) --%n", top);
+            f.format("%12s %14s %7s  %s%n", "instructions", "bytes", "bytes%", "function");
+            for (Map.Entry<String, long[]> e : byFunction.subList(0, Math.min(top, byFunction.size()))) {
+                long[] v = e.getValue();
+                if (v[1] == 0) break;
+                f.format("%12d %14d %6.2f%%  %s%n", v[0], v[1], percent(v[1], bytes), e.getKey());
+            }
+
+            f.format("%n-- top %d instructions by allocated bytes --%n", top);
+            f.format("%8s %12s %14s %11s  %s%n", "pc", "count", "bytes", "B/op", "instruction");
+            for (int pc : topIndices(pcBytes, pcCount, top)) {
+                if (pcBytes[pc] == 0) break;
+                LineTable.Entry src = lines.at(pc);
+                f.format("%8d %12d %14d %11.1f  %s%s%n", pc, pcCount[pc], pcBytes[pc],
+                        (double) pcBytes[pc] / pcCount[pc], describe(pc), src == null ? "" : "  (" + src + ")");
+            }
+        }
+
+        String toJson() {
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("instructions", totalCount());
+            root.put("instructionNanos", totalNanos());
+            root.put("wallNanos", wallNanos);
+            root.put("engines", engines);
+
+            List<Object> ops = new ArrayList<>();
+            for (int op : topIndices(opNanos, opCount, OPCODES)) {
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("opcode", op);
+                m.put("name", opcodeName(op));
+                m.put("count", opCount[op]);
+                m.put("nanos", opNanos[op]);
+                if (allocations) m.put("bytes", opBytes[op]);
+                ops.add(m);
+            }
+            root.put("opcodes", ops);
+
+            List<Object> pcs = new ArrayList<>();
+            for (int pc = 0; pc < pcCount.length; pc++) {
+                if (pcCount[pc] == 0) continue;
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("pc", pc);
+                m.put("instruction", describe(pc));
+                LineTable.Entry src = lines.at(pc);
+                if (src != null) m.put("source", src.toString());
+                m.put("count", pcCount[pc]);
+                m.put("nanos", pcNanos[pc]);
+                if (allocations) m.put("bytes", pcBytes[pc]);
+                pcs.add(m);
+            }
+            root.put("pcs", pcs);
+
+            if (!lines.isEmpty()) {
+                List<Object> sources = new ArrayList<>();
+                for (Map.Entry<String, long[]> e : bySource()) {
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("source", e.getKey());
+                    m.put("count", e.getValue()[0]);
+                    m.put("nanos", e.getValue()[1]);
+                    sources.add(m);
+                }
+                root.put("lines", sources);
+            }
+
+            List<Object> pairList = new ArrayList<>();
+            for (Map.Entry<Integer, long[]> e : topPairs(pairs.size())) {
+                int key = e.getKey();
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("first", opcodeName(key / OPCODES));
+                m.put("second", opcodeName(key % OPCODES));
+                m.put("count", e.getValue()[0]);
+                m.put("nanos", e.getValue()[1]);
+                pairList.add(m);
+            }
+            root.put("pairs", pairList);
+
+            if (allocations) {
+                root.put("allocatedBytes", totalBytes());
+                List<Object> syscalls = new ArrayList<>();
+                for (int sys : topIndices(sysBytes, sysCount, SYSCALLS)) {
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("syscall", String.format("0x%04X", sys));
+                    String name = SyscallOpCode.nameOf(sys);
+                    if (name != null) m.put("name", name);
+                    m.put("count", sysCount[sys]);
+                    m.put("bytes", sysBytes[sys]);
+                    syscalls.add(m);
+                }
+                root.put("syscalls", syscalls);
+                List<Object> functions = new ArrayList<>();
+                for (Map.Entry<String, long[]> e : byFunction()) {
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("function", e.getKey());
+                    m.put("count", e.getValue()[0]);
+                    m.put("bytes", e.getValue()[1]);
+                    functions.add(m);
+                }
+                root.put("functions", functions);
+            }
+            return JSONParser.toJson(root);
+        }
+
+        /**
+         * Instruction counts and times summed per source line, most expensive first.
+         */
+        private List<Map.Entry<String, long[]>> bySource() {
+            Map<String, long[]> sums = new HashMap<>();
+            for (int pc = 0; pc < pcCount.length; pc++) {
+                if (pcCount[pc] == 0) continue;
+                LineTable.Entry src = lines.at(pc);
+                long[] v = sums.computeIfAbsent(src == null ? "?" : src.toString(), k -> new long[2]);
+                v[0] += pcCount[pc];
+                v[1] += pcNanos[pc];
+            }
+            List<Map.Entry<String, long[]>> list = new ArrayList<>(sums.entrySet());
+            list.sort((a, b) -> a.getValue()[1] != b.getValue()[1]
+                    ? Long.compare(b.getValue()[1], a.getValue()[1])
+                    : a.getKey().compareTo(b.getKey()));
+            return list;
+        }
+
+        /**
+         * Instruction counts and allocated bytes summed per function, most allocating first.
+         */
+        private List<Map.Entry<String, long[]>> byFunction() {
+            SymbolTable symbols = debug.symbols();
+            Map<String, long[]> sums = new HashMap<>();
+            for (int pc = 0; pc < pcCount.length; pc++) {
+                if (pcCount[pc] == 0) continue;
+                SymbolTable.Function fn = symbols.at(pc);
+                long[] v = sums.computeIfAbsent(fn == null ? "?" : fn.name(), k -> new long[2]);
+                v[0] += pcCount[pc];
+                v[1] += pcBytes[pc];
+            }
+            List<Map.Entry<String, long[]>> list = new ArrayList<>(sums.entrySet());
+            list.sort((a, b) -> a.getValue()[1] != b.getValue()[1]
+                    ? Long.compare(b.getValue()[1], a.getValue()[1])
+                    : a.getKey().compareTo(b.getKey()));
+            return list;
+        }
+
+        private List<Map.Entry<Integer, long[]>> topPairs(int limit) {
+            List<Map.Entry<Integer, long[]>> list = new ArrayList<>(pairs.entrySet());
+            list.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+            return list.subList(0, Math.min(limit, list.size()));
+        }
+
+        /**
+         * The instruction at {@code pc} with its opcode replaced by the mnemonic.
+         */
+        private String describe(int pc) {
+            String line = program.get(pc).trim();
+            int sp = line.indexOf(' ');
+            String code = sp < 0 ? line : line.substring(0, sp);
+            try {
+                return opcodeName(Integer.parseInt(code)) + (sp < 0 ? "" : line.substring(sp));
+            } catch (NumberFormatException e) {
+                return line;
+            }
+        }
+    }
+
+    /**
+     * Indices of the {@code limit} largest non-zero entries of {@code nanos},
+     * ties broken by {@code count}.
+     */
+    private static List<Integer> topIndices(long[] nanos, long[] count, int limit) {
+        List<Integer> idx = new ArrayList<>();
+        for (int i = 0; i < count.length; i++) {
+            if (count[i] > 0) idx.add(i);
+        }
+        idx.sort((a, b) -> nanos[a] != nanos[b]
+                ? Long.compare(nanos[b], nanos[a])
+                : Long.compare(count[b], count[a]));
+        return idx.subList(0, Math.min(limit, idx.size()));
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : part * 100.0 / whole;
+    }
+
+    /**
+     * Parses the operand of {@code SYSCALL} the way the command does (decimal or {@code 0x} hex).
+     */
+    private static int syscallNumber(String token) {
+        try {
+            return token.startsWith("0x") || token.startsWith("0X")
+                    ? Integer.parseInt(token, 2, token.length(), 16)
+                    : Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String syscallName(int sys) {
+        String name = SyscallOpCode.nameOf(sys);
+        return name != null ? name + String.format(" (0x%04X)", sys) : String.format("0x%04X", sys);
+    }
+
+    /**
+     * Current thread's allocation counter.
+     */
+    private static final class Allocation {
+        private static final com.sun.management.ThreadMXBean BEAN = init();
+        static final boolean SUPPORTED = BEAN != null;
+
+        private static com.sun.management.ThreadMXBean init() {
+            try {
+                if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                        && bean.isThreadAllocatedMemorySupported()) {
+                    if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+                    return bean;
+                }
+            } catch (RuntimeException | LinkageError ignored) {
+            }
+            return null;
+        }
+
+        static long currentThread() {
+            return BEAN.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    private static String opcodeName(int op) {
+        try {
+            return OpHelper.opcodeName(op);
+        } catch (IllegalStateException e) {
+            return String.format("0x%04X", op);
+        }
+    }
+
+    /* ---------- Command-line options ---------- */
+
+    /**
+     * Profiler settings taken from the launcher's command line.
+     *
+     * @param top         rows per section of the table
+     * @param output      JSON report file
+     * @param allocations also count the bytes allocated by each dispatched command
+     */
+    public record Options(int top, Path output, boolean allocations) {
+
+        /**
+         * Removes the profiler options from {@code args}.
+         *
+         * <p>Recognised options: {@code --profile}, {@code --profile=<N>}
+         * (table rows, default {@value #DEFAULT_TOP}) and
+         * {@code --profile-out <file>} (implies {@code --profile}) and
+         * {@code --profile-alloc} (adds allocation accounting, implies
+         * {@code --profile}).  Without
+         * {@code --profile-out} the JSON report is written next to the program
+         * as {@code <name>.profile.json}.</p>
+         *
+         * @param args launcher arguments; profiler options are removed in place
+         * @return the settings, or {@code null} if profiling was not requested
+         * @throws IllegalArgumentException if an option is malformed
+         */
+        public static Options extract(List<String> args) {
+            boolean enabled = false;
+            boolean allocations = false;
+            int top = DEFAULT_TOP;
+            Path output = null;
+            for (Iterator<String> it = args.iterator(); it.hasNext(); ) {
+                String a = it.next();
+                if (a.equals("--profile")) {
+                    enabled = true;
+                    it.remove();
+                } else if (a.equals("--profile-alloc")) {
+                    allocations = true;
+                    enabled = true;
+                    it.remove();
+                } else if (a.startsWith("--profile=")) {
+                    String n = a.substring("--profile=".length());
+                    if (!n.matches("\\d+") || Integer.parseInt(n) == 0)
+                        throw new IllegalArgumentException("Invalid argument for --profile: " + n);
+                    top = Integer.parseInt(n);
+                    enabled = true;
+                    it.remove();
+                } else if (a.equals("--profile-out")) {
+                    it.remove();
+                    if (!it.hasNext()) throw new IllegalArgumentException("Missing argument for --profile-out");
+                    output = Path.of(it.next());
+                    it.remove();
+                    enabled = true;
+                }
+            }
+            if (!enabled) return null;
+            if (output == null && !args.isEmpty()) {
+                String file = args.getFirst();
+                String base = file.endsWith(".water") ? file.substring(0, file.length() - ".water".length()) : file;
+                output = Path.of(base + ".profile.json");
+            }
+            return new Options(top, output == null ? Path.of("snow.profile.json") : output, allocations);
+        }
+    }
+}
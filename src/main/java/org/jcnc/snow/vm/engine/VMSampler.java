@@ -0,0 +1,308 @@
+package org.jcnc.snow.vm.engine;
+
+import org.jcnc.snow.vm.io.DebugInfo;
+import org.jcnc.snow.vm.io.SymbolTable;
+import org.jcnc.snow.vm.module.CallStack;
+import org.jcnc.snow.vm.module.StackFrame;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Function-level sampling profiler ({@code snow run --sample}).
+ *
+ * <p>A ticker thread wakes every sampling interval and marks each running
+ * engine as due; the engine takes the sample itself at its next instruction
+ * boundary, so the call stack it walks is always consistent and no locks are
+ * needed on the interpreter's data structures.  A sample that an engine could
+ * not take on time (it was blocked in a system call, say) is not lost: the
+ * missed ticks are added to the next sample, so counts are proportional to
+ * wall-clock time.</p>
+ *
+ * <p>Each frame is mapped to a Snow function through the program's
+ * {@link SymbolTable}: the function of a caller is the one containing its
+ * call site (the callee frame's return address minus one) and the innermost
+ * function is the one containing the current PC.  Programs without a symbol
+ * section fall back to the frame names of the call stack.</p>
+ *
+ * <p>The result is written in the collapsed-stack format read by
+ * flame-graph tools ({@code flamegraph.pl}, speedscope, ...): one line per
+ * distinct stack, outermost function first, separated by {@code ;}, followed
+ * by the sample count.  A short summary of the functions with the most self
+ * samples goes to standard error.</p>
+ */
+public final class VMSampler {
+
+    /**
+     * Default sampling interval in microseconds.
+     */
+    public static final int DEFAULT_INTERVAL_MICROS = 1000;
+
+    /**
+     * Rows in the summary printed at exit.
+     */
+    private static final int SUMMARY_ROWS = 10;
+
+    /**
+     * The active session, or {@code null} when sampling is off.
+     */
+    private static volatile VMSampler active;
+
+    private final SymbolTable symbols;
+    private final Options options;
+    private final List<Probe> probes = new ArrayList<>();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final Thread ticker = new Thread(this::tick, "snow-sampler");
+    private final Thread shutdownHook = new Thread(this::finish, "snow-sampler-report");
+
+    private VMSampler(SymbolTable symbols, Options options) {
+        this.symbols = symbols;
+        this.options = options;
+    }
+
+    /* ---------- Session lifecycle ---------- */
+
+    /**
+     * Starts sampling every engine that runs from now on.
+     *
+     * @param program the loaded instructions; their symbol table is read through {@link DebugInfo}
+     * @param options sampling settings
+     * @return the new session
+     */
+    public static VMSampler start(List<String> program, Options options) {
+        VMSampler session = new VMSampler(DebugInfo.of(program).symbols(), options);
+        Runtime.getRuntime().addShutdownHook(session.shutdownHook);
+        active = session;
+        session.ticker.setDaemon(true);
+        session.ticker.start();
+        return session;
+    }
+
+    /**
+     * Stops sampling and writes the collapsed stacks; later calls do nothing.
+     */
+    public void finish() {
+        if (!finished.compareAndSet(false, true)) return;
+        if (active == this) active = null;
+        ticker.interrupt();
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ignored) {
+                // JVM already shutting down
+            }
+        }
+        Map<String, Long> stacks = new TreeMap<>();
+        List<Probe> all;
+        synchronized (probes) {
+            all = new ArrayList<>(probes);
+        }
+        for (Probe p : all) p.drainInto(stacks);
+
+        long total = 0;
+        try (Writer out = Files.newBufferedWriter(options.output(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> e : stacks.entrySet()) {
+                out.write(e.getKey() + " " + e.getValue() + System.lineSeparator());
+                total += e.getValue();
+            }
+        } catch (IOException e) {
+            System.err.println("Error: cannot write samples " + options.output() + ": " + e.getMessage());
+            return;
+        }
+        System.err.print(summary(stacks, total));
+        System.err.println("Collapsed stacks written to " + options.output().toAbsolutePath());
+    }
+
+    private void tick() {
+        long interval = options.intervalMicros() * 1000L;
+        while (!finished.get()) {
+            LockSupport.parkNanos(interval);
+            if (Thread.interrupted()) return;
+            synchronized (probes) {
+                for (Probe p : probes) {
+                    if (p.running) p.ticks++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the probe for an engine about to start running.
+     *
+     * @param cached the probe the engine used last time, may be {@code null}
+     * @return {@code cached} if it belongs to the active session, a new probe,
+     * or {@code null} when sampling is off
+     */
+    static Probe probe(Probe cached) {
+        VMSampler session = active;
+        if (session == null) return null;
+        if (cached != null && cached.session == session) return cached;
+        Probe p = new Probe(session);
+        synchronized (session.probes) {
+            session.probes.add(p);
+        }
+        return p;
+    }
+
+    /* ---------- Sampling ---------- */
+
+    /**
+     * Per-engine sample counts.  {@link #ticks} is written only by the ticker
+     * thread, everything else only by the engine's own thread.
+     */
+    static final class Probe {
+        private final VMSampler session;
+        private final Map<String, long[]> stacks = new HashMap<>();
+        private final StringBuilder key = new StringBuilder();
+
+        volatile boolean running;
+        volatile int ticks;
+        private int seen;
+
+        private Probe(VMSampler session) {
+            this.session = session;
+        }
+
+        /**
+         * Marks the engine as running (ticks count) or idle (ticks are ignored).
+         */
+        void setRunning(boolean value) {
+            seen = ticks;
+            running = value;
+        }
+
+        /**
+         * @return true if at least one tick arrived since the last sample
+         */
+        boolean due() {
+            return ticks != seen;
+        }
+
+        /**
+         * Takes a sample of the engine that is about to execute {@code pc}.
+         */
+        void capture(int pc, CallStack callStack) {
+            int now = ticks;
+            int weight = now - seen;
+            seen = now;
+            key.setLength(0);
+            Iterator<StackFrame> frames = callStack.framesFromBottom();
+            SymbolTable symbols = session.symbols;
+            if (symbols.isEmpty()) {
+                while (frames.hasNext()) append(frames.next().getMethodContext().methodName());
+            } else {
+                if (frames.hasNext()) frames.next(); // root: named by the first call site below
+                while (frames.hasNext()) append(functionAt(symbols, frames.next().getReturnAddress() - 1));
+                append(functionAt(symbols, pc));
+            }
+            synchronized (this) {
+                stacks.computeIfAbsent(key.toString(), k -> new long[1])[0] += weight;
+            }
+        }
+
+        private void append(String frame) {
+            if (!key.isEmpty()) key.append(';');
+            key.append(frame);
+        }
+
+        private synchronized void drainInto(Map<String, Long> into) {
+            stacks.forEach((k, v) -> into.merge(k, v[0], Long::sum));
+        }
+    }
+
+    private static String functionAt(SymbolTable symbols, int pc) {
+        SymbolTable.Function f = symbols.at(pc);
+        return f != null ? f.name() : "pc@" + pc;
+    }
+
+    /* ---------- Reporting ---------- */
+
+    private String summary(Map<String, Long> stacks, long total) {
+        Map<String, long[]> self = new HashMap<>();   // [self, total]
+        for (Map.Entry<String, Long> e : stacks.entrySet()) {
+            String[] frames = e.getKey().split(";");
+            self.computeIfAbsent(frames[frames.length - 1], k -> new long[2])[0] += e.getValue();
+            Set<String> onStack = new HashSet<>(Arrays.asList(frames));
+            for (String f : onStack) self.computeIfAbsent(f, k -> new long[2])[1] += e.getValue();
+        }
+        List<Map.Entry<String, long[]>> rows = new ArrayList<>(self.entrySet());
+        rows.sort((a, b) -> a.getValue()[0] != b.getValue()[0]
+                ? Long.compare(b.getValue()[0], a.getValue()[0])
+                : Long.compare(b.getValue()[1], a.getValue()[1]));
+
+        StringBuilder sb = new StringBuilder();
+        Formatter f = new Formatter(sb, Locale.ROOT);
+        f.format("%n== VM samples: %d (every %d us), %d distinct stacks%s ==%n", total,
+                options.intervalMicros(), stacks.size(), symbols.isEmpty() ? ", no symbol table" : "");
+        f.format("%10s %7s %10s %7s  %s%n", "self", "self%", "total", "total%", "function");
+        for (Map.Entry<String, long[]> e : rows.subList(0, Math.min(SUMMARY_ROWS, rows.size()))) {
+            long[] v = e.getValue();
+            f.format("%10d %6.2f%% %10d %6.2f%%  %s%n", v[0], total == 0 ? 0 : v[0] * 100.0 / total,
+                    v[1], total == 0 ? 0 : v[1] * 100.0 / total, e.getKey());
+        }
+        return sb.toString();
+    }
+
+    /* ---------- Command-line options ---------- */
+
+    /**
+     * Sampler settings taken from the launcher's command line.
+     *
+     * @param intervalMicros sampling interval in microseconds
+     * @param output         collapsed-stack output file
+     */
+    public record Options(int intervalMicros, Path output) {
+
+        /**
+         * Removes the sampler options from {@code args}.
+         *
+         * <p>Recognised options: {@code --sample}, {@code --sample=<us>}
+         * (interval, default {@value #DEFAULT_INTERVAL_MICROS}) and
+         * {@code --sample-out <file>} (implies {@code --sample}).  Without
+         * {@code --sample-out} the stacks are written next to the program as
+         * {@code <name>.folded}.</p>
+         *
+         * @param args launcher arguments; sampler options are removed in place
+         * @return the settings, or {@code null} if sampling was not requested
+         * @throws IllegalArgumentException if an option is malformed
+         */
+        public static Options extract(List<String> args) {
+            boolean enabled = false;
+            int interval = DEFAULT_INTERVAL_MICROS;
+            Path output = null;
+            for (Iterator<String> it = args.iterator(); it.hasNext(); ) {
+                String a = it.next();
+                if (a.equals("--sample")) {
+                    enabled = true;
+                    it.remove();
+                } else if (a.startsWith("--sample=")) {
+                    String n = a.substring("--sample=".length());
+                    if (!n.matches("\\d{1,9}") || Integer.parseInt(n) == 0)
+                        throw new IllegalArgumentException("Invalid argument for --sample: " + n);
+                    interval = Integer.parseInt(n);
+                    enabled = true;
+                    it.remove();
+                } else if (a.equals("--sample-out")) {
+                    it.remove();
+                    if (!it.hasNext()) throw new IllegalArgumentException("Missing argument for --sample-out");
+                    output = Path.of(it.next());
+                    it.remove();
+                    enabled = true;
+                }
+            }
+            if (!enabled) return null;
+            if (output == null && !args.isEmpty()) {
+                String file = args.getFirst();
+                String base = file.endsWith(".water") ? file.substring(0, file.length() - ".water".length()) : file;
+                output = Path.of(base + ".folded");
+            }
+            return new Options(interval, output == null ? Path.of("snow.folded") : output);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package org.jcnc.snow.vm.engine;
+
+import org.jcnc.snow.vm.commands.system.control.multiplex.utils.SelectorUtils;
+import org.jcnc.snow.vm.io.StdStreams;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cooperative scheduler for lightweight Snow tasks ({@code TASK_SPAWN} /
+ * {@code TASK_JOIN}).
+ *
+ * <p>Every task is a function call on its own {@link VirtualMachineEngine}.
+ * A fixed set of worker threads takes tasks from one FIFO run queue, runs each
+ * for a slice of {@link #quantum()} instructions with
+ * {@link VirtualMachineEngine#resume(long)} and puts it back at the tail if
+ * it yielded, so thousands of tasks share a few threads round-robin and none
+ * can starve the others by looping.  A task may also carry a total
+ * instruction budget ("fuel"); a task that exhausts it is stopped and its
+ * join fails, which bounds runaway loops.</p>
+ *
+ * <p>Slices end only at safepoints of the interpreter.  A task blocked inside
+ * a system call (sleep, socket I/O, channel receive) keeps its worker until
+ * the call returns, so tasks that mostly block belong on
+ * {@code THREAD_CREATE} or {@code SERVE} instead.  A task that joins another
+ * task does not block: its worker runs queued slices until the joined task
+ * is done (see {@link #join}).</p>
+ */
+public final class VMScheduler {
+
+    /**
+     * Default slice length, in instructions.
+     */
+    public static final long DEFAULT_QUANTUM = 10_000;
+
+    private static final Object LOCK = new Object();
+    private static volatile VMScheduler shared;
+
+    /**
+     * Default task budget set by {@code --fuel}; {@link VirtualMachineEngine#UNLIMITED} if none.
+     */
+    private static volatile long defaultFuel = VirtualMachineEngine.UNLIMITED;
+
+    /**
+     * Slice length of the shared scheduler, set by {@code --quantum}.
+     */
+    private static volatile long sharedQuantum = DEFAULT_QUANTUM;
+
+    /**
+     * Scheduler whose worker is the current thread; unset on other threads.
+     */
+    private static final ThreadLocal<VMScheduler> WORKER = new ThreadLocal<>();
+
+    private final long quantum;
+    private final BlockingQueue<Task> runQueue = new LinkedBlockingQueue<>();
+    private final Map<Integer, Task> tasks = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    /**
+     * Starts a scheduler with its worker threads (daemon threads, so an
+     * unfinished task does not keep the VM alive).
+     *
+     * @param threads number of worker threads
+     * @param quantum slice length in instructions
+     * @throws IllegalArgumentException if {@code threads} or {@code quantum} is not positive
+     */
+    public VMScheduler(int threads, long quantum) {
+        if (threads <= 0) throw new IllegalArgumentException("Invalid scheduler threads: " + threads);
+        if (quantum <= 0) throw new IllegalArgumentException("Invalid scheduler quantum: " + quantum);
+        this.quantum = quantum;
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::work, "snow-task-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Returns the VM-wide scheduler used by {@code TASK_SPAWN}, starting it on
+     * first use with one worker per available processor.
+     *
+     * @return the shared scheduler
+     */
+    public static VMScheduler shared() {
+        VMScheduler s = shared;
+        if (s == null) {
+            synchronized (LOCK) {
+                s = shared;
+                if (s == null) {
+                    s = new VMScheduler(Runtime.getRuntime().availableProcessors(), sharedQuantum);
+                    shared = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Applies the launcher's settings: the default task budget and the slice
+     * length of the shared scheduler (if it has not started yet).
+     *
+     * @param options scheduler settings
+     */
+    public static void configure(Options options) {
+        defaultFuel = options.fuel();
+        sharedQuantum = options.quantum();
+    }
+
+    /**
+     * @return the budget given to tasks spawned without one
+     */
+    public static long defaultFuel() {
+        return defaultFuel;
+    }
+
+    /**
+     * @return slice length in instructions
+     */
+    public long quantum() {
+        return quantum;
+    }
+
+    /**
+     * @return tasks spawned and not yet joined
+     */
+    public int size() {
+        return tasks.size();
+    }
+
+    /* ---------- Tasks ---------- */
+
+    /**
+     * Queues a call of {@code program}'s function at {@code entryPC}.
+     *
+     * @param program textual instructions shared with the spawning engine
+     * @param entryPC entry address of the function
+     * @param fuel    total instruction budget; {@link VirtualMachineEngine#UNLIMITED} for none
+     * @param args    call arguments, left to right
+     * @return the new task
+     * @throws IllegalArgumentException if {@code entryPC} is out of range or {@code fuel} is not positive
+     */
+    public Task submit(List<String> program, int entryPC, long fuel, Object... args) {
+        if (fuel <= 0) throw new IllegalArgumentException("Invalid task budget: " + fuel);
+        VirtualMachineEngine engine = new VirtualMachineEngine();
+        engine.load(program, entryPC, args);
+        Task task = new Task(ids.incrementAndGet(), engine, fuel, StdStreams.current());
+        tasks.put(task.id, task);
+        runQueue.add(task);
+        return task;
+    }
+
+    /**
+     * Looks up a task that has not been joined yet.
+     *
+     * @param id task id returned by {@code TASK_SPAWN}
+     * @return the task, or {@code null} if unknown or already joined
+     */
+    public Task get(int id) {
+        return tasks.get(id);
+    }
+
+    /**
+     * Waits for {@code task} to finish.
+     *
+     * <p>On one of this scheduler's own workers the wait keeps taking slices
+     * from the run queue instead of blocking, so a task joining another task
+     * cannot take the last free worker out of the rotation and deadlock (with
+     * one processor there is only one worker).</p>
+     *
+     * @param task task of this scheduler
+     * @return the function's return value
+     * @throws ExecutionException   if the task failed or exhausted its budget
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public Object join(Task task) throws ExecutionException, InterruptedException {
+        if (WORKER.get() == this) {
+            while (!task.result.isDone()) {
+                Task next = runQueue.poll(1, TimeUnit.MILLISECONDS);
+                if (next != null && runSlice(next)) runQueue.add(next);
+            }
+        }
+        return task.result.get();
+    }
+
+    /**
+     * Forgets a joined task.
+     *
+     * @param id task id
+     */
+    public void remove(int id) {
+        tasks.remove(id);
+    }
+
+    private void work() {
+        WORKER.set(this);
+        try {
+            while (true) {
+                Task task;
+                try {
+                    task = runQueue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (runSlice(task)) runQueue.add(task);
+            }
+        } finally {
+            SelectorUtils.closeThreadSelector();
+        }
+    }
+
+    /**
+     * Runs one slice of {@code task}.
+     *
+     * @return {@code true} if the task yielded and should be queued again
+     */
+    private boolean runSlice(Task task) {
+        VirtualMachineEngine engine = task.engine;
+        StdStreams.Binding outer = StdStreams.bind(task.streams);
+        try {
+            long left = task.fuel - engine.executed();
+            boolean finished = engine.resume(Math.min(quantum, left));
+            task.slices++;
+            if (finished) {
+                if (engine.returned()) task.result.complete(engine.result());
+                else task.result.completeExceptionally(new IllegalStateException(
+                        "Task " + task.id + " stopped on an error (see above)"));
+                return false;
+            }
+            if (engine.executed() >= task.fuel) {
+                task.result.completeExceptionally(new IllegalStateException(
+                        "Task " + task.id + " exhausted its budget of " + task.fuel + " instructions at "
+                                + engine.location()));
+                return false;
+            }
+            return true;
+        } catch (Throwable t) {
+            task.result.completeExceptionally(t);
+            return false;
+        } finally {
+            StdStreams.bind(outer);
+        }
+    }
+
+    /**
+     * One spawned Snow function call.
+     */
+    public static final class Task {
+        private final int id;
+        private final VirtualMachineEngine engine;
+        private final long fuel;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        /**
+         * Output binding of the spawning thread; workers are shared, so each
+         * slice runs under it (see {@link StdStreams}).
+         */
+        private final StdStreams.Binding streams;
+
+        /**
+         * Written only by the worker running the task; the run queue hands
+         * the task from worker to worker.
+         */
+        private int slices;
+
+        private Task(int id, VirtualMachineEngine engine, long fuel, StdStreams.Binding streams) {
+            this.id = id;
+            this.engine = engine;
+            this.fuel = fuel;
+            this.streams = streams;
+        }
+
+        /**
+         * @return task id
+         */
+        public int id() {
+            return id;
+        }
+
+        /**
+         * @return completes with the function's return value, or exceptionally
+         * if the task failed or exhausted its budget
+         */
+        public CompletableFuture<Object> result() {
+            return result;
+        }
+
+        /**
+         * @return instructions executed so far
+         */
+        public long executed() {
+            return engine.executed();
+        }
+
+        /**
+         * @return slices the task has run for
+         */
+        public int slices() {
+            return slices;
+        }
+    }
+
+    /* ---------- Command-line options ---------- */
+
+    /**
+     * Budget and time-slice settings taken from the launcher's command line.
+     *
+     * @param fuel    instruction budget of the main program and default budget
+     *                of spawned tasks; {@link VirtualMachineEngine#UNLIMITED} for none
+     * @param quantum slice length of the shared scheduler, in instructions
+     */
+    public record Options(long fuel, long quantum) {
+
+        /**
+         * No budget and the default quantum.
+         */
+        public static final Options DEFAULT = new Options(VirtualMachineEngine.UNLIMITED, DEFAULT_QUANTUM);
+
+        /**
+         * Removes the budget options from {@code args}.
+         *
+         * <p>Recognised options: {@code --fuel=<n>} (stop the program, and
+         * any task spawned without its own budget, after {@code n}
+         * instructions) and {@code --quantum=<n>} (instructions a task runs
+         * before yielding, default {@value #DEFAULT_QUANTUM}).</p>
+         *
+         * @param args launcher arguments; budget options are removed in place
+         * @return the settings, or {@code null} if neither option was given
+         * @throws IllegalArgumentException if an option is malformed
+         */
+        public static Options extract(List<String> args) {
+            boolean given = false;
+            long fuel = VirtualMachineEngine.UNLIMITED;
+            long quantum = DEFAULT_QUANTUM;
+            for (Iterator<String> it = args.iterator(); it.hasNext(); ) {
+                String a = it.next();
+                if (a.startsWith("--fuel=")) {
+                    fuel = positive("--fuel", a.substring("--fuel=".length()));
+                    given = true;
+                    it.remove();
+                } else if (a.startsWith("--quantum=")) {
+                    quantum = positive("--quantum", a.substring("--quantum=".length()));
+                    given = true;
+                    it.remove();
+                }
+            }
+            return given ? new Options(fuel, quantum) : null;
+        }
+
+        private static long positive(String option, String n) {
+            if (!n.matches("\\d{1,18}") || Long.parseLong(n) == 0)
+                throw new IllegalArgumentException("Invalid argument for " + option + ": " + n);
+            return Long.parseLong(n);
+        }
+    }
+}
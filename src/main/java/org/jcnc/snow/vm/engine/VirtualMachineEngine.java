@@ -1,6 +1,8 @@
 package org.jcnc.snow.vm.engine;
 
 import org.jcnc.snow.vm.execution.CommandExecutionHandler;
+import org.jcnc.snow.vm.io.DebugInfo;
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.module.*;
 
 import java.util.List;
@@ -26,6 +28,27 @@ import java.util.List;
  * {@link #ensureRootFrame()} before the first instruction executes
  * and is never popped.  When a {@code RET} executed in the root frame
  * returns {@link #PROGRAM_END}, the main loop exits gracefully.
+ * <p>
+ * Time-slicing:
+ * <p>
+ * All execution state (PC, frames, operand stack) lives in the engine, so a
+ * run can stop and continue later, on any thread.  {@link #load} prepares a
+ * run without executing it and {@link #resume(long)} executes it with a
+ * budget of instructions ("fuel").  The budget is checked only at
+ * <em>safepoints</em> — backward jumps, returns to a lower address and
+ * calls — so straight-line code pays one decrement per instruction, and a
+ * loop or recursion cannot run past its budget by more than one pass
+ * through its body.  {@link VMScheduler} uses this to run many Snow tasks
+ * round-robin on a few threads.
+ * <p>
+ * Stopping:
+ * <p>
+ * A host that runs programs inside its own JVM (the daemon) can ask every
+ * engine to stop with {@link #setStopRequested}.  Runs without a budget are
+ * cut into slices of {@value #STOP_CHECK_INTERVAL} instructions and the flag is
+ * read between slices, so a stop takes effect at the next safepoint without
+ * costing the interpreter loop anything; a run blocked inside a system call
+ * sees it only once the call returns.
  */
 public class VirtualMachineEngine {
 
@@ -41,6 +64,28 @@ public class VirtualMachineEngine {
      */
     private static final int HALT = -1;
 
+    /**
+     * Instruction budget that never runs out.
+     */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    /**
+     * Longest slice run between two checks of {@link #stopRequested}.
+     */
+    private static final long STOP_CHECK_INTERVAL = 1L << 16;
+
+    /**
+     * Set by the host to stop every run at its next safepoint.
+     */
+    private static volatile boolean stopRequested;
+
+    /**
+     * Program currently executed on this thread (set for the duration of
+     * {@link #execute} / {@link #invoke}); lets runtime facilities such as
+     * {@code SERVE} spawn further engines over the same immutable program.
+     */
+    private static final ThreadLocal<List<String>> CURRENT_PROGRAM = new ThreadLocal<>();
+
     /* ---------- Runtime state ---------- */
 
     private final OperandStack operandStack;
@@ -50,6 +95,37 @@ public class VirtualMachineEngine {
 
     private int programCounter;
 
+    /**
+     * Program prepared by {@link #load}; {@code null} before the first run.
+     */
+    private List<String> program;
+
+    /**
+     * Instructions executed since the last {@link #load}.
+     */
+    private long executed;
+
+    /**
+     * Whether the run prepared by the last {@link #load} ended by returning
+     * from its root frame, as opposed to halting or stopping on an error.
+     */
+    private boolean returned;
+
+    /**
+     * Counters of the current profiling session; {@code null} unless profiling.
+     */
+    private VMProfiler.Recorder recorder;
+
+    /**
+     * Sample counts of the current sampling session; {@code null} unless sampling.
+     */
+    private VMSampler.Probe probe;
+
+    /**
+     * Instructions executed but not yet added to {@link VMMetrics}.
+     */
+    private int uncounted;
+
     /* ---------- Construction ---------- */
 
     /**
@@ -78,64 +154,307 @@ public class VirtualMachineEngine {
      * @throws IllegalArgumentException if {@code program} is null / empty
      */
     public void execute(List<String> program) {
+        execute(program, UNLIMITED);
+    }
+
+    /**
+     * Executes the supplied program <em>in place</em>, stopping it once it has
+     * used up {@code fuel} instructions (checked at safepoints).
+     *
+     * @param program textual instructions (“opcode arg1 arg2 …”)
+     * @param fuel    instruction budget; {@link #UNLIMITED} for none
+     * @return {@code true} if the program ended, {@code false} if the budget ran out first
+     * @throws IllegalArgumentException if {@code program} is null / empty
+     */
+    public boolean execute(List<String> program, long fuel) {
+
+        load(program);
 
+        boolean finished = resume(fuel);
+
+        /* ---------- compact root locals & print debug info ---------- */
+        if (finished && !callStack.isEmpty()) {
+            LocalVariableStore rootLvs = callStack.peekFrame().getLocalVariableStore();
+            rootLvs.compact();       // trim leading / trailing null slots
+        }
+        return finished;
+    }
+
+    /**
+     * Runs a single function of {@code program} on this engine.
+     *
+     * <p>The arguments become slots {@code 0..n-1} of the root frame and
+     * execution starts at {@code entryPC}; the function's own {@code RET}
+     * hits the root frame and ends the loop.  Used by runtime facilities
+     * that execute Snow callbacks on other threads, each with an isolated
+     * engine over the shared, immutable program.</p>
+     *
+     * <p>The engine must be fresh or idle (only the root frame left), so one
+     * engine can serve consecutive calls on the same thread, e.g. every
+     * element of a {@code PARALLEL_MAP} chunk.</p>
+     *
+     * @param program textual instructions shared with the spawning engine
+     * @param entryPC entry address of the function (e.g. from {@code fnaddr})
+     * @param args    call arguments, left to right
+     * @return the function's return value, or {@code null} for void functions
+     * @throws IllegalArgumentException if {@code program} is null / empty or
+     *                                  {@code entryPC} is out of range
+     * @throws IllegalStateException    if this engine is in the middle of a call
+     */
+    public Object invoke(List<String> program, int entryPC, Object... args) {
+        load(program, entryPC, args);
+        resume(UNLIMITED);
+        return result();
+    }
+
+    /* ---------- Resumable execution ---------- */
+
+    /**
+     * Prepares a run of the whole program from PC 0 without executing it.
+     *
+     * @param program textual instructions (“opcode arg1 arg2 …”)
+     * @throws IllegalArgumentException if {@code program} is null / empty
+     */
+    public void load(List<String> program) {
         if (program == null || program.isEmpty())
             throw new IllegalArgumentException("The command list cannot be empty or null.");
 
         /* Ensure a single root frame is present. */
         ensureRootFrame();
+        this.program = program;
+        this.executed = 0;
+        this.returned = false;
+    }
+
+    /**
+     * Prepares a call of a single function, as {@link #invoke} does, without
+     * executing it.
+     *
+     * @param program textual instructions shared with the spawning engine
+     * @param entryPC entry address of the function (e.g. from {@code fnaddr})
+     * @param args    call arguments, left to right
+     * @throws IllegalArgumentException if {@code program} is null / empty or
+     *                                  {@code entryPC} is out of range
+     * @throws IllegalStateException    if this engine is in the middle of a call
+     */
+    public void load(List<String> program, int entryPC, Object... args) {
+        if (program == null || program.isEmpty())
+            throw new IllegalArgumentException("The command list cannot be empty or null.");
+        if (entryPC < 0 || entryPC >= program.size())
+            throw new IllegalArgumentException("Invalid entry address: " + entryPC);
+        if (!callStack.isEmpty() && callStack.peekFrame().getReturnAddress() != PROGRAM_END)
+            throw new IllegalStateException("invoke() requires an idle engine.");
+
+        /* Reset leftovers of a previous call. */
+        while (!operandStack.isEmpty()) operandStack.pop();
+        localVariableStore.clearVariables();
+
+        for (int i = 0; i < args.length; i++) {
+            localVariableStore.setVariable(i, args[i]);
+        }
+        ensureRootFrame();
+        programCounter = entryPC;
+        this.program = program;
+        this.executed = 0;
+        this.returned = false;
+    }
 
-        /* -------- Main interpreter loop -------- */
-        while (true) {
+    /**
+     * Continues the prepared run until it ends or has used {@code fuel} more
+     * instructions.  The budget is checked at safepoints only, so the slice
+     * may run a little longer; when it stops early the engine keeps its full
+     * state and the next call carries on, possibly on another thread.
+     *
+     * @param fuel instruction budget of this slice; {@link #UNLIMITED} for none
+     * @return {@code true} if the run ended (or stopped on an error),
+     * {@code false} if it yielded because the budget ran out
+     * @throws IllegalStateException if nothing was loaded
+     */
+    public boolean resume(long fuel) {
+        if (program == null)
+            throw new IllegalStateException("resume() requires a loaded program.");
+        return !run(program, fuel);
+    }
 
-            /* graceful termination */
-            if (programCounter == PROGRAM_END) break;
+    /**
+     * Takes the return value of a finished function call.
+     *
+     * @return the value left on the operand stack, or {@code null} for void functions
+     */
+    public Object result() {
+        return operandStack.isEmpty() ? null : operandStack.pop();
+    }
 
-            /* bounds check */
-            if (programCounter < 0 || programCounter >= program.size()) break;
+    /**
+     * @return instructions executed since the last {@link #load}
+     */
+    public long executed() {
+        return executed;
+    }
 
-            /* -------------------------------------------------
-             * 1) 取指并忽略空行 / 以 '#' 开头的注释行
-             * ------------------------------------------------- */
-            String rawLine = program.get(programCounter).trim();
-            if (rawLine.isEmpty() || rawLine.startsWith("#")) {
-                programCounter++;     // 跳过并继续
-                continue;
-            }
+    /**
+     * Tells a function call that completed from one that failed: a command
+     * error is reported on standard error and halts the run, which then ends
+     * like a normal one.
+     *
+     * @return {@code true} if the last run ended with the {@code RET} of its
+     * root function, {@code false} if it halted, stopped on an error or has
+     * not ended yet; after a halt or an error {@link #location()} names the
+     * instruction it stopped at
+     */
+    public boolean returned() {
+        return returned;
+    }
+
+    /**
+     * @return the current program counter (the next instruction to execute)
+     */
+    public int programCounter() {
+        return programCounter;
+    }
+
+    /**
+     * Describes where a stopped run is, e.g. {@code "PC=42 (app.spin (main.snow:7))"}.
+     *
+     * @return the program counter and, if the program has line tables, its source position
+     */
+    public String location() {
+        return "PC=" + programCounter + (program == null ? "" : sourceOf(program, programCounter));
+    }
 
-            String[] parts = rawLine.split(" ");
+    /**
+     * Asks every engine in the JVM to stop (or lets them run again).  A stopped
+     * run ends as if it had halted: {@link #returned()} is {@code false}.  While
+     * the flag is set, newly started runs stop before their first instruction.
+     *
+     * @param stop {@code true} to stop all runs, {@code false} to clear the request
+     */
+    public static void setStopRequested(boolean stop) {
+        stopRequested = stop;
+    }
+
+    /**
+     * Returns the program executed by the engine running on the calling thread.
+     *
+     * @return the shared instruction list, or {@code null} outside the VM
+     */
+    public static List<String> currentProgram() {
+        return CURRENT_PROGRAM.get();
+    }
 
-            if (parts.length < 1) {
-                System.err.println("Invalid command format at PC=" + programCounter +
-                        " -> Missing opcode");
-                break;
+    /* ---------- Main interpreter loop ---------- */
+
+    /**
+     * @return {@code true} if the loop yielded at a safepoint
+     */
+    private boolean run(List<String> program, long fuel) {
+        List<String> outer = CURRENT_PROGRAM.get();
+        CURRENT_PROGRAM.set(program);
+        recorder = VMProfiler.recorder(recorder, program);
+        probe = VMSampler.probe(probe);
+        if (probe != null) probe.setRunning(true);
+        try {
+            boolean counted = VMMetrics.isEnabled();
+            long left = fuel;
+            while (true) {
+                if (stopRequested) return false;
+                long before = executed;
+                if (!loop(program, recorder, probe, counted, Math.min(left, STOP_CHECK_INTERVAL))) return false;
+                left -= executed - before;
+                if (left <= 0) return true;
             }
+        } finally {
+            if (uncounted > 0) {
+                VMMetrics.instructions(uncounted);
+                uncounted = 0;
+            }
+            if (probe != null) probe.setRunning(false);
+            if (outer == null) CURRENT_PROGRAM.remove();
+            else CURRENT_PROGRAM.set(outer);
+        }
+    }
 
-            try {
-                int opCode = parseOpCode(parts[0]);
+    /**
+     * @param rec    profiling counters, or {@code null}
+     * @param sample sampling probe, or {@code null}; both are locals so an
+     *               unprofiled loop pays one never-taken branch each per instruction
+     * @param counted true if {@link VMMetrics} counts instructions; they are
+     *                added in batches of {@value VMMetrics#INSTRUCTION_BATCH}
+     * @param fuel    instruction budget; decremented per instruction, tested at safepoints
+     * @return {@code true} if the budget ran out at a safepoint, {@code false} if the run ended
+     */
+    private boolean loop(List<String> program, VMProfiler.Recorder rec, VMSampler.Probe sample,
+                         boolean counted, long fuel) {
+        final long budget = fuel;
+        try {
+            while (true) {
+
+                /* graceful termination */
+                if (programCounter == PROGRAM_END) return false;
+
+                /* bounds check */
+                if (programCounter < 0 || programCounter >= program.size()) return false;
 
-                int nextPC = commandExecutionHandler.handle(opCode, parts, programCounter);
+                /* sample at an instruction boundary, where the call stack is consistent */
+                if (sample != null && sample.due()) sample.capture(programCounter, callStack);
 
-                /* HALT / PROGRAM_END → exit */
-                if (nextPC == HALT || nextPC == PROGRAM_END) {
-                    programCounter = PROGRAM_END;
+                /* -------------------------------------------------
+                 * 1) 取指并忽略空行 / 以 '#' 开头的注释行
+                 * ------------------------------------------------- */
+                String rawLine = program.get(programCounter).trim();
+                if (rawLine.isEmpty() || rawLine.startsWith("#")) {
+                    programCounter++;     // 跳过并继续
                     continue;
                 }
 
-                /* 如果处理器未修改 PC，则默认顺序执行下一行 */
-                programCounter = (nextPC == programCounter) ? programCounter + 1 : nextPC;
+                long start = rec != null ? System.nanoTime() : 0L;
+                String[] parts = rawLine.split(" ");
 
-            } catch (IllegalArgumentException e) {
-                System.err.println("Command error at PC=" + programCounter + " -> "
-                        + e.getMessage());
-                break;
-            }
-        }
+                if (parts.length < 1) {
+                    System.err.println("Invalid command format at PC=" + programCounter +
+                            " -> Missing opcode");
+                    return false;
+                }
 
-        /* ---------- compact root locals & print debug info ---------- */
-        if (!callStack.isEmpty()) {
-            LocalVariableStore rootLvs = callStack.peekFrame().getLocalVariableStore();
-            rootLvs.compact();       // trim leading / trailing null slots
+                try {
+                    int opCode = parseOpCode(parts[0]);
+
+                    long allocStart = rec != null ? rec.allocated() : 0L;
+                    int nextPC = commandExecutionHandler.handle(opCode, parts, programCounter);
+                    if (rec != null) rec.record(programCounter, opCode, parts, System.nanoTime() - start, allocStart);
+                    if (counted && ++uncounted == VMMetrics.INSTRUCTION_BATCH) {
+                        VMMetrics.instructions(uncounted);
+                        uncounted = 0;
+                    }
+                    fuel--;
+
+                    /* HALT → stop at the halting instruction, so location() names it */
+                    if (nextPC == HALT) return false;
+
+                    /* PROGRAM_END → the root function returned */
+                    if (nextPC == PROGRAM_END) {
+                        returned = true;
+                        programCounter = PROGRAM_END;
+                        continue;
+                    }
+
+                    /* 安全点：预算耗尽时在向后跳转 / 调用处让出，状态留在引擎中以便恢复 */
+                    if (fuel <= 0 && (nextPC < programCounter || opCode == VMOpCode.CALL)) {
+                        programCounter = nextPC;
+                        return true;
+                    }
+
+                    /* 如果处理器未修改 PC，则默认顺序执行下一行 */
+                    programCounter = (nextPC == programCounter) ? programCounter + 1 : nextPC;
+
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Command error at PC=" + programCounter + sourceOf(program, programCounter)
+                            + " -> " + e.getMessage());
+                    return false;
+                }
+            }
+        } finally {
+            executed += budget - fuel;
         }
     }
 
@@ -177,6 +496,15 @@ public class VirtualMachineEngine {
 
     /* ---------- Utility ---------- */
 
+    /**
+     * Source position of {@code pc} for error messages, e.g. {@code " (Main.main (main.snow:12))"};
+     * reads the program's debug sections on first use, so it is off the hot path.
+     */
+    private static String sourceOf(List<String> program, int pc) {
+        String where = DebugInfo.of(program).describe(pc);
+        return where.isEmpty() ? "" : " (" + where + ")";
+    }
+
     /**
      * Parses textual opcode to integer.
      */
@@ -1,8 +1,10 @@
 package org.jcnc.snow.vm.execution;
 
 
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
 import org.jcnc.snow.vm.factories.CommandFactory;
 import org.jcnc.snow.vm.interfaces.Command;
+import org.jcnc.snow.vm.io.DebugInfo;
 import org.jcnc.snow.vm.module.CallStack;
 import org.jcnc.snow.vm.module.LocalVariableStore;
 import org.jcnc.snow.vm.module.OperandStack;
@@ -52,8 +54,9 @@ public record CommandExecutionHandler(OperandStack operandStack, LocalVariableSt
 
             return command.execute(parts, currentPC, operandStack, currentLVS, callStack);
         } catch (Exception e) {
-            System.err.println("Command execution error (PC=" + currentPC + ") -> "
-                    + e.getMessage());
+            String where = DebugInfo.of(VirtualMachineEngine.currentProgram()).describe(currentPC);
+            System.err.println("Command execution error (PC=" + currentPC + (where.isEmpty() ? "" : ", " + where)
+                    + ") -> " + e.getMessage());
             return -1;   // Ensure the VM main loop terminates safely
         }
     }
@@ -0,0 +1,160 @@
+package org.jcnc.snow.vm.io;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * {@code AtomicRegistry} 维护 VM 级别的原子整数单元（atomic cell），
+ * 为 ATOMIC_* 系统调用提供无锁的共享计数器/标志位。
+ *
+ * <p><b>功能：</b></p>
+ * <ul>
+ *   <li>创建新的原子单元并分配唯一的 ID</li>
+ *   <li>对单元执行 get / set / add-and-get / compare-and-set / exchange</li>
+ * </ul>
+ *
+ * <p><b>实现细节：</b></p>
+ * <ul>
+ *   <li>与 {@link MutexRegistry} 不同，单元不放在 {@code ConcurrentHashMap} 中，
+ *       而是按 ID 分块存放于 {@link AtomicIntegerArray}：{@code chunk = id >>> 10}，
+ *       {@code slot = id & 1023}。一次访问只需两次数组下标，无哈希、无装箱</li>
+ *   <li>块表只增不减；扩容在 {@link #create(int)} 内加锁完成，并通过 volatile 写发布，
+ *       读路径完全无锁</li>
+ *   <li>单元 ID 从 {@code 1} 开始，自增分配；ID 0 保留为无效值</li>
+ *   <li>单元值为 32 位有符号整数，溢出按补码回绕，与 Snow {@code int} 语义一致</li>
+ * </ul>
+ *
+ * <p>该类为工具类，构造方法私有化，不可实例化。</p>
+ */
+public final class AtomicRegistry {
+
+    /**
+     * 每块单元数的位宽（每块 1024 个单元）
+     */
+    private static final int CHUNK_BITS = 10;
+
+    /**
+     * 每块单元数
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /**
+     * 块内偏移掩码
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * 分块存储的单元表；只在持有 {@link #GROW_LOCK} 时替换
+     */
+    private static volatile AtomicIntegerArray[] chunks = new AtomicIntegerArray[]{new AtomicIntegerArray(CHUNK_SIZE)};
+
+    /**
+     * 已分配的单元数（即下一个 ID）；只在持有 {@link #GROW_LOCK} 时修改
+     */
+    private static volatile int next = 1;
+
+    /**
+     * 保护分配与扩容的锁
+     */
+    private static final Object GROW_LOCK = new Object();
+
+    /**
+     * 私有构造方法，禁止外部实例化
+     */
+    private AtomicRegistry() {
+    }
+
+    /**
+     * 创建并注册一个新的原子单元。
+     *
+     * @param initial 初始值
+     * @return 新单元的 ID（int）
+     */
+    public static int create(int initial) {
+        synchronized (GROW_LOCK) {
+            int id = next;
+            int c = id >>> CHUNK_BITS;
+            AtomicIntegerArray[] cur = chunks;
+            if (c >= cur.length) {
+                AtomicIntegerArray[] grown = Arrays.copyOf(cur, cur.length * 2);
+                for (int i = cur.length; i < grown.length; i++) {
+                    grown[i] = new AtomicIntegerArray(CHUNK_SIZE);
+                }
+                cur = grown;
+            }
+            cur[c].set(id & CHUNK_MASK, initial);
+            chunks = cur;
+            next = id + 1;
+            return id;
+        }
+    }
+
+    /**
+     * 读取单元当前值。
+     *
+     * @param id 单元 ID
+     * @return 当前值
+     * @throws IllegalArgumentException 如果 ID 无效
+     */
+    public static int get(int id) {
+        return chunk(id).get(id & CHUNK_MASK);
+    }
+
+    /**
+     * 写入单元值。
+     *
+     * @param id    单元 ID
+     * @param value 新值
+     * @throws IllegalArgumentException 如果 ID 无效
+     */
+    public static void set(int id, int value) {
+        chunk(id).set(id & CHUNK_MASK, value);
+    }
+
+    /**
+     * 原子地加上 delta 并返回新值。
+     *
+     * @param id    单元 ID
+     * @param delta 增量
+     * @return 相加后的值
+     * @throws IllegalArgumentException 如果 ID 无效
+     */
+    public static int addAndGet(int id, int delta) {
+        return chunk(id).addAndGet(id & CHUNK_MASK, delta);
+    }
+
+    /**
+     * 当前值等于 expect 时原子地替换为 update。
+     *
+     * @param id     单元 ID
+     * @param expect 期望值
+     * @param update 新值
+     * @return 替换成功返回 {@code true}
+     * @throws IllegalArgumentException 如果 ID 无效
+     */
+    public static boolean compareAndSet(int id, int expect, int update) {
+        return chunk(id).compareAndSet(id & CHUNK_MASK, expect, update);
+    }
+
+    /**
+     * 原子地写入新值并返回旧值。
+     *
+     * @param id    单元 ID
+     * @param value 新值
+     * @return 旧值
+     * @throws IllegalArgumentException 如果 ID 无效
+     */
+    public static int exchange(int id, int value) {
+        return chunk(id).getAndSet(id & CHUNK_MASK, value);
+    }
+
+    /**
+     * 定位 ID 所在的块并校验 ID 已分配。
+     */
+    private static AtomicIntegerArray chunk(int id) {
+        if (id <= 0 || id >= next) {
+            throw new IllegalArgumentException("Invalid atomic id: " + id);
+        }
+        return chunks[id >>> CHUNK_BITS];
+    }
+}
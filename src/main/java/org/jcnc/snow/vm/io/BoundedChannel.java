@@ -0,0 +1,476 @@
+package org.jcnc.snow.vm.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.Pipe;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code BoundedChannel} 是 CHAN_* 系统调用背后的有界多生产者/多消费者（MPMC）队列，
+ * 以普通 fd 的形式登记在 {@link FDTable} 中。
+ *
+ * <p><b>实现：</b></p>
+ * <ul>
+ *   <li>快路径为基于数组的无锁环形队列（每个槽位带序号，send/recv 各自 CAS 推进 tail/head），
+ *       队列未满/非空时 send/recv 不加锁、不阻塞</li>
+ *   <li>慢路径在 {@link ReentrantLock} 的 notFull/notEmpty 条件上等待；
+ *       快路径只在存在等待者时才加锁唤醒，因此无争用时没有锁开销</li>
+ *   <li>{@link #closeChannel()} 之后 send 失败，recv 先取完剩余元素再报告关闭；所有等待者被立即唤醒</li>
+ *   <li>就绪通知：首次通过 {@link #readReady()} / {@link #writeReady()} 取信号源后，
+ *       每次状态变化都会维护两条 {@link Pipe} 的水平触发信号（可读 ⇔ recv 不会阻塞，
+ *       可写 ⇔ send 不会阻塞），从而可注册到 IO_WAIT / SELECT / EPOLL 使用的 Selector；
+ *       从未被轮询的通道不承担该开销</li>
+ * </ul>
+ *
+ * <p>{@link #close()} 由 FD 关闭路径调用：关闭通道并释放信号管道。</p>
+ */
+public final class BoundedChannel implements Channel {
+
+    /**
+     * {@link #tryRecv()} / {@link #recv(long)} 的“当前为空”返回值
+     */
+    public static final Object EMPTY = new Object();
+
+    /**
+     * {@link #tryRecv()} / {@link #recv(long)} 的“已关闭且取空”返回值
+     */
+    public static final Object CLOSED = new Object();
+
+    private final int capacity;
+    private final Object[] items;
+
+    /**
+     * 槽位序号：等于 pos 表示可写入第 pos 个元素，等于 pos+1 表示第 pos 个元素可读
+     */
+    private final AtomicLongArray seqs;
+
+    /**
+     * 下一个 recv 位置
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * 下一个 send 位置
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 是否已关闭（不再接受 send）
+     */
+    private volatile boolean closed;
+
+    /**
+     * fd 是否已释放
+     */
+    private volatile boolean released;
+
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition notEmpty = waitLock.newCondition();
+    private final Condition notFull = waitLock.newCondition();
+    private final AtomicInteger recvWaiters = new AtomicInteger();
+    private final AtomicInteger sendWaiters = new AtomicInteger();
+
+    /**
+     * 就绪信号；首次请求时创建
+     */
+    private final Object signalLock = new Object();
+    private volatile boolean signalsOn;
+    private Pipe readSignal;
+    private Pipe writeSignal;
+    private boolean readRaised;
+    private boolean writeRaised;
+
+    /**
+     * 创建容量为 capacity 的通道。
+     *
+     * @param capacity 容量，必须大于 0
+     * @throws IllegalArgumentException 容量非法
+     */
+    public BoundedChannel(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("channel capacity must be > 0: " + capacity);
+        }
+        this.capacity = capacity;
+        this.items = new Object[capacity];
+        this.seqs = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            seqs.set(i, i);
+        }
+    }
+
+    /**
+     * 通过 fd 查找通道。
+     *
+     * @param fd 文件描述符
+     * @return 对应的通道
+     * @throws IllegalArgumentException fd 不是通道
+     */
+    public static BoundedChannel fromFd(int fd) {
+        if (FDTable.get(fd) instanceof BoundedChannel ch) {
+            return ch;
+        }
+        throw new IllegalArgumentException("Invalid channel fd: " + fd);
+    }
+
+    /**
+     * @return 容量
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return 当前元素个数（并发下为近似值）
+     */
+    public int size() {
+        long h = head.get();
+        long t = tail.get();
+        return (int) Math.max(0, Math.min(capacity, t - h));
+    }
+
+    /**
+     * @return 是否已关闭
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // ---------------------------------------------------------------- send
+
+    /**
+     * 非阻塞发送。
+     *
+     * @param value 元素
+     * @return 成功入队返回 {@code true}，队列已满返回 {@code false}
+     * @throws IllegalStateException 通道已关闭
+     */
+    public boolean trySend(Object value) {
+        if (closed) {
+            throw new IllegalStateException("send on closed channel");
+        }
+        if (!offer(value)) {
+            return false;
+        }
+        afterSend();
+        return true;
+    }
+
+    /**
+     * 阻塞发送。
+     *
+     * @param value        元素
+     * @param timeoutNanos 超时纳秒；小于 0 表示无限等待
+     * @return 成功返回 {@code true}，超时返回 {@code false}
+     * @throws IllegalStateException 通道已关闭（包括等待期间被关闭）
+     * @throws InterruptedException  等待被中断
+     */
+    public boolean send(Object value, long timeoutNanos) throws InterruptedException {
+        if (trySend(value)) {
+            return true;
+        }
+        long nanos = timeoutNanos;
+        waitLock.lockInterruptibly();
+        sendWaiters.incrementAndGet();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new IllegalStateException("send on closed channel");
+                }
+                if (offer(value)) {
+                    break;
+                }
+                if (timeoutNanos < 0) {
+                    notFull.await();
+                } else {
+                    if (nanos <= 0) {
+                        return false;
+                    }
+                    nanos = notFull.awaitNanos(nanos);
+                }
+            }
+        } finally {
+            sendWaiters.decrementAndGet();
+            waitLock.unlock();
+        }
+        afterSend();
+        return true;
+    }
+
+    // ---------------------------------------------------------------- recv
+
+    /**
+     * 非阻塞接收。
+     *
+     * @return 元素；为空时返回 {@link #EMPTY}；已关闭且取空时返回 {@link #CLOSED}
+     */
+    public Object tryRecv() {
+        Object v = poll();
+        if (v != EMPTY) {
+            afterRecv();
+            return v;
+        }
+        if (closed) {
+            // 关闭前入队的元素仍需交付
+            v = poll();
+            if (v != EMPTY) {
+                afterRecv();
+                return v;
+            }
+            return CLOSED;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * 阻塞接收。
+     *
+     * @param timeoutNanos 超时纳秒；小于 0 表示无限等待
+     * @return 元素；超时返回 {@link #EMPTY}；已关闭且取空时返回 {@link #CLOSED}
+     * @throws InterruptedException 等待被中断
+     */
+    public Object recv(long timeoutNanos) throws InterruptedException {
+        Object v = tryRecv();
+        if (v != EMPTY) {
+            return v;
+        }
+        long nanos = timeoutNanos;
+        waitLock.lockInterruptibly();
+        recvWaiters.incrementAndGet();
+        try {
+            while (true) {
+                v = poll();
+                if (v != EMPTY) {
+                    break;
+                }
+                if (closed) {
+                    v = poll();
+                    if (v != EMPTY) {
+                        break;
+                    }
+                    return CLOSED;
+                }
+                if (timeoutNanos < 0) {
+                    notEmpty.await();
+                } else {
+                    if (nanos <= 0) {
+                        return EMPTY;
+                    }
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+            }
+        } finally {
+            recvWaiters.decrementAndGet();
+            waitLock.unlock();
+        }
+        afterRecv();
+        return v;
+    }
+
+    // ---------------------------------------------------------------- close
+
+    /**
+     * 关闭通道：此后 send 失败，recv 取完剩余元素后返回 {@link #CLOSED}。幂等。
+     */
+    public void closeChannel() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        waitLock.lock();
+        try {
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            waitLock.unlock();
+        }
+        refreshSignals();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !released;
+    }
+
+    /**
+     * 释放 fd：关闭通道并关闭信号管道。
+     */
+    @Override
+    public void close() throws IOException {
+        closeChannel();
+        released = true;
+        synchronized (signalLock) {
+            if (readSignal != null) {
+                closePipe(readSignal);
+                closePipe(writeSignal);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- readiness
+
+    /**
+     * 返回“可接收”信号源（非阻塞模式），注册 {@code OP_READ} 使用。
+     *
+     * @return 当 recv 不会阻塞（非空或已关闭）时可读的 source
+     * @throws IOException 创建管道失败
+     */
+    public Pipe.SourceChannel readReady() throws IOException {
+        ensureSignals();
+        return readSignal.source();
+    }
+
+    /**
+     * 返回“可发送”信号源（非阻塞模式），注册 {@code OP_READ} 使用。
+     *
+     * @return 当 send 不会阻塞（未满或已关闭）时可读的 source
+     * @throws IOException 创建管道失败
+     */
+    public Pipe.SourceChannel writeReady() throws IOException {
+        ensureSignals();
+        return writeSignal.source();
+    }
+
+    private void ensureSignals() throws IOException {
+        if (signalsOn) return;
+        synchronized (signalLock) {
+            if (readSignal == null) {
+                Pipe r = Pipe.open();
+                Pipe w = Pipe.open();
+                r.source().configureBlocking(false);
+                w.source().configureBlocking(false);
+                readSignal = r;
+                writeSignal = w;
+                refreshLocked();
+                signalsOn = true;
+            }
+        }
+    }
+
+    private void refreshSignals() {
+        if (!signalsOn) return;
+        synchronized (signalLock) {
+            refreshLocked();
+        }
+    }
+
+    /**
+     * 按当前状态升降信号；调用方持有 {@link #signalLock}。
+     * 每次状态变化后都会调用，最后一次刷新读取的总是最新状态，因此信号最终一致。
+     */
+    private void refreshLocked() {
+        int n = size();
+        readRaised = level(readSignal, readRaised, closed || n > 0);
+        writeRaised = level(writeSignal, writeRaised, closed || n < capacity);
+    }
+
+    private static boolean level(Pipe pipe, boolean raised, boolean want) {
+        if (want == raised) return raised;
+        try {
+            if (want) {
+                pipe.sink().write(ByteBuffer.wrap(new byte[]{1}));
+            } else {
+                ByteBuffer drain = ByteBuffer.allocate(16);
+                while (pipe.source().read(drain) > 0) {
+                    drain.clear();
+                }
+            }
+        } catch (IOException ignored) {
+            // 管道已关闭：仅影响就绪通知
+        }
+        return want;
+    }
+
+    private static void closePipe(Pipe pipe) {
+        try {
+            pipe.sink().close();
+        } catch (IOException ignored) {
+        }
+        try {
+            pipe.source().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    // ---------------------------------------------------------------- ring
+
+    private boolean offer(Object value) {
+        long pos = tail.get();
+        while (true) {
+            int idx = (int) (pos % capacity);
+            long dif = seqs.get(idx) - pos;
+            if (dif == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items[idx] = value;
+                    seqs.set(idx, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (dif < 0) {
+                return false; // 已满
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    private Object poll() {
+        long pos = head.get();
+        while (true) {
+            int idx = (int) (pos % capacity);
+            long dif = seqs.get(idx) - (pos + 1);
+            if (dif == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    Object v = items[idx];
+                    items[idx] = null;
+                    seqs.set(idx, pos + capacity);
+                    return v;
+                }
+                pos = head.get();
+            } else if (dif < 0) {
+                return EMPTY; // 为空
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    private void afterSend() {
+        if (recvWaiters.get() > 0) {
+            waitLock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+        refreshSignals();
+    }
+
+    private void afterRecv() {
+        if (sendWaiters.get() > 0) {
+            waitLock.lock();
+            try {
+                notFull.signal();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+        refreshSignals();
+    }
+
+    /**
+     * 将毫秒超时换算为 {@link #send(Object, long)} / {@link #recv(long)} 使用的纳秒超时。
+     *
+     * @param timeoutMs 毫秒；小于 0 表示无限等待
+     * @return 纳秒；小于 0 表示无限等待
+     */
+    public static long timeoutNanos(int timeoutMs) {
+        return timeoutMs < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+}
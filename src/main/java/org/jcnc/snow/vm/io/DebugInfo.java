@@ -0,0 +1,109 @@
+package org.jcnc.snow.vm.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Debug sections ({@link SymbolTable}, {@link LineTable}) of the programs the
+ * VM is running, keyed by the loaded instruction list.
+ *
+ * <p>The launcher attaches the file a program was loaded from; the sections
+ * are read from it the first time something asks for them (a profiler report,
+ * an error message) and then cached.  Normal execution never touches the
+ * file again.</p>
+ */
+public final class DebugInfo {
+
+    private static final Map<List<String>, DebugInfo> PROGRAMS =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private static final DebugInfo NONE = new DebugInfo(null);
+
+    private final Path file;
+    private volatile SymbolTable symbols;
+    private volatile LineTable lines;
+
+    private DebugInfo(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Associates a loaded program with the file it was read from.
+     *
+     * @param program the instruction list handed to the engine
+     * @param file    its {@code .water} file
+     */
+    public static void attach(List<String> program, Path file) {
+        PROGRAMS.put(program, new DebugInfo(file));
+    }
+
+    /**
+     * Forgets a program once it has finished running.
+     *
+     * @param program the instruction list passed to {@link #attach}
+     */
+    public static void detach(List<String> program) {
+        PROGRAMS.remove(program);
+    }
+
+    /**
+     * Returns the debug sections of {@code program}.
+     *
+     * @param program an instruction list, may be {@code null}
+     * @return its debug information; an empty one if nothing is attached
+     */
+    public static DebugInfo of(List<String> program) {
+        DebugInfo info = program == null ? null : PROGRAMS.get(program);
+        return info != null ? info : NONE;
+    }
+
+    /**
+     * @return the function symbol table, read on first use
+     */
+    public SymbolTable symbols() {
+        SymbolTable s = symbols;
+        if (s == null) {
+            try {
+                s = file == null ? SymbolTable.EMPTY : SymbolTable.read(file);
+            } catch (IOException e) {
+                s = SymbolTable.EMPTY;
+            }
+            symbols = s;
+        }
+        return s;
+    }
+
+    /**
+     * @return the source line table, read on first use
+     */
+    public LineTable lines() {
+        LineTable l = lines;
+        if (l == null) {
+            try {
+                l = file == null ? LineTable.EMPTY : LineTable.read(file);
+            } catch (IOException e) {
+                l = LineTable.EMPTY;
+            }
+            lines = l;
+        }
+        return l;
+    }
+
+    /**
+     * Describes where {@code pc} comes from, e.g. {@code "Main.main (main.snow:12)"}.
+     *
+     * @param pc program counter
+     * @return function and source position as far as known; empty if nothing is known
+     */
+    public String describe(int pc) {
+        SymbolTable.Function f = symbols().at(pc);
+        LineTable.Entry e = lines().at(pc);
+        if (f == null && e == null) return "";
+        if (f == null) return e.toString();
+        return e == null ? f.name() : f.name() + " (" + e + ")";
+    }
+}
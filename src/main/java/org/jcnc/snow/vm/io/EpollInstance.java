@@ -5,7 +5,9 @@ import java.nio.channels.Channel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -18,7 +20,10 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <li>4 = CONNECT（OP_CONNECT）</li>
  * </ul>
  * </p>
- * <p>支持标准流 fd（0/1/2）。</p>
+ * <p>支持标准流 fd（0/1/2）：fd=0 的 READ 通过 {@link StdinPump#readySource()} 注册到同一个
+ * Selector，因此等待 stdin 与等待套接字一样在内核中阻塞，无需轮询；fd=1/2 的 WRITE 视为始终就绪。</p>
+ * <p>支持通道 fd（{@link BoundedChannel}）：READ/WRITE 分别注册其可接收/可发送信号管道，
+ * 可发送信号源的就绪由 {@link #isWriteSignal(SelectableChannel)} 识别并报告为 WRITE。</p>
  */
 public class EpollInstance {
 
@@ -34,6 +39,15 @@ public class EpollInstance {
     // key: fd (0/1/2), value: events
     private final Map<Integer, Integer> pseudoFds = new ConcurrentHashMap<>();
 
+    // fd=0 的就绪信号源（已注册到 selector 时非 null）
+    private volatile SelectableChannel stdinSource;
+
+    // 通道 fd 的“可发送”信号源：其可读就绪应报告为 WRITE
+    private final Set<SelectableChannel> writeSignals = ConcurrentHashMap.newKeySet();
+
+    // 通道 fd -> 已注册的信号源
+    private final Map<Integer, List<SelectableChannel>> signalSources = new ConcurrentHashMap<>();
+
     public EpollInstance(int flags) throws IOException {
         this.flags = flags;
         this.selector = Selector.open();
@@ -58,7 +72,14 @@ public class EpollInstance {
      * 判断某个 fd 是否已被注册到该 epoll 实例。
      */
     public boolean containsFd(int fd) {
-        return fdToChannel.containsKey(fd);
+        return fdToChannel.containsKey(fd) || signalSources.containsKey(fd);
+    }
+
+    /**
+     * 判断 selector 中的某个信号源是否代表“可发送”（WRITE）就绪。
+     */
+    public boolean isWriteSignal(SelectableChannel ch) {
+        return writeSignals.contains(ch);
     }
 
     /**
@@ -69,6 +90,10 @@ public class EpollInstance {
      */
     public void addOrUpdate(int fd, int events) throws IOException {
         Channel ch = FDTable.get(fd);
+        if (ch instanceof BoundedChannel q) {
+            addOrUpdateChannel(fd, q, events);
+            return;
+        }
         if (!(ch instanceof SelectableChannel sc)) {
             throw new IllegalArgumentException("fd " + fd + " 不是可选择通道（SelectableChannel）");
         }
@@ -87,6 +112,30 @@ public class EpollInstance {
         channelToFd.put(sc, fd);
     }
 
+    /**
+     * 注册或更新通道 fd：READ 监听可接收信号，WRITE 监听可发送信号（两者均以 OP_READ 注册）。
+     */
+    private void addOrUpdateChannel(int fd, BoundedChannel q, int events) throws IOException {
+        SelectableChannel readSrc = q.readReady();
+        SelectableChannel writeSrc = q.writeReady();
+        armSignal(readSrc, (events & 1) != 0);
+        armSignal(writeSrc, (events & 2) != 0);
+        channelToFd.put(readSrc, fd);
+        channelToFd.put(writeSrc, fd);
+        writeSignals.add(writeSrc);
+        signalSources.put(fd, List.of(readSrc, writeSrc));
+    }
+
+    private void armSignal(SelectableChannel source, boolean on) throws IOException {
+        int ops = on ? SelectionKey.OP_READ : 0;
+        SelectionKey key = source.keyFor(selector);
+        if (key == null) {
+            source.register(selector, ops);
+        } else {
+            key.interestOps(ops);
+        }
+    }
+
     /**
      * 移除一个 fd 的监控。
      *
@@ -101,8 +150,22 @@ public class EpollInstance {
                 key.cancel();
             }
         }
+        // 移除通道信号源
+        List<SelectableChannel> sources = signalSources.remove(fd);
+        if (sources != null) {
+            for (SelectableChannel src : sources) {
+                channelToFd.remove(src);
+                writeSignals.remove(src);
+                SelectionKey key = src.keyFor(selector);
+                if (key != null) {
+                    key.cancel();
+                }
+            }
+        }
         // 移除 pseudo fd
-        pseudoFds.remove(fd);
+        if (pseudoFds.remove(fd) != null && fd == 0) {
+            unregisterStdin();
+        }
     }
 
     /**
@@ -120,9 +183,24 @@ public class EpollInstance {
 
     /**
      * 添加或更新 pseudo fd（0/1/2）事件掩码。
+     * fd=0 关注 READ 时，将 stdin 就绪信号管道注册到本实例的 Selector。
+     *
+     * @throws IOException 注册信号管道失败
      */
-    public void addOrUpdatePseudo(int fd, int events) {
+    public void addOrUpdatePseudo(int fd, int events) throws IOException {
         pseudoFds.put(fd, events);
+        if (fd == 0) {
+            SelectableChannel source = StdinPump.readySource();
+            SelectionKey key = source.keyFor(selector);
+            int ops = (events & 1) != 0 ? SelectionKey.OP_READ : 0;
+            if (key == null) {
+                source.register(selector, ops);
+            } else {
+                key.interestOps(ops);
+            }
+            channelToFd.put(source, 0);
+            stdinSource = source;
+        }
     }
 
     /**
@@ -130,6 +208,22 @@ public class EpollInstance {
      */
     public void removePseudo(int fd) {
         pseudoFds.remove(fd);
+        if (fd == 0) {
+            unregisterStdin();
+        }
+    }
+
+    /**
+     * 取消 stdin 信号管道在本实例 Selector 上的注册。
+     */
+    private void unregisterStdin() {
+        SelectableChannel source = stdinSource;
+        stdinSource = null;
+        if (source != null) {
+            channelToFd.remove(source);
+            SelectionKey key = source.keyFor(selector);
+            if (key != null) key.cancel();
+        }
     }
 
     /**
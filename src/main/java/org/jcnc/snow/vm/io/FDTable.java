@@ -1,8 +1,9 @@
 package org.jcnc.snow.vm.io;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.file.Path;
@@ -19,7 +20,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * </p>
  *
  * <ul>
- *   <li>fd 0: 标准输入（{@code ReadableByteChannel}）</li>
+ *   <li>fd 0: 标准输入（{@code ReadableByteChannel}，经由 {@link StdinPump} 读取）</li>
  *   <li>fd 1: 标准输出（{@code WritableByteChannel}）</li>
  *   <li>fd 2: 标准错误（{@code WritableByteChannel}）</li>
  *   <li>fd ≥ 3: 动态分配，各种 I/O 资源</li>
@@ -39,11 +40,19 @@ public final class FDTable {
      * fd 分配器，从 3 开始递增
      */
     private static final AtomicInteger NEXT_FD = new AtomicInteger(3);
+    /**
+     * 未绑定 {@link StdStreams} 的线程上 fd 1 的缓冲流，写入时转发到<b>当前</b>的 {@link System#out}
+     */
+    private static final BufferedOutputStream STDOUT = new BufferedOutputStream(new CurrentStream(true));
+    /**
+     * 未绑定 {@link StdStreams} 的线程上 fd 2 的缓冲流，写入时转发到<b>当前</b>的 {@link System#err}
+     */
+    private static final BufferedOutputStream STDERR = new BufferedOutputStream(new CurrentStream(false));
 
     static {
-        MAP.put(0, Channels.newChannel(new BufferedInputStream(System.in)));
-        MAP.put(1, Channels.newChannel(new BufferedOutputStream(System.out)));
-        MAP.put(2, Channels.newChannel(new BufferedOutputStream(System.err)));
+        MAP.put(0, Channels.newChannel(StdinPump.inputStream()));
+        MAP.put(1, Channels.newChannel(new BoundStream(true)));
+        MAP.put(2, Channels.newChannel(new BoundStream(false)));
     }
 
     private FDTable() {
@@ -79,6 +88,31 @@ public final class FDTable {
         return fd;
     }
 
+    /**
+     * 刷新当前线程 fd 1/2 的缓冲区及 {@link System#out}/{@link System#err}。
+     * <p>
+     * 程序在同一 JVM 内运行结束时（如守护进程模式）调用，保证输出在请求结束前全部写出。
+     * </p>
+     */
+    public static void flushStandardStreams() {
+        try {
+            buffer(true).flush();
+            buffer(false).flush();
+        } catch (IOException ignored) {
+        }
+        System.out.flush();
+        System.err.flush();
+    }
+
+    /**
+     * 当前线程 fd 1/2 的缓冲流：绑定了 {@link StdStreams} 时为绑定自己的缓冲区，否则为全局缓冲区。
+     */
+    private static BufferedOutputStream buffer(boolean out) {
+        BufferedOutputStream bound = StdStreams.fdStream(out);
+        if (bound != null) return bound;
+        return out ? STDOUT : STDERR;
+    }
+
     /**
      * 通过 fd 获取通道。
      *
@@ -99,6 +133,15 @@ public final class FDTable {
         return PATHS.get(fd);
     }
 
+    /**
+     * 返回当前登记的 fd 数量（含 0/1/2），供运行时指标使用。
+     *
+     * @return 打开的 fd 数
+     */
+    public static int size() {
+        return MAP.size();
+    }
+
     /**
      * 关闭并移除 fd。对 0/1/2 只执行 flush，不关闭。
      *
@@ -112,8 +155,10 @@ public final class FDTable {
         if (fd <= 2) {
             // 刷新标准输出/错误
             if (fd == 1) {
+                buffer(true).flush();
                 System.out.flush();
             } else if (fd == 2) {
+                buffer(false).flush();
                 System.err.flush();
             }
             return;
@@ -183,4 +228,61 @@ public final class FDTable {
         NEXT_FD.updateAndGet(n -> Math.max(n, newfd + 1));
         return newfd;
     }
+
+    /**
+     * 写入时才读取 {@link System#out}/{@link System#err} 的输出流，
+     * 使 {@link System#setOut}/{@link System#setErr} 的重定向对 fd 1/2 同样生效。
+     */
+    private static final class CurrentStream extends OutputStream {
+        private final boolean out;
+
+        CurrentStream(boolean out) {
+            this.out = out;
+        }
+
+        private PrintStream target() {
+            return out ? System.out : System.err;
+        }
+
+        @Override
+        public void write(int b) {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            target().flush();
+        }
+    }
+
+    /**
+     * fd 1/2 的通道所写的流，写入时才按当前线程选择缓冲区（见 {@link #buffer}）。
+     */
+    private static final class BoundStream extends OutputStream {
+        private final boolean out;
+
+        BoundStream(boolean out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            buffer(out).write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            buffer(out).write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            buffer(out).flush();
+        }
+    }
 }
@@ -0,0 +1,216 @@
+package org.jcnc.snow.vm.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Source line table of a {@code .water} program (PC → {@code .snow} file and line).
+ *
+ * <p>Stored after the code as a comment section, like the {@link SymbolTable}.
+ * Each entry holds from its PC up to the next entry's PC; a file line switches
+ * the source file of the entries that follow it, and line {@code 0} marks code
+ * without a source position (compiler-generated functions):</p>
+ * <pre>
+ * // .lines
+ * // file &lt;path&gt;
+ * // &lt;PC&gt; &lt;line&gt;
+ * ...
+ * </pre>
+ *
+ * <p>The compiler emits one entry per change of source statement, so the
+ * table stays small; the VM never reads it on the hot path, only when a tool
+ * or an error message asks for a position (see {@link DebugInfo}).</p>
+ */
+public final class LineTable {
+
+    /**
+     * Header line of the line-number section.
+     */
+    public static final String SECTION = "// .lines";
+
+    /**
+     * Table without entries (program compiled without line information).
+     */
+    public static final LineTable EMPTY = new LineTable(List.of());
+
+    private final List<Entry> entries;
+    private final int[] pcs;
+
+    /**
+     * @param entries entries sorted by PC
+     */
+    public LineTable(List<Entry> entries) {
+        this.entries = List.copyOf(entries);
+        this.pcs = new int[entries.size()];
+        for (int i = 0; i < pcs.length; i++) pcs[i] = entries.get(i).pc();
+    }
+
+    /**
+     * Source position of the code starting at {@code pc}.
+     *
+     * @param pc   first PC the entry applies to
+     * @param file source file, {@code null} if unknown
+     * @param line 1-based source line, {@code 0} if unknown
+     */
+    public record Entry(int pc, String file, int line) {
+
+        /**
+         * @return true if the entry carries a source position
+         */
+        public boolean known() {
+            return file != null && line > 0;
+        }
+
+        @Override
+        public String toString() {
+            return known() ? file + ":" + line : "?";
+        }
+    }
+
+    /**
+     * Renders the section lines to append after the code.
+     *
+     * @param entries entries sorted by PC
+     * @return section lines, header first; empty if there are no entries
+     */
+    public static List<String> render(List<Entry> entries) {
+        if (entries.isEmpty()) return List.of();
+        List<String> out = new ArrayList<>(entries.size() + 8);
+        out.add(SECTION);
+        String file = null;
+        for (Entry e : entries) {
+            if (e.file() != null && !e.file().equals(file)) {
+                file = e.file();
+                out.add("// file " + file);
+            }
+            out.add("// " + e.pc() + " " + (e.file() == null ? 0 : e.line()));
+        }
+        return out;
+    }
+
+    /**
+     * Reads the line-number section of a program file.
+     *
+     * @param water path of the {@code .water} file
+     * @return the table, or {@link #EMPTY} if the file has no line section
+     * @throws IOException if the file cannot be read
+     */
+    public static LineTable read(Path water) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(water, StandardCharsets.UTF_8)) {
+            boolean inSection = false;
+            String file = null;
+            for (String line; (line = in.readLine()) != null; ) {
+                line = line.trim();
+                if (!line.startsWith("//")) continue;
+                if (line.startsWith("// .")) {
+                    inSection = line.equals(SECTION);
+                    continue;
+                }
+                if (!inSection) continue;
+                String body = line.substring(2).trim();
+                if (body.startsWith("file ")) {
+                    file = body.substring(5);
+                    continue;
+                }
+                int sp = body.indexOf(' ');
+                if (sp < 0) continue;
+                try {
+                    int pc = Integer.parseInt(body.substring(0, sp));
+                    int ln = Integer.parseInt(body.substring(sp + 1));
+                    entries.add(new Entry(pc, ln > 0 ? file : null, ln));
+                } catch (NumberFormatException ignored) {
+                    // not a line entry
+                }
+            }
+        }
+        return entries.isEmpty() ? EMPTY : new LineTable(entries);
+    }
+
+    /**
+     * @return entries sorted by PC
+     */
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Finds the source position of {@code pc}.
+     *
+     * @param pc program counter
+     * @return the entry covering {@code pc} if it has a known position, otherwise {@code null}
+     */
+    public Entry at(int pc) {
+        int lo = 0, hi = pcs.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (pcs[mid] <= pc) lo = mid + 1;
+            else hi = mid;
+        }
+        if (lo == 0) return null;
+        Entry e = entries.get(lo - 1);
+        return e.known() ? e : null;
+    }
+
+    /**
+     * Collects entries while code is generated: one entry per change of source
+     * position, restarted at every function so each function's first PC has
+     * its own entry and functions can be laid out in any order.
+     */
+    public static final class Builder {
+        private final List<Entry> entries = new ArrayList<>();
+        private boolean fresh = true;
+        private String file;
+        private int line;
+
+        /**
+         * Starts a new function; its first {@link #mark} always creates an entry.
+         */
+        public void beginFunction() {
+            fresh = true;
+        }
+
+        /**
+         * Returns true if {@link #mark} with these arguments would change the table.
+         */
+        public boolean changes(String file, int line) {
+            return fresh || this.line != line || !Objects.equals(this.file, file);
+        }
+
+        /**
+         * Records that the code from {@code pc} on comes from {@code file:line}.
+         *
+         * @param pc   next PC to be emitted
+         * @param file source file, {@code null} if unknown
+         * @param line source line, {@code 0} if unknown
+         */
+        public void mark(int pc, String file, int line) {
+            if (!changes(file, line)) return;
+            if (file == null) line = 0;
+            Entry e = new Entry(pc, file, line);
+            // an earlier mark that produced no code is superseded
+            if (!entries.isEmpty() && entries.getLast().pc() == pc) entries.set(entries.size() - 1, e);
+            else entries.add(e);
+            this.file = file;
+            this.line = line;
+            fresh = false;
+        }
+
+        /**
+         * @return the collected entries, sorted by PC
+         */
+        public List<Entry> entries() {
+            return List.copyOf(entries);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.jcnc.snow.vm.io;
+
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+/**
+ * {@code ParallelPool} 为 PARALLEL_FOR / PARALLEL_MAP 系统调用提供数据并行执行支持。
+ *
+ * <p><b>功能：</b></p>
+ * <ul>
+ *   <li>将 {@code [0, count)} 的下标区间按粒度二分切块，提交到 {@link ForkJoinPool} 上执行</li>
+ *   <li>每个叶子块在工作线程上使用一台独立的 {@link VirtualMachineEngine}（共享只读程序），
+ *       依次对块内每个下标调用 Snow 函数</li>
+ *   <li>结果按下标写入预分配的数组，最终按原顺序组装为列表，与调度顺序无关</li>
+ *   <li>可设置并行度：{@code 0} 使用 JVM 公共池 {@link ForkJoinPool#commonPool()}，
+ *       {@code n > 0} 使用并行度为 n 的专用池（用于扩展性测试）</li>
+ * </ul>
+ *
+ * <p><b>实现细节：</b></p>
+ * <ul>
+ *   <li>引擎在块内复用（{@link VirtualMachineEngine#invoke} 允许空闲引擎连续调用），
+ *       每块只付出一次引擎构造开销</li>
+ *   <li>粒度 {@code grain <= 0} 时自动选取：约为每个工作线程 4 块</li>
+ *   <li>任一回调抛出异常或因运行时错误停机时，异常经 {@link ForkJoinPool} 传播到调用方</li>
+ * </ul>
+ *
+ * <p>该类为工具类，构造方法私有化，不可实例化。</p>
+ */
+public final class ParallelPool {
+
+    /**
+     * 专用池；为 {@code null} 时使用公共池
+     */
+    private static volatile ForkJoinPool dedicated;
+
+    /**
+     * 私有构造方法，禁止外部实例化
+     */
+    private ParallelPool() {
+    }
+
+    /**
+     * 设置后续并行调用使用的并行度。
+     *
+     * @param threads {@code 0} 表示使用公共池；{@code > 0} 表示专用池的线程数
+     * @return 设置后的实际并行度
+     * @throws IllegalArgumentException 如果 threads 为负数
+     */
+    public static synchronized int setParallelism(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("Invalid parallelism: " + threads);
+        }
+        ForkJoinPool old = dedicated;
+        if (old != null && old.getParallelism() == threads) {
+            return threads;
+        }
+        dedicated = threads == 0 ? null : new ForkJoinPool(threads);
+        if (old != null) {
+            old.shutdown();
+        }
+        return parallelism();
+    }
+
+    /**
+     * 返回当前使用的池的并行度。
+     *
+     * @return 并行度
+     */
+    public static int parallelism() {
+        return pool().getParallelism();
+    }
+
+    /**
+     * 对 {@code [0, count)} 中的每个下标 i 并行调用 {@code entry(argAt(i))}，按下标顺序返回结果。
+     *
+     * @param program 共享的只读程序
+     * @param entry   Snow 函数入口地址
+     * @param count   调用次数
+     * @param grain   每个叶子块的最大下标数；{@code <= 0} 时自动选取
+     * @param argAt   下标 → 调用参数
+     * @return 与下标一一对应的结果列表
+     */
+    public static ArrayList<Object> map(List<String> program, int entry, int count, int grain,
+                                        IntFunction<Object> argAt) {
+        Object[] out = new Object[count];
+        if (count > 0) {
+            ForkJoinPool pool = pool();
+            int g = grain > 0 ? grain : Math.max(1, count / (pool.getParallelism() * 4));
+            try {
+                pool.invoke(new Chunk(program, entry, argAt, out, StdStreams.current(), 0, count, g));
+            } catch (RuntimeException e) {
+                // 每跨一次线程 ForkJoin 都会包一层同类异常（分治各层可能各包一层），取回原始异常以保留消息
+                RuntimeException original = e;
+                while (original.getCause() instanceof RuntimeException cause && cause.getClass() == original.getClass()) {
+                    original = cause;
+                }
+                throw original;
+            }
+        }
+        return new ArrayList<>(Arrays.asList(out));
+    }
+
+    private static ForkJoinPool pool() {
+        ForkJoinPool p = dedicated;
+        return p != null ? p : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * 下标区间 {@code [lo, hi)} 上的分治任务。
+     */
+    private static final class Chunk extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // 任务只在本进程的 ForkJoinPool 内执行，从不序列化
+        private final transient List<String> program;
+        private final int entry;
+        private final transient IntFunction<Object> argAt;
+        private final transient Object[] out;
+        /**
+         * 调用方的标准输出绑定；池线程不属于任何请求，执行回调时切换到它
+         */
+        private final transient StdStreams.Binding streams;
+        private final int lo;
+        private final int hi;
+        private final int grain;
+
+        Chunk(List<String> program, int entry, IntFunction<Object> argAt,
+              Object[] out, StdStreams.Binding streams, int lo, int hi, int grain) {
+            this.program = program;
+            this.entry = entry;
+            this.argAt = argAt;
+            this.out = out;
+            this.streams = streams;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= grain) {
+                StdStreams.Binding outer = StdStreams.bind(streams);
+                try {
+                    VirtualMachineEngine engine = new VirtualMachineEngine();
+                    for (int i = lo; i < hi; i++) {
+                        out[i] = engine.invoke(program, entry, argAt.apply(i));
+                        // 回调出错时引擎只输出信息并停机，需由此让整个并行调用失败
+                        if (!engine.returned()) {
+                            throw new IllegalStateException("Parallel callback failed for index " + i
+                                    + " at " + engine.location());
+                        }
+                    }
+                } finally {
+                    StdStreams.bind(outer);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Chunk(program, entry, argAt, out, streams, lo, mid, grain),
+                    new Chunk(program, entry, argAt, out, streams, mid, hi, grain));
+        }
+    }
+}
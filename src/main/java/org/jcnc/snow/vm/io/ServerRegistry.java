@@ -0,0 +1,123 @@
+package org.jcnc.snow.vm.io;
+
+import java.nio.channels.Selector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code ServerRegistry} 维护正在由 SERVE 系统调用驱动的监听套接字，
+ * 以便 SERVE_STOP 能够从任意线程（通常是某个连接处理函数）请求优雅停机。
+ *
+ * <p><b>功能：</b></p>
+ * <ul>
+ *   <li>以监听 fd 为键登记服务实例；同一监听 fd 同时只能被一个 SERVE 驱动</li>
+ *   <li>停机时设置停止标志、唤醒 accept 等待并（有连接数上限时）释放一个并发许可，使服务循环尽快退出</li>
+ *   <li>统计当前活跃连接数</li>
+ * </ul>
+ *
+ * <p>该类为工具类，构造方法私有化，不可实例化。</p>
+ */
+public final class ServerRegistry {
+
+    /**
+     * 监听 fd → 服务实例
+     */
+    private static final ConcurrentHashMap<Integer, Server> REG = new ConcurrentHashMap<>();
+
+    /**
+     * 私有构造方法，禁止外部实例化
+     */
+    private ServerRegistry() {
+    }
+
+    /**
+     * 为监听 fd 登记一个新的服务实例。
+     *
+     * @param fd       监听套接字 fd
+     * @param selector 用于等待 accept 的 Selector
+     * @param permits  并发许可；不限连接数时为 {@code null}
+     * @return 新登记的服务实例
+     * @throws IllegalStateException fd 已在服务中
+     */
+    public static Server open(int fd, Selector selector, Semaphore permits) {
+        Server server = new Server(selector, permits);
+        if (REG.putIfAbsent(fd, server) != null) {
+            throw new IllegalStateException("SERVE: fd " + fd + " is already being served");
+        }
+        return server;
+    }
+
+    /**
+     * 请求停止指定监听 fd 上的服务。
+     *
+     * @param fd 监听套接字 fd
+     * @throws IllegalArgumentException fd 未处于服务状态
+     */
+    public static void stop(int fd) {
+        Server server = REG.get(fd);
+        if (server == null) {
+            throw new IllegalArgumentException("SERVE_STOP: fd " + fd + " is not being served");
+        }
+        server.stop();
+    }
+
+    /**
+     * 服务循环退出后移除登记。
+     *
+     * @param fd 监听套接字 fd
+     */
+    public static void remove(int fd) {
+        REG.remove(fd);
+    }
+
+    /**
+     * 单个 SERVE 实例的共享状态。
+     */
+    public static final class Server {
+        private final Selector selector;
+        private final Semaphore permits;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile boolean stopping;
+
+        private Server(Selector selector, Semaphore permits) {
+            this.selector = selector;
+            this.permits = permits;
+        }
+
+        /**
+         * @return 是否已请求停机
+         */
+        public boolean isStopping() {
+            return stopping;
+        }
+
+        /**
+         * @return 当前正在处理的连接数
+         */
+        public int activeConnections() {
+            return active.get();
+        }
+
+        /**
+         * 连接开始处理时调用。
+         */
+        public void connectionOpened() {
+            active.incrementAndGet();
+        }
+
+        /**
+         * 连接处理结束时调用，归还并发许可。
+         */
+        public void connectionClosed() {
+            active.decrementAndGet();
+            if (permits != null) permits.release();
+        }
+
+        private void stop() {
+            stopping = true;
+            selector.wakeup();
+            if (permits != null) permits.release(); // 解除可能阻塞在许可上的服务循环
+        }
+    }
+}
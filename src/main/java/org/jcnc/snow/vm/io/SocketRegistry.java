@@ -80,6 +80,15 @@ public class SocketRegistry {
         return registry.containsKey(fd);
     }
 
+    /**
+     * 返回当前登记的 socket 数量。
+     *
+     * @return 打开的 socket fd 数
+     */
+    public static int size() {
+        return registry.size();
+    }
+
     /**
      * 用新 Channel 替换 fd 对应的 Channel，自动关闭旧 Channel（如有）。
      *
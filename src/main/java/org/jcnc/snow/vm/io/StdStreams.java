@@ -0,0 +1,143 @@
+package org.jcnc.snow.vm.io;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code StdStreams} 按线程绑定 Snow 程序的标准输出/错误。
+ *
+ * <p>
+ * 独立运行时没有绑定，fd 1/2 写到 {@link System#out}/{@link System#err}。
+ * 嵌入运行时（如 {@code snow daemon} 在同一 JVM 内依次执行多个请求），宿主在请求线程上
+ * {@link #bind} 该请求自己的输出，并用 {@link #router} 替换 System.out/err：
+ * 写入按当前线程的绑定分发，仍在运行的旧请求不会把输出混入后续请求。
+ * </p>
+ *
+ * <ul>
+ *   <li>绑定可被继承：请求线程创建的线程（如 {@code THREAD_CREATE}、{@code SERVE} 的连接线程）属于同一请求</li>
+ *   <li>共享池中的工作线程（{@link ParallelPool}、任务调度器）不属于任何请求，
+ *       由池在执行回调期间切换到提交方的绑定</li>
+ *   <li>每个绑定有自己的 fd 1/2 缓冲区，不同请求的输出不会在缓冲区中交错</li>
+ * </ul>
+ *
+ * <p>该类为工具类，构造方法私有化，不可实例化。</p>
+ */
+public final class StdStreams {
+
+    /**
+     * 当前线程的绑定；未绑定时为 null
+     */
+    private static final InheritableThreadLocal<Binding> CURRENT = new InheritableThreadLocal<>();
+
+    /**
+     * 私有构造方法，禁止外部实例化
+     */
+    private StdStreams() {
+    }
+
+    /**
+     * 返回当前线程的绑定。
+     *
+     * @return 绑定；未绑定时为 null
+     */
+    public static Binding current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 把当前线程绑定到 {@code binding}，此后由本线程创建的线程继承该绑定。
+     * <p>池线程执行回调前绑定提交方的绑定，结束后以返回值恢复。</p>
+     *
+     * @param binding 新绑定；为 null 时解除绑定
+     * @return 原绑定，可能为 null
+     */
+    public static Binding bind(Binding binding) {
+        Binding previous = CURRENT.get();
+        if (binding == null) CURRENT.remove();
+        else CURRENT.set(binding);
+        return previous;
+    }
+
+    /**
+     * 创建按当前线程绑定分发的输出流，供宿主替换 System.out/err。
+     *
+     * @param out      true 为标准输出，false 为标准错误
+     * @param fallback 未绑定的线程写入的流（通常为宿主自身的标准输出/错误）
+     * @return 分发流
+     */
+    public static PrintStream router(boolean out, PrintStream fallback) {
+        return new PrintStream(new Router(out, fallback), true, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 返回当前线程 fd 1/2 的缓冲区；未绑定时为 null。
+     */
+    static BufferedOutputStream fdStream(boolean out) {
+        Binding b = CURRENT.get();
+        if (b == null) return null;
+        return out ? b.fdOut : b.fdErr;
+    }
+
+    /**
+     * 一组标准输出/错误，通常属于一个请求。
+     */
+    public static final class Binding {
+        private final PrintStream out;
+        private final PrintStream err;
+
+        /**
+         * fd 1/2 的缓冲区，写满或刷新时写入 {@link #out}/{@link #err}
+         */
+        private final BufferedOutputStream fdOut;
+        private final BufferedOutputStream fdErr;
+
+        /**
+         * 创建绑定。
+         *
+         * @param out 标准输出
+         * @param err 标准错误
+         */
+        public Binding(PrintStream out, PrintStream err) {
+            this.out = out;
+            this.err = err;
+            this.fdOut = new BufferedOutputStream(out);
+            this.fdErr = new BufferedOutputStream(err);
+        }
+    }
+
+    /**
+     * 写入时才解析目标的输出流：有绑定写入绑定，否则写入 {@code fallback}。
+     */
+    private static final class Router extends OutputStream {
+        private final boolean out;
+        private final PrintStream fallback;
+
+        Router(boolean out, PrintStream fallback) {
+            this.out = out;
+            this.fallback = fallback;
+        }
+
+        private PrintStream target() {
+            Binding b = CURRENT.get();
+            if (b == null) return fallback;
+            return out ? b.out : b.err;
+        }
+
+        @Override
+        public void write(int b) {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            target().flush();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.jcnc.snow.vm.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.util.Arrays;
+
+/**
+ * {@code StdinPump} 将标准输入（fd=0）转换为可被 {@link java.nio.channels.Selector} 监听的就绪源。
+ *
+ * <p><b>背景：</b>
+ * {@link System#in} 不是 {@link java.nio.channels.SelectableChannel}，
+ * 以前的 IO_WAIT / SELECT / EPOLL_WAIT 只能以 10ms 间隔轮询 {@code System.in.available()}。
+ * </p>
+ *
+ * <p><b>实现：</b></p>
+ * <ul>
+ *   <li>首次访问标准输入时启动一个守护读线程，由它独占读取 {@link System#in}，数据追加到内部缓冲区</li>
+ *   <li>缓冲区由空变为非空（或遇到 EOF）时，向 {@link Pipe} 的 sink 端写入 1 字节信号</li>
+ *   <li>消费者把缓冲区读空时排空信号字节，因此 {@link #readySource()} 可读 ⇔ stdin 可读（水平触发）</li>
+ *   <li>{@link #inputStream()} 提供阻塞读取视图，FD 表中的 fd=0 与 STDIN_READ 均通过它读取</li>
+ * </ul>
+ *
+ * <p>因为信号是水平触发的，同一个 {@link #readySource()} 可同时注册到多个 Selector
+ * （线程缓存的 Selector、各 epoll 实例），任何等待方都会被立即唤醒，无需轮询。</p>
+ *
+ * <p>该类为工具类，构造方法私有化，不可实例化。</p>
+ */
+public final class StdinPump {
+
+    /**
+     * 读线程每次从 {@link System#in} 读取的块大小
+     */
+    private static final int CHUNK = 8192;
+
+    /**
+     * 保护缓冲区与状态位的监视器
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * 共享的标准输入读取视图
+     */
+    private static final InputStream STREAM = new PumpInputStream();
+
+    /**
+     * 已读入但尚未被消费的数据，有效区间为 [head, tail)
+     */
+    private static byte[] buf = new byte[CHUNK];
+    private static int head;
+    private static int tail;
+
+    /**
+     * 是否已到达标准输入 EOF
+     */
+    private static boolean eof;
+
+    /**
+     * 就绪信号管道；读线程启动时创建
+     */
+    private static volatile Pipe signal;
+
+    private StdinPump() {
+    }
+
+    /**
+     * 返回标准输入的阻塞读取视图。首次读取时会启动读线程。
+     *
+     * @return 共享的 {@link InputStream}
+     */
+    public static InputStream inputStream() {
+        return STREAM;
+    }
+
+    /**
+     * 返回 stdin 就绪信号源（非阻塞模式），可直接注册到 Selector 监听 {@code OP_READ}。
+     * 调用本方法会确保读线程已启动。
+     *
+     * @return 管道 source 端；有未读数据或已到 EOF 时可读
+     * @throws IOException 创建管道失败
+     */
+    public static Pipe.SourceChannel readySource() throws IOException {
+        return ensureStarted().source();
+    }
+
+    /**
+     * 返回当前缓冲区中可立即读取的字节数。
+     *
+     * @return 可读字节数；已到 EOF 且无剩余数据时为 0
+     */
+    public static int available() {
+        synchronized (LOCK) {
+            return tail - head;
+        }
+    }
+
+    /**
+     * 启动读线程（幂等）。
+     */
+    private static Pipe ensureStarted() throws IOException {
+        Pipe p = signal;
+        if (p != null) return p;
+        synchronized (LOCK) {
+            if (signal == null) {
+                Pipe created = Pipe.open();
+                created.source().configureBlocking(false);
+                signal = created;
+                Thread reader = new Thread(StdinPump::pump, "snow-stdin-pump");
+                reader.setDaemon(true);
+                reader.start();
+            }
+            return signal;
+        }
+    }
+
+    /**
+     * 读线程主体：独占读取 {@link System#in}，直到 EOF 或出错。
+     */
+    private static void pump() {
+        InputStream in = System.in;
+        byte[] chunk = new byte[CHUNK];
+        try {
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                append(chunk, n);
+            }
+        } catch (IOException ignored) {
+            // 读失败视为 EOF
+        }
+        synchronized (LOCK) {
+            boolean wasEmpty = tail == head;
+            eof = true;
+            if (wasEmpty) raise();
+            LOCK.notifyAll();
+        }
+    }
+
+    private static void append(byte[] data, int n) {
+        synchronized (LOCK) {
+            boolean wasEmpty = tail == head;
+            if (tail + n > buf.length) {
+                int live = tail - head;
+                if (live + n > buf.length) {
+                    buf = Arrays.copyOfRange(buf, head, head + Math.max(buf.length * 2, live + n));
+                } else {
+                    System.arraycopy(buf, head, buf, 0, live);
+                }
+                head = 0;
+                tail = live;
+            }
+            System.arraycopy(data, 0, buf, tail, n);
+            tail += n;
+            if (wasEmpty) raise();
+            LOCK.notifyAll();
+        }
+    }
+
+    /**
+     * 写入 1 字节就绪信号。调用方必须持有 {@link #LOCK}。
+     */
+    private static void raise() {
+        try {
+            signal.sink().write(ByteBuffer.wrap(new byte[]{1}));
+        } catch (IOException ignored) {
+            // 管道已关闭：仅影响就绪通知，不影响数据读取
+        }
+    }
+
+    /**
+     * 排空就绪信号。调用方必须持有 {@link #LOCK}，且缓冲区已空、未到 EOF。
+     */
+    private static void lower() {
+        ByteBuffer drain = ByteBuffer.allocate(16);
+        try {
+            while (signal.source().read(drain) > 0) {
+                drain.clear();
+            }
+        } catch (IOException ignored) {
+            // 同上
+        }
+    }
+
+    /**
+     * 从缓冲区阻塞读取的 {@link InputStream} 视图。
+     */
+    private static final class PumpInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n < 0 ? -1 : (one[0] & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            ensureStarted();
+            synchronized (LOCK) {
+                while (tail == head && !eof) {
+                    try {
+                        LOCK.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("stdin read interrupted", e);
+                    }
+                }
+                if (tail == head) return -1;
+                int n = Math.min(len, tail - head);
+                System.arraycopy(buf, head, b, off, n);
+                head += n;
+                if (head == tail) {
+                    head = tail = 0;
+                    if (!eof) lower();
+                }
+                return n;
+            }
+        }
+
+        @Override
+        public int available() {
+            return StdinPump.available();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.jcnc.snow.vm.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Function symbol table of a {@code .water} program.
+ *
+ * <p>The compiler and the linker append the table after the code as a
+ * section of comment lines, so the instruction loader (which drops
+ * {@code //} comments) and older VMs ignore it and PCs are unaffected:</p>
+ * <pre>
+ * // .symbols
+ * // &lt;start PC&gt; &lt;end PC&gt; &lt;function name&gt;
+ * ...
+ * </pre>
+ *
+ * <p>Ranges are half-open ({@code [start, end)}), sorted by start PC and do
+ * not overlap.  The VM only reads the section on demand (e.g. for the
+ * sampling profiler), see {@link #read(Path)}.</p>
+ */
+public final class SymbolTable {
+
+    /**
+     * Header line of the symbol section.
+     */
+    public static final String SECTION = "// .symbols";
+
+    /**
+     * Table without entries (program compiled without symbols).
+     */
+    public static final SymbolTable EMPTY = new SymbolTable(List.of());
+
+    private final List<Function> functions;
+    private final int[] starts;
+
+    /**
+     * @param functions entries sorted by start PC
+     */
+    public SymbolTable(List<Function> functions) {
+        this.functions = List.copyOf(functions);
+        this.starts = new int[functions.size()];
+        for (int i = 0; i < starts.length; i++) starts[i] = functions.get(i).start();
+    }
+
+    /**
+     * One function: its name and code range {@code [start, end)}.
+     */
+    public record Function(String name, int start, int end) {
+    }
+
+    /**
+     * Renders the section lines to append after the code.
+     *
+     * @param functions entries sorted by start PC
+     * @return section lines, header first; empty if there are no functions
+     */
+    public static List<String> render(List<Function> functions) {
+        if (functions.isEmpty()) return List.of();
+        List<String> out = new ArrayList<>(functions.size() + 1);
+        out.add(SECTION);
+        for (Function f : functions) out.add("// " + f.start() + " " + f.end() + " " + f.name());
+        return out;
+    }
+
+    /**
+     * Reads the symbol section of a program file.
+     *
+     * @param water path of the {@code .water} file
+     * @return the table, or {@link #EMPTY} if the file has no symbol section
+     * @throws IOException if the file cannot be read
+     */
+    public static SymbolTable read(Path water) throws IOException {
+        List<Function> functions = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(water, StandardCharsets.UTF_8)) {
+            boolean inSection = false;
+            for (String line; (line = in.readLine()) != null; ) {
+                line = line.trim();
+                if (!line.startsWith("//")) continue;
+                if (line.startsWith("// .")) {
+                    inSection = line.equals(SECTION);
+                    continue;
+                }
+                if (!inSection) continue;
+                String[] parts = line.substring(2).trim().split(" ", 3);
+                if (parts.length < 3) continue;
+                try {
+                    functions.add(new Function(parts[2], Integer.parseInt(parts[0]), Integer.parseInt(parts[1])));
+                } catch (NumberFormatException ignored) {
+                    // not a symbol entry
+                }
+            }
+        }
+        if (functions.isEmpty()) return EMPTY;
+        functions.sort((a, b) -> Integer.compare(a.start(), b.start()));
+        return new SymbolTable(functions);
+    }
+
+    /**
+     * @return entries sorted by start PC
+     */
+    public List<Function> functions() {
+        return functions;
+    }
+
+    public boolean isEmpty() {
+        return functions.isEmpty();
+    }
+
+    /**
+     * Finds the function containing {@code pc}.
+     *
+     * @param pc program counter
+     * @return the function, or {@code null} if no range contains {@code pc}
+     */
+    public Function at(int pc) {
+        int lo = 0, hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= pc) lo = mid + 1;
+            else hi = mid;
+        }
+        if (lo == 0) return null;
+        Function f = functions.get(lo - 1);
+        return pc < f.end() ? f : null;
+    }
+}
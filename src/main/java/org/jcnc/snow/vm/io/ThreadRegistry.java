@@ -10,6 +10,7 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <li>注册/注销线程实例（以 threadId 作为唯一键）</li>
  *   <li>按 tid 查询 Thread 对象</li>
  *   <li>为线程存取/移除返回值（可为 null，null 时自动移除）</li>
+ *   <li>记录线程体的失败原因，供 join 方报告</li>
  * </ul>
  * </p>
  *
@@ -25,6 +26,10 @@ public class ThreadRegistry {
      * 线程ID → 线程返回值映射表
      */
     private static final ConcurrentHashMap<Long, Object> results = new ConcurrentHashMap<>();
+    /**
+     * 线程ID → 线程体失败原因映射表
+     */
+    private static final ConcurrentHashMap<Long, RuntimeException> failures = new ConcurrentHashMap<>();
 
     /**
      * 注册一个线程对象到注册表。
@@ -53,6 +58,16 @@ public class ThreadRegistry {
     public static void unregister(long tid) {
         threads.remove(tid);
         results.remove(tid);
+        failures.remove(tid);
+    }
+
+    /**
+     * 返回已创建且尚未 join 的线程数。
+     *
+     * @return 登记中的线程数
+     */
+    public static int size() {
+        return threads.size();
     }
 
     /**
@@ -80,4 +95,24 @@ public class ThreadRegistry {
     public static Object getResult(long tid) {
         return results.get(tid);
     }
+
+    /**
+     * 记录线程体失败（抛出异常或因运行时错误停机）。
+     *
+     * @param tid   线程 ID
+     * @param cause 失败原因
+     */
+    public static void setFailure(long tid, RuntimeException cause) {
+        failures.put(tid, cause);
+    }
+
+    /**
+     * 获取线程体的失败原因。
+     *
+     * @param tid 线程 ID
+     * @return 失败原因；线程正常结束时返回 null
+     */
+    public static RuntimeException getFailure(long tid) {
+        return failures.get(tid);
+    }
 }
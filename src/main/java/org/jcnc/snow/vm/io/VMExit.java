@@ -0,0 +1,77 @@
+package org.jcnc.snow.vm.io;
+
+import java.io.Serial;
+
+/**
+ * {@code VMExit} 统一处理 Snow 程序主动结束进程的请求（EXIT / EXEC 系统调用）。
+ *
+ * <p>
+ * 独立运行时直接结束 JVM（与原行为一致）；嵌入运行时（如 {@code snow daemon}，
+ * 同一 JVM 还需继续服务后续请求）改为抛出本错误，由宿主捕获并取得退出码。
+ * </p>
+ *
+ * <p>
+ * 继承 {@link Error} 而非 {@link Exception}，以免被指令执行器与系统调用分发处的
+ * {@code catch (Exception)} 截获；在非主线程中抛出时只结束该线程。
+ * </p>
+ */
+public final class VMExit extends Error {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 是否以嵌入模式运行；由宿主在运行程序前设置
+     */
+    private static volatile boolean embedded = false;
+
+    /**
+     * 进程退出码
+     */
+    private final int code;
+
+    private VMExit(int code) {
+        super("exit " + code, null, false, false);
+        this.code = code;
+    }
+
+    /**
+     * 设置嵌入模式。
+     *
+     * @param value true 时 EXIT/EXEC 不再结束 JVM，而是抛出 {@code VMExit}
+     */
+    public static void setEmbedded(boolean value) {
+        embedded = value;
+    }
+
+    /**
+     * 以 {@link System#exit(int)} 语义结束程序。
+     *
+     * @param code 退出码
+     * @throws VMExit 嵌入模式下总是抛出
+     */
+    public static void exit(int code) {
+        if (embedded) throw new VMExit(code);
+        System.exit(code);
+    }
+
+    /**
+     * 以 {@link Runtime#halt(int)} 语义结束程序（不执行关闭钩子）。
+     *
+     * @param code 退出码
+     * @throws VMExit 嵌入模式下总是抛出
+     */
+    public static void halt(int code) {
+        if (embedded) throw new VMExit(code);
+        Runtime.getRuntime().halt(code);
+    }
+
+    /**
+     * 返回退出码。
+     *
+     * @return 退出码
+     */
+    public int code() {
+        return code;
+    }
+}
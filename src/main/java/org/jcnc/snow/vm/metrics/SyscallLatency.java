@@ -0,0 +1,462 @@
+package org.jcnc.snow.vm.metrics;
+
+import org.jcnc.snow.compiler.parser.utils.JSONParser;
+import org.jcnc.snow.vm.engine.SyscallOpCode;
+import org.jcnc.snow.vm.engine.VirtualMachineEngine;
+import org.jcnc.snow.vm.io.DebugInfo;
+import org.jcnc.snow.vm.module.OperandStack;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-system-call latency histograms and slow-call log
+ * ({@code snow run --syscall-latency}), for finding out whether an I/O-bound
+ * service spends its time in {@code RECV}, {@code ACCEPT}, {@code EPOLL_WAIT}
+ * or file {@code READ}.
+ *
+ * <p>{@code SyscallCommand} times every handler while a session is active and
+ * adds the duration to the histogram of that system call.  Histograms are
+ * log-linear: every power of two of nanoseconds is split into
+ * {@value #SUB} equal buckets, so any recorded value is off by at most
+ * 1/{@value #SUB} (6.25 %) and the whole range from 1 ns to hours fits in
+ * fixed arrays updated with a single atomic add.</p>
+ *
+ * <p>Calls slower than the threshold are logged to standard error with the
+ * descriptor and size arguments (for the calls that take them) and the Snow
+ * function that made the call.  The summary (calls, total, mean, p50 / p90 /
+ * p99, max per system call) is printed when the program ends, can be read at
+ * any time through the {@link SyscallLatencyMXBean} registered as
+ * {@value #OBJECT_NAME}, and is included in the {@code METRICS} system call's
+ * snapshot.</p>
+ */
+public final class SyscallLatency {
+
+    /**
+     * JMX object name of the latency bean.
+     */
+    public static final String OBJECT_NAME = "org.jcnc.snow:type=SyscallLatency";
+
+    /**
+     * Default slow-call threshold, in milliseconds.
+     */
+    public static final int DEFAULT_SLOW_MILLIS = 100;
+
+    private static final int SYSCALLS = 0x1A00;
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) << SUB_BITS;
+
+    /**
+     * Stack positions (0 = top) of the descriptor and size arguments, by
+     * system call; -1 where the call has no such argument.
+     */
+    private static final Map<Integer, int[]> ARGUMENTS = Map.ofEntries(
+            Map.entry(SyscallOpCode.READ, new int[]{1, 0}),
+            Map.entry(SyscallOpCode.WRITE, new int[]{1, 0}),
+            Map.entry(SyscallOpCode.SEEK, new int[]{2, -1}),
+            Map.entry(SyscallOpCode.CLOSE, new int[]{0, -1}),
+            Map.entry(SyscallOpCode.FSTAT, new int[]{0, -1}),
+            Map.entry(SyscallOpCode.FTRUNCATE, new int[]{1, 0}),
+            Map.entry(SyscallOpCode.STDOUT_WRITE, new int[]{-1, 0}),
+            Map.entry(SyscallOpCode.STDERR_WRITE, new int[]{-1, 0}),
+            Map.entry(SyscallOpCode.EPOLL_WAIT, new int[]{2, 1}),
+            Map.entry(SyscallOpCode.ACCEPT, new int[]{0, -1}),
+            Map.entry(SyscallOpCode.CONNECT, new int[]{2, -1}),
+            Map.entry(SyscallOpCode.SEND, new int[]{1, 0}),
+            Map.entry(SyscallOpCode.RECV, new int[]{1, 0}),
+            Map.entry(SyscallOpCode.SENDTO, new int[]{3, 2}),
+            Map.entry(SyscallOpCode.RECVFROM, new int[]{1, 0}),
+            Map.entry(SyscallOpCode.SHUTDOWN, new int[]{1, -1}));
+
+    private static volatile SyscallLatency active;
+
+    private final Options options;
+    private final long slowNanos;
+    private final AtomicReferenceArray<Histogram> histograms = new AtomicReferenceArray<>(SYSCALLS);
+    private final LongAdder slowCalls = new LongAdder();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final Thread shutdownHook = new Thread(this::finish, "snow-syscall-latency-report");
+    private ObjectName registered;
+
+    private SyscallLatency(Options options) {
+        this.options = options;
+        this.slowNanos = options.slowMillis() * 1_000_000L;
+    }
+
+    /* ---------- Session lifecycle ---------- */
+
+    /**
+     * Starts timing system calls and registers the MXBean. The summary is
+     * reported by {@link #finish()}, or by a shutdown hook if the program
+     * exits first.
+     *
+     * @param options latency settings
+     * @return the session
+     */
+    public static SyscallLatency start(Options options) {
+        SyscallLatency session = new SyscallLatency(options);
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(session.new Bean(), name);
+                session.registered = name;
+            }
+        } catch (Exception | LinkageError e) {
+            System.err.println("Warning: cannot register the syscall latency MXBean: " + e.getMessage());
+        }
+        Runtime.getRuntime().addShutdownHook(session.shutdownHook);
+        active = session;
+        return session;
+    }
+
+    /**
+     * Stops timing, prints the summary (or writes it as JSON) and unregisters
+     * the MXBean; later calls do nothing.
+     */
+    public void finish() {
+        if (!finished.compareAndSet(false, true)) return;
+        if (active == this) active = null;
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ignored) {
+                // JVM already shutting down
+            }
+        }
+        if (registered != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+            } catch (Exception ignored) {
+                // already gone
+            }
+        }
+        if (options.output() == null) {
+            System.err.print(toTable());
+            System.err.flush();
+            return;
+        }
+        try {
+            Files.writeString(options.output(), JSONParser.toJson(toJsonTree()) + System.lineSeparator(),
+                    StandardCharsets.UTF_8);
+            System.err.println("Syscall latency written to " + options.output().toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Error: cannot write syscall latency " + options.output() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the session timing system calls, or {@code null} when latency tracking is off
+     */
+    public static SyscallLatency active() {
+        return active;
+    }
+
+    /* ---------- Recording ---------- */
+
+    /**
+     * Captures the descriptor and size arguments of a call before its handler
+     * pops them, for the slow-call log.
+     *
+     * @param number system call number
+     * @param stack  operand stack holding the arguments
+     * @return {@code {fd, size}} argument values (either may be {@code null}),
+     * or {@code null} for calls without such arguments
+     */
+    public Object[] arguments(int number, OperandStack stack) {
+        int[] at = ARGUMENTS.get(number);
+        if (at == null) return null;
+        return new Object[]{at[0] < 0 ? null : stack.peek(at[0]), at[1] < 0 ? null : stack.peek(at[1])};
+    }
+
+    /**
+     * Records one call.
+     *
+     * @param number system call number
+     * @param nanos  time spent in the handler
+     * @param args   result of {@link #arguments}, may be {@code null}
+     * @param pc     program counter of the {@code SYSCALL} instruction
+     */
+    public void record(int number, long nanos, Object[] args, int pc) {
+        if (number < 0 || number >= SYSCALLS) return;
+        Histogram h = histograms.get(number);
+        if (h == null) {
+            histograms.compareAndSet(number, null, new Histogram());
+            h = histograms.get(number);
+        }
+        h.add(nanos);
+        if (slowNanos > 0 && nanos >= slowNanos) logSlow(number, nanos, args, pc);
+    }
+
+    private void logSlow(int number, long nanos, Object[] args, int pc) {
+        slowCalls.increment();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "[syscall] slow %s %.3f ms", name(number), nanos / 1e6));
+        if (args != null) {
+            if (args[0] != null) sb.append(" fd=").append(args[0]);
+            long size = size(args[1]);
+            if (size >= 0) sb.append(" size=").append(size);
+        }
+        String where = DebugInfo.of(VirtualMachineEngine.currentProgram()).describe(pc);
+        sb.append(" in ").append(where.isEmpty() ? "pc " + pc : where);
+        sb.append(" [").append(Thread.currentThread().getName()).append(']');
+        System.err.println(sb);
+    }
+
+    /**
+     * Size of a size or data argument: an integer count, or the length of a
+     * byte array or (UTF-8) string; -1 if unknown.
+     */
+    private static long size(Object arg) {
+        return switch (arg) {
+            case Number n -> n.longValue();
+            case byte[] b -> b.length;
+            case String s -> s.getBytes(StandardCharsets.UTF_8).length;
+            case null, default -> -1;
+        };
+    }
+
+    /* ---------- Reporting ---------- */
+
+    /**
+     * Returns the per-call statistics, busiest system call (by total time) first.
+     *
+     * @return system call name → {@code calls, totalNanos, meanNanos, p50, p90, p99, max} (nanoseconds)
+     */
+    public Map<String, Map<String, Long>> snapshot() {
+        Map<String, Map<String, Long>> out = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Histogram> e : byTotal()) {
+            Histogram h = e.getValue();
+            long calls = h.count.sum();
+            Map<String, Long> m = new LinkedHashMap<>();
+            m.put("calls", calls);
+            m.put("totalNanos", h.total.sum());
+            m.put("meanNanos", calls == 0 ? 0 : h.total.sum() / calls);
+            m.put("p50", h.percentile(50));
+            m.put("p90", h.percentile(90));
+            m.put("p99", h.percentile(99));
+            m.put("max", h.max.get());
+            out.put(name(e.getKey()), m);
+        }
+        return out;
+    }
+
+    /**
+     * Formats the summary table.
+     *
+     * @return the table, one line per system call that was used
+     */
+    public String toTable() {
+        List<Map.Entry<Integer, Histogram>> rows = byTotal();
+        Formatter f = new Formatter(new StringBuilder(), Locale.ROOT);
+        long calls = 0, nanos = 0;
+        for (Map.Entry<Integer, Histogram> e : rows) {
+            calls += e.getValue().count.sum();
+            nanos += e.getValue().total.sum();
+        }
+        f.format("%n== Syscall latency: %d calls, %.3f ms in system calls, %d slow (>= %d ms) ==%n",
+                calls, nanos / 1e6, slowCalls.sum(), options.slowMillis());
+        f.format("%-18s %10s %12s %10s %10s %10s %10s %10s%n",
+                "syscall", "calls", "total ms", "mean us", "p50 us", "p90 us", "p99 us", "max us");
+        for (Map.Entry<Integer, Histogram> e : rows) {
+            Histogram h = e.getValue();
+            long n = h.count.sum();
+            f.format("%-18s %10d %12.3f %10.1f %10.1f %10.1f %10.1f %10.1f%n", name(e.getKey()), n,
+                    h.total.sum() / 1e6, n == 0 ? 0.0 : h.total.sum() / 1e3 / n,
+                    h.percentile(50) / 1e3, h.percentile(90) / 1e3, h.percentile(99) / 1e3, h.max.get() / 1e3);
+        }
+        return f.toString();
+    }
+
+    private Map<String, Object> toJsonTree() {
+        Map<String, Object> calls = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> stats = snapshot();
+        for (Map.Entry<Integer, Histogram> e : byTotal()) {
+            String name = name(e.getKey());
+            Map<String, Object> m = new LinkedHashMap<>(stats.get(name));
+            List<List<Long>> buckets = new ArrayList<>();
+            AtomicLongArray counts = e.getValue().counts;
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = counts.get(i);
+                if (c != 0) buckets.add(List.of(lowerBound(i), c));
+            }
+            m.put("buckets", buckets);
+            calls.put(name, m);
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("unit", "ns");
+        root.put("slowThresholdMillis", options.slowMillis());
+        root.put("slowCalls", slowCalls.sum());
+        root.put("syscalls", calls);
+        return root;
+    }
+
+    private List<Map.Entry<Integer, Histogram>> byTotal() {
+        List<Map.Entry<Integer, Histogram>> rows = new ArrayList<>();
+        for (int i = 0; i < SYSCALLS; i++) {
+            Histogram h = histograms.get(i);
+            if (h != null) rows.add(Map.entry(i, h));
+        }
+        rows.sort(Comparator.comparingLong((Map.Entry<Integer, Histogram> e) -> e.getValue().total.sum()).reversed());
+        return rows;
+    }
+
+    private static String name(int number) {
+        String name = SyscallOpCode.nameOf(number);
+        return name != null ? name : String.format("0x%04X", number);
+    }
+
+    /* ---------- Histogram ---------- */
+
+    /**
+     * Bucket of a non-negative value: values below {@value #SUB} have their
+     * own bucket, larger ones are bucketed by exponent and the next
+     * {@value #SUB_BITS} bits.
+     */
+    static int bucket(long v) {
+        if (v < SUB) return (int) Math.max(v, 0);
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((v >>> shift) & (SUB - 1));
+    }
+
+    /**
+     * Smallest value that falls into {@code bucket}.
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        int shift = (bucket >>> SUB_BITS) - 1;
+        return ((long) (bucket & (SUB - 1)) | SUB) << shift;
+    }
+
+    private static final class Histogram {
+        final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        final LongAdder count = new LongAdder();
+        final LongAdder total = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+        void add(long nanos) {
+            counts.incrementAndGet(bucket(nanos));
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        /**
+         * Nearest-rank percentile, reported as the upper edge of its bucket
+         * (capped by the largest recorded value).
+         */
+        long percentile(double p) {
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) n += counts.get(i);
+            if (n == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    long upper = i + 1 < BUCKETS ? lowerBound(i + 1) - 1 : Long.MAX_VALUE;
+                    return Math.min(upper, max.get());
+                }
+            }
+            return max.get();
+        }
+    }
+
+    /**
+     * The registered MXBean; reads the live histograms of its session.
+     */
+    private final class Bean implements SyscallLatencyMXBean {
+        @Override
+        public Map<String, Long> getCalls() {
+            Map<String, Long> m = new LinkedHashMap<>();
+            snapshot().forEach((name, s) -> m.put(name, s.get("calls")));
+            return m;
+        }
+
+        @Override
+        public Map<String, Long> getP99Micros() {
+            Map<String, Long> m = new LinkedHashMap<>();
+            snapshot().forEach((name, s) -> m.put(name, s.get("p99") / 1000));
+            return m;
+        }
+
+        @Override
+        public long getSlowCalls() {
+            return slowCalls.sum();
+        }
+
+        @Override
+        public String getSummary() {
+            return toTable();
+        }
+
+        @Override
+        public void dump() {
+            System.err.print(toTable());
+            System.err.flush();
+        }
+    }
+
+    /* ---------- Command-line options ---------- */
+
+    /**
+     * Latency settings taken from the launcher's command line.
+     *
+     * @param slowMillis slow-call threshold in milliseconds; 0 disables the slow-call log
+     * @param output     JSON summary file, or {@code null} to print the table to standard error
+     */
+    public record Options(int slowMillis, Path output) {
+
+        /**
+         * Removes the latency options from {@code args}.
+         *
+         * <p>Recognised options: {@code --syscall-latency} (histograms, slow
+         * calls from {@value #DEFAULT_SLOW_MILLIS} ms),
+         * {@code --syscall-latency=<ms>} (slow-call threshold; 0 turns the
+         * log off) and {@code --syscall-latency-out <file>} (write the summary
+         * with the non-empty buckets as JSON instead of printing the table;
+         * implies {@code --syscall-latency}).</p>
+         *
+         * @param args launcher arguments; latency options are removed in place
+         * @return the settings, or {@code null} if latency tracking was not requested
+         * @throws IllegalArgumentException if an option is malformed
+         */
+        public static Options extract(List<String> args) {
+            boolean on = false;
+            int slow = DEFAULT_SLOW_MILLIS;
+            Path output = null;
+            for (Iterator<String> it = args.iterator(); it.hasNext(); ) {
+                String a = it.next();
+                if (a.equals("--syscall-latency")) {
+                    on = true;
+                    it.remove();
+                } else if (a.startsWith("--syscall-latency=")) {
+                    String n = a.substring("--syscall-latency=".length());
+                    if (!n.matches("\\d{1,9}"))
+                        throw new IllegalArgumentException("Invalid argument for --syscall-latency: " + n);
+                    slow = Integer.parseInt(n);
+                    on = true;
+                    it.remove();
+                } else if (a.equals("--syscall-latency-out")) {
+                    it.remove();
+                    if (!it.hasNext()) throw new IllegalArgumentException("Missing argument for --syscall-latency-out");
+                    output = Path.of(it.next());
+                    it.remove();
+                    on = true;
+                }
+            }
+            return on ? new Options(slow, output) : null;
+        }
+    }
+}
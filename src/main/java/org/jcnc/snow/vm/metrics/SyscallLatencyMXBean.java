@@ -0,0 +1,35 @@
+package org.jcnc.snow.vm.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the system-call latency histograms, registered as
+ * {@value SyscallLatency#OBJECT_NAME} while {@code --syscall-latency} is on.
+ */
+public interface SyscallLatencyMXBean {
+
+    /**
+     * @return calls recorded per system call name
+     */
+    Map<String, Long> getCalls();
+
+    /**
+     * @return 99th-percentile latency per system call name, in microseconds
+     */
+    Map<String, Long> getP99Micros();
+
+    /**
+     * @return calls slower than the slow-call threshold
+     */
+    long getSlowCalls();
+
+    /**
+     * @return the current summary table, as printed at exit
+     */
+    String getSummary();
+
+    /**
+     * Prints the summary table to the VM's standard error.
+     */
+    void dump();
+}
@@ -0,0 +1,448 @@
+package org.jcnc.snow.vm.metrics;
+
+import org.jcnc.snow.compiler.parser.utils.JSONParser;
+import org.jcnc.snow.vm.engine.SyscallOpCode;
+import org.jcnc.snow.vm.io.FDTable;
+import org.jcnc.snow.vm.io.SocketRegistry;
+import org.jcnc.snow.vm.io.ThreadRegistry;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runtime metrics of the VM ({@code snow run --metrics}), meant for
+ * long-running Snow services.
+ *
+ * <p>Counters: instructions executed, call frames pushed, maximum call depth,
+ * system calls by number, bytes read and written per descriptor class,
+ * mutex / read-write lock waits.  Gauges, read on demand: open descriptors,
+ * Snow and JVM threads, garbage-collection count and time, heap use.</p>
+ *
+ * <p>The counters only move while {@link #isEnabled()} is true.  The
+ * instrumentation sites test that flag first, so a VM started without
+ * {@code --metrics} pays one predictable branch per site; with metrics on,
+ * the hot counters are striped ({@link LongAdder}) and engines add their
+ * instruction counts in batches, so the interpreter loop never contends on
+ * a shared cache line.</p>
+ *
+ * <p>The data is exported three ways: the {@link VMMetricsMXBean} registered
+ * as {@value #OBJECT_NAME} (JConsole, VisualVM, any JMX agent), optional JSON
+ * lines appended to a file at a fixed interval ({@code --metrics-out}), and
+ * the {@code METRICS} system call, which returns {@link #snapshot()} to Snow
+ * code.</p>
+ */
+public final class VMMetrics {
+
+    /**
+     * JMX object name of the metrics bean.
+     */
+    public static final String OBJECT_NAME = "org.jcnc.snow:type=VM";
+
+    /**
+     * Default interval between JSON lines, in milliseconds.
+     */
+    public static final int DEFAULT_INTERVAL_MILLIS = 10_000;
+
+    /**
+     * Instructions an engine executes before adding them to {@link #instructions(long)}.
+     */
+    public static final int INSTRUCTION_BATCH = 4096;
+
+    /**
+     * Descriptor classes used for the byte counters.
+     */
+    public enum FdClass {
+        STDIO, FILE, SOCKET, PIPE, OTHER;
+
+        /**
+         * @return the lower-case key used in snapshots
+         */
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final int SYSCALLS = 0x1A00;
+
+    /**
+     * Written once before the program starts (and cleared after it ends);
+     * engines copy it into a local when they start running.
+     */
+    private static volatile boolean enabled;
+
+    private static final LongAdder INSTRUCTIONS = new LongAdder();
+    private static final LongAdder CALLS = new LongAdder();
+    private static final LongAccumulator MAX_DEPTH = new LongAccumulator(Long::max, 0);
+    private static final AtomicLongArray SYSCALL_COUNTS = new AtomicLongArray(SYSCALLS);
+    private static final LongAdder[] READ = adders();
+    private static final LongAdder[] WRITTEN = adders();
+    private static final LongAdder LOCK_WAITS = new LongAdder();
+    private static final LongAdder LOCK_WAIT_NANOS = new LongAdder();
+    private static final long START_MILLIS = System.currentTimeMillis();
+
+    private final Options options;
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final Thread writer = new Thread(this::writeLoop, "snow-metrics");
+    private final Thread shutdownHook = new Thread(this::finish, "snow-metrics-final");
+    private ObjectName registered;
+
+    private VMMetrics(Options options) {
+        this.options = options;
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] a = new LongAdder[FdClass.values().length];
+        for (int i = 0; i < a.length; i++) a[i] = new LongAdder();
+        return a;
+    }
+
+    /* ---------- Session lifecycle ---------- */
+
+    /**
+     * Turns the counters on, registers the MXBean and starts the JSON-lines writer if requested.
+     *
+     * @param options metrics settings
+     * @return the session
+     */
+    public static VMMetrics start(Options options) {
+        VMMetrics session = new VMMetrics(options);
+        enabled = true;
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new Bean(), name);
+                session.registered = name;
+            }
+        } catch (Exception | LinkageError e) {
+            System.err.println("Warning: cannot register the metrics MXBean: " + e.getMessage());
+        }
+        if (options.output() != null) {
+            Runtime.getRuntime().addShutdownHook(session.shutdownHook);
+            session.writer.setDaemon(true);
+            session.writer.start();
+        }
+        return session;
+    }
+
+    /**
+     * Writes the final JSON line, unregisters the MXBean and turns the counters off;
+     * later calls do nothing.
+     */
+    public void finish() {
+        if (!finished.compareAndSet(false, true)) return;
+        writer.interrupt();
+        if (options.output() != null) {
+            if (Thread.currentThread() != shutdownHook) {
+                try {
+                    Runtime.getRuntime().removeShutdownHook(shutdownHook);
+                } catch (IllegalStateException ignored) {
+                    // JVM already shutting down
+                }
+            }
+            appendLine();
+        }
+        if (registered != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+            } catch (Exception ignored) {
+                // already gone
+            }
+        }
+        enabled = false;
+    }
+
+    private void writeLoop() {
+        long interval = options.intervalMillis() * 1_000_000L;
+        while (!finished.get()) {
+            LockSupport.parkNanos(interval);
+            if (Thread.interrupted() || finished.get()) return;
+            appendLine();
+        }
+    }
+
+    private synchronized void appendLine() {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("time", System.currentTimeMillis());
+        line.putAll(snapshot());
+        try (Writer out = Files.newBufferedWriter(options.output(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(JSONParser.toJson(line));
+            out.write(System.lineSeparator());
+        } catch (IOException e) {
+            System.err.println("Error: cannot write metrics " + options.output() + ": " + e.getMessage());
+        }
+    }
+
+    /* ---------- Recording ---------- */
+
+    /**
+     * @return true while a metrics session is active
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds a batch of executed instructions.
+     */
+    public static void instructions(long count) {
+        INSTRUCTIONS.add(count);
+    }
+
+    /**
+     * Records a pushed call frame.
+     *
+     * @param depth call-stack depth after the push
+     */
+    public static void call(int depth) {
+        CALLS.increment();
+        MAX_DEPTH.accumulate(depth);
+    }
+
+    /**
+     * Records one system call.
+     */
+    public static void syscall(int number) {
+        if (number >= 0 && number < SYSCALLS) SYSCALL_COUNTS.incrementAndGet(number);
+    }
+
+    /**
+     * Records bytes read from a descriptor of class {@code fdClass}.
+     */
+    public static void read(FdClass fdClass, long bytes) {
+        if (bytes > 0) READ[fdClass.ordinal()].add(bytes);
+    }
+
+    /**
+     * Records bytes written to a descriptor of class {@code fdClass}.
+     */
+    public static void written(FdClass fdClass, long bytes) {
+        if (bytes > 0) WRITTEN[fdClass.ordinal()].add(bytes);
+    }
+
+    /**
+     * Records a lock acquisition that had to wait.
+     *
+     * @param nanos time spent waiting
+     */
+    public static void lockWait(long nanos) {
+        LOCK_WAITS.increment();
+        LOCK_WAIT_NANOS.add(nanos);
+    }
+
+    /**
+     * Classifies a descriptor of the {@link FDTable}.
+     *
+     * @param fd      descriptor number
+     * @param channel its channel
+     * @return the class its bytes are counted under
+     */
+    public static FdClass classify(int fd, Channel channel) {
+        if (fd >= 0 && fd <= 2) return FdClass.STDIO;
+        if (channel instanceof FileChannel) return FdClass.FILE;
+        if (channel instanceof NetworkChannel) return FdClass.SOCKET;
+        if (channel instanceof Pipe.SourceChannel || channel instanceof Pipe.SinkChannel) return FdClass.PIPE;
+        return FdClass.OTHER;
+    }
+
+    /* ---------- Reading ---------- */
+
+    /**
+     * Returns the current values of all metrics.
+     *
+     * <p>While {@code --syscall-latency} is on, the map also holds
+     * {@code syscallLatency}: the per-call statistics of {@link SyscallLatency#snapshot()}.</p>
+     *
+     * @return an ordered map of metric name to value (numbers, booleans and nested maps)
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("uptimeMillis", System.currentTimeMillis() - START_MILLIS);
+        m.put("instructions", INSTRUCTIONS.sum());
+        m.put("calls", CALLS.sum());
+        m.put("maxCallDepth", MAX_DEPTH.get());
+        m.put("syscalls", syscallCounts());
+        m.put("bytesRead", bytes(READ));
+        m.put("bytesWritten", bytes(WRITTEN));
+        m.put("openDescriptors", openDescriptors());
+        m.put("threads", ThreadRegistry.size());
+        m.put("jvmThreads", ManagementFactory.getThreadMXBean().getThreadCount());
+        m.put("lockWaits", LOCK_WAITS.sum());
+        m.put("lockWaitMillis", LOCK_WAIT_NANOS.sum() / 1_000_000);
+        long[] gc = gc();
+        m.put("gcCount", gc[0]);
+        m.put("gcTimeMillis", gc[1]);
+        Runtime rt = Runtime.getRuntime();
+        m.put("heapUsed", rt.totalMemory() - rt.freeMemory());
+        SyscallLatency latency = SyscallLatency.active();
+        if (latency != null) m.put("syscallLatency", latency.snapshot());
+        return m;
+    }
+
+    private static Map<String, Long> syscallCounts() {
+        Map<String, Long> m = new TreeMap<>();
+        for (int i = 0; i < SYSCALLS; i++) {
+            long n = SYSCALL_COUNTS.get(i);
+            if (n == 0) continue;
+            String name = SyscallOpCode.nameOf(i);
+            m.put(name != null ? name : String.format("0x%04X", i), n);
+        }
+        return m;
+    }
+
+    private static Map<String, Long> bytes(LongAdder[] adders) {
+        Map<String, Long> m = new LinkedHashMap<>();
+        for (FdClass c : FdClass.values()) m.put(c.key(), adders[c.ordinal()].sum());
+        return m;
+    }
+
+    private static int openDescriptors() {
+        return FDTable.size() + SocketRegistry.size();
+    }
+
+    private static long[] gc() {
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+
+    /**
+     * The registered MXBean; every attribute reads the live counters.
+     */
+    private static final class Bean implements VMMetricsMXBean {
+        @Override
+        public long getInstructions() {
+            return INSTRUCTIONS.sum();
+        }
+
+        @Override
+        public long getCalls() {
+            return CALLS.sum();
+        }
+
+        @Override
+        public long getMaxCallDepth() {
+            return MAX_DEPTH.get();
+        }
+
+        @Override
+        public Map<String, Long> getSyscalls() {
+            return syscallCounts();
+        }
+
+        @Override
+        public Map<String, Long> getBytesRead() {
+            return bytes(READ);
+        }
+
+        @Override
+        public Map<String, Long> getBytesWritten() {
+            return bytes(WRITTEN);
+        }
+
+        @Override
+        public int getOpenDescriptors() {
+            return openDescriptors();
+        }
+
+        @Override
+        public int getThreads() {
+            return ThreadRegistry.size();
+        }
+
+        @Override
+        public int getJvmThreads() {
+            return ManagementFactory.getThreadMXBean().getThreadCount();
+        }
+
+        @Override
+        public long getLockWaits() {
+            return LOCK_WAITS.sum();
+        }
+
+        @Override
+        public long getLockWaitMillis() {
+            return LOCK_WAIT_NANOS.sum() / 1_000_000;
+        }
+
+        @Override
+        public long getGcCount() {
+            return gc()[0];
+        }
+
+        @Override
+        public long getGcTimeMillis() {
+            return gc()[1];
+        }
+    }
+
+    /* ---------- Command-line options ---------- */
+
+    /**
+     * Metrics settings taken from the launcher's command line.
+     *
+     * @param intervalMillis interval between JSON lines
+     * @param output         JSON-lines file, or {@code null} for JMX and the system call only
+     */
+    public record Options(int intervalMillis, Path output) {
+
+        /**
+         * Removes the metrics options from {@code args}.
+         *
+         * <p>Recognised options: {@code --metrics} (counters and MXBean),
+         * {@code --metrics=<ms>} (JSON-line interval, default
+         * {@value #DEFAULT_INTERVAL_MILLIS}) and {@code --metrics-out <file>}
+         * (append a JSON line to {@code <file>} every interval and at exit;
+         * implies {@code --metrics}).</p>
+         *
+         * @param args launcher arguments; metrics options are removed in place
+         * @return the settings, or {@code null} if metrics were not requested
+         * @throws IllegalArgumentException if an option is malformed
+         */
+        public static Options extract(List<String> args) {
+            boolean on = false;
+            int interval = DEFAULT_INTERVAL_MILLIS;
+            Path output = null;
+            for (Iterator<String> it = args.iterator(); it.hasNext(); ) {
+                String a = it.next();
+                if (a.equals("--metrics")) {
+                    on = true;
+                    it.remove();
+                } else if (a.startsWith("--metrics=")) {
+                    String n = a.substring("--metrics=".length());
+                    if (!n.matches("\\d{1,9}") || Integer.parseInt(n) == 0)
+                        throw new IllegalArgumentException("Invalid argument for --metrics: " + n);
+                    interval = Integer.parseInt(n);
+                    on = true;
+                    it.remove();
+                } else if (a.equals("--metrics-out")) {
+                    it.remove();
+                    if (!it.hasNext()) throw new IllegalArgumentException("Missing argument for --metrics-out");
+                    output = Path.of(it.next());
+                    it.remove();
+                    on = true;
+                }
+            }
+            return on ? new Options(interval, output) : null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.jcnc.snow.vm.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the VM runtime metrics, registered as
+ * {@value VMMetrics#OBJECT_NAME} while {@code --metrics} is on.
+ *
+ * <p>Counters are cumulative since the VM started; gauges are read when the
+ * attribute is read.  See {@link VMMetrics#snapshot()} for the same data as a
+ * map.</p>
+ */
+public interface VMMetricsMXBean {
+
+    /**
+     * @return instructions executed by all engines
+     */
+    long getInstructions();
+
+    /**
+     * @return call frames pushed (Snow function calls, including each engine's root frame)
+     */
+    long getCalls();
+
+    /**
+     * @return deepest call stack seen on any engine
+     */
+    long getMaxCallDepth();
+
+    /**
+     * @return system call counts by name (hex number when the name is unknown)
+     */
+    Map<String, Long> getSyscalls();
+
+    /**
+     * @return bytes read by descriptor class ({@code stdio}, {@code file}, {@code socket}, {@code pipe}, {@code other})
+     */
+    Map<String, Long> getBytesRead();
+
+    /**
+     * @return bytes written by descriptor class
+     */
+    Map<String, Long> getBytesWritten();
+
+    /**
+     * @return open file, pipe and socket descriptors, including 0/1/2
+     */
+    int getOpenDescriptors();
+
+    /**
+     * @return Snow threads started with {@code THREAD_CREATE} and not yet joined
+     */
+    int getThreads();
+
+    /**
+     * @return live JVM threads (engines, worker pools, I/O helpers)
+     */
+    int getJvmThreads();
+
+    /**
+     * @return mutex and read-write lock acquisitions that had to wait
+     */
+    long getLockWaits();
+
+    /**
+     * @return total time spent waiting for those locks, in milliseconds
+     */
+    long getLockWaitMillis();
+
+    /**
+     * @return garbage collections since the JVM started
+     */
+    long getGcCount();
+
+    /**
+     * @return accumulated collection time reported by the garbage collectors, in milliseconds
+     */
+    long getGcTimeMillis();
+}
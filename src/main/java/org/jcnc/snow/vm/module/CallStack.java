@@ -1,9 +1,11 @@
 package org.jcnc.snow.vm.module;
 
+import org.jcnc.snow.vm.metrics.VMMetrics;
 import org.jcnc.snow.vm.utils.LoggingUtils;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.Iterator;
 
 /**
  * CallStack manages the stack frames, maintaining the function call hierarchy.
@@ -31,6 +33,7 @@ public class CallStack {
             throw new StackOverflowError("Call stack overflow. Maximum depth: " + MAX_STACK_DEPTH);
         }
         stack.push(frame);
+        if (VMMetrics.isEnabled()) VMMetrics.call(stack.size());
     }
 
     /**
@@ -59,6 +62,25 @@ public class CallStack {
         return stack.peek();
     }
 
+    /**
+     * Returns the frames from the bottom (root) frame to the top frame.
+     * Used by the sampling profiler to rebuild the chain of callers.
+     *
+     * @return An iterator over the frames, outermost first.
+     */
+    public Iterator<StackFrame> framesFromBottom() {
+        return stack.descendingIterator();
+    }
+
+    /**
+     * Returns the number of frames on the call stack.
+     *
+     * @return The current call depth, including the root frame.
+     */
+    public int depth() {
+        return stack.size();
+    }
+
     /**
      * Takes a snapshot of the current call stack.
      * Useful for debugging during exceptions.
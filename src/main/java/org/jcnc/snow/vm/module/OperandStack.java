@@ -100,4 +100,22 @@ public class OperandStack {
         }
         return stack.peek();
     }
+
+    /**
+     * Retrieves the value {@code depth} positions below the top of the stack without removing anything.
+     * <p>Depth 0 is the top of the stack. Unlike {@link #peek()}, a stack that is too shallow is not an error.</p>
+     *
+     * @param depth The distance from the top of the stack.
+     * @return The value at that position, or {@code null} if the stack holds {@code depth} values or fewer.
+     */
+    public Object peek(int depth) {
+        if (depth < 0 || depth >= stack.size()) {
+            return null;
+        }
+        var it = stack.iterator();
+        for (int i = 0; i < depth; i++) {
+            it.next();
+        }
+        return it.next();
+    }
 }